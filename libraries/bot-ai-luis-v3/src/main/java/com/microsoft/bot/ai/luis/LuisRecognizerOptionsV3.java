@@ -11,7 +11,9 @@ import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.microsoft.bot.builder.IntentScore;
 import com.microsoft.bot.builder.RecognizerResult;
+import com.microsoft.bot.builder.ResponseCache;
 import com.microsoft.bot.builder.TurnContext;
+import com.microsoft.bot.connector.ExecutorFactory;
 import com.microsoft.bot.dialogs.DialogContext;
 import com.microsoft.bot.dialogs.Recognizer;
 import com.microsoft.bot.schema.Activity;
@@ -19,12 +21,15 @@ import com.microsoft.bot.schema.ResourceResponse;
 
 import org.apache.commons.lang3.StringUtils;
 
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.HttpUrl;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -36,12 +41,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Luis Recognizer Options for V3 LUIS Runtime.
  *
  */
 public class LuisRecognizerOptionsV3 extends LuisRecognizerOptions {
+    private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    private static final MediaType JSON_MEDIA_TYPE = MediaType.parse("application/json; charset=utf-8");
+
     private final HashSet<String> dateSubtypes = new HashSet<>(
             Arrays.asList("date", "daterange", "datetime", "datetimerange", "duration", "set", "time", "timerange"));
 
@@ -114,6 +124,11 @@ public class LuisRecognizerOptionsV3 extends LuisRecognizerOptions {
      */
     private OkHttpClient httpClient = new OkHttpClient();
 
+    /**
+     * The cache of prediction responses, or null to always query LUIS.
+     */
+    private ResponseCache predictionCache = null;
+
     /**
      * The value type for a LUIS trace activity.
      */
@@ -346,6 +361,25 @@ public class LuisRecognizerOptionsV3 extends LuisRecognizerOptions {
         this.httpClient = httpClient;
     }
 
+    /**
+     * Gets the cache used to answer repeated predictions without querying LUIS.
+     *
+     * @return The prediction cache, or null if predictions are not cached.
+     */
+    public ResponseCache getPredictionCache() {
+        return predictionCache;
+    }
+
+    /**
+     * Sets the cache used to answer repeated predictions without querying LUIS.
+     * Predictions answered from the cache are not logged by LUIS.
+     *
+     * @param predictionCache The prediction cache, or null to always query LUIS.
+     */
+    public void setPredictionCache(ResponseCache predictionCache) {
+        this.predictionCache = predictionCache;
+    }
+
     /**
      * Initializes a new instance of the LuisRecognizerOptionsV3.
      *
@@ -451,9 +485,7 @@ public class LuisRecognizerOptionsV3 extends LuisRecognizerOptions {
         return requestBuilder.build();
     }
 
-    private RequestBody buildRequestBody(String utterance) throws JsonProcessingException {
-
-        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+    private String buildRequestBody(String utterance) throws JsonProcessingException {
         ObjectNode content = JsonNodeFactory.instance.objectNode().put("query", utterance);
         ObjectNode queryOptions = JsonNodeFactory.instance.objectNode().put("preferExternalEntities",
                 preferExternalEntities);
@@ -465,46 +497,83 @@ public class LuisRecognizerOptionsV3 extends LuisRecognizerOptions {
         content.set("options", queryOptions);
 
         if (dynamicLists != null) {
-            content.set("dynamicLists", mapper.valueToTree(dynamicLists));
+            content.set("dynamicLists", MAPPER.valueToTree(dynamicLists));
         }
 
         if (externalEntities != null) {
             for (ExternalEntity entity : externalEntities) {
                 entity.validate();
             }
-            content.set("externalEntities", mapper.valueToTree(externalEntities));
+            content.set("externalEntities", MAPPER.valueToTree(externalEntities));
         }
 
-        String contentAsText = mapper.writeValueAsString(content);
-        return RequestBody.create(MediaType.parse("application/json; charset=utf-8"), contentAsText);
+        return MAPPER.writeValueAsString(content);
     }
 
-    private CompletableFuture<RecognizerResult> recognizeInternal(TurnContext turnContext, String utterance) {
+    private CompletableFuture<JsonNode> predict(String utterance) {
+        Request request;
+        String content;
+        try {
+            // The request is built up front, since the options can change once this returns.
+            content = buildRequestBody(utterance);
+            request = buildRequest(RequestBody.create(JSON_MEDIA_TYPE, content));
+        } catch (IOException e) {
+            CompletableFuture<JsonNode> exceptionResult = new CompletableFuture<>();
+            exceptionResult.completeExceptionally(e);
+            return exceptionResult;
+        }
+
+        ResponseCache cache = predictionCache;
+        if (cache == null) {
+            return sendPrediction(request);
+        }
 
-        RecognizerResult recognizerResult;
-        JsonNode luisResponse = null;
-        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+        // Cached responses are shared, so each caller gets its own copy.
+        return cache.getOrFetch(request.url() + "\n" + content, () -> sendPrediction(request))
+            .thenApply(JsonNode::deepCopy);
+    }
 
-        if (utterance == null || utterance.isEmpty()) {
-            recognizerResult = new RecognizerResult();
-            recognizerResult.setText(utterance);
-        } else {
-            try {
-                Request request = buildRequest(buildRequestBody(utterance));
-                Response response = httpClient.newCall(request).execute();
-                luisResponse = mapper.readTree(response.body().string());
-                if (!response.isSuccessful()) {
-                    throw new IOException("Unexpected code " + luisResponse.toString());
-                }
+    /**
+     * Sends a prediction request. The response is read on the HTTP client's
+     * thread, but the future is completed on the SDK executor so that the
+     * caller's continuations don't hold up the HTTP client's dispatcher.
+     */
+    private CompletableFuture<JsonNode> sendPrediction(Request request) {
+        CompletableFuture<JsonNode> result = new CompletableFuture<>();
+        Executor executor = ExecutorFactory.getExecutor();
+        httpClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                executor.execute(() -> result.completeExceptionally(e));
+            }
 
-            } catch (IOException e) {
-                CompletableFuture<RecognizerResult> exceptionResult = new CompletableFuture<>();
-                exceptionResult.completeExceptionally(e);
-                return exceptionResult;
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (ResponseBody body = response.body()) {
+                    JsonNode luisResponse = MAPPER.readTree(body.byteStream());
+                    if (!response.isSuccessful()) {
+                        throw new IOException("Unexpected code " + luisResponse.toString());
+                    }
+
+                    executor.execute(() -> result.complete(luisResponse));
+                } catch (IOException | RuntimeException e) {
+                    executor.execute(() -> result.completeExceptionally(e));
+                }
             }
+        });
+        return result;
+    }
 
+    private CompletableFuture<RecognizerResult> recognizeInternal(TurnContext turnContext, String utterance) {
+        if (utterance == null || utterance.isEmpty()) {
+            RecognizerResult recognizerResult = new RecognizerResult();
+            recognizerResult.setText(utterance);
+            return sendTraceActivity(recognizerResult, null, turnContext).thenApply(v -> recognizerResult);
+        }
+
+        return predict(utterance).thenCompose(luisResponse -> {
             JsonNode prediction = luisResponse.get("prediction");
-            recognizerResult = new RecognizerResult();
+            RecognizerResult recognizerResult = new RecognizerResult();
             recognizerResult.setText(utterance);
             if (prediction.get("alteredQuery") != null) {
                 recognizerResult.setAlteredText(prediction.get("alteredQuery").asText());
@@ -521,10 +590,9 @@ public class LuisRecognizerOptionsV3 extends LuisRecognizerOptions {
             if (includeInstanceData && recognizerResult.getEntities().get(metadataKey) == null) {
                 ((ObjectNode) recognizerResult.getEntities()).putObject(metadataKey);
             }
-        }
-
-        return sendTraceActivity(recognizerResult, luisResponse, turnContext).thenApply(v -> recognizerResult);
 
+            return sendTraceActivity(recognizerResult, luisResponse, turnContext).thenApply(v -> recognizerResult);
+        });
     }
 
     private Map<String, IntentScore> getIntents(JsonNode prediction) {
@@ -684,11 +752,10 @@ public class LuisRecognizerOptionsV3 extends LuisRecognizerOptions {
 
     private CompletableFuture<ResourceResponse> sendTraceActivity(RecognizerResult recognizerResult,
             JsonNode luisResponse, TurnContext turnContext) {
-        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
         try {
             ObjectNode traceInfo = JsonNodeFactory.instance.objectNode();
             traceInfo.put("recognizerResult",
-                    mapper.writerWithDefaultPrettyPrinter().writeValueAsString(recognizerResult));
+                    MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(recognizerResult));
             traceInfo.set("luisResult", luisResponse);
             traceInfo.set("luisModel",
                     JsonNodeFactory.instance.objectNode().put("ModelId", getApplication().getApplicationId()));
@@ -705,7 +772,7 @@ public class LuisRecognizerOptionsV3 extends LuisRecognizerOptions {
             if (externalEntities != null) {
                 ArrayNode externalEntitiesNode = JsonNodeFactory.instance.arrayNode();
                 for (ExternalEntity e : externalEntities) {
-                    externalEntitiesNode.add(mapper.valueToTree(e));
+                    externalEntitiesNode.add(MAPPER.valueToTree(e));
                 }
                 luisOptions.put("externalEntities", externalEntitiesNode);
             }
@@ -713,7 +780,7 @@ public class LuisRecognizerOptionsV3 extends LuisRecognizerOptions {
             if (dynamicLists != null) {
                 ArrayNode dynamicListNode = JsonNodeFactory.instance.arrayNode();
                 for (DynamicList e : dynamicLists) {
-                    dynamicListNode.add(mapper.valueToTree(e));
+                    dynamicListNode.add(MAPPER.valueToTree(e));
                 }
                 luisOptions.put("dynamicLists", dynamicListNode);
             }
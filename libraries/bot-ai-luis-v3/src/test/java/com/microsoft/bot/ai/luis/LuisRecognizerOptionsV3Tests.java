@@ -9,6 +9,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.microsoft.bot.builder.BotAdapter;
 import com.microsoft.bot.builder.RecognizerResult;
+import com.microsoft.bot.builder.ResponseCache;
 import com.microsoft.bot.builder.TurnContext;
 import com.microsoft.bot.builder.TurnContextImpl;
 import com.microsoft.bot.dialogs.DialogContext;
@@ -34,9 +35,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -237,6 +240,122 @@ public class LuisRecognizerOptionsV3Tests {
         }
     }
 
+    @Test
+    public void shouldNotContinueOnHttpClientThread() {
+        MockWebServer mockWebServer = new MockWebServer();
+
+        try {
+            String content = readFileContent("/src/test/java/com/microsoft/bot/ai/luis/testdata/Minimal.json");
+            ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+            JsonNode testData = mapper.readTree(content);
+            JsonNode v3SettingsAndResponse = testData.get("v3");
+            JsonNode testSettings = v3SettingsAndResponse.get("options");
+
+            StringBuilder pathToMock = new StringBuilder("/luis/prediction/v3.0/apps/");
+            String url = buildUrl(pathToMock, testSettings);
+            String endpoint = String.format(
+                "http://localhost:%s",
+                initializeMockServer(
+                    mockWebServer,
+                    v3SettingsAndResponse.get("response"),
+                    url).port());
+
+            LuisRecognizerOptionsV3 v3 = buildTestRecognizer(endpoint, testSettings);
+
+            Activity activity = new Activity(ActivityTypes.MESSAGE);
+            activity.setText(testData.get("text").asText());
+            activity.setChannelId("EmptyContext");
+            doReturn(activity)
+                .when(turnContext)
+                .getActivity();
+
+            // The trace is sent by the continuation of the prediction.
+            AtomicReference<String> traceThread = new AtomicReference<>();
+            doAnswer(invocation -> {
+                traceThread.set(Thread.currentThread().getName());
+                return CompletableFuture.completedFuture(new ResourceResponse());
+            }).when(turnContext).sendActivity(any(Activity.class));
+
+            v3.recognizeInternal(turnContext).get();
+
+            assertNotNull(traceThread.get());
+            assertFalse(traceThread.get(), traceThread.get().startsWith("OkHttp"));
+        } catch (InterruptedException | ExecutionException | IOException e) {
+            e.printStackTrace();
+            assertFalse(true);
+        } finally {
+            try {
+                mockWebServer.shutdown();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    @Test
+    public void shouldAnswerRepeatedPredictionsFromCache() {
+        MockWebServer mockWebServer = new MockWebServer();
+
+        try {
+            // Get Oracle file
+            String content = readFileContent("/src/test/java/com/microsoft/bot/ai/luis/testdata/Minimal.json");
+
+            //Extract V3 response
+            ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+            JsonNode testData = mapper.readTree(content);
+            JsonNode v3SettingsAndResponse = testData.get("v3");
+            JsonNode v3Response = v3SettingsAndResponse.get("response");
+
+            //Extract V3 Test Settings
+            JsonNode testSettings = v3SettingsAndResponse.get("options");
+
+            // Set mock response in MockWebServer, only the first prediction reaches it
+            StringBuilder pathToMock = new StringBuilder("/luis/prediction/v3.0/apps/");
+            String url = buildUrl(pathToMock, testSettings);
+            String endpoint = String.format(
+                "http://localhost:%s",
+                initializeMockServer(
+                    mockWebServer,
+                    v3Response,
+                    url).port());
+
+            LuisRecognizerOptionsV3 v3 = buildTestRecognizer(endpoint, testSettings);
+            ResponseCache cache = new ResponseCache();
+            v3.setPredictionCache(cache);
+
+            Activity activity = new Activity(ActivityTypes.MESSAGE);
+            activity.setText(testData.get("text").asText());
+            activity.setChannelId("EmptyContext");
+            doReturn(activity)
+                .when(turnContext)
+                .getActivity();
+
+            doReturn(CompletableFuture.completedFuture(new ResourceResponse()))
+                .when(turnContext)
+                .sendActivity(any(Activity.class));
+
+            RecognizerResult first = v3.recognizeInternal(turnContext).get();
+            RecognizerResult second = v3.recognizeInternal(turnContext).get();
+
+            assertEquals(mapper.writeValueAsString(first), mapper.writeValueAsString(second));
+            assertEquals(1, mockWebServer.getRequestCount());
+            assertEquals(1, cache.size());
+
+            // Both recognitions are still traced
+            verify(turnContext, times(2)).sendActivity(any (Activity.class));
+
+        } catch (InterruptedException | ExecutionException | IOException e) {
+            e.printStackTrace();
+            assertFalse(true);
+        } finally {
+            try {
+                mockWebServer.shutdown();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
     public static TurnContext createContext(String message) {
 
         Activity activity = new Activity(ActivityTypes.MESSAGE);
@@ -15,6 +15,7 @@ import com.microsoft.bot.ai.qna.utils.TrainUtils;
 
 import com.microsoft.bot.builder.BotTelemetryClient;
 import com.microsoft.bot.builder.NullBotTelemetryClient;
+import com.microsoft.bot.builder.ResponseCache;
 import com.microsoft.bot.builder.TurnContext;
 import com.microsoft.bot.connector.Async;
 import com.microsoft.bot.restclient.serializer.JacksonAdapter;
@@ -146,6 +147,29 @@ public class QnAMaker implements QnAMakerClient, TelemetryQnAMaker {
         return this.telemetryClient;
     }
 
+    /**
+     * Gets the cache used to answer repeated questions without querying the
+     * knowledge base.
+     *
+     * @return The answer cache, or null if answers are not cached.
+     */
+    public ResponseCache getAnswerCache() {
+        return this.generateAnswerHelper.getAnswerCache();
+    }
+
+    /**
+     * Sets the cache used to answer repeated questions without querying the
+     * knowledge base. A cache can be shared by several QnAMaker instances. While
+     * a cache is set, its hit and miss counts are logged with the QnaMessage
+     * event.
+     *
+     * @param withAnswerCache The answer cache, or null to always query the
+     *                        knowledge base.
+     */
+    public void setAnswerCache(ResponseCache withAnswerCache) {
+        this.generateAnswerHelper.setAnswerCache(withAnswerCache);
+    }
+
     /**
      * Generates an answer from the knowledge base.
      *
@@ -349,6 +373,12 @@ public class QnAMaker implements QnAMakerClient, TelemetryQnAMaker {
             properties.put(QnATelemetryConstants.ARTICLE_FOUND_PROPERTY, "false");
         }
 
+        ResponseCache answerCache = this.getAnswerCache();
+        if (answerCache != null) {
+            metrics.put(QnATelemetryConstants.ANSWER_CACHE_HITS_METRIC, (double) answerCache.getHits());
+            metrics.put(QnATelemetryConstants.ANSWER_CACHE_MISSES_METRIC, (double) answerCache.getMisses());
+        }
+
         // Additional Properties can override "stock" properties.
         if (telemetryProperties != null) {
             Multimap<String, String> multiMapTelemetryProperties = LinkedListMultimap.create();
@@ -7,6 +7,7 @@ import com.microsoft.bot.connector.Async;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
@@ -19,6 +20,7 @@ import com.microsoft.bot.ai.qna.models.QnAMakerTraceInfo;
 import com.microsoft.bot.ai.qna.models.QueryResult;
 import com.microsoft.bot.ai.qna.models.QueryResults;
 import com.microsoft.bot.ai.qna.models.RankerTypes;
+import com.microsoft.bot.builder.ResponseCache;
 import com.microsoft.bot.builder.TurnContext;
 import com.microsoft.bot.restclient.serializer.JacksonAdapter;
 import com.microsoft.bot.schema.Activity;
@@ -32,6 +34,7 @@ import org.slf4j.LoggerFactory;
 public class GenerateAnswerUtils {
     private QnAMakerEndpoint endpoint;
     private QnAMakerOptions options;
+    private ResponseCache answerCache;
 
     private static final Integer PERCENTAGE_DIVISOR = 100;
     private static final Float SCORE_THRESHOLD = 0.3f;
@@ -68,6 +71,27 @@ public class GenerateAnswerUtils {
         this.options = withOptions;
     }
 
+    /**
+     * Gets the cache used to answer repeated queries without querying the
+     * knowledge base.
+     *
+     * @return The answer cache, or null if answers are not cached.
+     */
+    public ResponseCache getAnswerCache() {
+        return this.answerCache;
+    }
+
+    /**
+     * Sets the cache used to answer repeated queries without querying the
+     * knowledge base.
+     *
+     * @param withAnswerCache The answer cache, or null to always query the
+     *                        knowledge base.
+     */
+    public void setAnswerCache(ResponseCache withAnswerCache) {
+        this.answerCache = withAnswerCache;
+    }
+
     /**
      * Generates an answer from the knowledge base.
      *
@@ -161,6 +185,17 @@ public class GenerateAnswerUtils {
         return CompletableFuture.completedFuture(results);
     }
 
+    /**
+     * Normalizes a question so that queries differing only in case or
+     * whitespace share a cached answer.
+     */
+    private static String normalizeQuestion(String question) {
+        if (question == null) {
+            return null;
+        }
+        return question.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
     private static void validateOptions(QnAMakerOptions options) {
         if (options.getScoreThreshold() == 0) {
             options.setScoreThreshold(SCORE_THRESHOLD);
@@ -264,7 +299,21 @@ public class GenerateAnswerUtils {
         jsonRequest = jacksonAdapter.serialize(jsonObject);
 
         HttpRequestUtils httpRequestHelper = new HttpRequestUtils();
-        return httpRequestHelper.executeHttpRequest(requestUrl, jsonRequest, this.endpoint).thenCompose(response -> {
+        String payload = jsonRequest;
+        CompletableFuture<JsonNode> answer;
+        ResponseCache cache = this.answerCache;
+        if (cache != null) {
+            jsonObject.put("question", normalizeQuestion(messageActivity.getText()));
+            String cacheKey = requestUrl + "\n" + jacksonAdapter.serialize(jsonObject);
+            answer = cache.getOrFetch(
+                cacheKey,
+                () -> httpRequestHelper.executeHttpRequest(requestUrl, payload, this.endpoint)
+            );
+        } else {
+            answer = httpRequestHelper.executeHttpRequest(requestUrl, payload, this.endpoint);
+        }
+
+        return answer.thenCompose(response -> {
             try {
                 return GenerateAnswerUtils.formatQnAResult(response, withOptions);
             } catch (IOException e) {
@@ -4,7 +4,10 @@
 package com.microsoft.bot.ai.qna.utils;
 
 import com.microsoft.bot.connector.Async;
+import com.microsoft.bot.connector.ExecutorFactory;
+import java.io.IOException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -12,22 +15,29 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microsoft.bot.ai.qna.QnAMakerEndpoint;
 import com.microsoft.bot.connector.UserAgent;
 
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.HttpUrl;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 import org.slf4j.LoggerFactory;
 
 /**
  * Helper for HTTP requests.
  */
 public class HttpRequestUtils {
-    private final OkHttpClient httpClient = new OkHttpClient();
+    // Shared so that every helper uses the same connection pool and dispatcher.
+    private static final OkHttpClient HTTP_CLIENT = new OkHttpClient();
+    private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
+    private static final MediaType JSON_MEDIA_TYPE = MediaType.parse("application/json; charset=utf-8");
 
     /**
-     * Execute Http request.
+     * Execute Http request. The response is read on the HTTP client's thread,
+     * but the returned future is completed on the SDK executor.
      *
      * @param requestUrl  Http request url.
      * @param payloadBody Http request body.
@@ -53,24 +63,43 @@ public class HttpRequestUtils {
             return Async.completeExceptionally(new IllegalArgumentException("endpoint"));
         }
 
-        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
         String endpointKey = endpoint.getEndpointKey();
-        Response response;
-        JsonNode qnaResponse = null;
+        Request request;
         try {
-            Request request = buildRequest(requestUrl, endpointKey, buildRequestBody(payloadBody));
-            response = this.httpClient.newCall(request).execute();
-            qnaResponse = mapper.readTree(response.body().string());
-            if (!response.isSuccessful()) {
-                String message = "Unexpected code " + response.code();
-                return Async.completeExceptionally(new Exception(message));
-            }
+            request = buildRequest(requestUrl, endpointKey, buildRequestBody(payloadBody));
         } catch (Exception e) {
-            LoggerFactory.getLogger(HttpRequestUtils.class).error("findPackages", e);
+            LoggerFactory.getLogger(HttpRequestUtils.class).error("executeHttpRequest", e);
             return Async.completeExceptionally(e);
         }
 
-        return CompletableFuture.completedFuture(qnaResponse);
+        CompletableFuture<JsonNode> result = new CompletableFuture<>();
+        Executor executor = ExecutorFactory.getExecutor();
+        HTTP_CLIENT.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                LoggerFactory.getLogger(HttpRequestUtils.class).error("executeHttpRequest", e);
+                executor.execute(() -> result.completeExceptionally(e));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (ResponseBody body = response.body()) {
+                    if (!response.isSuccessful()) {
+                        String message = "Unexpected code " + response.code();
+                        executor.execute(() -> result.completeExceptionally(new Exception(message)));
+                        return;
+                    }
+
+                    // Continuations of the result don't run on the HTTP client's dispatcher.
+                    JsonNode answer = MAPPER.readTree(body.byteStream());
+                    executor.execute(() -> result.complete(answer));
+                } catch (Exception e) {
+                    LoggerFactory.getLogger(HttpRequestUtils.class).error("executeHttpRequest", e);
+                    executor.execute(() -> result.completeExceptionally(e));
+                }
+            }
+        });
+        return result;
     }
 
     private Request buildRequest(String requestUrl, String endpointKey, RequestBody body) {
@@ -84,6 +113,6 @@ public class HttpRequestUtils {
     }
 
     private RequestBody buildRequestBody(String payloadBody) throws JsonProcessingException {
-        return RequestBody.create(MediaType.parse("application/json; charset=utf-8"), payloadBody);
+        return RequestBody.create(JSON_MEDIA_TYPE, payloadBody);
     }
 }
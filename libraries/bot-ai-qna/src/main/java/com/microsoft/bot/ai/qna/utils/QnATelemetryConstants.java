@@ -66,4 +66,16 @@ public final class QnATelemetryConstants {
      * The Key used when storing a username in a custom event within telemetry.
      */
     public static final String USERNAME_PROPERTY = "username";
+
+    /**
+     * The Key used when storing the number of answers served without querying
+     * the knowledge base in a custom event within telemetry.
+     */
+    public static final String ANSWER_CACHE_HITS_METRIC = "answerCacheHits";
+
+    /**
+     * The Key used when storing the number of answers that had to be queried from
+     * the knowledge base in a custom event within telemetry.
+     */
+    public static final String ANSWER_CACHE_MISSES_METRIC = "answerCacheMisses";
 }
@@ -31,6 +31,7 @@ import com.microsoft.bot.builder.ConversationState;
 import com.microsoft.bot.builder.MemoryStorage;
 import com.microsoft.bot.builder.MemoryTranscriptStore;
 import com.microsoft.bot.builder.PagedResult;
+import com.microsoft.bot.builder.ResponseCache;
 import com.microsoft.bot.builder.Storage;
 import com.microsoft.bot.builder.TraceTranscriptLogger;
 import com.microsoft.bot.builder.TranscriptLoggerMiddleware;
@@ -392,6 +393,61 @@ public class QnAMakerTests {
         }
     }
 
+    @Test
+    public void qnaMakerAnswerCacheServesRepeatedQuestions() {
+        MockWebServer mockWebServer = new MockWebServer();
+        try {
+            ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+            JsonNode response = mapper.readTree("{\"answers\": [{"
+                + "\"questions\": [\"how do I clean the stove?\"],"
+                + "\"answer\": \"BaseCamp: You can use a damp rag to clean around the Power Pack\","
+                + "\"score\": 100, \"id\": 5, \"source\": \"Editorial\", \"metadata\": []}]}");
+            String endpoint = String.format(
+                "%s:%s",
+                hostname,
+                initializeMockServer(mockWebServer, response, this.getRequestUrl()).port());
+            QnAMakerEndpoint qnaMakerEndpoint = new QnAMakerEndpoint();
+            qnaMakerEndpoint.setKnowledgeBaseId(knowledgeBaseId);
+            qnaMakerEndpoint.setEndpointKey(endpointKey);
+            qnaMakerEndpoint.setHost(endpoint);
+
+            BotTelemetryClient telemetryClient = Mockito.mock(BotTelemetryClient.class);
+            QnAMaker qna = new QnAMaker(qnaMakerEndpoint, null, telemetryClient, false);
+            qna.setAnswerCache(new ResponseCache());
+
+            // Only one answer is enqueued, so everything but the first query has to be served locally
+            CompletableFuture<QueryResult[]> first = qna.getAnswers(getContext("how do I clean the stove?"), null);
+            CompletableFuture<QueryResult[]> concurrent = qna.getAnswers(getContext("how do I clean the stove?"), null);
+            QueryResult[] results = first.join();
+            QueryResult[] coalescedResults = concurrent.join();
+            QueryResult[] cachedResults = qna.getAnswers(getContext("  How do I clean  the stove? "), null).join();
+
+            Assert.assertEquals(1, mockWebServer.getRequestCount());
+            Assert.assertEquals(1, results.length);
+            Assert.assertEquals(results[0].getAnswer(), coalescedResults[0].getAnswer());
+            Assert.assertEquals(results[0].getAnswer(), cachedResults[0].getAnswer());
+            Assert.assertEquals(1, cachedResults[0].getScore(), 0);
+            Assert.assertEquals(2, qna.getAnswerCache().getHits());
+            Assert.assertEquals(1, qna.getAnswerCache().getMisses());
+
+            verify(telemetryClient, times(3)).trackEvent(
+                Mockito.eq(QnATelemetryConstants.QNA_MSG_EVENT),
+                propertiesCaptor.capture(),
+                metricsCaptor.capture());
+            Map<String, Double> metrics = metricsCaptor.getAllValues().get(2);
+            Assert.assertEquals(2, metrics.get(QnATelemetryConstants.ANSWER_CACHE_HITS_METRIC), 0);
+            Assert.assertEquals(1, metrics.get(QnATelemetryConstants.ANSWER_CACHE_MISSES_METRIC), 0);
+        } catch (Exception e) {
+            fail();
+        } finally {
+            try {
+                mockWebServer.shutdown();
+            } catch (IOException e) {
+                LoggerFactory.getLogger(QnAMakerTests.class).error(e.getMessage());
+            }
+        }
+    }
+
     @Test
     public void qnaMakerCallTrain() {
         MockWebServer mockWebServer = new MockWebServer();
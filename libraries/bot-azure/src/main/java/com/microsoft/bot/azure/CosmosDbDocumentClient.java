@@ -0,0 +1,91 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.azure;
+
+import com.microsoft.azure.documentdb.Document;
+import com.microsoft.azure.documentdb.DocumentClientException;
+import com.microsoft.azure.documentdb.RequestOptions;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The point operations {@link CosmosDbPartitionedStorage} issues against its
+ * container in bulk mode.
+ *
+ * <p>
+ * The point operations block, so the storage calls them on
+ * {@link com.microsoft.bot.connector.ExecutorFactory#getExecutor()} after
+ * resolving the collection link once with {@link #getCollectionLink()}.
+ * </p>
+ */
+interface CosmosDbDocumentClient {
+    /**
+     * Gets the self link of the container, creating it if needed.
+     *
+     * @return A future with the collection link.
+     */
+    CompletableFuture<String> getCollectionLink();
+
+    /**
+     * Reads a single document by id.
+     *
+     * @param collectionLink The container's self link.
+     * @param id             The escaped document id.
+     * @param options        The request options, including the partition key.
+     * @return The response, with a null document if it doesn't exist.
+     * @throws DocumentClientException The read failed.
+     */
+    DocumentResponse readDocument(String collectionLink, String id, RequestOptions options)
+        throws DocumentClientException;
+
+    /**
+     * Inserts or replaces a single document.
+     *
+     * @param collectionLink The container's self link.
+     * @param document       The document.
+     * @param options        The request options, including the partition key
+     *                       and any access condition.
+     * @return The response.
+     * @throws DocumentClientException The upsert failed, including when the
+     *                                 access condition wasn't met.
+     */
+    DocumentResponse upsertDocument(String collectionLink, Document document, RequestOptions options)
+        throws DocumentClientException;
+
+    /**
+     * The outcome of a point operation.
+     */
+    final class DocumentResponse {
+        private final Document document;
+        private final double requestCharge;
+
+        /**
+         * Creates a response.
+         *
+         * @param withDocument      The document, or null if there is none.
+         * @param withRequestCharge The request units the operation consumed.
+         */
+        DocumentResponse(Document withDocument, double withRequestCharge) {
+            document = withDocument;
+            requestCharge = withRequestCharge;
+        }
+
+        /**
+         * Gets the document.
+         *
+         * @return The document, or null if there is none.
+         */
+        Document getDocument() {
+            return document;
+        }
+
+        /**
+         * Gets the request units the operation consumed.
+         *
+         * @return The request charge.
+         */
+        double getRequestCharge() {
+            return requestCharge;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.azure;
+
+import java.time.Duration;
+
+/**
+ * The cost of a single bulk read or write made by
+ * {@link CosmosDbPartitionedStorage}.
+ */
+public class CosmosDbOperationStats {
+    private final String operation;
+    private final int itemCount;
+    private final double requestCharge;
+    private final Duration latency;
+
+    /**
+     * Creates the stats for a storage call.
+     *
+     * @param withOperation     The storage operation, "read" or "write".
+     * @param withItemCount     The number of items the call touched.
+     * @param withRequestCharge The request units consumed by the call.
+     * @param withLatency       How long the call took.
+     */
+    public CosmosDbOperationStats(
+        String withOperation,
+        int withItemCount,
+        double withRequestCharge,
+        Duration withLatency
+    ) {
+        operation = withOperation;
+        itemCount = withItemCount;
+        requestCharge = withRequestCharge;
+        latency = withLatency;
+    }
+
+    /**
+     * Gets the storage operation.
+     *
+     * @return "read" or "write".
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Gets the number of items the call touched.
+     *
+     * @return The number of documents read or written.
+     */
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    /**
+     * Gets the request units consumed by the call.
+     *
+     * @return The total request charge of the point operations.
+     */
+    public double getRequestCharge() {
+        return requestCharge;
+    }
+
+    /**
+     * Gets how long the call took.
+     *
+     * @return The latency of the call.
+     */
+    public Duration getLatency() {
+        return latency;
+    }
+}
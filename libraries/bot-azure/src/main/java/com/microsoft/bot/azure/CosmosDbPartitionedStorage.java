@@ -20,13 +20,17 @@ import com.microsoft.azure.documentdb.DocumentCollection;
 import com.microsoft.azure.documentdb.PartitionKey;
 import com.microsoft.azure.documentdb.PartitionKeyDefinition;
 import com.microsoft.azure.documentdb.RequestOptions;
+import com.microsoft.azure.documentdb.ResourceResponse;
 import com.microsoft.bot.builder.Storage;
 import com.microsoft.bot.builder.StoreItem;
+import com.microsoft.bot.connector.Async;
+import com.microsoft.bot.connector.ExecutorFactory;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -35,6 +39,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 
 /**
  * Implements an CosmosDB based storage provider using partitioning for a bot.
@@ -45,6 +50,7 @@ public class CosmosDbPartitionedStorage implements Storage {
     private ObjectMapper objectMapper;
     private final Object cacheSync = new Object();
     private DocumentClient client;
+    private CosmosDbDocumentClient documentClient;
     private Database databaseCache;
     private DocumentCollection collectionCache;
 
@@ -56,6 +62,22 @@ public class CosmosDbPartitionedStorage implements Storage {
      *                                   options.
      */
     public CosmosDbPartitionedStorage(CosmosDbPartitionedStorageOptions withCosmosDbStorageOptions) {
+        this(withCosmosDbStorageOptions, null);
+    }
+
+    /**
+     * Initializes a new instance of the CosmosDbPartitionedStorage class that
+     * issues its bulk point operations through the supplied client.
+     *
+     * @param withCosmosDbStorageOptions Cosmos DB partitioned storage configuration
+     *                                   options.
+     * @param withDocumentClient         The client used for bulk point operations,
+     *                                   or null to use the Cosmos DB container.
+     */
+    CosmosDbPartitionedStorage(
+        CosmosDbPartitionedStorageOptions withCosmosDbStorageOptions,
+        CosmosDbDocumentClient withDocumentClient
+    ) {
         if (withCosmosDbStorageOptions == null) {
             throw new IllegalArgumentException("CosmosDbPartitionStorageOptions is required.");
         }
@@ -109,12 +131,17 @@ public class CosmosDbPartitionedStorage implements Storage {
             .findAndRegisterModules()
             .enableDefaultTyping();
 
-        client = new DocumentClient(
-            cosmosDbStorageOptions.getCosmosDbEndpoint(),
-            cosmosDbStorageOptions.getAuthKey(),
-            cosmosDbStorageOptions.getConnectionPolicy(),
-            cosmosDbStorageOptions.getConsistencyLevel()
-        );
+        if (withDocumentClient != null) {
+            documentClient = withDocumentClient;
+        } else {
+            client = new DocumentClient(
+                cosmosDbStorageOptions.getCosmosDbEndpoint(),
+                cosmosDbStorageOptions.getAuthKey(),
+                cosmosDbStorageOptions.getConnectionPolicy(),
+                cosmosDbStorageOptions.getConsistencyLevel()
+            );
+            documentClient = new ContainerDocumentClient();
+        }
     }
 
     /**
@@ -134,25 +161,18 @@ public class CosmosDbPartitionedStorage implements Storage {
             return CompletableFuture.completedFuture(new HashMap<>());
         }
 
-        return getCollection().thenApply(collection -> {
-            // Issue all of the reads at once
-            List<CompletableFuture<Document>> documentFutures = new ArrayList<>();
-            for (String key : keys) {
-                documentFutures.add(
-                    getDocumentById(
-                        CosmosDbKeyEscape.escapeKey(
-                            key,
-                            cosmosDbStorageOptions.getKeySuffix(),
-                            cosmosDbStorageOptions.getCompatibilityMode()
-                        )
-                    )
-                );
-            }
+        if (cosmosDbStorageOptions.getBulkMode()) {
+            return bulkRead(keys);
+        }
 
+        // Issue all of the reads at once
+        return getCollection().thenCompose(collection -> Arrays.stream(keys)
+            .map(key -> getDocumentById(escapeKey(key)))
+            .collect(CompletableFutures.toFutureList())
+        ).thenApply(documents -> {
             // Map each returned Document to it's original value.
             Map<String, Object> storeItems = new HashMap<>();
-            documentFutures.forEach(documentFuture -> {
-                Document document = documentFuture.join();
+            documents.forEach(document -> {
                 if (document != null) {
                     try {
                         // We store everything in a DocumentStoreItem. Get that.
@@ -195,7 +215,11 @@ public class CosmosDbPartitionedStorage implements Storage {
             return CompletableFuture.completedFuture(null);
         }
 
-        return getCollection().thenApply(collection -> {
+        if (cosmosDbStorageOptions.getBulkMode()) {
+            return bulkWrite(changes);
+        }
+
+        return getCollection().thenApplyAsync(collection -> {
             for (Map.Entry<String, Object> change : changes.entrySet()) {
                 try {
                     ObjectNode node = objectMapper.valueToTree(change.getValue());
@@ -248,7 +272,7 @@ public class CosmosDbPartitionedStorage implements Storage {
             }
 
             return null;
-        });
+        }, ExecutorFactory.getExecutor());
     }
 
     /**
@@ -267,7 +291,7 @@ public class CosmosDbPartitionedStorage implements Storage {
         return getCollection().thenCompose(collection -> Arrays.stream(keys).map(key -> {
             String escapedKey = CosmosDbKeyEscape
                 .escapeKey(key, cosmosDbStorageOptions.getKeySuffix(), cosmosDbStorageOptions.getCompatibilityMode());
-            return getDocumentById(escapedKey).thenApply(document -> {
+            return getDocumentById(escapedKey).thenApplyAsync(document -> {
                 if (document != null) {
                     try {
                         RequestOptions options = new RequestOptions();
@@ -281,10 +305,155 @@ public class CosmosDbPartitionedStorage implements Storage {
                 }
 
                 return null;
-            });
+            }, ExecutorFactory.getExecutor());
         }).collect(CompletableFutures.toFutureList()).thenApply(deleteResponses -> null));
     }
 
+    private CompletableFuture<Map<String, Object>> bulkRead(String[] keys) {
+        long start = System.nanoTime();
+
+        List<String> ids = new ArrayList<>();
+        for (String key : keys) {
+            ids.add(escapeKey(key));
+        }
+
+        // Resolve the container once, then fan the point reads out over it.
+        return documentClient.getCollectionLink().thenCompose(collectionLink -> forEachConcurrently(ids, id -> {
+            RequestOptions options = new RequestOptions();
+            options.setPartitionKey(new PartitionKey(id));
+            try {
+                return documentClient.readDocument(collectionLink, id, options);
+            } catch (DocumentClientException e) {
+                logger.warn("Error reading document: " + id, e);
+                throw new CompletionException(e);
+            }
+        })).thenApply(responses -> {
+            Map<String, Object> storeItems = new HashMap<>();
+            double requestCharge = 0;
+            for (CosmosDbDocumentClient.DocumentResponse response : responses) {
+                requestCharge += response.getRequestCharge();
+
+                Document document = response.getDocument();
+                if (document != null) {
+                    try {
+                        // The document holds a DocumentStoreItem, which contains the original object.
+                        Object item = objectMapper.readValue(
+                            document.getString(DocumentStoreItem.DOCUMENT_PROPERTY),
+                            Class.forName(document.getString(DocumentStoreItem.TYPE_PROPERTY))
+                        );
+
+                        if (item instanceof StoreItem) {
+                            ((StoreItem) item).setETag(document.getETag());
+                        }
+                        storeItems.put(document.getString(DocumentStoreItem.READ_ID_PROPERTY), item);
+                    } catch (IOException | ClassNotFoundException e) {
+                        logger.warn("Error reading from container", e);
+                    }
+                }
+            }
+
+            reportStats("read", storeItems.size(), requestCharge, start);
+            return storeItems;
+        });
+    }
+
+    private CompletableFuture<Void> bulkWrite(Map<String, Object> changes) {
+        long start = System.nanoTime();
+
+        List<Map.Entry<String, Object>> entries = new ArrayList<>(changes.entrySet());
+        return documentClient.getCollectionLink()
+            .thenCompose(collectionLink -> forEachConcurrently(
+                entries,
+                change -> upsertDocument(collectionLink, change)
+            ))
+            .thenApply(responses -> {
+                double requestCharge = 0;
+                int itemCount = 0;
+                for (CosmosDbDocumentClient.DocumentResponse response : responses) {
+                    if (response != null) {
+                        requestCharge += response.getRequestCharge();
+                        itemCount++;
+                    }
+                }
+
+                reportStats("write", itemCount, requestCharge, start);
+                return null;
+            });
+    }
+
+    private CosmosDbDocumentClient.DocumentResponse upsertDocument(
+        String collectionLink,
+        Map.Entry<String, Object> change
+    ) {
+        String id = escapeKey(change.getKey());
+
+        RequestOptions options = new RequestOptions();
+        options.setPartitionKey(new PartitionKey(id));
+
+        if (change.getValue() instanceof StoreItem) {
+            String etag = ((StoreItem) change.getValue()).getETag();
+            if (!StringUtils.isEmpty(etag)) {
+                // if we have an etag, do opt. concurrency replace
+                AccessCondition condition = new AccessCondition();
+                condition.setType(AccessConditionType.IfMatch);
+                condition.setCondition(etag);
+
+                options.setAccessCondition(condition);
+            } else if (etag != null) {
+                logger.warn("write change, empty eTag: " + change.getKey());
+                return null;
+            }
+        }
+
+        // Serialize the item once, and build the DocumentStoreItem around that
+        // instead of serializing it again as part of the envelope.
+        JsonNode node = objectMapper.valueToTree(change.getValue());
+        if (node instanceof ObjectNode) {
+            ((ObjectNode) node).remove("eTag");
+        }
+
+        Document document = new Document();
+        document.setId(id);
+        document.set(DocumentStoreItem.READ_ID_PROPERTY, change.getKey());
+        document.set(DocumentStoreItem.DOCUMENT_PROPERTY, node.toString());
+        document.set(DocumentStoreItem.TYPE_PROPERTY, change.getValue().getClass().getTypeName());
+
+        try {
+            return documentClient.upsertDocument(collectionLink, document, options);
+        } catch (DocumentClientException e) {
+            logger.warn("Error upserting document: " + change.getKey(), e);
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
+    /**
+     * Applies a blocking operation to each item on the SDK executor, running at
+     * most getMaxConcurrentOperations of them at a time.
+     */
+    private <T, R> CompletableFuture<List<R>> forEachConcurrently(List<T> items, Function<T, R> operation) {
+        return Async.forEachConcurrently(
+            items,
+            cosmosDbStorageOptions.getMaxConcurrentOperations(),
+            operation
+        );
+    }
+
+    private void reportStats(String operation, int itemCount, double requestCharge, long start) {
+        if (cosmosDbStorageOptions.getOperationStatsHandler() != null) {
+            cosmosDbStorageOptions.getOperationStatsHandler().accept(new CosmosDbOperationStats(
+                operation, itemCount, requestCharge, Duration.ofNanos(System.nanoTime() - start)
+            ));
+        }
+    }
+
+    private String escapeKey(String key) {
+        return CosmosDbKeyEscape.escapeKey(
+            key,
+            cosmosDbStorageOptions.getKeySuffix(),
+            cosmosDbStorageOptions.getCompatibilityMode()
+        );
+    }
+
     private Database getDatabase() {
         if (databaseCache == null) {
             // Get the database if it exists
@@ -321,51 +490,57 @@ public class CosmosDbPartitionedStorage implements Storage {
             return CompletableFuture.completedFuture(collectionCache);
         }
 
+        // Finding or creating the collection blocks, so it doesn't run on the
+        // caller's thread.
+        return CompletableFuture.supplyAsync(this::findOrCreateCollection, ExecutorFactory.getExecutor());
+    }
+
+    private DocumentCollection findOrCreateCollection() {
         synchronized (cacheSync) {
             if (collectionCache != null) {
-                return CompletableFuture.completedFuture(collectionCache);
+                return collectionCache;
             }
 
-                // Get the collection if it exists.
-                List<DocumentCollection> collectionList = client.queryCollections(
-                    getDatabase().getSelfLink(),
-                    "SELECT * FROM root r WHERE r.id='" + cosmosDbStorageOptions.getContainerId() + "'",
-                    null
-                ).getQueryIterable().toList();
-
-                if (collectionList.size() > 0) {
-                    // Cache the collection object so we won't have to query for it
-                    // later to retrieve the selfLink.
-                    collectionCache = collectionList.get(0);
-                } else {
-                    // Create the collection if it doesn't exist.
-                    try {
-                        DocumentCollection collectionDefinition = new DocumentCollection();
-                        collectionDefinition.setId(cosmosDbStorageOptions.getContainerId());
+            // Get the collection if it exists.
+            List<DocumentCollection> collectionList = client.queryCollections(
+                getDatabase().getSelfLink(),
+                "SELECT * FROM root r WHERE r.id='" + cosmosDbStorageOptions.getContainerId() + "'",
+                null
+            ).getQueryIterable().toList();
 
-                        PartitionKeyDefinition partitionKeyDefinition = new PartitionKeyDefinition();
-                        partitionKeyDefinition.setPaths(Collections.singleton(DocumentStoreItem.PARTITION_KEY_PATH));
-                        collectionDefinition.setPartitionKey(partitionKeyDefinition);
+            if (collectionList.size() > 0) {
+                // Cache the collection object so we won't have to query for it
+                // later to retrieve the selfLink.
+                collectionCache = collectionList.get(0);
+            } else {
+                // Create the collection if it doesn't exist.
+                try {
+                    DocumentCollection collectionDefinition = new DocumentCollection();
+                    collectionDefinition.setId(cosmosDbStorageOptions.getContainerId());
 
-                        RequestOptions options = new RequestOptions();
-                        options.setOfferThroughput(cosmosDbStorageOptions.getContainerThroughput());
+                    PartitionKeyDefinition partitionKeyDefinition = new PartitionKeyDefinition();
+                    partitionKeyDefinition.setPaths(Collections.singleton(DocumentStoreItem.PARTITION_KEY_PATH));
+                    collectionDefinition.setPartitionKey(partitionKeyDefinition);
 
-                        collectionCache = client
-                            .createCollection(getDatabase().getSelfLink(), collectionDefinition, options)
-                            .getResource();
-                    } catch (DocumentClientException e) {
-                        // able to query or create the collection.
-                        // Verify your connection, endpoint, and key.
-                        logger.error("getCollection", e);
-                        throw new RuntimeException("getCollection", e);
-                    }
+                    RequestOptions options = new RequestOptions();
+                    options.setOfferThroughput(cosmosDbStorageOptions.getContainerThroughput());
+
+                    collectionCache = client
+                        .createCollection(getDatabase().getSelfLink(), collectionDefinition, options)
+                        .getResource();
+                } catch (DocumentClientException e) {
+                    // able to query or create the collection.
+                    // Verify your connection, endpoint, and key.
+                    logger.error("getCollection", e);
+                    throw new RuntimeException("getCollection", e);
                 }
-                return CompletableFuture.completedFuture(collectionCache);
+            }
+            return collectionCache;
         }
     }
 
     private CompletableFuture<Document> getDocumentById(String id) {
-        return getCollection().thenApply(collection -> {
+        return getCollection().thenApplyAsync(collection -> {
             // Retrieve the document using the DocumentClient.
             List<Document> documentList = client
                 .queryDocuments(collection.getSelfLink(), "SELECT * FROM root r WHERE r.id='" + id + "'", null)
@@ -377,7 +552,41 @@ public class CosmosDbPartitionedStorage implements Storage {
             } else {
                 return null;
             }
-        });
+        }, ExecutorFactory.getExecutor());
+    }
+
+    /**
+     * Issues point operations against the Cosmos DB container.
+     */
+    private class ContainerDocumentClient implements CosmosDbDocumentClient {
+        private static final int NOT_FOUND = 404;
+
+        @Override
+        public CompletableFuture<String> getCollectionLink() {
+            return getCollection().thenApply(DocumentCollection::getSelfLink);
+        }
+
+        @Override
+        public DocumentResponse readDocument(String collectionLink, String id, RequestOptions options)
+            throws DocumentClientException {
+            String documentLink = collectionLink + "docs/" + id;
+            try {
+                ResourceResponse<Document> response = client.readDocument(documentLink, options);
+                return new DocumentResponse(response.getResource(), response.getRequestCharge());
+            } catch (DocumentClientException e) {
+                if (e.getStatusCode() == NOT_FOUND) {
+                    return new DocumentResponse(null, 0);
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        public DocumentResponse upsertDocument(String collectionLink, Document document, RequestOptions options)
+            throws DocumentClientException {
+            ResourceResponse<Document> response = client.upsertDocument(collectionLink, document, options, true);
+            return new DocumentResponse(response.getResource(), response.getRequestCharge());
+        }
     }
 
     /**
@@ -387,6 +596,11 @@ public class CosmosDbPartitionedStorage implements Storage {
         // PartitionKey path to be used for this document type
         public static final String PARTITION_KEY_PATH = "/id";
 
+        // Property names of the persisted document
+        public static final String READ_ID_PROPERTY = "realId";
+        public static final String DOCUMENT_PROPERTY = "document";
+        public static final String TYPE_PROPERTY = "type";
+
         @JsonProperty(value = "id")
         private String id;
 
@@ -7,12 +7,15 @@ import com.microsoft.azure.documentdb.ConnectionPolicy;
 import com.microsoft.azure.documentdb.ConsistencyLevel;
 import com.microsoft.bot.integration.Configuration;
 
+import java.util.function.Consumer;
+
 /**
  * Cosmos DB Partitioned Storage Options.
  */
 public class CosmosDbPartitionedStorageOptions {
     private static final Integer DEFAULT_THROUGHPUT = 400;
     private static final ConsistencyLevel DEFAULT_CONSISTENCY = ConsistencyLevel.Session;
+    private static final int DEFAULT_MAX_CONCURRENT_OPERATIONS = 16;
 
     private String cosmosDbEndpoint;
     private String authKey;
@@ -23,6 +26,9 @@ public class CosmosDbPartitionedStorageOptions {
     private ConnectionPolicy connectionPolicy;
     private ConsistencyLevel consistencyLevel;
     private Boolean compatibilityMode;
+    private boolean bulkMode;
+    private int maxConcurrentOperations = DEFAULT_MAX_CONCURRENT_OPERATIONS;
+    private Consumer<CosmosDbOperationStats> operationStatsHandler;
 
     /**
      * Constructs an empty options object.
@@ -253,4 +259,69 @@ public class CosmosDbPartitionedStorageOptions {
     public void setKeySuffix(String withKeySuffix) {
         this.keySuffix = withKeySuffix;
     }
+
+    /**
+     * Gets whether reads and writes are issued as concurrent point operations.
+     *
+     * @return true if bulk mode is enabled.
+     */
+    public boolean getBulkMode() {
+        return bulkMode;
+    }
+
+    /**
+     * Sets whether reads and writes are issued as concurrent point operations.
+     *
+     * <p>
+     * In bulk mode each key is read with a point read instead of a query, and
+     * the reads or upserts of a single call run concurrently, up to
+     * {@link #getMaxConcurrentOperations()} at a time.
+     * </p>
+     *
+     * @param withBulkMode true to enable bulk mode.
+     */
+    public void setBulkMode(boolean withBulkMode) {
+        this.bulkMode = withBulkMode;
+    }
+
+    /**
+     * Gets the maximum number of point operations a bulk call runs at once.
+     *
+     * @return The maximum concurrency.
+     */
+    public int getMaxConcurrentOperations() {
+        return maxConcurrentOperations;
+    }
+
+    /**
+     * Sets the maximum number of point operations a bulk call runs at once.
+     *
+     * @param withMaxConcurrentOperations The maximum concurrency.
+     */
+    public void setMaxConcurrentOperations(int withMaxConcurrentOperations) {
+        if (withMaxConcurrentOperations < 1) {
+            throw new IllegalArgumentException("maxConcurrentOperations must be at least 1");
+        }
+        this.maxConcurrentOperations = withMaxConcurrentOperations;
+    }
+
+    /**
+     * Gets the handler that receives the request charge and latency of each
+     * bulk read and write.
+     *
+     * @return The stats handler, or null.
+     */
+    public Consumer<CosmosDbOperationStats> getOperationStatsHandler() {
+        return operationStatsHandler;
+    }
+
+    /**
+     * Sets the handler that receives the request charge and latency of each
+     * bulk read and write.
+     *
+     * @param withOperationStatsHandler The stats handler.
+     */
+    public void setOperationStatsHandler(Consumer<CosmosDbOperationStats> withOperationStatsHandler) {
+        this.operationStatsHandler = withOperationStatsHandler;
+    }
 }
@@ -0,0 +1,84 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.azure.blobs;
+
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * The blob operations {@link BlobsTranscriptStore} issues against its container
+ * when it stores transcripts in append blob segments.
+ *
+ * <p>
+ * The operations block, so the store calls them on
+ * {@link com.microsoft.bot.connector.ExecutorFactory#getExecutor()}.
+ * </p>
+ */
+interface BlobSegmentClient {
+    /**
+     * Lists the segments under a prefix with their committed lengths.
+     *
+     * @param prefix The prefix of the conversation's segments.
+     * @return The segment names and lengths, in name order.
+     */
+    Map<String, Long> listSegments(String prefix);
+
+    /**
+     * Opens part of a segment for reading.
+     *
+     * @param name   The segment name.
+     * @param offset The first byte to read.
+     * @param count  The number of bytes to read.
+     * @return A stream of the bytes in the range.
+     */
+    InputStream openRange(String name, long offset, long count);
+
+    /**
+     * Appends a block to a segment.
+     *
+     * @param name  The segment name.
+     * @param block The block, made of whole records.
+     * @return What happened to the block.
+     */
+    AppendResult appendBlock(String name, byte[] block);
+
+    /**
+     * Creates an empty segment, unless it already exists.
+     *
+     * @param name The segment name.
+     */
+    void createSegment(String name);
+
+    /**
+     * Deletes all blobs under a prefix.
+     *
+     * @param prefix The prefix of the blobs to delete.
+     */
+    void deleteBlobs(String prefix);
+
+    /**
+     * The outcome of appending a block.
+     */
+    enum AppendResult {
+        /**
+         * The block was appended.
+         */
+        APPENDED,
+
+        /**
+         * The block was appended and the segment can't take another one.
+         */
+        APPENDED_SEGMENT_FULL,
+
+        /**
+         * The segment doesn't exist, the block wasn't appended.
+         */
+        SEGMENT_NOT_FOUND,
+
+        /**
+         * The segment is full, the block wasn't appended.
+         */
+        SEGMENT_FULL
+    }
+}
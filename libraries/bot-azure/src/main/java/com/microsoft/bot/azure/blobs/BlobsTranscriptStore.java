@@ -8,16 +8,25 @@ import com.azure.core.http.rest.PagedResponse;
 import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.BlobContainerClientBuilder;
+import com.azure.storage.blob.models.AppendBlobItem;
+import com.azure.storage.blob.models.BlobErrorCode;
 import com.azure.storage.blob.models.BlobItem;
 import com.azure.storage.blob.models.BlobListDetails;
+import com.azure.storage.blob.models.BlobRange;
+import com.azure.storage.blob.models.BlobStorageException;
 import com.azure.storage.blob.models.ListBlobsOptions;
+import com.azure.storage.blob.specialized.AppendBlobClient;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.microsoft.bot.builder.BotAssert;
 import com.microsoft.bot.builder.PagedResult;
 import com.microsoft.bot.builder.TranscriptInfo;
 import com.microsoft.bot.builder.TranscriptStore;
+import com.microsoft.bot.connector.Async;
+import com.microsoft.bot.connector.ExecutorFactory;
 import com.microsoft.bot.schema.Activity;
 import com.microsoft.bot.schema.ActivityTypes;
 import com.microsoft.bot.schema.ChannelAccount;
@@ -26,10 +35,13 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpStatus;
 
 import javax.annotation.Nullable;
+import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
@@ -38,20 +50,36 @@ import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
 /**
  * The blobs transcript store stores transcripts in an Azure Blob container.
  * Each activity is stored as json blob in structure of
  * container/{channelId]/{conversationId}/{Timestamp.ticks}-{activity.id}.json.
+ *
+ * <p>
+ * When created with append blobs enabled, a conversation is instead stored as
+ * newline delimited JSON in append blobs of
+ * container/{channelId]/{conversationId}/segments/{segment}.ndjson. Activities
+ * logged for a conversation while a write is in flight are appended together
+ * in one block, and updates and deletes are appended as records that are
+ * applied when the transcript is read. The replayed transcripts of recently
+ * read conversations are kept, so reading the next page only downloads what
+ * was appended since.
+ * </p>
  */
 public class BlobsTranscriptStore implements TranscriptStore {
 
@@ -63,8 +91,26 @@ public class BlobsTranscriptStore implements TranscriptStore {
     private final Integer longRadix = 16;
     private final Integer multipleProductValue = 10_000_000;
 
+    // Maximum number of blobs downloaded at once when reading a transcript.
+    private static final int DOWNLOAD_WINDOW = 8;
+    private static final String SEGMENTS_FOLDER = "segments/";
+    private static final String SEGMENT_NAME_FORMAT = "%08d.ndjson";
+
+    // Conversations whose replayed transcript is kept for paging, and
+    // conversations whose current segment is remembered between writes.
+    private static final int MAX_CACHED_TRANSCRIPTS = 16;
+    private static final int MAX_SEGMENT_CURSORS = 1024;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
     private final ObjectMapper jsonSerializer;
+    private final ObjectWriter recordWriter;
+    private final boolean useAppendBlobs;
+    private final Map<String, ConversationLog> conversationLogs = new ConcurrentHashMap<>();
+    private final Map<String, TranscriptReplay> transcriptReplays = lruMap(MAX_CACHED_TRANSCRIPTS);
+    private final Map<String, Integer> segmentCursors = lruMap(MAX_SEGMENT_CURSORS);
     private BlobContainerClient containerClient;
+    private BlobSegmentClient segmentClient;
 
     /**
      * Initializes a new instance of the {@link BlobsTranscriptStore} class.
@@ -74,6 +120,22 @@ public class BlobsTranscriptStore implements TranscriptStore {
      *                             stored.
      */
     public BlobsTranscriptStore(String dataConnectionString, String containerName) {
+        this(dataConnectionString, containerName, false);
+    }
+
+    /**
+     * Initializes a new instance of the {@link BlobsTranscriptStore} class.
+     *
+     * @param dataConnectionString Azure Storage connection string.
+     * @param containerName        Name of the Blob container where entities will be
+     *                             stored.
+     * @param withUseAppendBlobs   true to store each conversation as newline
+     *                             delimited JSON in append blobs instead of one
+     *                             blob per activity.
+     */
+    public BlobsTranscriptStore(String dataConnectionString, String containerName, boolean withUseAppendBlobs) {
+        this(withUseAppendBlobs);
+
         if (StringUtils.isBlank(dataConnectionString)) {
             throw new IllegalArgumentException("dataConnectionString");
         }
@@ -82,83 +144,96 @@ public class BlobsTranscriptStore implements TranscriptStore {
             throw new IllegalArgumentException("containerName");
         }
 
+        // Triggers a check for the existence of the container
+        containerClient = this.getContainerClient(dataConnectionString, containerName);
+        segmentClient = new ContainerSegmentClient();
+    }
+
+    /**
+     * Initializes a new instance of the {@link BlobsTranscriptStore} class that
+     * stores transcripts in append blob segments through the supplied client.
+     *
+     * @param withSegmentClient The client for the segment operations.
+     */
+    BlobsTranscriptStore(BlobSegmentClient withSegmentClient) {
+        this(true);
+        segmentClient = withSegmentClient;
+    }
+
+    private BlobsTranscriptStore(boolean withUseAppendBlobs) {
         jsonSerializer = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL)
             .enable(SerializationFeature.INDENT_OUTPUT)
             .findAndRegisterModules();
-
-        // Triggers a check for the existence of the container
-        containerClient = this.getContainerClient(dataConnectionString, containerName);
+        recordWriter = jsonSerializer.writer().without(SerializationFeature.INDENT_OUTPUT);
+        useAppendBlobs = withUseAppendBlobs;
     }
 
     /**
      * Log an activity to the transcript.
-     * 
+     *
      * @param activity Activity being logged.
-     * @return A CompletableFuture that represents the work queued to execute.
+     * @return A CompletableFuture that completes once the activity has been
+     *         written.
      */
     public CompletableFuture<Void> logActivity(Activity activity) {
         BotAssert.activityNotNull(activity);
 
+        if (useAppendBlobs) {
+            return appendActivities(Collections.singletonList(activity));
+        }
+
         switch (activity.getType()) {
             case ActivityTypes.MESSAGE_UPDATE:
-                Activity updatedActivity = null;
-                try {
-                    updatedActivity =
-                        jsonSerializer.readValue(jsonSerializer.writeValueAsString(activity), Activity.class);
-                } catch (IOException ex) {
-                    ex.printStackTrace();
-                }
+                Activity updatedActivity = Activity.clone(activity);
                 updatedActivity.setType(ActivityTypes.MESSAGE); // fixup original type (should be Message)
-                Activity finalUpdatedActivity = updatedActivity;
-                innerReadBlob(activity).thenAccept(activityAndBlob -> {
-                    if (activityAndBlob != null && activityAndBlob.getLeft() != null) {
-                        finalUpdatedActivity.setLocalTimestamp(activityAndBlob.getLeft().getLocalTimestamp());
-                        finalUpdatedActivity.setTimestamp(activityAndBlob.getLeft().getTimestamp());
-                        logActivityToBlobClient(finalUpdatedActivity, activityAndBlob.getRight(), true)
-                            .thenApply(task -> CompletableFuture.completedFuture(null));
-                    } else {
-                        // The activity was not found, so just add a record of this update.
-                        this.innerLogActivity(finalUpdatedActivity)
-                            .thenApply(task -> CompletableFuture.completedFuture(null));
-                    }
-                });
-
-                return CompletableFuture.completedFuture(null);
+                return readBlob(activity, 0)
+                    .thenAccept(activityAndBlob -> {
+                        if (activityAndBlob != null && activityAndBlob.getLeft() != null) {
+                            updatedActivity.setLocalTimestamp(activityAndBlob.getLeft().getLocalTimestamp());
+                            updatedActivity.setTimestamp(activityAndBlob.getLeft().getTimestamp());
+                            logActivityToBlobClient(updatedActivity, activityAndBlob.getRight(), true);
+                        } else {
+                            // The activity was not found, so just add a record of this update.
+                            innerLogActivity(updatedActivity);
+                        }
+                    });
 
             case ActivityTypes.MESSAGE_DELETE:
-                innerReadBlob(activity).thenAccept(activityAndBlob -> {
-                    if (activityAndBlob != null && activityAndBlob.getLeft() != null) {
-                        ChannelAccount from = new ChannelAccount();
-                        from.setId("deleted");
-                        from.setRole(activityAndBlob.getLeft().getFrom().getRole());
-                        ChannelAccount recipient = new ChannelAccount();
-                        recipient.setId("deleted");
-                        recipient.setRole(activityAndBlob.getLeft().getRecipient().getRole());
-
-                        // tombstone the original message
-                        Activity tombstonedActivity = new Activity(ActivityTypes.MESSAGE_DELETE);
-                        tombstonedActivity.setId(activityAndBlob.getLeft().getId());
-                        tombstonedActivity.setFrom(from);
-                        tombstonedActivity.setRecipient(recipient);
-                        tombstonedActivity.setLocale(activityAndBlob.getLeft().getLocale());
-                        tombstonedActivity.setLocalTimestamp(activityAndBlob.getLeft().getTimestamp());
-                        tombstonedActivity.setTimestamp(activityAndBlob.getLeft().getTimestamp());
-                        tombstonedActivity.setChannelId(activityAndBlob.getLeft().getChannelId());
-                        tombstonedActivity.setConversation(activityAndBlob.getLeft().getConversation());
-                        tombstonedActivity.setServiceUrl(activityAndBlob.getLeft().getServiceUrl());
-                        tombstonedActivity.setReplyToId(activityAndBlob.getLeft().getReplyToId());
-
-                        logActivityToBlobClient(tombstonedActivity, activityAndBlob.getRight(), true)
-                            .thenApply(task -> CompletableFuture.completedFuture(null));
-                    }
-                });
-
-                return CompletableFuture.completedFuture(null);
+                return readBlob(activity, 0)
+                    .thenAccept(activityAndBlob -> {
+                        if (activityAndBlob != null && activityAndBlob.getLeft() != null) {
+                            // tombstone the original message
+                            logActivityToBlobClient(
+                                createTombstone(activityAndBlob.getLeft()),
+                                activityAndBlob.getRight(),
+                                true
+                            );
+                        }
+                    });
 
             default:
-                this.innerLogActivity(activity).thenApply(task -> CompletableFuture.completedFuture(null));
-                return CompletableFuture.completedFuture(null);
+                return CompletableFuture.runAsync(() -> innerLogActivity(activity), ExecutorFactory.getExecutor());
+        }
+    }
+
+    /**
+     * Log activities to the transcript, in order. With append blobs, the
+     * activities of a conversation are written together in as few blocks as
+     * possible.
+     *
+     * @param activities Activities being logged.
+     * @return A CompletableFuture that completes once the activities have been
+     *         written.
+     */
+    @Override
+    public CompletableFuture<Void> logActivities(List<Activity> activities) {
+        BotAssert.activityListNotNull(activities);
+        activities.forEach(BotAssert::activityNotNull);
+
+        if (useAppendBlobs) {
+            return appendActivities(activities);
         }
+        return TranscriptStore.super.logActivities(activities);
     }
 
     /**
@@ -191,7 +266,9 @@ public class BlobsTranscriptStore implements TranscriptStore {
             throw new IllegalArgumentException("Missing conversationId");
         }
 
-        PagedResult<Activity> pagedResult = new PagedResult<Activity>();
+        if (useAppendBlobs) {
+            return getAppendedActivities(channelId, conversationId, continuationToken, startDate, pageSize);
+        }
 
         String token = null;
         List<BlobItem> blobs = new ArrayList<BlobItem>();
@@ -203,6 +280,11 @@ public class BlobsTranscriptStore implements TranscriptStore {
             token = null;
             for (PagedResponse<BlobItem> blobPage : resultSegment) {
                 for (BlobItem blobItem : blobPage.getValue()) {
+                    if (Boolean.TRUE.equals(blobItem.isPrefix())) {
+                        // Not an activity blob, such as the segments of the append blob layout.
+                        continue;
+                    }
+
                     OffsetDateTime parseDateTime = OffsetDateTime.parse(blobItem.getMetadata().get("Timestamp"));
                     if (parseDateTime.isAfter(startDate) || parseDateTime.isEqual(startDate)) {
                         if (continuationToken != null) {
@@ -224,16 +306,20 @@ public class BlobsTranscriptStore implements TranscriptStore {
             }
         } while (!StringUtils.isBlank(token) && blobs.size() < pageSize);
 
-        pagedResult.setItems(blobs.stream().map(bl -> {
-            BlobClient blobClient = containerClient.getBlobClient(bl.getName());
-            return this.getActivityFromBlobClient(blobClient);
-        }).map(t -> t.join()).collect(Collectors.toList()));
+        // Download the page with a bounded number of concurrent requests.
+        return Async.forEachConcurrently(
+            blobs,
+            DOWNLOAD_WINDOW,
+            bl -> readActivity(containerClient.getBlobClient(bl.getName()))
+        ).thenApply(activities -> {
+            PagedResult<Activity> pagedResult = new PagedResult<Activity>();
+            pagedResult.setItems(activities);
 
-        if (pagedResult.getItems().size() == pageSize) {
-            pagedResult.setContinuationToken(blobs.get(blobs.size() - 1).getName());
-        }
-
-        return CompletableFuture.completedFuture(pagedResult);
+            if (pagedResult.getItems().size() == pageSize) {
+                pagedResult.setContinuationToken(blobs.get(blobs.size() - 1).getName());
+            }
+            return pagedResult;
+        });
     }
 
     /**
@@ -319,125 +405,104 @@ public class BlobsTranscriptStore implements TranscriptStore {
             throw new IllegalArgumentException("Missing conversationId");
         }
 
-        String token = null;
-        do {
-            String prefix = String.format("%s/%s/", sanitizeKey(channelId), sanitizeKey(conversationId));
-            Iterable<PagedResponse<BlobItem>> resultSegment = containerClient
-                .listBlobsByHierarchy("/", this.getOptionsWithMetadata(prefix), null)
-                .iterableByPage(token);
-            token = null;
+        String segmentPrefix = getSegmentPrefix(channelId, conversationId);
+        transcriptReplays.remove(segmentPrefix);
+        segmentCursors.remove(segmentPrefix);
 
-            for (PagedResponse<BlobItem> blobPage : resultSegment) {
-                for (BlobItem blobItem : blobPage.getValue()) {
-                    BlobClient blobClient = containerClient.getBlobClient(blobItem.getName());
-                    if (blobClient.exists()) {
-                        try {
-                            blobClient.delete();
-                        } catch (Exception ex) {
-                            throw new RuntimeException(ex);
-                        }
-                    }
+        segmentClient.deleteBlobs(String.format("%s/%s/", sanitizeKey(channelId), sanitizeKey(conversationId)));
+        return CompletableFuture.completedFuture(null);
+    }
 
-                    // Get the continuation token and loop until it is empty.
-                    token = blobPage.getContinuationToken();
+    private CompletableFuture<Pair<Activity, BlobClient>> readBlob(Activity activity, int attempt) {
+        return CompletableFuture.supplyAsync(() -> innerReadBlob(activity), ExecutorFactory.getExecutor())
+            .handle((found, error) -> {
+                if (error == null) {
+                    return CompletableFuture.completedFuture(found);
                 }
-            }
-        } while (!StringUtils.isBlank(token));
 
-        return CompletableFuture.completedFuture(null);
+                Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                // additional retry logic,
+                // even though this is a read operation blob storage can return 412 if there is
+                // contention
+                if (cause instanceof HttpResponseException
+                    && ((HttpResponseException) cause).getResponse().getStatusCode()
+                        == HttpStatus.SC_PRECONDITION_FAILED
+                    && attempt < retryTimes) {
+                    return Async.delay(milisecondsTimeout, TimeUnit.MILLISECONDS)
+                        .thenCompose(delayed -> readBlob(activity, attempt + 1));
+                }
+                return Async.<Pair<Activity, BlobClient>>completeExceptionally(cause);
+            })
+            .thenCompose(result -> result);
     }
 
-    private CompletableFuture<Pair<Activity, BlobClient>> innerReadBlob(Activity activity) {
-        int i = 0;
-        while (true) {
-            try {
-                String token = null;
-                do {
-                    String prefix = String.format(
-                        "%s/%s/",
-                        sanitizeKey(activity.getChannelId()),
-                        sanitizeKey(activity.getConversation().getId())
-                    );
-                    Iterable<PagedResponse<BlobItem>> resultSegment = containerClient
-                        .listBlobsByHierarchy("/", this.getOptionsWithMetadata(prefix), null)
-                        .iterableByPage(token);
-                    token = null;
-                    for (PagedResponse<BlobItem> blobPage : resultSegment) {
-                        for (BlobItem blobItem : blobPage.getValue()) {
-                            if (blobItem.getMetadata().get("Id").equals(activity.getId())) {
-                                BlobClient blobClient = containerClient.getBlobClient(blobItem.getName());
-                                return this.getActivityFromBlobClient(
-                                    blobClient
-                                ).thenApply(blobActivity -> new Pair<Activity, BlobClient>(blobActivity, blobClient));
-                            }
-                        }
-
-                        // Get the continuation token and loop until it is empty.
-                        token = blobPage.getContinuationToken();
-                    }
-                } while (!StringUtils.isBlank(token));
-
-                return CompletableFuture.completedFuture(null);
-            } catch (HttpResponseException ex) {
-                if (ex.getResponse().getStatusCode() == HttpStatus.SC_PRECONDITION_FAILED) {
-                    // additional retry logic,
-                    // even though this is a read operation blob storage can return 412 if there is
-                    // contention
-                    if (i++ < retryTimes) {
-                        try {
-                            TimeUnit.MILLISECONDS.sleep(milisecondsTimeout);
-                            continue;
-                        } catch (InterruptedException e) {
-                            break;
+    private Pair<Activity, BlobClient> innerReadBlob(Activity activity) {
+        try {
+            String token = null;
+            do {
+                String prefix = String.format(
+                    "%s/%s/",
+                    sanitizeKey(activity.getChannelId()),
+                    sanitizeKey(activity.getConversation().getId())
+                );
+                Iterable<PagedResponse<BlobItem>> resultSegment = containerClient
+                    .listBlobsByHierarchy("/", this.getOptionsWithMetadata(prefix), null)
+                    .iterableByPage(token);
+                token = null;
+                for (PagedResponse<BlobItem> blobPage : resultSegment) {
+                    for (BlobItem blobItem : blobPage.getValue()) {
+                        if (blobItem.getMetadata() != null
+                            && StringUtils.equals(blobItem.getMetadata().get("Id"), activity.getId())) {
+                            BlobClient blobClient = containerClient.getBlobClient(blobItem.getName());
+                            return new Pair<Activity, BlobClient>(readActivity(blobClient), blobClient);
                         }
                     }
-                    throw ex;
+
+                    // Get the continuation token and loop until it is empty.
+                    token = blobPage.getContinuationToken();
                 }
-                // This break will finish the while when the catch if condition is false
-                break;
+            } while (!StringUtils.isBlank(token));
+
+            return null;
+        } catch (HttpResponseException ex) {
+            if (ex.getResponse().getStatusCode() == HttpStatus.SC_PRECONDITION_FAILED) {
+                // Retried by readBlob.
+                throw ex;
             }
+            return null;
         }
-        return CompletableFuture.completedFuture(null);
     }
 
-    private CompletableFuture<Activity> getActivityFromBlobClient(BlobClient blobClient) {
+    private Activity readActivity(BlobClient blobClient) {
         ByteArrayOutputStream content = new ByteArrayOutputStream();
         blobClient.download(content);
-        String contentString = new String(content.toByteArray());
         try {
-            return CompletableFuture.completedFuture(jsonSerializer.readValue(contentString, Activity.class));
+            return jsonSerializer.readValue(content.toByteArray(), Activity.class);
         } catch (IOException ex) {
-            return CompletableFuture.completedFuture(null);
+            return null;
         }
     }
 
-    private CompletableFuture<Void> innerLogActivity(Activity activity) {
+    private void innerLogActivity(Activity activity) {
         String blobName = this.getBlobName(activity);
         BlobClient blobClient = containerClient.getBlobClient(blobName);
-        return logActivityToBlobClient(activity, blobClient, null);
+        logActivityToBlobClient(activity, blobClient, false);
     }
 
-    private CompletableFuture<Void> logActivityToBlobClient(
+    private void logActivityToBlobClient(
         Activity activity,
         BlobClient blobClient,
-        Boolean overwrite
+        boolean overwrite
     ) {
-        if (overwrite == null) {
-            overwrite = false;
-        }
-        String activityJson = null;
+        byte[] activityJson;
         try {
-            activityJson = jsonSerializer.writeValueAsString(activity);
-        } catch (IOException ex) {
-            ex.printStackTrace();
+            activityJson = jsonSerializer.writeValueAsBytes(activity);
+        } catch (JsonProcessingException ex) {
+            throw new CompletionException(ex);
         }
-        InputStream data = new ByteArrayInputStream(activityJson.getBytes(StandardCharsets.UTF_8));
 
-        try {
-            blobClient.upload(data, data.available(), overwrite);
-        } catch (IOException ex) {
-            ex.printStackTrace();
-        }
+        blobClient.upload(new ByteArrayInputStream(activityJson), activityJson.length, overwrite);
+
         Map<String, String> metaData = new HashMap<String, String>();
         metaData.put("Id", activity.getId());
         if (activity.getFrom() != null) {
@@ -450,8 +515,334 @@ public class BlobsTranscriptStore implements TranscriptStore {
         metaData.put("Timestamp", activity.getTimestamp().toString());
 
         blobClient.setMetadata(metaData);
+    }
 
-        return CompletableFuture.completedFuture(null);
+    private Activity createTombstone(Activity original) {
+        ChannelAccount from = new ChannelAccount();
+        from.setId("deleted");
+        from.setRole(original.getFrom().getRole());
+        ChannelAccount recipient = new ChannelAccount();
+        recipient.setId("deleted");
+        recipient.setRole(original.getRecipient().getRole());
+
+        Activity tombstonedActivity = new Activity(ActivityTypes.MESSAGE_DELETE);
+        tombstonedActivity.setId(original.getId());
+        tombstonedActivity.setFrom(from);
+        tombstonedActivity.setRecipient(recipient);
+        tombstonedActivity.setLocale(original.getLocale());
+        tombstonedActivity.setLocalTimestamp(original.getTimestamp());
+        tombstonedActivity.setTimestamp(original.getTimestamp());
+        tombstonedActivity.setChannelId(original.getChannelId());
+        tombstonedActivity.setConversation(original.getConversation());
+        tombstonedActivity.setServiceUrl(original.getServiceUrl());
+        tombstonedActivity.setReplyToId(original.getReplyToId());
+        return tombstonedActivity;
+    }
+
+    /**
+     * Queues activities to be appended to their conversations. If no write is in
+     * flight for a conversation one is started, otherwise its activities go out
+     * with the next block.
+     */
+    private CompletableFuture<Void> appendActivities(List<Activity> activities) {
+        Map<String, List<PendingAppend>> conversations = new LinkedHashMap<>();
+        for (Activity activity : activities) {
+            byte[] record;
+            try {
+                record = (recordWriter.writeValueAsString(activity) + "\n").getBytes(StandardCharsets.UTF_8);
+            } catch (JsonProcessingException ex) {
+                return Async.completeExceptionally(ex);
+            }
+
+            if (record.length > AppendBlobClient.MAX_APPEND_BLOCK_BYTES) {
+                return Async.completeExceptionally(
+                    new IllegalArgumentException("Activity is too large to log: " + activity.getId())
+                );
+            }
+
+            String prefix = getSegmentPrefix(activity.getChannelId(), activity.getConversation().getId());
+            conversations.computeIfAbsent(prefix, key -> new ArrayList<>()).add(new PendingAppend(record));
+        }
+
+        List<CompletableFuture<Void>> appended = new ArrayList<>();
+        for (Map.Entry<String, List<PendingAppend>> conversation : conversations.entrySet()) {
+            ConversationLog log;
+            Boolean startWriter;
+            do {
+                log = conversationLogs.computeIfAbsent(
+                    conversation.getKey(),
+                    prefix -> new ConversationLog(prefix, segmentCursors.getOrDefault(prefix, 0))
+                );
+                startWriter = enqueue(log, conversation.getValue());
+            } while (startWriter == null);
+
+            if (startWriter) {
+                ConversationLog writerLog = log;
+                ExecutorFactory.getExecutor().execute(() -> writeAppends(writerLog));
+            }
+            conversation.getValue().forEach(pending -> appended.add(pending.future));
+        }
+
+        if (appended.size() == 1) {
+            return appended.get(0);
+        }
+        return CompletableFuture.allOf(appended.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Adds appends to a log.
+     *
+     * @return true if the caller has to start the writer, false if a write is
+     *         already in flight, or null if the log was closed and the caller has
+     *         to use a new one.
+     */
+    private static Boolean enqueue(ConversationLog log, List<PendingAppend> pending) {
+        synchronized (log) {
+            if (log.closed) {
+                return null;
+            }
+            log.pending.addAll(pending);
+            boolean startWriter = !log.writing;
+            log.writing = true;
+            return startWriter;
+        }
+    }
+
+    private void writeAppends(ConversationLog log) {
+        while (true) {
+            List<PendingAppend> batch = new ArrayList<>();
+            int size = 0;
+            synchronized (log) {
+                if (log.pending.isEmpty()) {
+                    log.writing = false;
+                    log.closed = true;
+
+                    // Remember the segment, so the next log doesn't probe from the first one.
+                    segmentCursors.put(log.prefix, log.segment);
+                    conversationLogs.remove(log.prefix, log);
+                    return;
+                }
+
+                while (!log.pending.isEmpty()
+                    && size + log.pending.peek().record.length <= AppendBlobClient.MAX_APPEND_BLOCK_BYTES) {
+                    PendingAppend next = log.pending.poll();
+                    size += next.record.length;
+                    batch.add(next);
+                }
+            }
+
+            ByteArrayOutputStream block = new ByteArrayOutputStream(size);
+            for (PendingAppend pending : batch) {
+                block.write(pending.record, 0, pending.record.length);
+            }
+
+            try {
+                appendBlock(log, block.toByteArray());
+                batch.forEach(pending -> pending.future.complete(null));
+            } catch (RuntimeException ex) {
+                batch.forEach(pending -> pending.future.completeExceptionally(ex));
+            }
+        }
+    }
+
+    private void appendBlock(ConversationLog log, byte[] block) {
+        while (true) {
+            String segment = log.prefix + String.format(SEGMENT_NAME_FORMAT, log.segment);
+            switch (segmentClient.appendBlock(segment, block)) {
+                case APPENDED:
+                    return;
+
+                case APPENDED_SEGMENT_FULL:
+                    log.segment++;
+                    return;
+
+                case SEGMENT_NOT_FOUND:
+                    segmentClient.createSegment(segment);
+                    break;
+
+                default:
+                    log.segment++;
+                    break;
+            }
+        }
+    }
+
+    private CompletableFuture<PagedResult<Activity>> getAppendedActivities(
+        String channelId,
+        String conversationId,
+        String continuationToken,
+        OffsetDateTime startDate,
+        int pageSize
+    ) {
+        String prefix = getSegmentPrefix(channelId, conversationId);
+        CompletableFuture<Map<String, Long>> listed =
+            CompletableFuture.supplyAsync(() -> segmentClient.listSegments(prefix), ExecutorFactory.getExecutor());
+        return listed.thenCompose(segments -> {
+            TranscriptReplay replay = transcriptReplays.computeIfAbsent(prefix, key -> new TranscriptReplay());
+            List<SegmentRange> unread = unreadRanges(replay, segments);
+            if (unread == null) {
+                // The transcript was deleted and written again since it was replayed.
+                replay = new TranscriptReplay();
+                transcriptReplays.put(prefix, replay);
+                unread = unreadRanges(replay, segments);
+            }
+
+            TranscriptReplay current = replay;
+            List<SegmentRange> ranges = unread;
+            return Async.forEachConcurrently(ranges, DOWNLOAD_WINDOW, this::readSegment)
+                .thenApply(records -> {
+                    synchronized (current) {
+                        applyRecords(current, ranges, records);
+                        return getPage(current, continuationToken, startDate, pageSize);
+                    }
+                });
+        });
+    }
+
+    /**
+     * Gets the parts of the segments that haven't been replayed yet.
+     *
+     * @return The ranges to read, in order, or null if a replayed segment is
+     *         gone or shorter than what was replayed.
+     */
+    private static List<SegmentRange> unreadRanges(TranscriptReplay replay, Map<String, Long> segments) {
+        synchronized (replay) {
+            for (Map.Entry<String, Long> replayed : replay.lengths.entrySet()) {
+                Long length = segments.get(replayed.getKey());
+                if (length == null || length < replayed.getValue()) {
+                    return null;
+                }
+            }
+
+            List<SegmentRange> ranges = new ArrayList<>();
+            for (Map.Entry<String, Long> segment : segments.entrySet()) {
+                long from = replay.lengths.getOrDefault(segment.getKey(), 0L);
+                if (segment.getValue() > from) {
+                    ranges.add(new SegmentRange(segment.getKey(), from, segment.getValue()));
+                }
+            }
+            return ranges;
+        }
+    }
+
+    /**
+     * Reads the records in part of a segment. Blocks only hold whole records, so
+     * a range that ends at a committed length ends on a record boundary.
+     */
+    private List<Activity> readSegment(SegmentRange range) {
+        List<Activity> records = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+            segmentClient.openRange(range.name, range.from, range.to - range.from),
+            StandardCharsets.UTF_8
+        ))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    records.add(jsonSerializer.readValue(line, Activity.class));
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return records;
+    }
+
+    /**
+     * Replays the records read from each range, applying updates and deletes to
+     * the activities they refer to. A range that doesn't start where the replay
+     * left off was already applied by a concurrent read, and it and the ranges
+     * after it are skipped. Called holding the replay's monitor.
+     */
+    private void applyRecords(TranscriptReplay replay, List<SegmentRange> ranges, List<List<Activity>> segments) {
+        for (int i = 0; i < ranges.size(); i++) {
+            SegmentRange range = ranges.get(i);
+            if (replay.lengths.getOrDefault(range.name, 0L) != range.from) {
+                return;
+            }
+
+            for (Activity record : segments.get(i)) {
+                Integer position = record.getId() != null ? replay.positions.get(record.getId()) : null;
+                switch (record.getType()) {
+                    case ActivityTypes.MESSAGE_UPDATE:
+                        record.setType(ActivityTypes.MESSAGE); // fixup original type (should be Message)
+                        if (position != null) {
+                            Activity original = replay.transcript.get(position);
+                            record.setLocalTimestamp(original.getLocalTimestamp());
+                            record.setTimestamp(original.getTimestamp());
+                            replay.transcript.set(position, record);
+                        } else {
+                            // The activity was not found, so just add a record of this update.
+                            addRecord(replay, record);
+                        }
+                        break;
+
+                    case ActivityTypes.MESSAGE_DELETE:
+                        if (position != null) {
+                            replay.transcript.set(position, createTombstone(replay.transcript.get(position)));
+                        }
+                        break;
+
+                    default:
+                        addRecord(replay, record);
+                        break;
+                }
+            }
+            replay.lengths.put(range.name, range.to);
+        }
+    }
+
+    private static void addRecord(TranscriptReplay replay, Activity record) {
+        if (record.getId() != null) {
+            replay.positions.put(record.getId(), replay.transcript.size());
+        }
+        replay.transcript.add(record);
+    }
+
+    /**
+     * Gets the page after the continuation token. The activities are copies, so
+     * callers can't change the kept transcript. Called holding the replay's
+     * monitor.
+     */
+    private static PagedResult<Activity> getPage(
+        TranscriptReplay replay,
+        String continuationToken,
+        OffsetDateTime startDate,
+        int pageSize
+    ) {
+        int start = 0;
+        if (continuationToken != null) {
+            // An unknown continuation token gives an empty page.
+            Integer position = replay.positions.get(continuationToken);
+            start = position != null ? position + 1 : replay.transcript.size();
+        }
+
+        List<Activity> items = new ArrayList<>();
+        for (int i = start; i < replay.transcript.size() && items.size() < pageSize; i++) {
+            Activity activity = replay.transcript.get(i);
+            if (activity.getTimestamp() == null || !activity.getTimestamp().isBefore(startDate)) {
+                items.add(Activity.clone(activity));
+            }
+        }
+
+        PagedResult<Activity> pagedResult = new PagedResult<Activity>();
+        pagedResult.setItems(items);
+        if (items.size() == pageSize) {
+            pagedResult.setContinuationToken(items.get(items.size() - 1).getId());
+        }
+        return pagedResult;
+    }
+
+    private static <K, V> Map<K, V> lruMap(int maxSize) {
+        return Collections.synchronizedMap(new LinkedHashMap<K, V>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    private String getSegmentPrefix(String channelId, String conversationId) {
+        return String.format("%s/%s/%s", sanitizeKey(channelId), sanitizeKey(conversationId), SEGMENTS_FOLDER);
     }
 
     private String getBlobName(Activity activity) {
@@ -517,4 +908,138 @@ public class BlobsTranscriptStore implements TranscriptStore {
         options.setPrefix(prefix);
         return options;
     }
+
+    /**
+     * Issues the segment operations against the blob container.
+     */
+    private class ContainerSegmentClient implements BlobSegmentClient {
+        /**
+         * Lists the segments of a conversation with their lengths. Segment names
+         * are zero padded, so they are listed in the order they were written.
+         */
+        @Override
+        public Map<String, Long> listSegments(String prefix) {
+            ListBlobsOptions options = new ListBlobsOptions();
+            options.setPrefix(prefix);
+
+            Map<String, Long> segments = new LinkedHashMap<>();
+            for (BlobItem blobItem : containerClient.listBlobs(options, null)) {
+                segments.put(blobItem.getName(), blobItem.getProperties().getContentLength());
+            }
+            return segments;
+        }
+
+        @Override
+        public InputStream openRange(String name, long offset, long count) {
+            return containerClient.getBlobClient(name).openInputStream(new BlobRange(offset, count), null);
+        }
+
+        @Override
+        public AppendResult appendBlock(String name, byte[] block) {
+            AppendBlobClient segment = containerClient.getBlobClient(name).getAppendBlobClient();
+            try {
+                AppendBlobItem item = segment.appendBlock(new ByteArrayInputStream(block), block.length);
+                return item.getBlobCommittedBlockCount() != null
+                    && item.getBlobCommittedBlockCount() >= AppendBlobClient.MAX_BLOCKS
+                    ? AppendResult.APPENDED_SEGMENT_FULL
+                    : AppendResult.APPENDED;
+            } catch (BlobStorageException ex) {
+                if (BlobErrorCode.BLOB_NOT_FOUND.equals(ex.getErrorCode())) {
+                    return AppendResult.SEGMENT_NOT_FOUND;
+                } else if (BlobErrorCode.BLOCK_COUNT_EXCEEDS_LIMIT.equals(ex.getErrorCode())) {
+                    return AppendResult.SEGMENT_FULL;
+                }
+                throw ex;
+            }
+        }
+
+        @Override
+        public void createSegment(String name) {
+            try {
+                containerClient.getBlobClient(name).getAppendBlobClient().create(false);
+            } catch (BlobStorageException ex) {
+                // Another writer created it first.
+                if (!BlobErrorCode.BLOB_ALREADY_EXISTS.equals(ex.getErrorCode())) {
+                    throw ex;
+                }
+            }
+        }
+
+        /**
+         * Deletes the blobs under a prefix. A flat listing also finds the segments
+         * of the append blob layout.
+         */
+        @Override
+        public void deleteBlobs(String prefix) {
+            ListBlobsOptions options = new ListBlobsOptions();
+            options.setPrefix(prefix);
+            for (BlobItem blobItem : containerClient.listBlobs(options, null)) {
+                BlobClient blobClient = containerClient.getBlobClient(blobItem.getName());
+                if (blobClient.exists()) {
+                    try {
+                        blobClient.delete();
+                    } catch (Exception ex) {
+                        throw new RuntimeException(ex);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * An activity waiting to be appended, and the future completed once it is.
+     */
+    private static final class PendingAppend {
+        private final byte[] record;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        PendingAppend(byte[] withRecord) {
+            record = withRecord;
+        }
+    }
+
+    /**
+     * The activities waiting to be appended to a conversation. Guarded by its
+     * own monitor.
+     */
+    private static final class ConversationLog {
+        private final String prefix;
+        private final Queue<PendingAppend> pending = new ArrayDeque<>();
+        private boolean writing;
+        private boolean closed;
+
+        // Only used by the single writer of the log.
+        private int segment;
+
+        ConversationLog(String withPrefix, int withSegment) {
+            prefix = withPrefix;
+            segment = withSegment;
+        }
+    }
+
+    /**
+     * Part of a segment, from one committed length to another.
+     */
+    private static final class SegmentRange {
+        private final String name;
+        private final long from;
+        private final long to;
+
+        SegmentRange(String withName, long withFrom, long withTo) {
+            name = withName;
+            from = withFrom;
+            to = withTo;
+        }
+    }
+
+    /**
+     * A conversation's transcript replayed from the start of its segments up to
+     * the recorded lengths. Segments are only appended to, so a later read
+     * replays just what was written since. Guarded by its own monitor.
+     */
+    private static final class TranscriptReplay {
+        private final List<Activity> transcript = new ArrayList<>();
+        private final Map<String, Integer> positions = new HashMap<>();
+        private final Map<String, Long> lengths = new HashMap<>();
+    }
 }
@@ -0,0 +1,24 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.azure;
+
+import com.microsoft.bot.azure.blobs.BlobsTranscriptStore;
+import com.microsoft.bot.builder.TranscriptStore;
+
+/**
+ * Runs the transcript store tests against the append blob layout. These tests
+ * require Azure Storage Emulator v5.7, see {@link TranscriptStoreTests}.
+ */
+public class AppendBlobsTranscriptStoreTests extends TranscriptStoreTests {
+
+    @Override
+    protected String getContainerName() {
+        return "append" + super.getContainerName();
+    }
+
+    @Override
+    protected TranscriptStore getTranscriptStore() {
+        return new BlobsTranscriptStore(blobStorageEmulatorConnectionString, getContainerName(), true);
+    }
+}
@@ -3,11 +3,14 @@
 
 package com.microsoft.bot.azure;
 
+import com.microsoft.azure.documentdb.AccessCondition;
 import com.microsoft.azure.documentdb.ConnectionPolicy;
 import com.microsoft.azure.documentdb.ConsistencyLevel;
 import com.microsoft.azure.documentdb.Database;
+import com.microsoft.azure.documentdb.Document;
 import com.microsoft.azure.documentdb.DocumentClient;
 import com.microsoft.azure.documentdb.DocumentClientException;
+import com.microsoft.azure.documentdb.RequestOptions;
 import com.microsoft.bot.builder.Storage;
 import com.microsoft.bot.builder.StorageBaseTests;
 import java.io.File;
@@ -19,9 +22,13 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The CosmosDB tests require the CosmosDB Emulator to be installed and running.
@@ -272,6 +279,142 @@ public class CosmosDbPartitionStorageTests extends StorageBaseTests {
         }
     }
 
+    @Test
+    public void createObjectBulkModeTest() {
+        super.createObjectTest(createBulkStorage(new CosmosDbStandIn()));
+    }
+
+    @Test
+    public void readUnknownBulkModeTest() {
+        super.readUnknownTest(createBulkStorage(new CosmosDbStandIn()));
+    }
+
+    @Test
+    public void updateObjectBulkModeTest() {
+        super.updateObjectTest(createBulkStorage(new CosmosDbStandIn()));
+    }
+
+    @Test
+    public void handleCrazyKeysBulkModeTest() {
+        super.handleCrazyKeys(createBulkStorage(new CosmosDbStandIn()));
+    }
+
+    @Test
+    public void bulkModeBoundsConcurrencyAndReportsStats() {
+        CosmosDbStandIn standIn = new CosmosDbStandIn();
+        List<CosmosDbOperationStats> stats = new ArrayList<>();
+        CosmosDbPartitionedStorageOptions options = createBulkOptions();
+        options.setMaxConcurrentOperations(4);
+        options.setOperationStatsHandler(stats::add);
+        Storage bulkStorage = new CosmosDbPartitionedStorage(options, standIn);
+
+        Map<String, Object> changes = new HashMap<>();
+        // The last two keys are never written, so the read finds 40 of 42.
+        String[] keys = new String[42];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "item" + i;
+            if (i < 40) {
+                changes.put(keys[i], "value" + i);
+            }
+        }
+
+        bulkStorage.write(changes).join();
+        Map<String, Object> items = bulkStorage.read(keys).join();
+
+        Assert.assertEquals(40, items.size());
+        Assert.assertEquals("value7", items.get("item7"));
+        Assert.assertTrue(standIn.maxInFlight.get() <= 4);
+        Assert.assertEquals(2, standIn.collectionLinks.get());
+
+        Assert.assertEquals(2, stats.size());
+        Assert.assertEquals("write", stats.get(0).getOperation());
+        Assert.assertEquals(40, stats.get(0).getItemCount());
+        Assert.assertEquals(40 * CosmosDbStandIn.WRITE_CHARGE, stats.get(0).getRequestCharge(), 0.001);
+        Assert.assertEquals("read", stats.get(1).getOperation());
+        Assert.assertEquals(40, stats.get(1).getItemCount());
+        Assert.assertEquals(42 * CosmosDbStandIn.READ_CHARGE, stats.get(1).getRequestCharge(), 0.001);
+        Assert.assertNotNull(stats.get(1).getLatency());
+    }
+
+    private static Storage createBulkStorage(CosmosDbDocumentClient documentClient) {
+        return new CosmosDbPartitionedStorage(createBulkOptions(), documentClient);
+    }
+
+    private static CosmosDbPartitionedStorageOptions createBulkOptions() {
+        CosmosDbPartitionedStorageOptions options = new CosmosDbPartitionedStorageOptions();
+        options.setAuthKey(CosmosAuthKey);
+        options.setContainerId(CosmosCollectionName);
+        options.setCosmosDbEndpoint(CosmosServiceEndpoint);
+        options.setDatabaseId(CosmosDatabaseName);
+        options.setBulkMode(true);
+        return options;
+    }
+
+    /**
+     * Stands in for a Cosmos DB container, including its optimistic concurrency
+     * contract.
+     */
+    private static class CosmosDbStandIn implements CosmosDbDocumentClient {
+        static final double READ_CHARGE = 1.0;
+        static final double WRITE_CHARGE = 5.5;
+
+        private final Map<String, String> documents = new ConcurrentHashMap<>();
+        private final AtomicInteger etags = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private final AtomicInteger collectionLinks = new AtomicInteger();
+
+        @Override
+        public CompletableFuture<String> getCollectionLink() {
+            collectionLinks.incrementAndGet();
+            return CompletableFuture.completedFuture("dbs/standin/colls/standin/");
+        }
+
+        @Override
+        public DocumentResponse readDocument(String collectionLink, String id, RequestOptions options) {
+            enter();
+            try {
+                String json = documents.get(id);
+                return new DocumentResponse(json != null ? new Document(json) : null, READ_CHARGE);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        @Override
+        public DocumentResponse upsertDocument(String collectionLink, Document document, RequestOptions options)
+            throws DocumentClientException {
+            enter();
+            try {
+                synchronized (documents) {
+                    String existing = documents.get(document.getId());
+                    AccessCondition condition = options.getAccessCondition();
+                    if (condition != null && !"*".equals(condition.getCondition())) {
+                        if (existing == null || !condition.getCondition().equals(new Document(existing).getETag())) {
+                            throw new DocumentClientException(412, "Precondition Failed");
+                        }
+                    }
+
+                    document.set("_etag", "\"" + etags.incrementAndGet() + "\"");
+                    documents.put(document.getId(), document.toJson());
+                    return new DocumentResponse(document, WRITE_CHARGE);
+                }
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        private void enter() {
+            int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     private static void createDatabaseIfNeeded(DocumentClient client) throws DocumentClientException {
         // Get the database if it exists
         List<Database> databaseList = client
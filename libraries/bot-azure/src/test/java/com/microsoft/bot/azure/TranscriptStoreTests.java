@@ -59,11 +59,11 @@ public class TranscriptStoreTests {
 
     private static final String[] CONVERSATION_SPECIAL_IDS = { "asd !&/#.'+:?\"", "ASD@123<>|}{][", "$%^;\\*()_" };
 
-    private String getContainerName() {
+    protected String getContainerName() {
         return String.format("blobstranscript%s", TEST_NAME.getMethodName().toLowerCase());
     }
 
-    private TranscriptStore getTranscriptStore() {
+    protected TranscriptStore getTranscriptStore() {
         return new BlobsTranscriptStore(blobStorageEmulatorConnectionString, getContainerName());
     }
 
@@ -0,0 +1,301 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.azure.blobs;
+
+import com.microsoft.bot.builder.PagedResult;
+import com.microsoft.bot.schema.Activity;
+import com.microsoft.bot.schema.ActivityTypes;
+import com.microsoft.bot.schema.ChannelAccount;
+import com.microsoft.bot.schema.ConversationAccount;
+import com.microsoft.bot.schema.RoleTypes;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests the append blob layout of {@link BlobsTranscriptStore} against an
+ * in-memory container, so they run without the Storage Emulator.
+ */
+public class BlobsTranscriptStoreSegmentTests {
+    private static final String CHANNEL_ID = "test";
+    private static final String CONVERSATION_ID = "conversation";
+    private static final String SEGMENT_PREFIX = "test/conversation/segments/";
+    private static final OffsetDateTime START = OffsetDateTime.of(2021, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    public void RecordsAreReplayedInOrder() {
+        SegmentStandIn segments = new SegmentStandIn(Integer.MAX_VALUE);
+        BlobsTranscriptStore store = new BlobsTranscriptStore(segments);
+
+        store.logActivities(Arrays.asList(createMessage(1), createMessage(2), createMessage(3))).join();
+
+        Activity update = createMessage(2);
+        update.setType(ActivityTypes.MESSAGE_UPDATE);
+        update.setText("edited");
+        update.setTimestamp(START.plusHours(1));
+        store.logActivity(update).join();
+
+        Activity delete = createMessage(3);
+        delete.setType(ActivityTypes.MESSAGE_DELETE);
+        store.logActivity(delete).join();
+
+        // One segment holds all the records, one block per write.
+        Assert.assertEquals(1, segments.listSegments(SEGMENT_PREFIX).size());
+        Assert.assertEquals(3, segments.blockCount(SEGMENT_PREFIX + "00000000.ndjson"));
+
+        List<Activity> items = getPage(store, null).getItems();
+        Assert.assertEquals(3, items.size());
+        Assert.assertEquals("message 1", items.get(0).getText());
+
+        Assert.assertEquals(ActivityTypes.MESSAGE, items.get(1).getType());
+        Assert.assertEquals("edited", items.get(1).getText());
+        Assert.assertEquals(START.plusMinutes(2).toInstant(), items.get(1).getTimestamp().toInstant());
+
+        Assert.assertEquals(ActivityTypes.MESSAGE_DELETE, items.get(2).getType());
+        Assert.assertEquals("3", items.get(2).getId());
+        Assert.assertNull(items.get(2).getText());
+        Assert.assertEquals("deleted", items.get(2).getFrom().getId());
+    }
+
+    @Test
+    public void FullSegmentsRollOverAndTheCursorIsKept() {
+        SegmentStandIn segments = new SegmentStandIn(2);
+        BlobsTranscriptStore store = new BlobsTranscriptStore(segments);
+
+        for (int i = 1; i <= 5; i++) {
+            store.logActivity(createMessage(i)).join();
+        }
+
+        Assert.assertEquals(
+            Arrays.asList(
+                SEGMENT_PREFIX + "00000000.ndjson",
+                SEGMENT_PREFIX + "00000001.ndjson",
+                SEGMENT_PREFIX + "00000002.ndjson"
+            ),
+            new ArrayList<>(segments.listSegments(SEGMENT_PREFIX).keySet())
+        );
+
+        // Each write after a segment filled up went straight to the next one.
+        Assert.assertEquals(0, segments.fullRejections.get());
+
+        List<Activity> items = getPage(store, null).getItems();
+        Assert.assertEquals(5, items.size());
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(String.valueOf(i + 1), items.get(i).getId());
+        }
+    }
+
+    @Test
+    public void PagesFollowContinuationTokens() {
+        SegmentStandIn segments = new SegmentStandIn(Integer.MAX_VALUE);
+        BlobsTranscriptStore store = new BlobsTranscriptStore(segments);
+        store.logActivities(createMessages(1, 45)).join();
+
+        PagedResult<Activity> first = getPage(store, null);
+        Assert.assertEquals(20, first.getItems().size());
+        Assert.assertEquals("20", first.getContinuationToken());
+
+        PagedResult<Activity> second = getPage(store, first.getContinuationToken());
+        Assert.assertEquals(20, second.getItems().size());
+        Assert.assertEquals("21", second.getItems().get(0).getId());
+        Assert.assertEquals("40", second.getContinuationToken());
+
+        PagedResult<Activity> third = getPage(store, second.getContinuationToken());
+        Assert.assertEquals(5, third.getItems().size());
+        Assert.assertEquals("45", third.getItems().get(4).getId());
+        Assert.assertNull(third.getContinuationToken());
+
+        Assert.assertTrue(getPage(store, "unknown").getItems().isEmpty());
+
+        List<Activity> recent = store.getTranscriptActivities(
+            CHANNEL_ID, CONVERSATION_ID, null, START.plusMinutes(40)
+        ).join().getItems();
+        Assert.assertEquals(6, recent.size());
+        Assert.assertEquals("40", recent.get(0).getId());
+
+        // Pages are copies of the kept transcript.
+        first.getItems().get(0).setText("changed");
+        Assert.assertEquals("message 1", getPage(store, null).getItems().get(0).getText());
+    }
+
+    @Test
+    public void NextPagesOnlyDownloadNewRecords() {
+        SegmentStandIn segments = new SegmentStandIn(Integer.MAX_VALUE);
+        BlobsTranscriptStore store = new BlobsTranscriptStore(segments);
+        String segment = SEGMENT_PREFIX + "00000000.ndjson";
+
+        store.logActivities(createMessages(1, 25)).join();
+        PagedResult<Activity> first = getPage(store, null);
+        long replayed = segments.length(segment);
+        Assert.assertEquals(Arrays.asList(segment + "@0"), segments.reads);
+
+        store.logActivities(createMessages(26, 30)).join();
+        PagedResult<Activity> second = getPage(store, first.getContinuationToken());
+        Assert.assertEquals(10, second.getItems().size());
+        Assert.assertEquals("30", second.getItems().get(9).getId());
+        Assert.assertEquals(Arrays.asList(segment + "@0", segment + "@" + replayed), segments.reads);
+
+        // Nothing was appended, so nothing is downloaded.
+        getPage(store, null);
+        Assert.assertEquals(2, segments.reads.size());
+
+        // Another instance deletes the transcript and writes a shorter one, so
+        // the kept replay no longer matches and is rebuilt from the start.
+        BlobsTranscriptStore other = new BlobsTranscriptStore(segments);
+        other.deleteTranscript(CHANNEL_ID, CONVERSATION_ID).join();
+        other.logActivities(createMessages(100, 101)).join();
+
+        List<Activity> items = getPage(store, null).getItems();
+        Assert.assertEquals(2, items.size());
+        Assert.assertEquals("100", items.get(0).getId());
+        Assert.assertEquals(segment + "@0", segments.reads.get(segments.reads.size() - 1));
+    }
+
+    @Test
+    public void DownloadsAreBounded() {
+        SegmentStandIn segments = new SegmentStandIn(1);
+        BlobsTranscriptStore store = new BlobsTranscriptStore(segments);
+        for (int i = 1; i <= 20; i++) {
+            store.logActivity(createMessage(i)).join();
+        }
+        Assert.assertEquals(20, segments.listSegments(SEGMENT_PREFIX).size());
+
+        segments.readDelayMillis = 20;
+        List<Activity> items = getPage(store, null).getItems();
+
+        Assert.assertEquals(20, items.size());
+        for (int i = 0; i < 20; i++) {
+            Assert.assertEquals(String.valueOf(i + 1), items.get(i).getId());
+        }
+        Assert.assertTrue(segments.maxInFlight.get() <= 8);
+    }
+
+    private static PagedResult<Activity> getPage(BlobsTranscriptStore store, String continuationToken) {
+        return store.getTranscriptActivities(CHANNEL_ID, CONVERSATION_ID, continuationToken, null).join();
+    }
+
+    private static List<Activity> createMessages(int from, int to) {
+        List<Activity> activities = new ArrayList<>();
+        for (int i = from; i <= to; i++) {
+            activities.add(createMessage(i));
+        }
+        return activities;
+    }
+
+    private static Activity createMessage(int number) {
+        Activity activity = new Activity(ActivityTypes.MESSAGE);
+        activity.setId(String.valueOf(number));
+        activity.setText("message " + number);
+        activity.setChannelId(CHANNEL_ID);
+        activity.setConversation(new ConversationAccount(CONVERSATION_ID));
+        activity.setFrom(new ChannelAccount("user", "User", RoleTypes.USER));
+        activity.setRecipient(new ChannelAccount("bot", "Bot", RoleTypes.BOT));
+        activity.setTimestamp(START.plusMinutes(number));
+        return activity;
+    }
+
+    /**
+     * An in-memory container of append blobs.
+     */
+    private static class SegmentStandIn implements BlobSegmentClient {
+        private final int maxBlocks;
+        private final TreeMap<String, Segment> blobs = new TreeMap<>();
+        private final List<String> reads = new CopyOnWriteArrayList<>();
+        private final AtomicInteger fullRejections = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private volatile long readDelayMillis;
+
+        SegmentStandIn(int withMaxBlocks) {
+            maxBlocks = withMaxBlocks;
+        }
+
+        @Override
+        public synchronized Map<String, Long> listSegments(String prefix) {
+            Map<String, Long> segments = new LinkedHashMap<>();
+            for (Map.Entry<String, Segment> blob : blobs.tailMap(prefix).entrySet()) {
+                if (!blob.getKey().startsWith(prefix)) {
+                    break;
+                }
+                segments.put(blob.getKey(), (long) blob.getValue().content.size());
+            }
+            return segments;
+        }
+
+        @Override
+        public InputStream openRange(String name, long offset, long count) {
+            int running = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(running, Math::max);
+            try {
+                if (readDelayMillis > 0) {
+                    Thread.sleep(readDelayMillis);
+                }
+
+                byte[] content;
+                synchronized (this) {
+                    content = blobs.get(name).content.toByteArray();
+                }
+                reads.add(name + "@" + offset);
+                return new ByteArrayInputStream(content, (int) offset, (int) count);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        @Override
+        public synchronized AppendResult appendBlock(String name, byte[] block) {
+            Segment segment = blobs.get(name);
+            if (segment == null) {
+                return AppendResult.SEGMENT_NOT_FOUND;
+            }
+            if (segment.blocks >= maxBlocks) {
+                fullRejections.incrementAndGet();
+                return AppendResult.SEGMENT_FULL;
+            }
+
+            segment.content.write(block, 0, block.length);
+            segment.blocks++;
+            return segment.blocks >= maxBlocks ? AppendResult.APPENDED_SEGMENT_FULL : AppendResult.APPENDED;
+        }
+
+        @Override
+        public synchronized void createSegment(String name) {
+            blobs.putIfAbsent(name, new Segment());
+        }
+
+        @Override
+        public synchronized void deleteBlobs(String prefix) {
+            blobs.keySet().removeIf(name -> name.startsWith(prefix));
+        }
+
+        synchronized int blockCount(String name) {
+            return blobs.get(name).blocks;
+        }
+
+        synchronized long length(String name) {
+            return blobs.get(name).content.size();
+        }
+    }
+
+    private static final class Segment {
+        private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        private int blocks;
+    }
+}
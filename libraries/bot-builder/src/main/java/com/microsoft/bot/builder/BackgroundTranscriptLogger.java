@@ -0,0 +1,403 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.builder;
+
+import com.microsoft.bot.connector.Async;
+import com.microsoft.bot.connector.ExecutorFactory;
+import com.microsoft.bot.schema.Activity;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A TranscriptLogger that writes activities to another logger on a background
+ * thread.
+ *
+ * <p>
+ * Logged activities are placed on a bounded queue and the calls return
+ * without waiting for them to be written.
+ * While the queue has activities, one task at a time on
+ * {@link ExecutorFactory#getExecutor()} drains it, groups the activities it
+ * took by conversation, and passes each group to
+ * {@link TranscriptLogger#logActivities(List)} of the wrapped logger. No
+ * thread is held while the wrapped logger writes. What happens when the queue
+ * is full is set by the {@link OverflowPolicy}.
+ * </p>
+ *
+ * <p>
+ * Since writes happen later, activities aren't in the wrapped logger as soon as
+ * a turn ends; call {@link #flush()} to wait for them. Closing the logger
+ * writes whatever is still queued. Loggers that are still open when the JVM
+ * shuts down are closed by a single shutdown hook shared by all instances.
+ * </p>
+ */
+public final class BackgroundTranscriptLogger implements TranscriptLogger, AutoCloseable {
+    /**
+     * The default number of activities that can wait to be written.
+     */
+    public static final int DEFAULT_CAPACITY = 10000;
+
+    /**
+     * The default maximum number of activities taken from the queue at once.
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 500;
+
+    private static final Set<BackgroundTranscriptLogger> OPEN_LOGGERS = ConcurrentHashMap.newKeySet();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            for (BackgroundTranscriptLogger open : OPEN_LOGGERS) {
+                open.close();
+            }
+        }, "transcript-logger-shutdown"));
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(BackgroundTranscriptLogger.class);
+
+    private final TranscriptLogger transcriptLogger;
+    private final OverflowPolicy overflowPolicy;
+    private final int maxBatchSize;
+    private final BlockingQueue<Activity> queue;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final Deque<Waiting> waiting = new ArrayDeque<>();
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final List<Flush> flushes = new ArrayList<>();
+    private long completed;
+    private volatile boolean closed;
+
+    /**
+     * What to do with an activity that is logged while the queue is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Hold the activity back until there is room in the queue. The task
+         * returned for it completes only then, which slows down the turn
+         * logging it without holding a thread.
+         */
+        BLOCK,
+
+        /**
+         * Discard the activity being logged.
+         */
+        DROP_NEWEST,
+
+        /**
+         * Discard the oldest activity still waiting to be written.
+         */
+        DROP_OLDEST
+    }
+
+    /**
+     * Creates a logger with a queue of {@link #DEFAULT_CAPACITY} activities that
+     * holds activities back when full.
+     *
+     * @param withTranscriptLogger The logger to write activities to.
+     */
+    public BackgroundTranscriptLogger(TranscriptLogger withTranscriptLogger) {
+        this(withTranscriptLogger, DEFAULT_CAPACITY, OverflowPolicy.BLOCK);
+    }
+
+    /**
+     * Creates a logger.
+     *
+     * @param withTranscriptLogger The logger to write activities to.
+     * @param withCapacity         The number of activities that can wait to be
+     *                             written.
+     * @param withOverflowPolicy   What to do when the queue is full.
+     */
+    public BackgroundTranscriptLogger(
+        TranscriptLogger withTranscriptLogger,
+        int withCapacity,
+        OverflowPolicy withOverflowPolicy
+    ) {
+        this(withTranscriptLogger, withCapacity, withOverflowPolicy, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a logger.
+     *
+     * @param withTranscriptLogger The logger to write activities to.
+     * @param withCapacity         The number of activities that can wait to be
+     *                             written.
+     * @param withOverflowPolicy   What to do when the queue is full.
+     * @param withMaxBatchSize     The maximum number of activities taken from
+     *                             the queue at once.
+     */
+    public BackgroundTranscriptLogger(
+        TranscriptLogger withTranscriptLogger,
+        int withCapacity,
+        OverflowPolicy withOverflowPolicy,
+        int withMaxBatchSize
+    ) {
+        if (withTranscriptLogger == null) {
+            throw new IllegalArgumentException("transcriptLogger cannot be null");
+        }
+        if (withCapacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        if (withOverflowPolicy == null) {
+            throw new IllegalArgumentException("overflowPolicy cannot be null");
+        }
+        if (withMaxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be at least 1");
+        }
+
+        transcriptLogger = withTranscriptLogger;
+        overflowPolicy = withOverflowPolicy;
+        maxBatchSize = withMaxBatchSize;
+        queue = new ArrayBlockingQueue<>(withCapacity);
+        OPEN_LOGGERS.add(this);
+    }
+
+    /**
+     * Gets the number of activities discarded because the queue was full.
+     *
+     * @return The number of dropped activities.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Gets the number of activities waiting to be written.
+     *
+     * @return The number of queued activities.
+     */
+    public int getQueuedCount() {
+        synchronized (waiting) {
+            return queue.size() + waiting.size();
+        }
+    }
+
+    /**
+     * Queues an activity to be written.
+     *
+     * @param activity The activity to log.
+     * @return A task that completes once the activity is queued, or dropped.
+     */
+    @Override
+    public CompletableFuture<Void> logActivity(Activity activity) {
+        if (activity == null) {
+            return Async.completeExceptionally(
+                new IllegalArgumentException("activity cannot be null for LogActivity()"));
+        }
+
+        return enqueue(activity);
+    }
+
+    /**
+     * Queues activities to be written, in order.
+     *
+     * @param activities The activities to log.
+     * @return A task that completes once the activities are queued, or dropped.
+     */
+    @Override
+    public CompletableFuture<Void> logActivities(List<Activity> activities) {
+        if (activities == null || activities.contains(null)) {
+            return Async.completeExceptionally(
+                new IllegalArgumentException("activities cannot be null for LogActivities()"));
+        }
+
+        List<CompletableFuture<Void>> queued = new ArrayList<>();
+        for (Activity activity : activities) {
+            CompletableFuture<Void> result = enqueue(activity);
+            if (result.isCompletedExceptionally()) {
+                return result;
+            }
+            if (!result.isDone()) {
+                queued.add(result);
+            }
+        }
+        return CompletableFuture.allOf(queued.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Waits for the activities queued so far to be written.
+     *
+     * @return A task that completes once every activity queued before the call
+     *         has been passed to the wrapped logger and that write has finished.
+     */
+    public CompletableFuture<Void> flush() {
+        long target = accepted.get();
+        synchronized (flushes) {
+            if (completed >= target) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            Flush flush = new Flush(target);
+            flushes.add(flush);
+            return flush.future;
+        }
+    }
+
+    /**
+     * Stops accepting activities and waits for the queued ones to be written.
+     */
+    @Override
+    public void close() {
+        OPEN_LOGGERS.remove(this);
+        closed = true;
+        try {
+            flush().join();
+        } catch (CompletionException e) {
+            logger.error("Failed to write queued transcript activities", e);
+        }
+    }
+
+    private CompletableFuture<Void> enqueue(Activity activity) {
+        if (closed) {
+            return Async.completeExceptionally(new IllegalStateException("The transcript logger is closed."));
+        }
+
+        CompletableFuture<Void> result = CompletableFuture.completedFuture(null);
+        switch (overflowPolicy) {
+            case BLOCK:
+                // Parking the caller could stall the pool the drain runs on, so
+                // the activity waits its turn here and the drain admits it.
+                synchronized (waiting) {
+                    if (!waiting.isEmpty() || !queue.offer(activity)) {
+                        Waiting held = new Waiting(activity);
+                        waiting.add(held);
+                        result = held.future;
+                    }
+                }
+                break;
+
+            case DROP_NEWEST:
+                if (!queue.offer(activity)) {
+                    dropped.incrementAndGet();
+                    return CompletableFuture.completedFuture(null);
+                }
+                break;
+
+            default:
+                while (!queue.offer(activity)) {
+                    if (queue.poll() != null) {
+                        dropped.incrementAndGet();
+                        markCompleted(1);
+                    }
+                }
+                break;
+        }
+
+        accepted.incrementAndGet();
+        scheduleDrain();
+        return result;
+    }
+
+    private void scheduleDrain() {
+        if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+            ExecutorFactory.getExecutor().execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        List<Activity> batch = new ArrayList<>();
+        queue.drainTo(batch, maxBatchSize);
+        admitWaiting();
+        if (batch.isEmpty()) {
+            draining.set(false);
+            // An activity may have been queued after the queue was found empty.
+            scheduleDrain();
+            return;
+        }
+
+        writeBatch(batch).whenComplete((result, error) -> {
+            markCompleted(batch.size());
+            ExecutorFactory.getExecutor().execute(this::drain);
+        });
+    }
+
+    private void admitWaiting() {
+        List<Waiting> admitted = new ArrayList<>();
+        synchronized (waiting) {
+            while (!waiting.isEmpty() && queue.offer(waiting.peek().activity)) {
+                admitted.add(waiting.poll());
+            }
+        }
+
+        for (Waiting held : admitted) {
+            held.future.complete(null);
+        }
+    }
+
+    private CompletableFuture<Void> writeBatch(List<Activity> batch) {
+        // Activities of one conversation stay in order; conversations are written concurrently.
+        Map<String, List<Activity>> conversations = new LinkedHashMap<>();
+        for (Activity activity : batch) {
+            String key = activity.getChannelId() + "/"
+                + (activity.getConversation() != null ? activity.getConversation().getId() : null);
+            conversations.computeIfAbsent(key, k -> new ArrayList<>()).add(activity);
+        }
+
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        for (List<Activity> conversation : conversations.values()) {
+            CompletableFuture<Void> logged;
+            try {
+                logged = transcriptLogger.logActivities(conversation);
+            } catch (RuntimeException e) {
+                logged = Async.completeExceptionally(e);
+            }
+            writes.add(logged.exceptionally(error -> {
+                logger.error("Failed to write {} transcript activities", conversation.size(), error);
+                return null;
+            }));
+        }
+
+        return CompletableFuture.allOf(writes.toArray(new CompletableFuture[0]));
+    }
+
+    private void markCompleted(int count) {
+        List<Flush> done = new ArrayList<>();
+        synchronized (flushes) {
+            completed += count;
+            Iterator<Flush> pending = flushes.iterator();
+            while (pending.hasNext()) {
+                Flush flush = pending.next();
+                if (completed >= flush.target) {
+                    done.add(flush);
+                    pending.remove();
+                }
+            }
+        }
+
+        for (Flush flush : done) {
+            flush.future.complete(null);
+        }
+    }
+
+    private static final class Waiting {
+        private final Activity activity;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        Waiting(Activity withActivity) {
+            activity = withActivity;
+        }
+    }
+
+    private static final class Flush {
+        private final long target;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        Flush(long withTarget) {
+            target = withTarget;
+        }
+    }
+}
@@ -12,7 +12,6 @@ import com.microsoft.bot.connector.Async;
 import com.microsoft.bot.connector.Channels;
 import com.microsoft.bot.connector.ConnectorClient;
 import com.microsoft.bot.connector.Conversations;
-import com.microsoft.bot.connector.ExecutorFactory;
 import com.microsoft.bot.connector.OAuthClient;
 import com.microsoft.bot.connector.OAuthClientConfig;
 import com.microsoft.bot.connector.authentication.AppCredentials;
@@ -64,6 +63,7 @@ import java.util.Base64;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A bot adapter that can connect a bot to a service endpoint.
@@ -130,12 +130,12 @@ public class BotFrameworkAdapter extends BotAdapter
     /**
      * ConnectorClient cache.
      */
-    private Map<String, ConnectorClient> connectorClients = new ConcurrentHashMap<>();
+    private final ClientCache<ConnectorClient> connectorClients = new ClientCache<>();
 
     /**
      * OAuthClient cache.
      */
-    private Map<String, OAuthClient> oAuthClients = new ConcurrentHashMap<>();
+    private final ClientCache<OAuthClient> oAuthClients = new ClientCache<>();
 
     /**
      * Initializes a new instance of the {@link BotFrameworkAdapter} class, using a
@@ -459,7 +459,6 @@ public class BotFrameworkAdapter extends BotAdapter
         CompletableFuture<InvokeResponse> pipelineResult = new CompletableFuture<>();
 
         try (TurnContextImpl context = new TurnContextImpl(this, activity)) {
-            activity.setCallerId(generateCallerId(identity).join());
             context.getTurnState().add(BOT_IDENTITY_KEY, identity);
 
             // The OAuthScope is also stored on the TurnState to get the correct
@@ -470,7 +469,11 @@ public class BotFrameworkAdapter extends BotAdapter
 
             context.getTurnState().add(OAUTH_SCOPE_KEY, scope);
 
-            pipelineResult = createConnectorClient(activity.getServiceUrl(), identity, scope)
+            pipelineResult = generateCallerId(identity)
+                .thenCompose(callerId -> {
+                    activity.setCallerId(callerId);
+                    return createConnectorClient(activity.getServiceUrl(), identity, scope);
+                })
 
                 // run pipeline
                 .thenCompose(connectorClient -> {
@@ -576,71 +579,73 @@ public class BotFrameworkAdapter extends BotAdapter
             );
         }
 
-        return CompletableFuture.supplyAsync(() -> {
-            ResourceResponse[] responses = new ResourceResponse[activities.size()];
-
-            /*
-             * NOTE: we're using for here (vs. foreach) because we want to simultaneously
-             * index into the activities array to get the activity to process as well as use
-             * that index to assign the response to the responses array and this is the most
-             * cost effective way to do that.
-             */
-            for (int index = 0; index < activities.size(); index++) {
-                Activity activity = activities.get(index);
-
-                // Clients and bots SHOULD NOT include an id field in activities they generate.
-                activity.setId(null);
-
-                ResourceResponse response;
-                if (activity.isType(ActivityTypes.DELAY)) {
-                    // The Activity Schema doesn't have a delay type build in, so it's simulated
-                    // here in the Bot. This matches the behavior in the Node connector.
-                    int delayMs = (int) activity.getValue();
-                    try {
-                        Thread.sleep(delayMs);
-                    } catch (InterruptedException e) {
-                        throw new RuntimeException(e);
-                    }
-                    // No need to create a response. One will be created below.
-                    response = null;
-                } else if (activity.isType(ActivityTypes.INVOKE_RESPONSE)) {
-                    context.getTurnState().add(INVOKE_RESPONSE_KEY, activity);
-                    // No need to create a response. One will be created below.
-                    response = null;
-                } else if (
-                    activity.isType(ActivityTypes.TRACE)
-                        && !StringUtils.equals(activity.getChannelId(), Channels.EMULATOR)
-                ) {
-                    // if it is a Trace activity we only send to the channel if it's the emulator.
-                    response = null;
-                } else if (!StringUtils.isEmpty(activity.getReplyToId())) {
-                    ConnectorClient connectorClient = context.getTurnState().get(CONNECTOR_CLIENT_KEY);
-                    response = connectorClient.getConversations().replyToActivity(activity).join();
-                } else {
-                    ConnectorClient connectorClient = context.getTurnState().get(CONNECTOR_CLIENT_KEY);
-                    response = connectorClient.getConversations().sendToConversation(activity).join();
-                }
+        ResourceResponse[] responses = new ResourceResponse[activities.size()];
+        CompletableFuture<Void> pipeline = CompletableFuture.completedFuture(null);
 
-                // If No response is set, then default to a "simple" response. This can't really
-                // be done above, as there are cases where the ReplyTo/SendTo methods will also
-                // return null (See below) so the check has to happen here.
-                //
-                // Note: In addition to the Invoke / Delay / Activity cases, this code also
-                // applies with Skype and Teams with regards to typing events. When sending a
-                // typing event in these channels they do not return a RequestResponse which
-                // causes the bot to blow up.
-                //
-                // https://github.com/Microsoft/botbuilder-dotnet/issues/460
-                // bug report : https://github.com/Microsoft/botbuilder-dotnet/issues/465
-                if (response == null) {
-                    response = new ResourceResponse((activity.getId() == null) ? "" : activity.getId());
-                }
+        /*
+         * NOTE: we're using for here (vs. foreach) because we want to simultaneously
+         * index into the activities array to get the activity to process as well as use
+         * that index to assign the response to the responses array and this is the most
+         * cost effective way to do that.
+         *
+         * Each send is chained to the previous one so activities arrive in order, without
+         * holding a thread while a send or a delay is pending.
+         */
+        for (int index = 0; index < activities.size(); index++) {
+            Activity activity = activities.get(index);
+            int responseIndex = index;
 
-                responses[index] = response;
-            }
+            pipeline = pipeline
+                .thenCompose(result -> Async.tryCompletable(() -> sendActivity(context, activity)))
+                .thenAccept(response -> responses[responseIndex] = response);
+        }
+
+        return pipeline.thenApply(result -> responses);
+    }
 
-            return responses;
-        }, ExecutorFactory.getExecutor());
+    private CompletableFuture<ResourceResponse> sendActivity(TurnContext context, Activity activity) {
+        // Clients and bots SHOULD NOT include an id field in activities they generate.
+        activity.setId(null);
+
+        CompletableFuture<ResourceResponse> sent;
+        if (activity.isType(ActivityTypes.DELAY)) {
+            // The Activity Schema doesn't have a delay type build in, so it's simulated
+            // here in the Bot. This matches the behavior in the Node connector.
+            int delayMs = (int) activity.getValue();
+            // No need to create a response. One will be created below.
+            sent = Async.delay(delayMs, TimeUnit.MILLISECONDS).thenApply(result -> null);
+        } else if (activity.isType(ActivityTypes.INVOKE_RESPONSE)) {
+            context.getTurnState().add(INVOKE_RESPONSE_KEY, activity);
+            // No need to create a response. One will be created below.
+            sent = CompletableFuture.completedFuture(null);
+        } else if (
+            activity.isType(ActivityTypes.TRACE)
+                && !StringUtils.equals(activity.getChannelId(), Channels.EMULATOR)
+        ) {
+            // if it is a Trace activity we only send to the channel if it's the emulator.
+            sent = CompletableFuture.completedFuture(null);
+        } else if (!StringUtils.isEmpty(activity.getReplyToId())) {
+            ConnectorClient connectorClient = context.getTurnState().get(CONNECTOR_CLIENT_KEY);
+            sent = connectorClient.getConversations().replyToActivity(activity);
+        } else {
+            ConnectorClient connectorClient = context.getTurnState().get(CONNECTOR_CLIENT_KEY);
+            sent = connectorClient.getConversations().sendToConversation(activity);
+        }
+
+        // If No response is set, then default to a "simple" response. This can't really
+        // be done above, as there are cases where the ReplyTo/SendTo methods will also
+        // return null (See below) so the check has to happen here.
+        //
+        // Note: In addition to the Invoke / Delay / Activity cases, this code also
+        // applies with Skype and Teams with regards to typing events. When sending a
+        // typing event in these channels they do not return a RequestResponse which
+        // causes the bot to blow up.
+        //
+        // https://github.com/Microsoft/botbuilder-dotnet/issues/460
+        // bug report : https://github.com/Microsoft/botbuilder-dotnet/issues/465
+        return sent.thenApply(response -> response != null
+            ? response
+            : new ResourceResponse((activity.getId() == null) ? "" : activity.getId()));
     }
 
     /**
@@ -1152,43 +1157,49 @@ public class BotFrameworkAdapter extends BotAdapter
         TurnContext turnContext,
         AppCredentials oAuthAppCredentials
     ) {
-        if (
+        CompletableFuture<Boolean> emulateOAuthCards =
             !OAuthClientConfig.emulateOAuthCards
                 && StringUtils.equalsIgnoreCase(turnContext.getActivity().getChannelId(), Channels.EMULATOR)
-                && credentialProvider.isAuthenticationDisabled().join()
-        ) {
-            OAuthClientConfig.emulateOAuthCards = true;
-        }
-        AtomicBoolean sendEmulateOAuthCards = new AtomicBoolean(false);
+                    ? credentialProvider.isAuthenticationDisabled()
+                    : CompletableFuture.completedFuture(false);
 
-        String appId = getBotAppId(turnContext);
-        String cacheKey = appId + (oAuthAppCredentials != null ? oAuthAppCredentials.getAppId() : "");
+        return emulateOAuthCards.thenCompose(isAuthDisabled -> {
+            if (isAuthDisabled) {
+                OAuthClientConfig.emulateOAuthCards = true;
+            }
 
-        OAuthClient client = oAuthClients.computeIfAbsent(cacheKey, key -> {
-            sendEmulateOAuthCards.set(OAuthClientConfig.emulateOAuthCards);
+            String appId = getBotAppId(turnContext);
+            String cacheKey = appId + (oAuthAppCredentials != null ? oAuthAppCredentials.getAppId() : "");
+            CompletableFuture<AppCredentials> credentialsFuture = oAuthAppCredentials != null
+                ? CompletableFuture.completedFuture(oAuthAppCredentials)
+                : getAppCredentials(appId, getBotFrameworkOAuthScope());
 
-            String oAuthScope = getBotFrameworkOAuthScope();
-            AppCredentials credentials =
-                oAuthAppCredentials != null ? oAuthAppCredentials : getAppCredentials(appId, oAuthScope).join();
+            return credentialsFuture.thenCompose(credentials -> {
+                AtomicBoolean sendEmulateOAuthCards = new AtomicBoolean(false);
 
-            return new RestOAuthClient(
-                OAuthClientConfig.emulateOAuthCards
-                    ? turnContext.getActivity().getServiceUrl()
-                    : OAuthClientConfig.OAUTHENDPOINT,
-                credentials
-            );
-        });
+                OAuthClient client = oAuthClients.getOrCreate(cacheKey, key -> {
+                    sendEmulateOAuthCards.set(OAuthClientConfig.emulateOAuthCards);
 
-        // adding the oAuthClient into the TurnState
-        if (turnContext.getTurnState().get(BotAdapter.OAUTH_CLIENT_KEY) == null) {
-            turnContext.getTurnState().add(BotAdapter.OAUTH_CLIENT_KEY, client);
-        }
+                    return new RestOAuthClient(
+                        OAuthClientConfig.emulateOAuthCards
+                            ? turnContext.getActivity().getServiceUrl()
+                            : OAuthClientConfig.OAUTHENDPOINT,
+                        credentials
+                    );
+                });
 
-        if (sendEmulateOAuthCards.get()) {
-            return client.getUserToken().sendEmulateOAuthCards(true).thenApply(voidresult -> client);
-        }
+                // adding the oAuthClient into the TurnState
+                if (turnContext.getTurnState().get(BotAdapter.OAUTH_CLIENT_KEY) == null) {
+                    turnContext.getTurnState().add(BotAdapter.OAUTH_CLIENT_KEY, client);
+                }
+
+                if (sendEmulateOAuthCards.get()) {
+                    return client.getUserToken().sendEmulateOAuthCards(true).thenApply(voidresult -> client);
+                }
 
-        return CompletableFuture.completedFuture(client);
+                return CompletableFuture.completedFuture(client);
+            });
+        });
     }
 
     /**
@@ -1276,7 +1287,7 @@ public class BotFrameworkAdapter extends BotAdapter
             usingAppCredentials != null ? usingAppCredentials.oAuthScope() : null
         );
 
-        result.complete(connectorClients.computeIfAbsent(clientKey, key -> {
+        result.complete(connectorClients.getOrCreate(clientKey, key -> {
             try {
                 RestConnectorClient connectorClient;
                 if (usingAppCredentials != null) {
@@ -1446,7 +1457,28 @@ public class BotFrameworkAdapter extends BotAdapter
      * @return The ConnectorClient cache.
      */
     protected Map<String, ConnectorClient> getConnectorClientCache() {
-        return Collections.unmodifiableMap(connectorClients);
+        return connectorClients.asMap();
+    }
+
+    /**
+     * Gets the cache of ConnectorClients, keyed by service URL, app id and
+     * scope. Its limits can be changed, and it counts hits, misses and
+     * evictions.
+     *
+     * @return The ConnectorClient cache.
+     */
+    public ClientCache<ConnectorClient> getConnectorClients() {
+        return connectorClients;
+    }
+
+    /**
+     * Gets the cache of OAuthClients, keyed by app id. Its limits can be
+     * changed, and it counts hits, misses and evictions.
+     *
+     * @return The OAuthClient cache.
+     */
+    public ClientCache<OAuthClient> getOAuthClients() {
+        return oAuthClients;
     }
 
     /**
@@ -3,14 +3,26 @@
 
 package com.microsoft.bot.builder;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microsoft.bot.connector.Async;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
@@ -28,6 +40,24 @@ import java.util.function.Supplier;
  * </p>
  */
 public abstract class BotState implements PropertyManager {
+    /**
+     * Whether a BotState class reads and writes storage the way this class does,
+     * so its storage operations can be combined with those of other states.
+     */
+    private static final ClassValue<Boolean> DEFAULT_PERSISTENCE = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("load", TurnContext.class, boolean.class).getDeclaringClass()
+                    == BotState.class
+                    && type.getMethod("saveChanges", TurnContext.class, boolean.class).getDeclaringClass()
+                    == BotState.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
     /**
      * The key for the state cache.
      */
@@ -40,6 +70,12 @@ public abstract class BotState implements PropertyManager {
 
     private ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
 
+    /**
+     * Whether changes are tracked per property instead of by comparing the whole
+     * serialized state.
+     */
+    private boolean trackPropertyChanges;
+
     /**
      * Initializes a new instance of the BotState class.
      *
@@ -59,6 +95,41 @@ public abstract class BotState implements PropertyManager {
         contextServiceKey = withContextServiceKey;
     }
 
+    /**
+     * Gets whether this BotState tracks changes per property.
+     *
+     * @return true if property level change tracking is enabled.
+     */
+    public boolean getTrackPropertyChanges() {
+        return trackPropertyChanges;
+    }
+
+    /**
+     * Sets whether this BotState tracks changes per property.
+     *
+     * <p>
+     * By default the whole state is serialized when it is loaded and again when
+     * it is saved in order to detect changes. With property change tracking
+     * enabled, properties set or deleted through a {@link StatePropertyAccessor}
+     * are recorded as dirty, and only mutable values handed out by an accessor
+     * are digested so that in-place modifications are still detected. A turn
+     * that does not touch state does not serialize it at all. Code that modifies
+     * the raw map directly must first call
+     * {@link CachedBotState#stopTrackingChanges()}, which falls back to
+     * comparing the whole state for the rest of the turn.
+     * </p>
+     *
+     * <p>
+     * The setting applies to state loaded after it is changed.
+     * </p>
+     *
+     * @param withTrackPropertyChanges true to enable property level change
+     *                                 tracking.
+     */
+    public void setTrackPropertyChanges(boolean withTrackPropertyChanges) {
+        trackPropertyChanges = withTrackPropertyChanges;
+    }
+
     /**
      * Creates a named state property within the scope of a BotState and returns an
      * accessor for the property.
@@ -106,11 +177,7 @@ public abstract class BotState implements PropertyManager {
             String storageKey = getStorageKey(turnContext);
             if (force || cachedState == null || cachedState.getState() == null) {
                 return storage.read(new String[]{storageKey}).thenApply(val -> {
-                    turnContext.getTurnState()
-                        .replace(
-                            contextServiceKey,
-                            new CachedBotState((Map<String, Object>) val.get(storageKey))
-                        );
+                    cacheState(turnContext, val.get(storageKey));
                     return null;
                 });
             }
@@ -119,6 +186,62 @@ public abstract class BotState implements PropertyManager {
         });
     }
 
+    /**
+     * Loads several BotState objects, reading the keys of all states that share a
+     * storage layer in a single call.
+     *
+     * <p>
+     * Each state is loaded as {@link #load(TurnContext, boolean)} would load it.
+     * States whose class overrides how it is loaded or saved are loaded on their
+     * own.
+     * </p>
+     *
+     * @param turnContext The context object for this turn.
+     * @param botStates   The states to load.
+     * @param force       true to overwrite any existing state cache; or false to
+     *                    load state from storage only if the cache doesn't already
+     *                    exist.
+     * @return A task that represents the work queued to execute.
+     */
+    public static CompletableFuture<Void> loadAll(
+        TurnContext turnContext,
+        Collection<? extends BotState> botStates,
+        boolean force
+    ) {
+        return Async.tryCompletable(() -> {
+            if (turnContext == null) {
+                throw new IllegalArgumentException("turnContext cannot be null");
+            }
+
+            List<CompletableFuture<Void>> loads = new ArrayList<>();
+            Map<Storage, Map<String, BotState>> reads = new IdentityHashMap<>();
+            for (BotState botState : distinct(botStates)) {
+                CachedBotState cachedState = turnContext.getTurnState().get(botState.contextServiceKey);
+                if (!DEFAULT_PERSISTENCE.get(botState.getClass())) {
+                    loads.add(botState.load(turnContext, force));
+                } else if (force || cachedState == null || cachedState.getState() == null) {
+                    Map<String, BotState> keys = reads.computeIfAbsent(botState.storage, s -> new LinkedHashMap<>());
+                    if (keys.putIfAbsent(botState.getStorageKey(turnContext), botState) != null) {
+                        // States sharing a key each get their own copy of it.
+                        loads.add(botState.load(turnContext, force));
+                    }
+                }
+            }
+
+            for (Map.Entry<Storage, Map<String, BotState>> read : reads.entrySet()) {
+                Map<String, BotState> keys = read.getValue();
+                if (!keys.isEmpty()) {
+                    String[] storageKeys = keys.keySet().toArray(new String[0]);
+                    loads.add(read.getKey().read(storageKeys).thenAccept(values -> {
+                        keys.forEach((key, botState) -> botState.cacheState(turnContext, values.get(key)));
+                    }));
+                }
+            }
+
+            return CompletableFuture.allOf(loads.toArray(new CompletableFuture[0]));
+        });
+    }
+
     /**
      * Writes the state cache for this BotState to the storage layer.
      *
@@ -151,7 +274,7 @@ public abstract class BotState implements PropertyManager {
                 changes.put(storageKey, cachedState.state);
 
                 return storage.write(changes).thenApply(val -> {
-                    cachedState.setHash(cachedState.computeHash(cachedState.state));
+                    cachedState.markSaved();
                     return null;
                 });
             }
@@ -160,6 +283,81 @@ public abstract class BotState implements PropertyManager {
         });
     }
 
+    /**
+     * Writes the state caches of several BotState objects, writing the changes
+     * of all states that share a storage layer in a single call.
+     *
+     * <p>
+     * Each state is saved as {@link #saveChanges(TurnContext, boolean)} would
+     * save it. States whose class overrides how it is loaded or saved are saved
+     * on their own.
+     * </p>
+     *
+     * @param turnContext The context object for this turn.
+     * @param botStates   The states to save.
+     * @param force       true to save the state caches to storage; or false to
+     *                    save a state only if a property in its cache has
+     *                    changed.
+     * @return A task that represents the work queued to execute.
+     */
+    public static CompletableFuture<Void> saveAllChanges(
+        TurnContext turnContext,
+        Collection<? extends BotState> botStates,
+        boolean force
+    ) {
+        return Async.tryCompletable(() -> {
+            if (turnContext == null) {
+                throw new IllegalArgumentException("turnContext cannot be null");
+            }
+
+            List<CompletableFuture<Void>> saves = new ArrayList<>();
+            Map<Storage, Map<String, Object>> writes = new IdentityHashMap<>();
+            Map<Storage, List<CachedBotState>> written = new IdentityHashMap<>();
+            for (BotState botState : distinct(botStates)) {
+                CachedBotState cachedState = turnContext.getTurnState().get(botState.contextServiceKey);
+                if (!DEFAULT_PERSISTENCE.get(botState.getClass()) || cachedState == null) {
+                    saves.add(botState.saveChanges(turnContext, force));
+                } else if (force || cachedState.isChanged()) {
+                    Map<String, Object> changes = writes.computeIfAbsent(botState.storage, s -> new HashMap<>());
+                    String storageKey = botState.getStorageKey(turnContext);
+                    if (changes.containsKey(storageKey)) {
+                        saves.add(botState.saveChanges(turnContext, force));
+                    } else {
+                        changes.put(storageKey, cachedState.state);
+                        written.computeIfAbsent(botState.storage, s -> new ArrayList<>()).add(cachedState);
+                    }
+                }
+            }
+
+            for (Map.Entry<Storage, Map<String, Object>> write : writes.entrySet()) {
+                List<CachedBotState> cachedStates = written.get(write.getKey());
+                saves.add(write.getKey().write(write.getValue()).thenAccept(result -> {
+                    cachedStates.forEach(CachedBotState::markSaved);
+                }));
+            }
+
+            return CompletableFuture.allOf(saves.toArray(new CompletableFuture[0]));
+        });
+    }
+
+    private static Collection<BotState> distinct(Collection<? extends BotState> botStates) {
+        Set<BotState> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<BotState> ordered = new ArrayList<>();
+        for (BotState botState : botStates) {
+            if (botState != null && distinct.add(botState)) {
+                ordered.add(botState);
+            }
+        }
+        return ordered;
+    }
+
+    private void cacheState(TurnContext turnContext, Object state) {
+        turnContext.getTurnState().replace(
+            contextServiceKey,
+            new CachedBotState((Map<String, Object>) state, trackPropertyChanges)
+        );
+    }
+
     /**
      * Clears the state cache for this BotState.
      *
@@ -179,7 +377,7 @@ public abstract class BotState implements PropertyManager {
             ));
         }
 
-        turnContext.getTurnState().replace(contextServiceKey, new CachedBotState());
+        turnContext.getTurnState().replace(contextServiceKey, new CachedBotState(null, trackPropertyChanges));
         return CompletableFuture.completedFuture(null);
     }
 
@@ -247,6 +445,15 @@ public abstract class BotState implements PropertyManager {
      */
     public abstract String getStorageKey(TurnContext turnContext) throws IllegalArgumentException;
 
+    /**
+     * Gets the storage layer this BotState reads and writes.
+     *
+     * @return The storage provider.
+     */
+    protected Storage getStorage() {
+        return storage;
+    }
+
     /**
      * Gets the value of a property from the state cache for this BotState.
      *
@@ -275,7 +482,7 @@ public abstract class BotState implements PropertyManager {
         return Async.tryCompletable(() -> {
             CachedBotState cachedState = turnContext.getTurnState().get(contextServiceKey);
             return (CompletableFuture<T>) CompletableFuture
-                .completedFuture(cachedState.getState().get(propertyName));
+                .completedFuture(cachedState.getProperty(propertyName));
         });
     }
 
@@ -303,7 +510,7 @@ public abstract class BotState implements PropertyManager {
         }
 
         CachedBotState cachedState = turnContext.getTurnState().get(contextServiceKey);
-        cachedState.getState().remove(propertyName);
+        cachedState.removeProperty(propertyName);
         return CompletableFuture.completedFuture(null);
     }
 
@@ -333,7 +540,7 @@ public abstract class BotState implements PropertyManager {
         }
 
         CachedBotState cachedState = turnContext.getTurnState().get(contextServiceKey);
-        cachedState.getState().put(propertyName, value);
+        cachedState.setProperty(propertyName, value);
         return CompletableFuture.completedFuture(null);
     }
 
@@ -341,20 +548,62 @@ public abstract class BotState implements PropertyManager {
      * Internal cached bot state.
      */
     public static class CachedBotState {
+        /**
+         * Object-JsonNode converter used to digest the state. ObjectMapper is
+         * thread safe once configured, so a single instance is shared.
+         */
+        private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
+
+        /**
+         * FNV-1a 64-bit offset basis.
+         */
+        private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+        /**
+         * FNV-1a 64-bit prime.
+         */
+        private static final long FNV_PRIME = 0x100000001b3L;
+
+        /**
+         * Mask for the low byte of an int.
+         */
+        private static final int BYTE_MASK = 0xff;
+
         /**
          * In memory cache of BotState properties.
          */
         private Map<String, Object> state;
 
         /**
-         * Used to compute the hash of the state.
+         * Digest of the whole state when it was loaded or last saved.
+         */
+        private Long hash;
+
+        /**
+         * Digest of the whole state computed by the last call to isChanged,
+         * reused as the new baseline once that state has been written.
+         */
+        private Long pendingHash;
+
+        /**
+         * Whether changes are tracked per property.
+         */
+        private boolean trackChanges;
+
+        /**
+         * Whether the state must be written regardless of its properties.
          */
-        private String hash;
+        private boolean stateChanged;
 
         /**
-         * Object-JsonNode converter.
+         * Properties set or deleted since the state was loaded or last saved.
          */
-        private ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+        private Set<String> dirtyProperties = new HashSet<>();
+
+        /**
+         * Digests of mutable property values handed out while tracking changes.
+         */
+        private Map<String, Long> propertyHashes = new HashMap<>();
 
         /**
          * Construct with empty state.
@@ -369,36 +618,116 @@ public abstract class BotState implements PropertyManager {
          * @param withState The initial state.
          */
         CachedBotState(Map<String, Object> withState) {
+            this(withState, false);
+        }
+
+        /**
+         * Construct with supplied state.
+         *
+         * @param withState        The initial state.
+         * @param withTrackChanges true to track changes per property instead of
+         *                         digesting the whole state up front.
+         */
+        CachedBotState(Map<String, Object> withState, boolean withTrackChanges) {
             state = withState != null ? withState : new ConcurrentHashMap<>();
-            hash = computeHash(withState);
+            trackChanges = withTrackChanges;
+
+            // State that did not come from storage always needs to be written.
+            stateChanged = withState == null;
+            if (!trackChanges) {
+                hash = computeHash(state);
+            }
         }
 
         /**
+         * Gets the raw state.
+         *
+         * <p>
+         * When tracking changes per property, changes made directly to the
+         * returned map can't be observed. Call {@link #stopTrackingChanges()}
+         * before modifying it.
+         * </p>
+         *
          * @return The Map of key value pairs which are the state.
          */
         public Map<String, Object> getState() {
             return state;
         }
 
+        /**
+         * Stops tracking changes per property, falling back to comparing the
+         * whole state for the remainder of the turn.
+         *
+         * <p>
+         * This is needed before the raw state is modified directly, since such
+         * changes don't go through a {@link StatePropertyAccessor}.
+         * </p>
+         */
+        public void stopTrackingChanges() {
+            if (trackChanges) {
+                hash = computeHash(state);
+                trackChanges = false;
+            }
+        }
+
         /**
          * @param withState The key value pairs to set the state with.
          */
         void setState(Map<String, Object> withState) {
             state = withState;
+            if (trackChanges) {
+                stateChanged = true;
+            }
         }
 
         /**
          * @return The hash value for the state.
          */
-        String getHash() {
+        Long getHash() {
             return hash;
         }
 
         /**
-         * @param witHashCode Set the hash value.
+         * @param withHashCode Set the hash value.
+         */
+        void setHash(Long withHashCode) {
+            hash = withHashCode;
+        }
+
+        /**
+         * Gets a property value, remembering a digest of mutable values so that
+         * in-place changes can be detected when tracking changes per property.
+         *
+         * @param name The property name.
+         * @return The property value, or null if it is not set.
+         */
+        Object getProperty(String name) {
+            Object value = state.get(name);
+            if (trackChanges && !isImmutable(value) && !dirtyProperties.contains(name)) {
+                propertyHashes.computeIfAbsent(name, key -> computeHash(value));
+            }
+            return value;
+        }
+
+        /**
+         * Sets a property value.
+         *
+         * @param name  The property name.
+         * @param value The property value.
+         */
+        void setProperty(String name, Object value) {
+            state.put(name, value);
+            markDirty(name);
+        }
+
+        /**
+         * Removes a property.
+         *
+         * @param name The property name.
          */
-        void setHash(String witHashCode) {
-            hash = witHashCode;
+        void removeProperty(String name) {
+            state.remove(name);
+            markDirty(name);
         }
 
         /**
@@ -406,23 +735,115 @@ public abstract class BotState implements PropertyManager {
          * @return Boolean to tell if the state has changed.
          */
         boolean isChanged() {
-            return !StringUtils.equals(hash, computeHash(state));
+            pendingHash = null;
+            if (stateChanged || !dirtyProperties.isEmpty()) {
+                return true;
+            }
+
+            for (Map.Entry<String, Long> entry : propertyHashes.entrySet()) {
+                if (!Objects.equals(entry.getValue(), computeHash(state.get(entry.getKey())))) {
+                    return true;
+                }
+            }
+
+            if (trackChanges) {
+                return false;
+            }
+
+            pendingHash = computeHash(state);
+            return !Objects.equals(hash, pendingHash);
+        }
+
+        /**
+         * Records that the current state has been written to storage.
+         */
+        void markSaved() {
+            stateChanged = false;
+
+            if (trackChanges) {
+                // Values that are still reachable by the caller become the new
+                // baseline for detecting in-place changes.
+                for (String name : dirtyProperties) {
+                    Object value = state.get(name);
+                    if (!isImmutable(value)) {
+                        propertyHashes.put(name, null);
+                    }
+                }
+                propertyHashes.replaceAll((name, value) -> computeHash(state.get(name)));
+            } else {
+                propertyHashes.clear();
+                hash = pendingHash != null ? pendingHash : computeHash(state);
+            }
+
+            dirtyProperties.clear();
+            pendingHash = null;
         }
 
         /**
          * @param obj The object to compute the hash for.
          * @return The computed has for the provided object.
          */
-        String computeHash(Object obj) {
+        Long computeHash(Object obj) {
             if (obj == null) {
-                return "";
+                return 0L;
             }
 
+            DigestOutputStream digest = new DigestOutputStream();
             try {
-                return mapper.writeValueAsString(obj);
-            } catch (JsonProcessingException e) {
+                MAPPER.writeValue(digest, obj);
+            } catch (IOException e) {
                 return null;
             }
+            return digest.getValue();
+        }
+
+        private void markDirty(String name) {
+            if (trackChanges) {
+                dirtyProperties.add(name);
+                propertyHashes.remove(name);
+            }
+        }
+
+        private static boolean isImmutable(Object value) {
+            return value == null
+                || value instanceof String
+                || value instanceof Boolean
+                || value instanceof Character
+                || value instanceof Integer
+                || value instanceof Long
+                || value instanceof Short
+                || value instanceof Byte
+                || value instanceof Double
+                || value instanceof Float
+                || value instanceof BigInteger
+                || value instanceof BigDecimal
+                || value instanceof Enum;
+        }
+
+        /**
+         * Computes a 64-bit FNV-1a digest of the bytes written to it, so state can
+         * be compared without holding on to its serialized form.
+         */
+        private static final class DigestOutputStream extends OutputStream {
+            private long value = FNV_OFFSET_BASIS;
+
+            @Override
+            public void write(int b) {
+                value ^= b & BYTE_MASK;
+                value *= FNV_PRIME;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                for (int i = off; i < off + len; i++) {
+                    value ^= b[i] & BYTE_MASK;
+                    value *= FNV_PRIME;
+                }
+            }
+
+            long getValue() {
+                return value;
+            }
         }
     }
 
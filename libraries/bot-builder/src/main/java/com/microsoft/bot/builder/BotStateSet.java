@@ -81,16 +81,15 @@ public class BotStateSet {
     }
 
     /**
-     * Load all BotState records in parallel.
+     * Load all BotState records in parallel. States that share a storage layer
+     * are read with a single call.
      *
      * @param turnContext The TurnContext.
      * @param force       should data be forced into cache.
      * @return A task that represents the work queued to execute.
      */
     public CompletableFuture<Void> loadAll(TurnContext turnContext, boolean force) {
-        return CompletableFuture.allOf(
-            botStates.stream().map(future -> future.load(turnContext, force)).toArray(CompletableFuture[]::new)
-        );
+        return BotState.loadAll(turnContext, botStates, force);
     }
 
     /**
@@ -104,7 +103,8 @@ public class BotStateSet {
     }
 
     /**
-     * Save All BotState changes in parallel.
+     * Save All BotState changes in parallel. Changes to states that share a
+     * storage layer are written with a single call.
      *
      * @param turnContext The TurnContext.
      * @param force       should data be forced to save even if no change were
@@ -112,9 +112,6 @@ public class BotStateSet {
      * @return A task that represents the work queued to execute.
      */
     public CompletableFuture<Void> saveAllChanges(TurnContext turnContext, boolean force) {
-        CompletableFuture<?>[] allSaves = botStates.stream()
-            .map(botState -> botState.saveChanges(turnContext, force))
-            .toArray(CompletableFuture[]::new);
-        return CompletableFuture.allOf(allSaves);
+        return BotState.saveAllChanges(turnContext, botStates, force);
     }
 }
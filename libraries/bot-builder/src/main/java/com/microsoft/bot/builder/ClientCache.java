@@ -0,0 +1,276 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.builder;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A bounded cache of API clients, such as the connector and OAuth clients kept
+ * by {@link BotFrameworkAdapter}.
+ *
+ * <p>
+ * The cache holds at most {@link #getMaxEntries()} clients and discards the
+ * least recently used one when it is full. A client that hasn't been used for
+ * {@link #getIdleTimeout()} is discarded as well. Discarded clients are not
+ * closed, since a turn may still be using them; they only have to be garbage
+ * collected, as their connections and threads belong to the shared HTTP
+ * transport.
+ * </p>
+ *
+ * @param <T> The type of client.
+ */
+public final class ClientCache<T> {
+    /**
+     * The default maximum number of cached clients.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    /**
+     * The default time a client is kept without being used.
+     */
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofHours(1);
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final Map<String, Entry<T>> entries;
+    private int maxEntries;
+    private long idleTimeoutNanos;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates a cache of up to {@link #DEFAULT_MAX_ENTRIES} clients, each kept
+     * until it has been idle for {@link #DEFAULT_IDLE_TIMEOUT}.
+     */
+    public ClientCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_IDLE_TIMEOUT);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param withMaxEntries  The maximum number of cached clients.
+     * @param withIdleTimeout How long a client is kept without being used.
+     */
+    public ClientCache(int withMaxEntries, Duration withIdleTimeout) {
+        entries = new LinkedHashMap<String, Entry<T>>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<T>> eldest) {
+                if (size() > maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+        setLimits(withMaxEntries, withIdleTimeout);
+    }
+
+    /**
+     * Changes the limits of the cache. Clients that are over the new limits are
+     * discarded.
+     *
+     * @param withMaxEntries  The maximum number of cached clients.
+     * @param withIdleTimeout How long a client is kept without being used.
+     */
+    public synchronized void setLimits(int withMaxEntries, Duration withIdleTimeout) {
+        if (withMaxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        if (withIdleTimeout == null || withIdleTimeout.isNegative() || withIdleTimeout.isZero()) {
+            throw new IllegalArgumentException("idleTimeout must be positive");
+        }
+
+        maxEntries = withMaxEntries;
+        idleTimeoutNanos = withIdleTimeout.toNanos();
+
+        Iterator<Entry<T>> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions++;
+        }
+        removeExpired(System.nanoTime());
+    }
+
+    /**
+     * Gets the maximum number of cached clients.
+     *
+     * @return The maximum number of clients.
+     */
+    public synchronized int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Gets how long a client is kept without being used.
+     *
+     * @return The idle timeout.
+     */
+    public synchronized Duration getIdleTimeout() {
+        return Duration.ofNanos(idleTimeoutNanos);
+    }
+
+    /**
+     * Gets a cached client, or creates and caches one.
+     *
+     * <p>
+     * The client is created without holding the cache lock. If two callers
+     * create a client for the same key at once, both get the one cached first.
+     * </p>
+     *
+     * @param key     The key of the client.
+     * @param factory Creates the client if it isn't cached. A null result is
+     *                returned and not cached.
+     * @return The client.
+     */
+    public T getOrCreate(String key, Function<String, T> factory) {
+        T client = get(key);
+        if (client != null) {
+            return client;
+        }
+
+        client = factory.apply(key);
+        if (client == null) {
+            return null;
+        }
+
+        synchronized (this) {
+            long now = System.nanoTime();
+            Entry<T> existing = entries.get(key);
+            if (existing != null && !existing.isExpired(now, idleTimeoutNanos)) {
+                existing.lastUsed = now;
+                return existing.client;
+            }
+            entries.put(key, new Entry<>(client, now));
+            return client;
+        }
+    }
+
+    /**
+     * Gets a cached client.
+     *
+     * @param key The key of the client.
+     * @return The client, or null if none is cached or it has been idle too long.
+     */
+    public synchronized T get(String key) {
+        long now = System.nanoTime();
+        removeExpired(now);
+
+        Entry<T> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+
+        hits++;
+        entry.lastUsed = now;
+        return entry.client;
+    }
+
+    /**
+     * Caches a client, replacing any cached with the same key.
+     *
+     * @param key    The key of the client.
+     * @param client The client.
+     */
+    public synchronized void put(String key, T client) {
+        if (client == null) {
+            throw new IllegalArgumentException("client cannot be null");
+        }
+
+        long now = System.nanoTime();
+        removeExpired(now);
+        entries.put(key, new Entry<>(client, now));
+    }
+
+    /**
+     * Removes all cached clients.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Gets the number of cached clients.
+     *
+     * @return The number of clients.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the number of lookups that found a cached client.
+     *
+     * @return The hit count.
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of lookups that didn't find a cached client.
+     *
+     * @return The miss count.
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of clients discarded because the cache was full or they
+     * were idle too long.
+     *
+     * @return The eviction count.
+     */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    /**
+     * Gets a copy of the cached clients by key.
+     *
+     * @return The cached clients, least recently used first.
+     */
+    public synchronized Map<String, T> asMap() {
+        Map<String, T> clients = new LinkedHashMap<>();
+        entries.forEach((key, entry) -> clients.put(key, entry.client));
+        return Collections.unmodifiableMap(clients);
+    }
+
+    private void removeExpired(long now) {
+        // Entries are in access order, so the idle ones are at the start.
+        Iterator<Entry<T>> eldest = entries.values().iterator();
+        while (eldest.hasNext()) {
+            if (!eldest.next().isExpired(now, idleTimeoutNanos)) {
+                break;
+            }
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private static final class Entry<T> {
+        private final T client;
+        private long lastUsed;
+
+        Entry(T withClient, long withLastUsed) {
+            client = withClient;
+            lastUsed = withLastUsed;
+        }
+
+        boolean isExpired(long now, long idleTimeoutNanos) {
+            return now - lastUsed > idleTimeoutNanos;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.builder;
+
+import com.codepoetics.protonpack.StreamUtils;
+import com.microsoft.bot.connector.Async;
+import com.microsoft.bot.schema.Activity;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A memory transcript store that keeps each conversation ordered by timestamp.
+ *
+ * <p>
+ * Activities are kept in a sorted map with an index from activity id to
+ * position, so reading a page of a transcript, with or without a start date or
+ * continuation token, takes logarithmic time instead of sorting and scanning
+ * the conversation. Channels and conversations are held in concurrent maps, so
+ * logging to different conversations doesn't contend on a single lock.
+ * </p>
+ *
+ * <p>
+ * Activities with the same timestamp are returned in the order they were
+ * logged. An activity without a timestamp is ordered before all others.
+ * </p>
+ *
+ * <p>
+ * Like {@link MemoryTranscriptStore}, this is unbounded and should only be
+ * used for unit tests or non-production environments.
+ * </p>
+ */
+public class IndexedMemoryTranscriptStore implements TranscriptStore {
+    /**
+     * Numbers of results in a paged request.
+     */
+    private static final int PAGE_SIZE = 20;
+
+    /**
+     * Map of channel transcripts.
+     */
+    private final Map<String, Map<String, ConversationTranscript>> channels = new ConcurrentHashMap<>();
+
+    /**
+     * Logs an activity to the transcript.
+     *
+     * @param activity The activity to log.
+     * @return A CompletableFuture that represents the work queued to execute.
+     */
+    @Override
+    public final CompletableFuture<Void> logActivity(Activity activity) {
+        if (activity == null) {
+            return Async.completeExceptionally(
+                new IllegalArgumentException("activity cannot be null for LogActivity()"));
+        }
+
+        channels.computeIfAbsent(activity.getChannelId(), key -> new ConcurrentHashMap<>())
+            .computeIfAbsent(activity.getConversation().getId(), key -> new ConversationTranscript(activity))
+            .add(activity);
+
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Gets from the store activities that match a set of criteria.
+     *
+     * @param channelId         The ID of the channel the conversation is in.
+     * @param conversationId    The ID of the conversation.
+     * @param continuationToken The continuation token from the previous page of
+     *                          results.
+     * @param startDate         A cutoff date. Activities older than this date are
+     *                          not included.
+     * @return A task that represents the work queued to execute. If the task
+     *         completes successfully, the result contains the matching activities.
+     */
+    @Override
+    public CompletableFuture<PagedResult<Activity>> getTranscriptActivities(
+        String channelId,
+        String conversationId,
+        String continuationToken,
+        OffsetDateTime startDate
+    ) {
+        if (channelId == null) {
+            return Async.completeExceptionally(
+                new IllegalArgumentException(String.format("missing %1$s", "channelId")));
+        }
+
+        if (conversationId == null) {
+            return Async.completeExceptionally(
+                new IllegalArgumentException(String.format("missing %1$s", "conversationId")));
+        }
+
+        PagedResult<Activity> pagedResult = new PagedResult<>();
+        Map<String, ConversationTranscript> channel = channels.get(channelId);
+        ConversationTranscript transcript = channel != null ? channel.get(conversationId) : null;
+        if (transcript != null) {
+            List<Activity> items = transcript.getPage(continuationToken, startDate);
+
+            pagedResult.setItems(items);
+            if (items.size() == PAGE_SIZE) {
+                pagedResult.setContinuationToken(items.get(items.size() - 1).getId());
+            }
+        }
+
+        return CompletableFuture.completedFuture(pagedResult);
+    }
+
+    /**
+     * Deletes conversation data from the store.
+     *
+     * @param channelId      The ID of the channel the conversation is in.
+     * @param conversationId The ID of the conversation to delete.
+     * @return A task that represents the work queued to execute.
+     */
+    @Override
+    public CompletableFuture<Void> deleteTranscript(String channelId, String conversationId) {
+        if (channelId == null) {
+            return Async.completeExceptionally(new IllegalArgumentException(
+                String.format("%1$s should not be null", "channelId")
+            ));
+        }
+
+        if (conversationId == null) {
+            return Async.completeExceptionally(new IllegalArgumentException(
+                String.format("%1$s should not be null", "conversationId")
+            ));
+        }
+
+        Map<String, ConversationTranscript> channel = channels.get(channelId);
+        if (channel != null) {
+            channel.remove(conversationId);
+        }
+
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Gets the conversations on a channel from the store.
+     *
+     * @param channelId         The ID of the channel.
+     * @param continuationToken The continuation token from the previous page of
+     *                          results.
+     * @return A task that represents the work queued to execute.
+     */
+    @Override
+    public CompletableFuture<PagedResult<TranscriptInfo>> listTranscripts(
+        String channelId,
+        String continuationToken
+    ) {
+        if (channelId == null) {
+            return Async.completeExceptionally(new IllegalArgumentException(String.format(
+                "missing %1$s", "channelId"
+            )));
+        }
+
+        PagedResult<TranscriptInfo> pagedResult = new PagedResult<>();
+        Map<String, ConversationTranscript> channel = channels.get(channelId);
+        if (channel != null) {
+            Stream<TranscriptInfo> stream = channel.entrySet().stream()
+                .map(c -> new TranscriptInfo(c.getKey(), channelId, c.getValue().created))
+                .sorted(Comparator.comparing(TranscriptInfo::getCreated));
+
+            if (continuationToken != null) {
+                stream = StreamUtils
+                    .skipWhile(stream, c -> !c.getId().equals(continuationToken))
+                    .skip(1);
+            }
+
+            List<TranscriptInfo> items = stream.limit(PAGE_SIZE).collect(Collectors.toList());
+
+            pagedResult.setItems(items);
+            if (items.size() == PAGE_SIZE) {
+                pagedResult.setContinuationToken(items.get(items.size() - 1).getId());
+            }
+        }
+
+        return CompletableFuture.completedFuture(pagedResult);
+    }
+
+    /**
+     * The activities of one conversation, ordered by timestamp, and the position
+     * of each activity id.
+     */
+    private static final class ConversationTranscript {
+        private final OffsetDateTime created;
+        private final AtomicLong sequence = new AtomicLong();
+        private final NavigableMap<Position, Activity> activities = new ConcurrentSkipListMap<>();
+        private final Map<String, Position> positions = new ConcurrentHashMap<>();
+
+        ConversationTranscript(Activity first) {
+            created = first.getTimestamp() != null ? first.getTimestamp() : OffsetDateTime.now();
+        }
+
+        void add(Activity activity) {
+            Position position = new Position(activity.getTimestamp(), sequence.getAndIncrement());
+            activities.put(position, activity);
+            if (activity.getId() != null) {
+                // A continuation token resumes after the first activity with that id.
+                positions.merge(activity.getId(), position, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            }
+        }
+
+        List<Activity> getPage(String continuationToken, OffsetDateTime startDate) {
+            Position start = new Position(startDate, Long.MIN_VALUE);
+            NavigableMap<Position, Activity> page = activities.tailMap(start, true);
+
+            if (continuationToken != null) {
+                Position after = positions.get(continuationToken);
+                if (after == null || after.compareTo(start) < 0) {
+                    // The token isn't part of the transcript after startDate, so nothing follows it.
+                    return new ArrayList<>();
+                }
+                page = activities.tailMap(after, false);
+            }
+
+            List<Activity> items = new ArrayList<>(PAGE_SIZE);
+            for (Activity activity : page.values()) {
+                if (items.size() == PAGE_SIZE) {
+                    break;
+                }
+                items.add(activity);
+            }
+            return items;
+        }
+    }
+
+    /**
+     * Orders activities by timestamp, then by the order they were logged in.
+     */
+    private static final class Position implements Comparable<Position> {
+        private final OffsetDateTime timestamp;
+        private final long sequence;
+
+        Position(OffsetDateTime withTimestamp, long withSequence) {
+            timestamp = withTimestamp;
+            sequence = withSequence;
+        }
+
+        @Override
+        public int compareTo(Position other) {
+            if (timestamp != other.timestamp) {
+                if (timestamp == null) {
+                    return -1;
+                }
+                if (other.timestamp == null) {
+                    return 1;
+                }
+
+                int result = timestamp.compareTo(other.timestamp);
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Position && compareTo((Position) obj) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(sequence);
+        }
+    }
+}
@@ -16,6 +16,8 @@ import org.slf4j.LoggerFactory;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A storage layer that uses an in-memory dictionary.
@@ -28,7 +30,8 @@ public class MemoryStorage implements Storage {
     private static final String TYPENAMEFORNONENTITY = "__type_name_";
 
     /**
-     * Concurrency sync.
+     * Concurrency sync, only used when the backing map is not a
+     * {@link ConcurrentMap}.
      */
     private final Object syncroot = new Object();
 
@@ -42,6 +45,11 @@ public class MemoryStorage implements Storage {
      */
     private Map<String, JsonNode> memory;
 
+    /**
+     * The internal map for storage when it supports atomic per-key updates.
+     */
+    private ConcurrentMap<String, JsonNode> concurrentMemory;
+
     /**
      * The... ummm... logger.
      */
@@ -50,7 +58,12 @@ public class MemoryStorage implements Storage {
     /**
      * eTag counter.
      */
-    private int eTag = 0;
+    private final AtomicInteger eTag = new AtomicInteger();
+
+    /**
+     * Classes resolved from stored type names.
+     */
+    private final Map<String, Class<?>> typeCache = new ConcurrentHashMap<>();
 
     /**
      * Initializes a new instance of the MemoryStorage class.
@@ -62,6 +75,12 @@ public class MemoryStorage implements Storage {
     /**
      * Initializes a new instance of the MemoryStorage class.
      *
+     * <p>
+     * When the dictionary is a {@link ConcurrentMap} (the default), reads,
+     * writes and deletes do not take a storage wide lock; eTag checks are
+     * applied atomically per key. Any other map is guarded by a single lock.
+     * </p>
+     *
      * @param values A pre-existing dictionary to use; or null to use a new one.
      */
     public MemoryStorage(Map<String, JsonNode> values) {
@@ -71,6 +90,9 @@ public class MemoryStorage implements Storage {
         objectMapper.enableDefaultTyping();
 
         memory = values != null ? values : new ConcurrentHashMap<>();
+        if (memory instanceof ConcurrentMap) {
+            concurrentMemory = (ConcurrentMap<String, JsonNode>) memory;
+        }
     }
 
     /**
@@ -87,43 +109,49 @@ public class MemoryStorage implements Storage {
             return Async.completeExceptionally(new IllegalArgumentException("keys cannot be null"));
         }
 
-        Map<String, Object> storeItems = new ConcurrentHashMap<>(keys.length);
+        if (concurrentMemory != null) {
+            return readItems(keys);
+        }
+
         synchronized (this.syncroot) {
-            for (String key : keys) {
-                if (memory.containsKey(key)) {
-                    JsonNode stateNode = memory.get(key);
-                    if (stateNode != null) {
-                        try {
-                            // Check if type info is set for the class
-                            if (!(stateNode.hasNonNull(TYPENAMEFORNONENTITY))) {
-                                logger.error("Read failed: Type info not present for " + key);
-                                return Async.completeExceptionally(new RuntimeException(
-                                    String
-                                        .format("Read failed: Type info not present for key " + key)
-                                ));
-                            }
-                            String clsName = stateNode.get(TYPENAMEFORNONENTITY).textValue();
-
-                            // Load the class info
-                            Class<?> cls;
-                            try {
-                                cls = Class.forName(clsName);
-                            } catch (ClassNotFoundException e) {
-                                logger.error("Read failed: Could not load class {}", clsName);
-                                return Async.completeExceptionally(new RuntimeException(
-                                    String.format("Read failed: Could not load class %s", clsName)
-                                ));
-                            }
-
-                            // Populate dictionary
-                            storeItems.put(key, objectMapper.treeToValue(stateNode, cls));
-                        } catch (JsonProcessingException e) {
-                            logger.error("Read failed: {}", e.toString());
-                            return Async.completeExceptionally(new RuntimeException(
-                                String.format("Read failed: %s", e.toString())
-                            ));
-                        }
+            return readItems(keys);
+        }
+    }
+
+    private CompletableFuture<Map<String, Object>> readItems(String[] keys) {
+        Map<String, Object> storeItems = new ConcurrentHashMap<>(keys.length);
+        for (String key : keys) {
+            JsonNode stateNode = memory.get(key);
+            if (stateNode != null) {
+                try {
+                    // Check if type info is set for the class
+                    if (!(stateNode.hasNonNull(TYPENAMEFORNONENTITY))) {
+                        logger.error("Read failed: Type info not present for " + key);
+                        return Async.completeExceptionally(new RuntimeException(
+                            String
+                                .format("Read failed: Type info not present for key " + key)
+                        ));
                     }
+                    String clsName = stateNode.get(TYPENAMEFORNONENTITY).textValue();
+
+                    // Load the class info
+                    Class<?> cls;
+                    try {
+                        cls = getType(clsName);
+                    } catch (ClassNotFoundException e) {
+                        logger.error("Read failed: Could not load class {}", clsName);
+                        return Async.completeExceptionally(new RuntimeException(
+                            String.format("Read failed: Could not load class %s", clsName)
+                        ));
+                    }
+
+                    // Populate dictionary
+                    storeItems.put(key, objectMapper.treeToValue(stateNode, cls));
+                } catch (JsonProcessingException e) {
+                    logger.error("Read failed: {}", e.toString());
+                    return Async.completeExceptionally(new RuntimeException(
+                        String.format("Read failed: %s", e.toString())
+                    ));
                 }
             }
         }
@@ -131,6 +159,15 @@ public class MemoryStorage implements Storage {
         return CompletableFuture.completedFuture(storeItems);
     }
 
+    private Class<?> getType(String clsName) throws ClassNotFoundException {
+        Class<?> cls = typeCache.get(clsName);
+        if (cls == null) {
+            cls = Class.forName(clsName);
+            typeCache.put(clsName, cls);
+        }
+        return cls;
+    }
+
     /**
      * Writes storage items to storage.
      *
@@ -139,50 +176,65 @@ public class MemoryStorage implements Storage {
      */
     @Override
     public CompletableFuture<Void> write(Map<String, Object> changes) {
-        synchronized (this.syncroot) {
-            for (Map.Entry<String, Object> change : changes.entrySet()) {
-                Object newValue = change.getValue();
-
-                String oldStateETag = null;
-                if (memory.containsKey(change.getKey())) {
-                    JsonNode oldState = memory.get(change.getKey());
-                    if (oldState.has("eTag")) {
-                        JsonNode eTagToken = oldState.get("eTag");
-                        oldStateETag = eTagToken.asText();
-                    }
-                }
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            Object newValue = change.getValue();
 
-                // Dictionary stores Key:JsonNode (with type information held within the
-                // JsonNode)
-                JsonNode newState = objectMapper.valueToTree(newValue);
-                ((ObjectNode) newState)
-                    .put(TYPENAMEFORNONENTITY, newValue.getClass().getTypeName());
-
-                // Set ETag if applicable
-                if (newValue instanceof StoreItem) {
-                    StoreItem newStoreItem = (StoreItem) newValue;
-                    if (
-                        oldStateETag != null && !StringUtils.equals(newStoreItem.getETag(), "*")
-                            && !StringUtils.equals(newStoreItem.getETag(), oldStateETag)
-                    ) {
-                        String msg = String.format(
-                            "eTag conflict. Original: %s, Current: %s", newStoreItem.getETag(),
-                            oldStateETag
+            // Dictionary stores Key:JsonNode (with type information held within the
+            // JsonNode)
+            JsonNode newState = objectMapper.valueToTree(newValue);
+            ((ObjectNode) newState)
+                .put(TYPENAMEFORNONENTITY, newValue.getClass().getTypeName());
+
+            try {
+                if (concurrentMemory != null) {
+                    // The eTag check and the swap happen atomically for this key only.
+                    concurrentMemory.compute(
+                        change.getKey(),
+                        (key, oldState) -> applyETag(oldState, newValue, newState)
+                    );
+                } else {
+                    synchronized (this.syncroot) {
+                        memory.put(
+                            change.getKey(),
+                            applyETag(memory.get(change.getKey()), newValue, newState)
                         );
-                        logger.error(msg);
-                        return Async.completeExceptionally(new RuntimeException(msg));
                     }
-                    int newTag = eTag++;
-                    ((ObjectNode) newState).put("eTag", Integer.toString(newTag));
                 }
-
-                memory.put(change.getKey(), newState);
+            } catch (ETagConflictException e) {
+                logger.error(e.getMessage());
+                return Async.completeExceptionally(new RuntimeException(e.getMessage()));
             }
         }
 
         return CompletableFuture.completedFuture(null);
     }
 
+    private JsonNode applyETag(JsonNode oldState, Object newValue, JsonNode newState) {
+        // Set ETag if applicable
+        if (newValue instanceof StoreItem) {
+            String oldStateETag = null;
+            if (oldState != null && oldState.has("eTag")) {
+                JsonNode eTagToken = oldState.get("eTag");
+                oldStateETag = eTagToken.asText();
+            }
+
+            StoreItem newStoreItem = (StoreItem) newValue;
+            if (
+                oldStateETag != null && !StringUtils.equals(newStoreItem.getETag(), "*")
+                    && !StringUtils.equals(newStoreItem.getETag(), oldStateETag)
+            ) {
+                throw new ETagConflictException(String.format(
+                    "eTag conflict. Original: %s, Current: %s", newStoreItem.getETag(),
+                    oldStateETag
+                ));
+            }
+            int newTag = eTag.getAndIncrement();
+            ((ObjectNode) newState).put("eTag", Integer.toString(newTag));
+        }
+
+        return newState;
+    }
+
     /**
      * Deletes storage items from storage.
      *
@@ -195,12 +247,29 @@ public class MemoryStorage implements Storage {
             return Async.completeExceptionally(new IllegalArgumentException("keys cannot be null"));
         }
 
-        synchronized (this.syncroot) {
+        if (concurrentMemory != null) {
             for (String key : keys) {
-                memory.remove(key);
+                concurrentMemory.remove(key);
+            }
+        } else {
+            synchronized (this.syncroot) {
+                for (String key : keys) {
+                    memory.remove(key);
+                }
             }
         }
 
         return CompletableFuture.completedFuture(null);
     }
+
+    /**
+     * Raised from inside an atomic update to abandon it on an eTag mismatch.
+     */
+    private static class ETagConflictException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        ETagConflictException(String message) {
+            super(message);
+        }
+    }
 }
@@ -55,29 +55,55 @@ public class MemoryTranscriptStore implements TranscriptStore {
         }
 
         synchronized (sync) {
-            HashMap<String, ArrayList<Activity>> channel;
-            if (!channels.containsKey(activity.getChannelId())) {
-                channel = new HashMap<>();
-                channels.put(activity.getChannelId(), channel);
-            } else {
-                channel = channels.get(activity.getChannelId());
-            }
+            append(activity);
+        }
 
-            ArrayList<Activity> transcript;
+        return CompletableFuture.completedFuture(null);
+    }
 
-            if (!channel.containsKey(activity.getConversation().getId())) {
-                transcript = new ArrayList<>();
-                channel.put(activity.getConversation().getId(), transcript);
-            } else {
-                transcript = channel.get(activity.getConversation().getId());
-            }
+    /**
+     * Logs activities, in order, taking the store's lock once for the batch.
+     *
+     * @param activities The activities to transcribe.
+     * @return A CompletableFuture that represents the work queued to execute.
+     */
+    @Override
+    public final CompletableFuture<Void> logActivities(List<Activity> activities) {
+        if (activities == null || activities.contains(null)) {
+            return Async.completeExceptionally(
+                new IllegalArgumentException("activities cannot be null for LogActivities()"));
+        }
 
-            transcript.add(activity);
+        synchronized (sync) {
+            for (Activity activity : activities) {
+                append(activity);
+            }
         }
 
         return CompletableFuture.completedFuture(null);
     }
 
+    private void append(Activity activity) {
+        HashMap<String, ArrayList<Activity>> channel;
+        if (!channels.containsKey(activity.getChannelId())) {
+            channel = new HashMap<>();
+            channels.put(activity.getChannelId(), channel);
+        } else {
+            channel = channels.get(activity.getChannelId());
+        }
+
+        ArrayList<Activity> transcript;
+
+        if (!channel.containsKey(activity.getConversation().getId())) {
+            transcript = new ArrayList<>();
+            channel.put(activity.getConversation().getId(), transcript);
+        } else {
+            transcript = channel.get(activity.getConversation().getId());
+        }
+
+        transcript.add(activity);
+    }
+
     /**
      * Gets from the store activities that match a set of criteria.
      *
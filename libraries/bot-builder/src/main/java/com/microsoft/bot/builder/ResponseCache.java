@@ -0,0 +1,204 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.builder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.microsoft.bot.connector.Async;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A bounded cache of service responses, such as LUIS predictions and QnA
+ * Maker answers.
+ *
+ * <p>
+ * Responses are cached by a key that identifies the full request, so only
+ * equivalent requests share a response. A response is kept for
+ * {@link #DEFAULT_TIME_TO_LIVE} unless another time is given, and when the
+ * cache is full the least recently used response is dropped. Identical
+ * requests that arrive while the first one is still in flight wait for its
+ * response instead of calling the service again.
+ * </p>
+ *
+ * <p>
+ * An instance can be shared by several recognizers or knowledge bases.
+ * </p>
+ */
+public final class ResponseCache {
+    /**
+     * The default maximum number of cached responses.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    /**
+     * The default time a response is cached.
+     */
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(10);
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final int maxEntries;
+    private final long timeToLiveMillis;
+    private final Map<String, Entry> entries;
+    private final Map<String, CompletableFuture<JsonNode>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates a cache of up to {@link #DEFAULT_MAX_ENTRIES} responses, each kept
+     * for {@link #DEFAULT_TIME_TO_LIVE}.
+     */
+    public ResponseCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TIME_TO_LIVE);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param withMaxEntries The maximum number of cached responses.
+     * @param withTimeToLive How long a response is cached.
+     */
+    public ResponseCache(int withMaxEntries, Duration withTimeToLive) {
+        if (withMaxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        if (withTimeToLive == null || withTimeToLive.isNegative() || withTimeToLive.isZero()) {
+            throw new IllegalArgumentException("timeToLive must be positive");
+        }
+
+        maxEntries = withMaxEntries;
+        timeToLiveMillis = withTimeToLive.toMillis();
+        entries = new LinkedHashMap<String, Entry>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Gets the number of requests answered without calling the service, either
+     * from the cache or by waiting for an identical request in flight.
+     *
+     * @return The number of cache hits.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of requests sent to the service.
+     *
+     * @return The number of cache misses.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Gets the number of cached responses, including any that have expired but
+     * were not yet removed.
+     *
+     * @return The number of cached responses.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes all cached responses.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Gets the response for a request, from the cache or from an identical
+     * request in flight if possible, otherwise by fetching it. The response is
+     * shared, so callers must not modify it.
+     *
+     * @param key   Identifies the request.
+     * @param fetch Calls the service.
+     * @return The response.
+     */
+    public CompletableFuture<JsonNode> getOrFetch(String key, Supplier<CompletableFuture<JsonNode>> fetch) {
+        JsonNode cached = get(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<JsonNode> response = new CompletableFuture<>();
+        CompletableFuture<JsonNode> existing = inFlight.putIfAbsent(key, response);
+        if (existing != null) {
+            hits.incrementAndGet();
+            return existing;
+        }
+
+        // The request in flight may have completed between the lookup and taking its place.
+        cached = get(key);
+        if (cached != null) {
+            inFlight.remove(key, response);
+            hits.incrementAndGet();
+            response.complete(cached);
+            return response;
+        }
+
+        misses.incrementAndGet();
+        CompletableFuture<JsonNode> fetched;
+        try {
+            fetched = fetch.get();
+        } catch (RuntimeException e) {
+            fetched = Async.completeExceptionally(e);
+        }
+
+        fetched.whenComplete((result, error) -> {
+            if (error == null && result != null) {
+                put(key, result);
+            }
+            inFlight.remove(key, response);
+
+            if (error != null) {
+                response.completeExceptionally(error);
+            } else {
+                response.complete(result);
+            }
+        });
+        return response;
+    }
+
+    private synchronized JsonNode get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        if (System.currentTimeMillis() >= entry.expiresOn) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.response;
+    }
+
+    private synchronized void put(String key, JsonNode response) {
+        entries.put(key, new Entry(response, System.currentTimeMillis() + timeToLiveMillis));
+    }
+
+    private static final class Entry {
+        private final JsonNode response;
+        private final long expiresOn;
+
+        Entry(JsonNode withResponse, long withExpiresOn) {
+            response = withResponse;
+            expiresOn = withExpiresOn;
+        }
+    }
+}
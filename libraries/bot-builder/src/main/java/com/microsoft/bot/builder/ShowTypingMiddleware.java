@@ -13,6 +13,8 @@ import com.microsoft.bot.schema.ResourceResponse;
 
 import java.util.Collections;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * When added, this middleware will send typing activities back to the user when
@@ -81,8 +83,9 @@ public class ShowTypingMiddleware implements Middleware {
 
         // do not await task - we want this to run in the background and we will cancel
         // it when its done
-        CompletableFuture sendFuture = sendTyping(turnContext, delay, period);
-        return next.next().thenAccept(result -> sendFuture.cancel(true));
+        TypingTask typing = new TypingTask(turnContext, period);
+        typing.schedule(delay);
+        return next.next().whenComplete((result, ex) -> typing.cancel());
     }
 
     private static Boolean isSkillBot(TurnContext turnContext) {
@@ -95,23 +98,56 @@ public class ShowTypingMiddleware implements Middleware {
         }
     }
 
-    private static CompletableFuture<Void> sendTyping(
-        TurnContext turnContext,
-        long delay,
-        long period
-    ) {
-        return CompletableFuture.runAsync(() -> {
-            try {
-                Thread.sleep(delay);
+    /**
+     * Sends the typing activities of one turn. Nothing runs between sends: each
+     * send is a timer on the shared scheduler, and the next timer is set once the
+     * previous send completes, so a turn holds no thread while it waits.
+     */
+    private static final class TypingTask {
+        private final TurnContext turnContext;
+        private final long period;
+        private ScheduledFuture<?> timer;
+        private boolean cancelled;
+
+        TypingTask(TurnContext withTurnContext, long withPeriod) {
+            turnContext = withTurnContext;
+            period = withPeriod;
+        }
+
+        synchronized void schedule(long delay) {
+            if (!cancelled) {
+                timer = ExecutorFactory.getScheduledExecutor().schedule(
+                    () -> ExecutorFactory.getExecutor().execute(this::send),
+                    delay,
+                    TimeUnit.MILLISECONDS
+                );
+            }
+        }
 
-                while (!Thread.currentThread().isInterrupted()) {
-                    sendTypingActivity(turnContext).join();
-                    Thread.sleep(period);
+        synchronized void cancel() {
+            cancelled = true;
+            if (timer != null) {
+                timer.cancel(false);
+            }
+        }
+
+        private void send() {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
                 }
-            } catch (InterruptedException e) {
-                // do nothing
             }
-        }, ExecutorFactory.getExecutor());
+
+            CompletableFuture<ResourceResponse[]> sent;
+            try {
+                sent = sendTypingActivity(turnContext);
+            } catch (RuntimeException e) {
+                // A send that fails to start ends the typing indicator.
+                return;
+            }
+
+            sent.thenRun(() -> schedule(period));
+        }
     }
 
     private static CompletableFuture<ResourceResponse[]> sendTypingActivity(
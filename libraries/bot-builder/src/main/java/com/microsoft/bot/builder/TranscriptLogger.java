@@ -5,6 +5,7 @@ package com.microsoft.bot.builder;
 
 import com.microsoft.bot.schema.Activity;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -18,4 +19,23 @@ public interface TranscriptLogger {
      * @return A task that represents the work queued to execute.
      */
     CompletableFuture<Void> logActivity(Activity activity);
+
+    /**
+     * Log activities to the transcript, in order. The activities can belong to
+     * different conversations.
+     *
+     * <p>
+     * By default each activity is passed to {@link #logActivity(Activity)}.
+     * Implementations that can write several activities at once should override
+     * this.
+     * </p>
+     *
+     * @param activities The activities to transcribe.
+     * @return A task that represents the work queued to execute.
+     */
+    default CompletableFuture<Void> logActivities(List<Activity> activities) {
+        return CompletableFuture.allOf(
+            activities.stream().map(this::logActivity).toArray(CompletableFuture[]::new)
+        );
+    }
 }
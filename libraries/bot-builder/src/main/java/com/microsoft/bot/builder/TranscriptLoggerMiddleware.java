@@ -11,14 +11,25 @@ import com.microsoft.bot.schema.RoleTypes;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
-import java.util.Queue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * When added, this middleware will log incoming and outgoing activities to a
  * TranscriptStore.
+ *
+ * <p>
+ * The activities of a turn are buffered and handed to
+ * {@link TranscriptLogger#logActivities(List)} together at the end of the turn.
+ * To keep transcript writes off the turn entirely, wrap the logger in a
+ * {@link BackgroundTranscriptLogger}.
+ * </p>
  */
 public class TranscriptLoggerMiddleware implements Middleware {
 
@@ -27,10 +38,7 @@ public class TranscriptLoggerMiddleware implements Middleware {
      */
     private TranscriptLogger transcriptLogger;
 
-    /**
-     * Activity queue.
-     */
-    private Queue<Activity> transcript = new ConcurrentLinkedQueue<Activity>();
+    private Logger logger = LoggerFactory.getLogger(TranscriptLoggerMiddleware.class);
 
     /**
      * Initializes a new instance of the <see cref="TranscriptLoggerMiddleware"/>
@@ -57,6 +65,8 @@ public class TranscriptLoggerMiddleware implements Middleware {
      */
     @Override
     public CompletableFuture<Void> onTurn(TurnContext context, NextDelegate next) {
+        TurnTranscript transcript = new TurnTranscript();
+
         // log incoming activity at beginning of turn
         if (context.getActivity() != null) {
             if (context.getActivity().getFrom() == null) {
@@ -73,7 +83,7 @@ public class TranscriptLoggerMiddleware implements Middleware {
             if (!(context.getActivity().isType(ActivityTypes.EVENT)
                 && StringUtils.equals(context.getActivity().getName(), ActivityEventNames.CONTINUE_CONVERSATION))
             ) {
-                logActivity(Activity.clone(context.getActivity()), true);
+                logActivity(transcript, copyActivity(context.getActivity()), true);
             }
         }
 
@@ -83,7 +93,7 @@ public class TranscriptLoggerMiddleware implements Middleware {
                 // run full pipeline
                 return nextSend.get().thenApply(responses -> {
                     for (Activity activity : activities) {
-                        logActivity(Activity.clone(activity), false);
+                        logActivity(transcript, copyActivity(activity), false);
                     }
 
                     return responses;
@@ -97,9 +107,9 @@ public class TranscriptLoggerMiddleware implements Middleware {
                 // run full pipeline
                 return nextUpdate.get().thenApply(resourceResponse -> {
                     // add Message Update activity
-                    Activity updateActivity = Activity.clone(activity);
+                    Activity updateActivity = copyActivity(activity);
                     updateActivity.setType(ActivityTypes.MESSAGE_UPDATE);
-                    logActivity(updateActivity, false);
+                    logActivity(transcript, updateActivity, false);
 
                     return resourceResponse;
                 });
@@ -117,7 +127,7 @@ public class TranscriptLoggerMiddleware implements Middleware {
                     deleteActivity.setId(reference.getActivityId());
                     deleteActivity.applyConversationReference(reference, false);
 
-                    logActivity(deleteActivity, false);
+                    logActivity(transcript, deleteActivity, false);
 
                     return null;
                 });
@@ -129,15 +139,28 @@ public class TranscriptLoggerMiddleware implements Middleware {
             .thenAccept(
                 nextResult -> {
                     // flush transcript at end of turn
-                    while (!transcript.isEmpty()) {
-                        Activity activity = transcript.poll();
-                        transcriptLogger.logActivity(activity);
+                    List<Activity> activities = transcript.flush();
+                    if (!activities.isEmpty()) {
+                        logActivities(activities);
                     }
                 }
             );
     }
 
-    private void logActivity(Activity activity, boolean incoming) {
+    /**
+     * Copies an activity for the transcript. The logger only reads activities,
+     * so the copy shares nested objects with the original instead of cloning
+     * them.
+     */
+    private static Activity copyActivity(Activity activity) {
+        Activity copy = Activity.snapshot(activity);
+        if (copy.getId() == null) {
+            copy.setId(String.format("g_%s", UUID.randomUUID().toString()));
+        }
+        return copy;
+    }
+
+    private void logActivity(TurnTranscript transcript, Activity activity, boolean incoming) {
         if (activity.getTimestamp() == null) {
             activity.setTimestamp(OffsetDateTime.now(ZoneId.of("UTC")));
         }
@@ -147,9 +170,47 @@ public class TranscriptLoggerMiddleware implements Middleware {
         }
 
         if (activity.getFrom().getRole() == null) {
-            activity.getFrom().setRole(incoming ? RoleTypes.USER : RoleTypes.BOT);
+            // The account is shared with the activity being logged, so change a copy.
+            ChannelAccount from = ChannelAccount.clone(activity.getFrom());
+            from.setRole(incoming ? RoleTypes.USER : RoleTypes.BOT);
+            activity.setFrom(from);
+        }
+
+        if (!transcript.add(activity)) {
+            // Sent after the turn was flushed, so there's no batch left to join.
+            logActivities(Collections.singletonList(activity));
+        }
+    }
+
+    /**
+     * Hands activities to the logger without waiting for the write. A failed
+     * write doesn't fail the turn, so it is logged instead.
+     */
+    private void logActivities(List<Activity> activities) {
+        transcriptLogger.logActivities(activities).exceptionally(error -> {
+            logger.error("Failed to log {} transcript activities", activities.size(), error);
+            return null;
+        });
+    }
+
+    /**
+     * The activities logged during one turn.
+     */
+    private static final class TurnTranscript {
+        private List<Activity> activities = new ArrayList<>();
+
+        synchronized boolean add(Activity activity) {
+            if (activities == null) {
+                return false;
+            }
+            activities.add(activity);
+            return true;
         }
 
-        transcript.offer(activity);
+        synchronized List<Activity> flush() {
+            List<Activity> flushed = activities;
+            activities = null;
+            return flushed;
+        }
     }
 }
@@ -6,9 +6,9 @@ package com.microsoft.bot.builder.inspection;
 
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.microsoft.bot.builder.ClientCache;
 import com.microsoft.bot.builder.ConversationState;
 import com.microsoft.bot.builder.MessageFactory;
-import com.microsoft.bot.builder.StatePropertyAccessor;
 import com.microsoft.bot.builder.TurnContext;
 import com.microsoft.bot.builder.UserState;
 import com.microsoft.bot.connector.authentication.MicrosoftAppCredentials;
@@ -20,16 +20,17 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 public class InspectionMiddleware extends InterceptionMiddleware {
     private static final String COMMAND = "/INSPECT";
+    private static final String SESSION_KEY = InspectionMiddleware.class.getName() + ".session";
 
     private InspectionState inspectionState;
     private UserState userState;
     private ConversationState conversationState;
     private MicrosoftAppCredentials credentials;
+    private ClientCache<InspectionSession> sessions = new ClientCache<>();
 
     public InspectionMiddleware(InspectionState withInspectionState) {
         this(withInspectionState, null, null, null);
@@ -151,40 +152,21 @@ public class InspectionMiddleware extends InterceptionMiddleware {
     }
 
     private CompletableFuture<Void> processOpenCommand(TurnContext turnContext) {
-        StatePropertyAccessor<InspectionSessionsByStatus> accessor = inspectionState.createProperty(
-            InspectionSessionsByStatus.class.getName()
-        );
-
-        return accessor.get(turnContext, InspectionSessionsByStatus::new).thenCompose(result -> {
-            InspectionSessionsByStatus sessions = (InspectionSessionsByStatus) result;
-            String sessionId = openCommand(
-                sessions,
-                turnContext.getActivity().getConversationReference()
-            );
-
-            String command = String.format("%s attach %s", COMMAND, sessionId);
-            return turnContext.sendActivity(
-                InspectionActivityExtensions.makeCommandActivity(command)
-            );
-        }).thenCompose(resourceResponse -> inspectionState.saveChanges(turnContext));
+        return inspectionState.openSession(turnContext.getActivity().getConversationReference())
+            .thenCompose(sessionId -> {
+                String command = String.format("%s attach %s", COMMAND, sessionId);
+                return turnContext.sendActivity(
+                    InspectionActivityExtensions.makeCommandActivity(command)
+                );
+            }).thenApply(resourceResponse -> null);
     }
 
     private CompletableFuture<Void> processAttachCommand(
         TurnContext turnContext,
         String sessionId
     ) {
-        StatePropertyAccessor<InspectionSessionsByStatus> accessor = inspectionState.createProperty(
-            InspectionSessionsByStatus.class.getName()
-        );
-
-        return accessor.get(turnContext, InspectionSessionsByStatus::new).thenCompose(sessions -> {
-            if (
-                attachCommand(
-                    turnContext.getActivity().getConversation().getId(),
-                    sessions,
-                    sessionId
-                )
-            ) {
+        return inspectionState.attachSession(turnContext, sessionId).thenCompose(attached -> {
+            if (attached) {
                 return turnContext.sendActivity(
                     MessageFactory.text(
                         "Attached to session, all traffic is being replicated for inspection."
@@ -197,31 +179,7 @@ public class InspectionMiddleware extends InterceptionMiddleware {
                     )
                 );
             }
-        }).thenCompose(resourceResponse -> inspectionState.saveChanges(turnContext));
-    }
-
-    private String openCommand(
-        InspectionSessionsByStatus sessions,
-        ConversationReference conversationReference
-    ) {
-        String sessionId = UUID.randomUUID().toString();
-        sessions.getOpenedSessions().put(sessionId, conversationReference);
-        return sessionId;
-    }
-
-    private boolean attachCommand(
-        String conversationId,
-        InspectionSessionsByStatus sessions,
-        String sessionId
-    ) {
-        ConversationReference inspectionSessionState = sessions.getOpenedSessions().get(sessionId);
-        if (inspectionSessionState == null)
-            return false;
-
-        sessions.getAttachedSessions().put(conversationId, inspectionSessionState);
-        sessions.getOpenedSessions().remove(sessionId);
-
-        return true;
+        }).thenApply(resourceResponse -> null);
     }
 
     protected InspectionSession createSession(
@@ -232,23 +190,22 @@ public class InspectionMiddleware extends InterceptionMiddleware {
     }
 
     private CompletableFuture<InspectionSession> findSession(TurnContext turnContext) {
-        StatePropertyAccessor<InspectionSessionsByStatus> accessor = inspectionState.createProperty(
-            InspectionSessionsByStatus.class.getName()
-        );
-
-        return accessor.get(turnContext, InspectionSessionsByStatus::new).thenApply(
-            openSessions -> {
-                ConversationReference reference = openSessions.getAttachedSessions().get(
-                    turnContext.getActivity().getConversation().getId()
-                );
-
-                if (reference != null) {
-                    return createSession(reference, credentials);
+        // The session is looked up once per turn, for the inbound activity, every
+        // outbound activity and the state trace.
+        CompletableFuture<InspectionSession> session = turnContext.getTurnState().get(SESSION_KEY);
+        if (session == null) {
+            session = inspectionState.getAttachedSession(turnContext).thenApply(reference -> {
+                if (reference == null) {
+                    return null;
                 }
 
-                return null;
-            }
-        );
+                // Sessions, and their connector clients, are reused across turns.
+                String key = reference.getServiceUrl() + "/" + reference.getConversation().getId();
+                return sessions.getOrCreate(key, k -> createSession(reference, credentials));
+            });
+            turnContext.getTurnState().replace(SESSION_KEY, session);
+        }
+        return session;
     }
 
     private CompletableFuture<Boolean> invokeSend(
@@ -269,16 +226,7 @@ public class InspectionMiddleware extends InterceptionMiddleware {
     }
 
     private CompletableFuture<Void> cleanupSession(TurnContext turnContext) {
-        StatePropertyAccessor<InspectionSessionsByStatus> accessor = inspectionState.createProperty(
-            InspectionSessionsByStatus.class.getName()
-        );
-
-        return accessor.get(turnContext, InspectionSessionsByStatus::new).thenCompose(result -> {
-            InspectionSessionsByStatus openSessions = (InspectionSessionsByStatus) result;
-            openSessions.getAttachedSessions().remove(
-                turnContext.getActivity().getConversation().getId()
-            );
-            return inspectionState.saveChanges(turnContext);
-        });
+        turnContext.getTurnState().replace(SESSION_KEY, CompletableFuture.completedFuture(null));
+        return inspectionState.detachSession(turnContext);
     }
 }
@@ -9,6 +9,14 @@ import com.microsoft.bot.schema.ConversationReference;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * The opened and attached inspection sessions, kept in a single document.
+ *
+ * @deprecated {@link InspectionState} no longer uses this class; it stores each
+ *             session under its own key. This class is kept for code that still
+ *             refers to it and will be removed in a future release.
+ */
+@Deprecated
 public class InspectionSessionsByStatus {
     private Map<String, ConversationReference> openedSessions = new HashMap<>();
     private Map<String, ConversationReference> attachedSessions = new HashMap<>();
@@ -7,19 +7,170 @@ package com.microsoft.bot.builder.inspection;
 import com.microsoft.bot.builder.BotState;
 import com.microsoft.bot.builder.Storage;
 import com.microsoft.bot.builder.TurnContext;
+import com.microsoft.bot.schema.Activity;
+import com.microsoft.bot.schema.ConversationReference;
 
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of inspection sessions.
+ *
+ * <p>
+ * Each opened session and each attached conversation is stored under its own
+ * key, so a turn only reads the entry of its own conversation and attaching
+ * doesn't rewrite a document shared by every conversation. Conversations that
+ * were found to have no attached session are remembered for
+ * {@link #DEFAULT_DETACHED_CACHE_TIME}, during which their turns don't read
+ * storage at all. A session attached through another instance of the bot is
+ * therefore picked up by this one once that time has passed.
+ * </p>
+ */
 public class InspectionState extends BotState {
+    /**
+     * The default time a conversation without an attached session is remembered.
+     */
+    public static final Duration DEFAULT_DETACHED_CACHE_TIME = Duration.ofMinutes(1);
+
+    private static final int MAX_DETACHED_CONVERSATIONS = 10000;
+
+    private final long detachedCacheNanos;
+    private final Map<String, Long> detachedConversations = new ConcurrentHashMap<>();
+
     /**
      * Initializes a new instance of the BotState class.
      *
      * @param withStorage The storage provider to use.
      */
     public InspectionState(Storage withStorage) {
+        this(withStorage, DEFAULT_DETACHED_CACHE_TIME);
+    }
+
+    /**
+     * Initializes a new instance of the InspectionState class.
+     *
+     * @param withStorage            The storage provider to use.
+     * @param withDetachedCacheTime  How long a conversation without an attached
+     *                               session is remembered. Zero disables the
+     *                               cache.
+     */
+    public InspectionState(Storage withStorage, Duration withDetachedCacheTime) {
         super(withStorage, InspectionState.class.getSimpleName());
+
+        if (withDetachedCacheTime == null || withDetachedCacheTime.isNegative()) {
+            throw new IllegalArgumentException("detachedCacheTime cannot be negative");
+        }
+
+        detachedCacheNanos = withDetachedCacheTime.toNanos();
     }
 
     @Override
     public String getStorageKey(TurnContext turnContext) {
         return InspectionState.class.getSimpleName();
     }
+
+    /**
+     * Stores a new session that a conversation can attach to.
+     *
+     * @param reference The conversation of the Emulator to send traffic to.
+     * @return The id of the session.
+     */
+    CompletableFuture<String> openSession(ConversationReference reference) {
+        String sessionId = UUID.randomUUID().toString();
+        return getStorage().write(Collections.singletonMap(openedKey(sessionId), reference))
+            .thenApply(result -> sessionId);
+    }
+
+    /**
+     * Attaches the conversation of a turn to an opened session.
+     *
+     * @param turnContext The turn.
+     * @param sessionId   The id of the opened session.
+     * @return true if the session was found and attached.
+     */
+    CompletableFuture<Boolean> attachSession(TurnContext turnContext, String sessionId) {
+        String openedKey = openedKey(sessionId);
+        return getStorage().read(new String[] { openedKey }).thenCompose(items -> {
+            Object reference = items.get(openedKey);
+            if (!(reference instanceof ConversationReference)) {
+                return CompletableFuture.completedFuture(false);
+            }
+
+            String attachedKey = attachedKey(turnContext.getActivity());
+            return getStorage().write(Collections.singletonMap(attachedKey, reference))
+                .thenCompose(result -> getStorage().delete(new String[] { openedKey }))
+                .thenApply(result -> {
+                    detachedConversations.remove(attachedKey);
+                    return true;
+                });
+        });
+    }
+
+    /**
+     * Gets the session the conversation of a turn is attached to.
+     *
+     * @param turnContext The turn.
+     * @return The conversation of the Emulator, or null if the conversation isn't
+     *         attached.
+     */
+    CompletableFuture<ConversationReference> getAttachedSession(TurnContext turnContext) {
+        String attachedKey = attachedKey(turnContext.getActivity());
+        Long detachedUntil = detachedConversations.get(attachedKey);
+        if (detachedUntil != null) {
+            if (System.nanoTime() - detachedUntil < 0) {
+                return CompletableFuture.completedFuture(null);
+            }
+            detachedConversations.remove(attachedKey, detachedUntil);
+        }
+
+        return getStorage().read(new String[] { attachedKey }).thenApply(items -> {
+            Object reference = items.get(attachedKey);
+            if (reference instanceof ConversationReference) {
+                return (ConversationReference) reference;
+            }
+
+            rememberDetached(attachedKey);
+            return null;
+        });
+    }
+
+    /**
+     * Detaches the conversation of a turn from its session.
+     *
+     * @param turnContext The turn.
+     * @return A task that represents the work queued to execute.
+     */
+    CompletableFuture<Void> detachSession(TurnContext turnContext) {
+        String attachedKey = attachedKey(turnContext.getActivity());
+        return getStorage().delete(new String[] { attachedKey })
+            .thenRun(() -> rememberDetached(attachedKey));
+    }
+
+    private void rememberDetached(String attachedKey) {
+        if (detachedCacheNanos == 0) {
+            return;
+        }
+
+        if (detachedConversations.size() >= MAX_DETACHED_CONVERSATIONS) {
+            detachedConversations.clear();
+        }
+        detachedConversations.put(attachedKey, System.nanoTime() + detachedCacheNanos);
+    }
+
+    private static String openedKey(String sessionId) {
+        return String.format("%s/opened/%s", InspectionState.class.getSimpleName(), sessionId);
+    }
+
+    private static String attachedKey(Activity activity) {
+        return String.format(
+            "%s/attached/%s/%s",
+            InspectionState.class.getSimpleName(),
+            activity.getChannelId(),
+            activity.getConversation().getId()
+        );
+    }
 }
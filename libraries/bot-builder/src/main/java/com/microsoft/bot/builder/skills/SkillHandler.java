@@ -6,6 +6,7 @@ package com.microsoft.bot.builder.skills;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicReference;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -14,6 +15,7 @@ import com.microsoft.bot.builder.BotAdapter;
 import com.microsoft.bot.builder.BotCallbackHandler;
 import com.microsoft.bot.builder.ChannelServiceHandler;
 import com.microsoft.bot.builder.TurnContext;
+import com.microsoft.bot.connector.Async;
 import com.microsoft.bot.connector.authentication.AuthenticationConfiguration;
 import com.microsoft.bot.connector.authentication.AuthenticationConstants;
 import com.microsoft.bot.connector.authentication.ChannelProvider;
@@ -24,7 +26,6 @@ import com.microsoft.bot.connector.authentication.JwtTokenValidation;
 import com.microsoft.bot.schema.Activity;
 import com.microsoft.bot.schema.ActivityTypes;
 import com.microsoft.bot.schema.CallerIdConstants;
-import com.microsoft.bot.schema.ConversationReference;
 import com.microsoft.bot.schema.ResourceResponse;
 
 import org.apache.commons.lang3.NotImplementedException;
@@ -163,17 +164,17 @@ public class SkillHandler extends ChannelServiceHandler {
                         String conversationId,
                         String activityId) {
 
-        SkillConversationReference skillConversationReference =  getSkillConversationReference(conversationId).join();
-
-        BotCallbackHandler callback = turnContext -> {
-            turnContext.getTurnState().add(SKILL_CONVERSATION_REFERENCE_KEY, skillConversationReference);
-            return turnContext.deleteActivity(activityId);
-        };
-
-        return adapter.continueConversation(claimsIdentity,
-                                             skillConversationReference.getConversationReference(),
-                                             skillConversationReference.getOAuthScope(),
-                                             callback);
+        return getSkillConversationReference(conversationId).thenCompose(skillConversationReference -> {
+            BotCallbackHandler callback = turnContext -> {
+                turnContext.getTurnState().add(SKILL_CONVERSATION_REFERENCE_KEY, skillConversationReference);
+                return turnContext.deleteActivity(activityId);
+            };
+
+            return adapter.continueConversation(claimsIdentity,
+                                                 skillConversationReference.getConversationReference(),
+                                                 skillConversationReference.getOAuthScope(),
+                                                 callback);
+        });
     }
 
     /**
@@ -184,32 +185,33 @@ public class SkillHandler extends ChannelServiceHandler {
                     String conversationId,
                     String activityId,
                     Activity activity) {
-        SkillConversationReference skillConversationReference =  getSkillConversationReference(conversationId).join();
-
         AtomicReference<ResourceResponse> resourceResponse = new AtomicReference<ResourceResponse>();
 
-        BotCallbackHandler callback = turnContext -> {
-            turnContext.getTurnState().add(SKILL_CONVERSATION_REFERENCE_KEY, skillConversationReference);
-            activity.applyConversationReference(skillConversationReference.getConversationReference());
-            turnContext.getActivity().setId(activityId);
-            String callerId = String.format("%s%s",
-                                            CallerIdConstants.BOT_TO_BOT_PREFIX,
-                                            JwtTokenValidation.getAppIdFromClaims(claimsIdentity.claims()));
-            turnContext.getActivity().setCallerId(callerId);
-            resourceResponse.set(turnContext.updateActivity(activity).join());
-            return CompletableFuture.completedFuture(null);
-        };
-
-        adapter.continueConversation(claimsIdentity,
-                                      skillConversationReference.getConversationReference(),
-                                      skillConversationReference.getOAuthScope(),
-                                      callback);
+        return getSkillConversationReference(conversationId).thenCompose(skillConversationReference -> {
+            BotCallbackHandler callback = turnContext -> {
+                turnContext.getTurnState().add(SKILL_CONVERSATION_REFERENCE_KEY, skillConversationReference);
+                activity.applyConversationReference(skillConversationReference.getConversationReference());
+                turnContext.getActivity().setId(activityId);
+                String callerId = String.format("%s%s",
+                                                CallerIdConstants.BOT_TO_BOT_PREFIX,
+                                                JwtTokenValidation.getAppIdFromClaims(claimsIdentity.claims()));
+                turnContext.getActivity().setCallerId(callerId);
+                return turnContext.updateActivity(activity).thenAccept(resourceResponse::set);
+            };
+
+            return adapter.continueConversation(claimsIdentity,
+                                                 skillConversationReference.getConversationReference(),
+                                                 skillConversationReference.getOAuthScope(),
+                                                 callback);
+        }).thenApply(result -> getResourceResponse(resourceResponse));
+    }
 
+    private static ResourceResponse getResourceResponse(AtomicReference<ResourceResponse> resourceResponse) {
         if (resourceResponse.get() != null) {
-            return CompletableFuture.completedFuture(resourceResponse.get());
-        } else {
-            return CompletableFuture.completedFuture(new ResourceResponse(UUID.randomUUID().toString()));
+            return resourceResponse.get();
         }
+
+        return new ResourceResponse(UUID.randomUUID().toString());
     }
 
     private static void applyEoCToTurnContextActivity(TurnContext turnContext, Activity endOfConversationActivity) {
@@ -250,43 +252,50 @@ public class SkillHandler extends ChannelServiceHandler {
     }
 
     private CompletableFuture<SkillConversationReference> getSkillConversationReference(String conversationId) {
-
-        SkillConversationReference skillConversationReference;
-        try {
-            skillConversationReference =  conversationIdFactory.getSkillConversationReference(conversationId).join();
-        } catch (NotImplementedException ex) {
-            if (logger != null) {
-                logger.warn("Got NotImplementedException when trying to call "
-                            + "GetSkillConversationReference() on the ConversationIdFactory,"
-                            + " attempting to use deprecated GetConversationReference() method instead.");
-            }
-
-            // Attempt to get SkillConversationReference using deprecated method.
-            // this catch should be removed once we remove the deprecated method.
-            // We need to use the deprecated method for backward compatibility.
-            ConversationReference conversationReference =
-                    conversationIdFactory.getConversationReference(conversationId).join();
-            skillConversationReference = new SkillConversationReference();
-            skillConversationReference.setConversationReference(conversationReference);
-            if (getChannelProvider() != null && getChannelProvider().isGovernment()) {
-                skillConversationReference.setOAuthScope(
-                        GovernmentAuthenticationConstants.TO_CHANNEL_FROM_BOT_OAUTH_SCOPE);
-            } else {
-                skillConversationReference.setOAuthScope(
-                        AuthenticationConstants.TO_CHANNEL_FROM_BOT_OAUTH_SCOPE);
-            }
-        }
-
-        if (skillConversationReference == null) {
-            if (logger != null) {
-                logger.warn(
-                    String.format("Unable to get skill conversation reference for conversationId %s.", conversationId)
-                );
-            }
-            throw new RuntimeException("Key not found");
-        }
-
-        return CompletableFuture.completedFuture(skillConversationReference);
+        return Async.tryCompletable(() -> conversationIdFactory.getSkillConversationReference(conversationId))
+            .thenApply(CompletableFuture::completedFuture)
+            .exceptionally(ex -> {
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                if (!(cause instanceof NotImplementedException)) {
+                    return Async.completeExceptionally(cause);
+                }
+
+                if (logger != null) {
+                    logger.warn("Got NotImplementedException when trying to call "
+                                + "GetSkillConversationReference() on the ConversationIdFactory,"
+                                + " attempting to use deprecated GetConversationReference() method instead.");
+                }
+
+                // Attempt to get SkillConversationReference using deprecated method.
+                // this catch should be removed once we remove the deprecated method.
+                // We need to use the deprecated method for backward compatibility.
+                return conversationIdFactory.getConversationReference(conversationId).thenApply(
+                    conversationReference -> {
+                        SkillConversationReference skillConversationReference = new SkillConversationReference();
+                        skillConversationReference.setConversationReference(conversationReference);
+                        if (getChannelProvider() != null && getChannelProvider().isGovernment()) {
+                            skillConversationReference.setOAuthScope(
+                                    GovernmentAuthenticationConstants.TO_CHANNEL_FROM_BOT_OAUTH_SCOPE);
+                        } else {
+                            skillConversationReference.setOAuthScope(
+                                    AuthenticationConstants.TO_CHANNEL_FROM_BOT_OAUTH_SCOPE);
+                        }
+                        return skillConversationReference;
+                    });
+            })
+            .thenCompose(lookup -> lookup)
+            .thenApply(skillConversationReference -> {
+                if (skillConversationReference == null) {
+                    if (logger != null) {
+                        logger.warn(String.format(
+                            "Unable to get skill conversation reference for conversationId %s.", conversationId
+                        ));
+                    }
+                    throw new RuntimeException("Key not found");
+                }
+
+                return skillConversationReference;
+            });
     }
 
     private CompletableFuture<ResourceResponse> processActivity(
@@ -295,46 +304,38 @@ public class SkillHandler extends ChannelServiceHandler {
                     String replyToActivityId,
                     Activity activity) {
 
-        SkillConversationReference skillConversationReference = getSkillConversationReference(conversationId).join();
-
         AtomicReference<ResourceResponse> resourceResponse = new AtomicReference<ResourceResponse>();
 
-        BotCallbackHandler callback = turnContext -> {
-            turnContext.getTurnState().add(SKILL_CONVERSATION_REFERENCE_KEY, skillConversationReference);
-            activity.applyConversationReference(skillConversationReference.getConversationReference());
-            turnContext.getActivity().setId(replyToActivityId);
-            String callerId = String.format("%s%s",
-                                            CallerIdConstants.BOT_TO_BOT_PREFIX,
-                                            JwtTokenValidation.getAppIdFromClaims(claimsIdentity.claims()));
-            turnContext.getActivity().setCallerId(callerId);
-
-            switch (activity.getType()) {
-                case ActivityTypes.END_OF_CONVERSATION:
-                     conversationIdFactory.deleteConversationReference(conversationId).join();
-                    applyEoCToTurnContextActivity(turnContext, activity);
-                     bot.onTurn(turnContext).join();
-                    break;
-                case ActivityTypes.EVENT:
-                    applyEventToTurnContextActivity(turnContext, activity);
-                     bot.onTurn(turnContext).join();
-                    break;
-                default:
-                    resourceResponse.set(turnContext.sendActivity(activity).join());
-                    break;
-            }
-            return CompletableFuture.completedFuture(null);
-        };
-
-         adapter.continueConversation(claimsIdentity,
-                                       skillConversationReference.getConversationReference(),
-                                       skillConversationReference.getOAuthScope(),
-                                       callback).join();
-
-        if (resourceResponse.get() != null) {
-            return CompletableFuture.completedFuture(resourceResponse.get());
-        } else {
-            return CompletableFuture.completedFuture(new ResourceResponse(UUID.randomUUID().toString()));
-        }
+        return getSkillConversationReference(conversationId).thenCompose(skillConversationReference -> {
+            BotCallbackHandler callback = turnContext -> {
+                turnContext.getTurnState().add(SKILL_CONVERSATION_REFERENCE_KEY, skillConversationReference);
+                activity.applyConversationReference(skillConversationReference.getConversationReference());
+                turnContext.getActivity().setId(replyToActivityId);
+                String callerId = String.format("%s%s",
+                                                CallerIdConstants.BOT_TO_BOT_PREFIX,
+                                                JwtTokenValidation.getAppIdFromClaims(claimsIdentity.claims()));
+                turnContext.getActivity().setCallerId(callerId);
+
+                switch (activity.getType()) {
+                    case ActivityTypes.END_OF_CONVERSATION:
+                        return conversationIdFactory.deleteConversationReference(conversationId)
+                            .thenCompose(deleted -> {
+                                applyEoCToTurnContextActivity(turnContext, activity);
+                                return bot.onTurn(turnContext);
+                            });
+                    case ActivityTypes.EVENT:
+                        applyEventToTurnContextActivity(turnContext, activity);
+                        return bot.onTurn(turnContext);
+                    default:
+                        return turnContext.sendActivity(activity).thenAccept(resourceResponse::set);
+                }
+            };
+
+            return adapter.continueConversation(claimsIdentity,
+                                                 skillConversationReference.getConversationReference(),
+                                                 skillConversationReference.getOAuthScope(),
+                                                 callback);
+        }).thenApply(result -> getResourceResponse(resourceResponse));
     }
 }
 
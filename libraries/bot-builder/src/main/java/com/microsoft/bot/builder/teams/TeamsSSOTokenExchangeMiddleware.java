@@ -15,6 +15,7 @@ import com.microsoft.bot.builder.Storage;
 import com.microsoft.bot.builder.StoreItem;
 import com.microsoft.bot.builder.TurnContext;
 import com.microsoft.bot.builder.UserTokenProvider;
+import com.microsoft.bot.connector.Async;
 import com.microsoft.bot.connector.rest.RestOAuthClient;
 import com.microsoft.bot.schema.Activity;
 import com.microsoft.bot.schema.ActivityTypes;
@@ -23,7 +24,6 @@ import com.microsoft.bot.schema.SignInConstants;
 import com.microsoft.bot.schema.TokenExchangeInvokeRequest;
 import com.microsoft.bot.schema.TokenExchangeInvokeResponse;
 import com.microsoft.bot.schema.TokenExchangeRequest;
-import com.microsoft.bot.schema.TokenResponse;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -93,17 +93,19 @@ public class TeamsSSOTokenExchangeMiddleware implements Middleware {
                 && turnContext.getActivity().getName().equals(SignInConstants.TOKEN_EXCHANGE_OPERATION_NAME)) {
             // If the TokenExchange is NOT successful, the response will have
             // already been sent by ExchangedTokenAsync
-            if (!this.exchangedToken(turnContext).join()) {
-                return CompletableFuture.completedFuture(null);
-            }
-
-            // Only one token exchange should proceed from here. Deduplication is performed
-            // second because in the case of failure due to consent required, every caller
-            // needs to receive the
-            if (!deDuplicatedTokenExchangeId(turnContext).join()) {
+            return this.exchangedToken(turnContext).thenCompose(exchanged -> {
+                if (!exchanged) {
+                    return CompletableFuture.completedFuture(false);
+                }
+
+                // Only one token exchange should proceed from here. Deduplication is performed
+                // second because in the case of failure due to consent required, every caller
+                // needs to receive the
+                return deDuplicatedTokenExchangeId(turnContext);
+            }).thenCompose(proceed -> {
                 // If the token is not exchangeable, do not process this activity further.
-                return CompletableFuture.completedFuture(null);
-            }
+                return proceed ? next.next() : CompletableFuture.completedFuture(null);
+            });
         }
 
         return next.next();
@@ -124,25 +126,24 @@ public class TeamsSSOTokenExchangeMiddleware implements Middleware {
 
         Map<String, Object> storeItems = new HashMap<String, Object>();
         storeItems.put(storeItem.getStorageKey(turnContext), storeItem);
-        try {
-            // Writing the StoreItem with ETag of unique id will succeed only once
-            storage.write(storeItems).join();
-        } catch (Exception ex) {
-
+        // Writing the StoreItem with ETag of unique id will succeed only once
+        return Async.tryCompletable(() -> storage.write(storeItems)).handle((result, ex) -> {
             // Memory storage throws a generic exception with a Message of 'etag conflict.
             // [other error info]'
             // CosmosDbPartitionedStorage throws: RuntimeException with a message that contains "precondition is
             // not met")
-            if (ex.getMessage().contains("eTag conflict") || ex.getMessage().contains("precondition is not met")) {
+            if (ex != null && ex.getMessage() != null
+                && (ex.getMessage().contains("eTag conflict") || ex.getMessage().contains("precondition is not met"))
+            ) {
                 // Do NOT proceed processing this message, some other thread or
                 // machine already has processed it.
 
                 // Send 200 invoke response.
-                return sendInvokeResponse(turnContext, null, HttpURLConnection.HTTP_OK).thenApply(result -> false);
+                return sendInvokeResponse(turnContext, null, HttpURLConnection.HTTP_OK).thenApply(sent -> false);
             }
-        }
 
-        return CompletableFuture.completedFuture(true);
+            return CompletableFuture.completedFuture(true);
+        }).thenCompose(proceed -> proceed);
     }
 
     private CompletableFuture<Void> sendInvokeResponse(TurnContext turnContext, Object body, int statusCode) {
@@ -152,51 +153,48 @@ public class TeamsSSOTokenExchangeMiddleware implements Middleware {
         return turnContext.sendActivity(activity).thenApply(result -> null);
     }
 
-    @SuppressWarnings("PMD.EmptyCatchBlock")
     private CompletableFuture<Boolean> exchangedToken(TurnContext turnContext) {
-        TokenResponse tokenExchangeResponse = null;
         TokenExchangeInvokeRequest tokenExchangeRequest = Serialization.getAs(turnContext.getActivity().getValue(),
                 TokenExchangeInvokeRequest.class);
 
-        try {
+        return Async.tryCompletable(() -> {
             RestOAuthClient userTokenClient = turnContext.getTurnState().get(RestOAuthClient.class);
             TokenExchangeRequest exchangeRequest = new TokenExchangeRequest();
             exchangeRequest.setToken(tokenExchangeRequest.getToken());
             if (userTokenClient != null) {
-                tokenExchangeResponse = userTokenClient.getUserToken()
+                return userTokenClient.getUserToken()
                         .exchangeToken(turnContext.getActivity().getFrom().getId(), oAuthConnectionName,
-                                turnContext.getActivity().getChannelId(), exchangeRequest)
-                        .join();
+                                turnContext.getActivity().getChannelId(), exchangeRequest);
             } else if (turnContext.getAdapter() instanceof UserTokenProvider) {
                 UserTokenProvider adapter = (UserTokenProvider) turnContext.getAdapter();
-                tokenExchangeResponse = adapter.exchangeToken(turnContext, oAuthConnectionName,
-                        turnContext.getActivity().getFrom().getId(), exchangeRequest).join();
+                return adapter.exchangeToken(turnContext, oAuthConnectionName,
+                        turnContext.getActivity().getFrom().getId(), exchangeRequest);
             } else {
                 throw new RuntimeException("Token Exchange is not supported by the current adapter.");
             }
-        } catch (Exception ex) {
+        }).handle((tokenExchangeResponse, ex) -> {
             // Ignore Exceptions
             // If token exchange failed for any reason, tokenExchangeResponse above stays
             // null,
             // and hence we send back a failure invoke response to the caller.
-        }
-
-        if (tokenExchangeResponse != null && StringUtils.isEmpty(tokenExchangeResponse.getToken())) {
-            // The token could not be exchanged (which could be due to a consent
-            // requirement)
-            // Notify the sender that PreconditionFailed so they can respond accordingly.
-
-            TokenExchangeInvokeResponse invokeResponse = new TokenExchangeInvokeResponse();
-            invokeResponse.setId(tokenExchangeRequest.getId());
-            invokeResponse.setConnectionName(oAuthConnectionName);
-            invokeResponse.setFailureDetail("The bot is unable to exchange token. Proceed with regular login.");
-
-            sendInvokeResponse(turnContext, invokeResponse, HttpURLConnection.HTTP_PRECON_FAILED);
-
-            return CompletableFuture.completedFuture(false);
-        }
+            if (ex == null && tokenExchangeResponse != null
+                && StringUtils.isEmpty(tokenExchangeResponse.getToken())
+            ) {
+                // The token could not be exchanged (which could be due to a consent
+                // requirement)
+                // Notify the sender that PreconditionFailed so they can respond accordingly.
+
+                TokenExchangeInvokeResponse invokeResponse = new TokenExchangeInvokeResponse();
+                invokeResponse.setId(tokenExchangeRequest.getId());
+                invokeResponse.setConnectionName(oAuthConnectionName);
+                invokeResponse.setFailureDetail("The bot is unable to exchange token. Proceed with regular login.");
+
+                return sendInvokeResponse(turnContext, invokeResponse, HttpURLConnection.HTTP_PRECON_FAILED)
+                    .thenApply(sent -> false);
+            }
 
-        return CompletableFuture.completedFuture(true);
+            return CompletableFuture.completedFuture(true);
+        }).thenCompose(exchanged -> exchanged);
     }
 
     /**
@@ -9,9 +9,12 @@ import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.microsoft.bot.builder.adapters.TestAdapter;
 import com.microsoft.bot.builder.adapters.TestFlow;
+import com.microsoft.bot.connector.Async;
+import com.microsoft.bot.connector.BlockingDetector;
 import com.microsoft.bot.connector.Channels;
 import com.microsoft.bot.connector.ConnectorClient;
 import com.microsoft.bot.connector.Conversations;
+import com.microsoft.bot.connector.ExecutorFactory;
 import com.microsoft.bot.connector.authentication.AppCredentials;
 import com.microsoft.bot.connector.authentication.AuthenticationConstants;
 import com.microsoft.bot.connector.authentication.ClaimsIdentity;
@@ -32,6 +35,7 @@ import com.microsoft.bot.schema.DeliveryModes;
 import com.microsoft.bot.schema.ExpectedReplies;
 import com.microsoft.bot.schema.ResourceResponse;
 import java.net.HttpURLConnection;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -41,6 +45,7 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import static org.mockito.Mockito.*;
@@ -181,6 +186,29 @@ public class BotFrameworkAdapterTests {
         return activity[0];
     }
 
+    @Test
+    public void ConnectorClientCacheIsBounded() {
+        BotFrameworkAdapter adapter = new BotFrameworkAdapter(new SimpleCredentialProvider());
+        adapter.getConnectorClients().setLimits(2, Duration.ofMinutes(1));
+
+        ConnectorClient amer = adapter.getOrCreateConnectorClient("https://smba.trafficmanager.net/amer/", null).join();
+        adapter.getOrCreateConnectorClient("https://smba.trafficmanager.net/emea/", null).join();
+        Assert.assertSame(
+            amer,
+            adapter.getOrCreateConnectorClient("https://smba.trafficmanager.net/amer/", null).join()
+        );
+        adapter.getOrCreateConnectorClient("https://smba.trafficmanager.net/apac/", null).join();
+
+        // emea was the least recently used client.
+        ClientCache<ConnectorClient> cache = adapter.getConnectorClients();
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(3, cache.getMissCount());
+        Assert.assertEquals(1, cache.getEvictionCount());
+        Assert.assertNull(cache.get(
+            BotFrameworkAdapter.keyForConnectorClient("https://smba.trafficmanager.net/emea/", null, null)));
+    }
+
     @Test
     public void OutgoingActivityIdNotSent() {
         CredentialProvider mockCredentials = mock(CredentialProvider.class);
@@ -466,4 +494,71 @@ public class BotFrameworkAdapterTests {
         Assert.assertNull(invokeResponse);
         Assert.assertEquals(3, ((MemoryConversations) mockConnector.getConversations()).getSentActivities().size());
     }
+
+    @Test
+    public void SendActivitiesWithDelayPreservesOrder() {
+        BotFrameworkAdapter adapter = new BotFrameworkAdapter(new SimpleCredentialProvider());
+
+        MockConnectorClient mockConnector = new MockConnectorClient("Windows/3.1", new MockAppCredentials("awesome"));
+        adapter.addConnectorClientToCache("http://tempuri.org/whatever", null, null, mockConnector);
+
+        ResourceResponse[][] responses = new ResourceResponse[1][];
+        BotCallbackHandler callback = turnContext -> {
+            Activity delay = new Activity(ActivityTypes.DELAY);
+            delay.setValue(50);
+            return turnContext.sendActivities(
+                MessageFactory.text("activity 1"),
+                delay,
+                MessageFactory.text("activity 2")
+            ).thenAccept(result -> responses[0] = result);
+        };
+
+        Activity inboundActivity = new Activity(ActivityTypes.MESSAGE);
+        inboundActivity.setChannelId(Channels.EMULATOR);
+        inboundActivity.setServiceUrl("http://tempuri.org/whatever");
+        inboundActivity.setText("hello world");
+        inboundActivity.setConversation(new ConversationAccount("conversationId"));
+
+        adapter.processActivity((String) null, inboundActivity, callback).join();
+
+        List<Activity> sent = ((MemoryConversations) mockConnector.getConversations()).getSentActivities();
+        Assert.assertEquals(2, sent.size());
+        Assert.assertEquals("activity 1", sent.get(0).getText());
+        Assert.assertEquals("activity 2", sent.get(1).getText());
+        Assert.assertEquals(3, responses[0].length);
+    }
+
+    @Test
+    public void ProcessActivityDoesNotBlockPoolThreads() {
+        CredentialProvider slowCredentials = new SimpleCredentialProvider() {
+            @Override
+            public CompletableFuture<Boolean> isAuthenticationDisabled() {
+                return Async.delay(200, TimeUnit.MILLISECONDS).thenApply(done -> true);
+            }
+        };
+        BotFrameworkAdapter adapter = new BotFrameworkAdapter(slowCredentials);
+
+        MockConnectorClient mockConnector = new MockConnectorClient("Windows/3.1", new MockAppCredentials("awesome"));
+        adapter.addConnectorClientToCache("http://tempuri.org/whatever", null, null, mockConnector);
+
+        Activity inboundActivity = new Activity(ActivityTypes.MESSAGE);
+        inboundActivity.setChannelId(Channels.EMULATOR);
+        inboundActivity.setServiceUrl("http://tempuri.org/whatever");
+        inboundActivity.setCallerId("shouldBeCleared");
+
+        String[] callerId = new String[] {"notSet"};
+        try (BlockingDetector detector = BlockingDetector.install()) {
+            CompletableFuture.supplyAsync(
+                () -> adapter.processActivity(new ClaimsIdentity("anonymous"), inboundActivity, turnContext -> {
+                    callerId[0] = turnContext.getActivity().getCallerId();
+                    return CompletableFuture.completedFuture(null);
+                }),
+                ExecutorFactory.getExecutor()
+            ).thenCompose(invokeResponse -> invokeResponse).join();
+
+            detector.verify();
+        }
+
+        Assert.assertNull(callerId[0]);
+    }
 }
@@ -6,6 +6,10 @@ package com.microsoft.bot.builder;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class BotStateSetTests {
     @Test
     public void BotStateSet_Properties() {
@@ -98,4 +102,50 @@ public class BotStateSetTests {
         convCount = convProperty.get(turnContext, () -> 0).join();
         Assert.assertEquals(20, convCount.intValue());
     }
+
+    @Test
+    public void BotStateSet_SharedStorageIsBatched() {
+        AtomicInteger reads = new AtomicInteger();
+        AtomicInteger writes = new AtomicInteger();
+        Storage storage = new MemoryStorage() {
+            @Override
+            public CompletableFuture<Map<String, Object>> read(String[] keys) {
+                reads.incrementAndGet();
+                return super.read(keys);
+            }
+
+            @Override
+            public CompletableFuture<Void> write(Map<String, Object> changes) {
+                writes.incrementAndGet();
+                return super.write(changes);
+            }
+        };
+
+        TurnContext turnContext = TestUtilities.createEmptyContext();
+        UserState userState = new UserState(storage);
+        ConversationState convState = new ConversationState(storage);
+        PrivateConversationState privateState = new PrivateConversationState(storage);
+        BotStateSet stateSet = new BotStateSet(userState, convState, privateState);
+
+        stateSet.loadAll(turnContext).join();
+        Assert.assertEquals(1, reads.get());
+
+        userState.createProperty("userCount").set(turnContext, 10).join();
+        convState.createProperty("convCount").set(turnContext, 20).join();
+        privateState.createProperty("privateCount").set(turnContext, 30).join();
+        stateSet.saveAllChanges(turnContext).join();
+        Assert.assertEquals(1, writes.get());
+
+        // Nothing changed since the last save.
+        stateSet.saveAllChanges(turnContext).join();
+        Assert.assertEquals(1, writes.get());
+
+        TurnContext nextTurn = TestUtilities.createEmptyContext();
+        stateSet.loadAll(nextTurn).join();
+        Assert.assertEquals(2, reads.get());
+        Assert.assertEquals(
+            Integer.valueOf(30),
+            privateState.<Integer>createProperty("privateCount").get(nextTurn, () -> 0).join()
+        );
+    }
 }
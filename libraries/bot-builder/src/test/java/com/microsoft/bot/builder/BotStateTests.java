@@ -17,6 +17,8 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class BotStateTests {
 
@@ -98,6 +100,101 @@ public class BotStateTests {
         Assert.assertEquals(1, readCount[0]);
     }
 
+    @Test
+    public void TrackPropertyChanges_SetAndDelete() {
+        CountingStorage storage = new CountingStorage();
+        UserState userState = new UserState(storage);
+        userState.setTrackPropertyChanges(true);
+        TurnContext context = TestUtilities.createEmptyContext();
+
+        StatePropertyAccessor<String> propertyA = userState.createProperty("propertyA");
+        userState.load(context).join();
+        userState.saveChanges(context).join();
+        Assert.assertEquals(1, storage.writeCount); // New state should be written
+
+        propertyA.set(context, "hello").join();
+        userState.saveChanges(context).join();
+        Assert.assertEquals(2, storage.writeCount); // Set should bump
+
+        Assert.assertEquals("hello", propertyA.get(context).join());
+        userState.saveChanges(context).join();
+        Assert.assertEquals(2, storage.writeCount); // Gets should not bump
+
+        propertyA.delete(context).join();
+        userState.saveChanges(context).join();
+        Assert.assertEquals(3, storage.writeCount); // Delete should bump
+
+        userState.saveChanges(context).join();
+        Assert.assertEquals(3, storage.writeCount); // Save not dirty should not bump
+    }
+
+    @Test
+    public void TrackPropertyChanges_InPlaceChange() {
+        CountingStorage storage = new CountingStorage();
+        UserState userState = new UserState(storage);
+        userState.setTrackPropertyChanges(true);
+        TurnContext context = TestUtilities.createEmptyContext();
+
+        StatePropertyAccessor<TestPocoState> testProperty = userState.createProperty("test");
+        TestPocoState value = testProperty.get(context, TestPocoState::new).join();
+        userState.saveChanges(context).join();
+        Assert.assertEquals(1, storage.writeCount);
+
+        value.setValue("changed");
+        userState.saveChanges(context).join();
+        Assert.assertEquals(2, storage.writeCount); // Mutating a set value should bump
+
+        TestPocoState fetched = testProperty.get(context).join();
+        userState.saveChanges(context).join();
+        Assert.assertEquals(2, storage.writeCount); // Gets should not bump
+
+        fetched.setValue("changed again");
+        userState.saveChanges(context).join();
+        Assert.assertEquals(3, storage.writeCount); // Mutating a fetched value should bump
+    }
+
+    @Test
+    public void TrackPropertyChanges_RawStateChange() {
+        CountingStorage storage = new CountingStorage();
+        UserState userState = new UserState(storage);
+        userState.setTrackPropertyChanges(true);
+        TurnContext context = TestUtilities.createEmptyContext();
+
+        userState.load(context).join();
+        userState.saveChanges(context).join();
+        Assert.assertEquals(1, storage.writeCount);
+
+        userState.getCachedState(context).stopTrackingChanges();
+        userState.getCachedState(context).getState().put("raw", "value");
+        userState.saveChanges(context).join();
+        Assert.assertEquals(2, storage.writeCount); // Changes to the raw map should bump
+
+        userState.saveChanges(context).join();
+        Assert.assertEquals(2, storage.writeCount);
+    }
+
+    @Test
+    public void TrackPropertyChanges_AccessorsDoNotDigestWholeState() {
+        ObjectStorage storage = new ObjectStorage();
+        UserState userState = new UserState(storage);
+        userState.setTrackPropertyChanges(true);
+
+        TurnContext context = TestUtilities.createEmptyContext();
+        userState.createProperty("untouched").set(context, new SerializationCountingPoco()).join();
+        userState.saveChanges(context).join();
+
+        SerializationCountingPoco.COUNT.set(0);
+        TurnContext nextContext = TestUtilities.createEmptyContext();
+        StatePropertyAccessor<String> propertyA = userState.createProperty("propertyA");
+        Assert.assertNull(propertyA.get(nextContext).join());
+        propertyA.set(nextContext, "hello").join();
+        userState.saveChanges(nextContext).join();
+
+        Assert.assertEquals(2, storage.writeCount);
+        Assert.assertEquals(0, SerializationCountingPoco.COUNT.get()); // No full state serialization
+        Assert.assertNull(userState.getCachedState(nextContext).getHash()); // No full state hash
+    }
+
     @Test
     public void State_SetNoLoad() {
         Map<String, JsonNode> dictionary = new HashMap<>();
@@ -925,6 +1022,60 @@ public class BotStateTests {
         }
     }
 
+    public static class SerializationCountingPoco {
+        private static final AtomicInteger COUNT = new AtomicInteger();
+
+        public String getValue() {
+            COUNT.incrementAndGet();
+            return "value";
+        }
+    }
+
+    /**
+     * Storage that keeps the written objects as they are, so the only
+     * serialization is done by BotState itself.
+     */
+    private static class ObjectStorage implements Storage {
+        private final Map<String, Map<String, Object>> items = new HashMap<>();
+        private int writeCount;
+
+        @Override
+        public CompletableFuture<Map<String, Object>> read(String[] keys) {
+            Map<String, Object> result = new HashMap<>();
+            for (String key : keys) {
+                if (items.containsKey(key)) {
+                    result.put(key, new ConcurrentHashMap<>(items.get(key)));
+                }
+            }
+            return CompletableFuture.completedFuture(result);
+        }
+
+        @Override
+        public CompletableFuture<Void> write(Map<String, Object> changes) {
+            writeCount++;
+            changes.forEach((key, value) -> items.put(key, new HashMap<>((Map<String, Object>) value)));
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Void> delete(String[] keys) {
+            for (String key : keys) {
+                items.remove(key);
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private static class CountingStorage extends MemoryStorage {
+        private int writeCount;
+
+        @Override
+        public CompletableFuture<Void> write(Map<String, Object> changes) {
+            writeCount++;
+            return super.write(changes);
+        }
+    }
+
     private static class TestBotState extends BotState {
         public TestBotState(Storage withStorage) {
             super(withStorage, TestBotState.class.getSimpleName());
@@ -0,0 +1,83 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.builder;
+
+import com.microsoft.bot.schema.Activity;
+import com.microsoft.bot.schema.ConversationAccount;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+
+public class IndexedMemoryTranscriptTests extends TranscriptBaseTests {
+    public IndexedMemoryTranscriptTests() {
+        store = new IndexedMemoryTranscriptStore();
+    }
+
+    @Test
+    public void IndexedMemoryTranscript_BadArgs() {
+        super.BadArgs();
+    }
+
+    @Test
+    public void IndexedMemoryTranscript_LogActivity() {
+        super.LogActivity();
+    }
+
+    @Test
+    public void IndexedMemoryTranscript_LogMultipleActivities() {
+        super.LogMultipleActivities();
+    }
+
+    @Test
+    public void IndexedMemoryTranscript_GetConversationActivities() {
+        super.GetTranscriptActivities();
+    }
+
+    @Test
+    public void IndexedMemoryTranscript_GetConversationActivitiesStartDate() {
+        super.GetTranscriptActivitiesStartDate();
+    }
+
+    @Test
+    public void IndexedMemoryTranscript_ListConversations() {
+        super.ListTranscripts();
+    }
+
+    @Test
+    public void IndexedMemoryTranscript_DeleteConversation() {
+        super.DeleteTranscript();
+    }
+
+    @Test
+    public void IndexedMemoryTranscript_PagesInTimestampOrder() {
+        OffsetDateTime start = OffsetDateTime.now(ZoneId.of("UTC"));
+
+        // Log newest first, the transcript is still read oldest first.
+        for (int i = 24; i >= 0; i--) {
+            Activity activity = Activity.createMessageActivity();
+            activity.setId(Integer.toString(i));
+            activity.setChannelId("test");
+            activity.setConversation(new ConversationAccount("_PagesInTimestampOrder"));
+            activity.setTimestamp(start.plusSeconds(i));
+            store.logActivity(activity).join();
+        }
+
+        PagedResult<Activity> firstPage = store.getTranscriptActivities("test", "_PagesInTimestampOrder").join();
+        Assert.assertEquals(20, firstPage.getItems().size());
+        Assert.assertEquals("0", firstPage.getItems().get(0).getId());
+        Assert.assertEquals("19", firstPage.getContinuationToken());
+
+        PagedResult<Activity> secondPage = store.getTranscriptActivities(
+            "test",
+            "_PagesInTimestampOrder",
+            firstPage.getContinuationToken(),
+            start.plusSeconds(10)
+        ).join();
+        Assert.assertEquals(5, secondPage.getItems().size());
+        Assert.assertEquals("20", secondPage.getItems().get(0).getId());
+        Assert.assertNull(secondPage.getContinuationToken());
+    }
+}
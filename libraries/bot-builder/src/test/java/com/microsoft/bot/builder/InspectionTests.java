@@ -22,7 +22,9 @@ import org.slf4j.Logger;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class InspectionTests {
     @Test
@@ -43,6 +45,32 @@ public class InspectionTests {
         Assert.assertEquals("hi", outboundActivity.getText());
     }
 
+    @Test
+    public void ScenarioWithInspectionMiddlewareDetachedSkipsStorage() {
+        AtomicInteger reads = new AtomicInteger();
+        MemoryStorage storage = new MemoryStorage() {
+            @Override
+            public CompletableFuture<Map<String, Object>> read(String[] keys) {
+                reads.incrementAndGet();
+                return super.read(keys);
+            }
+        };
+        InspectionMiddleware inspectionMiddleware = new InspectionMiddleware(new InspectionState(storage));
+
+        TestAdapter adapter = new TestAdapter().use(inspectionMiddleware);
+
+        for (int i = 0; i < 3; i++) {
+            adapter.processActivity(MessageFactory.text("hello"), turnContext -> {
+                turnContext.sendActivity(MessageFactory.text("hi")).join();
+                return CompletableFuture.completedFuture(null);
+            }).join();
+        }
+
+        // Only the first turn reads the conversation's session; the others know it has none.
+        Assert.assertEquals(1, reads.get());
+        Assert.assertEquals(3, adapter.activeQueue().size());
+    }
+
     @Test
     public void ScenarioWithInspectionMiddlewareOpenAttach() throws IOException {
         // any bot state should be returned as trace messages per turn
@@ -3,9 +3,20 @@
 
 package com.microsoft.bot.builder;
 
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 public class MemoryStorageTests extends StorageBaseTests {
     private Storage storage;
 
@@ -38,4 +49,68 @@ public class MemoryStorageTests extends StorageBaseTests {
     public void MemoryStorage_HandleCrazyKeys() {
         handleCrazyKeys(storage);
     }
+
+    @Test
+    public void MemoryStorage_ConcurrentETagConflicts() throws Exception {
+        Map<String, Object> initial = new HashMap<>();
+        initial.put("item", new CounterItem());
+        storage.write(initial).join();
+        CounterItem loaded = (CounterItem) storage.read(new String[] { "item" }).join().get("item");
+
+        int writers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < writers; i++) {
+                int count = i + 1;
+                results.add(executor.submit(() -> {
+                    CounterItem update = new CounterItem();
+                    update.setCount(count);
+                    update.setETag(loaded.getETag());
+                    Map<String, Object> changes = new HashMap<>();
+                    changes.put("item", update);
+
+                    start.await();
+                    CompletableFuture<Void> write = storage.write(changes);
+                    return !write.isCompletedExceptionally();
+                }));
+            }
+
+            start.countDown();
+            int succeeded = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    succeeded++;
+                }
+            }
+
+            Assert.assertEquals("Only one write with the same eTag should succeed", 1, succeeded);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class CounterItem implements StoreItem {
+        private int count;
+        private String eTag;
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int withCount) {
+            count = withCount;
+        }
+
+        @Override
+        public String getETag() {
+            return eTag;
+        }
+
+        @Override
+        public void setETag(String withETag) {
+            eTag = withETag;
+        }
+    }
 }
@@ -5,12 +5,15 @@ package com.microsoft.bot.builder;
 
 import com.microsoft.bot.builder.adapters.TestAdapter;
 import com.microsoft.bot.builder.adapters.TestFlow;
+import com.microsoft.bot.connector.Async;
 import com.microsoft.bot.schema.Activity;
 import com.microsoft.bot.schema.ActivityTypes;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 public class ShowTypingMiddlewareTests {
     @Test
@@ -65,6 +68,27 @@ public class ShowTypingMiddlewareTests {
         })).send("foo").assertReply("Message send after delay").startTest().join();
     }
 
+    @Test
+    public void ShowTyping_TestMiddleware_StopsWhenTurnFails() throws InterruptedException {
+        TestAdapter adapter = new TestAdapter().use(new ShowTypingMiddleware(0, 50));
+
+        try {
+            adapter.processActivity(adapter.makeActivity("foo"), turnContext ->
+                Async.delay(200, TimeUnit.MILLISECONDS).thenCompose(done -> Async.completeExceptionally(
+                    new IllegalStateException("turn failed")
+                ))
+            ).join();
+            Assert.fail("The turn should have failed");
+        } catch (CompletionException e) {
+            // expected
+        }
+
+        int sent = adapter.activeQueue().size();
+        Assert.assertTrue(sent > 0);
+        Thread.sleep(300);
+        Assert.assertTrue(adapter.activeQueue().size() <= sent + 1);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void ShowTyping_TestMiddleware_NegativeDelay() {
         TestAdapter adapter = new TestAdapter().use(new ShowTypingMiddleware(-100, 5000));
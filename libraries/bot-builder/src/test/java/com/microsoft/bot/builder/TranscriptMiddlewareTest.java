@@ -5,6 +5,9 @@ package com.microsoft.bot.builder;
 
 import com.microsoft.bot.builder.adapters.TestAdapter;
 import com.microsoft.bot.builder.adapters.TestFlow;
+import com.microsoft.bot.connector.BoundedExecutorProvider;
+import com.microsoft.bot.connector.ExecutorFactory;
+import com.microsoft.bot.connector.ExecutorProvider;
 import com.microsoft.bot.schema.*;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.Assert;
@@ -12,7 +15,12 @@ import org.junit.Test;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 public class TranscriptMiddlewareTest {
 
@@ -90,6 +98,165 @@ public class TranscriptMiddlewareTest {
         System.out.printf("Complete");
     }
 
+    @Test
+    public final void Transcript_LogActivitiesInBackground() {
+        MemoryTranscriptStore transcriptStore = new MemoryTranscriptStore();
+        try (BackgroundTranscriptLogger backgroundLogger = new BackgroundTranscriptLogger(transcriptStore)) {
+            TestAdapter adapter = (new TestAdapter()).use(
+                new TranscriptLoggerMiddleware(backgroundLogger)
+            );
+            final String[] conversationId = { null };
+
+            new TestFlow(adapter, (context) -> {
+                conversationId[0] = context.getActivity().getConversation().getId();
+                context.sendActivity("echo:" + context.getActivity().getText()).join();
+                return CompletableFuture.completedFuture(null);
+            }
+            ).send("foo").assertReply("echo:foo").send("bar").assertReply("echo:bar").startTest().join();
+
+            backgroundLogger.flush().join();
+
+            PagedResult<Activity> pagedResult = transcriptStore.getTranscriptActivities(
+                "test",
+                conversationId[0]
+            ).join();
+            Assert.assertEquals(4, pagedResult.getItems().size());
+            Assert.assertEquals("foo", pagedResult.getItems().get(0).getText());
+            Assert.assertEquals("echo:foo", pagedResult.getItems().get(1).getText());
+            Assert.assertEquals("bar", pagedResult.getItems().get(2).getText());
+            Assert.assertEquals("echo:bar", pagedResult.getItems().get(3).getText());
+        }
+    }
+
+    @Test
+    public final void Transcript_BackgroundLoggerDropsWhenFull() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CompletableFuture<Void> release = new CompletableFuture<>();
+        List<Activity> written = new ArrayList<>();
+        TranscriptLogger slowLogger = activity -> {
+            synchronized (written) {
+                written.add(activity);
+            }
+            writing.countDown();
+            return release;
+        };
+
+        BackgroundTranscriptLogger backgroundLogger = new BackgroundTranscriptLogger(
+            slowLogger,
+            1,
+            BackgroundTranscriptLogger.OverflowPolicy.DROP_NEWEST
+        );
+        try {
+            backgroundLogger.logActivity(createConversationMessage("one")).join();
+            Assert.assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+            // The writer is busy, so the queue holds one activity and the next is dropped.
+            backgroundLogger.logActivity(createConversationMessage("two")).join();
+            backgroundLogger.logActivity(createConversationMessage("three")).join();
+            Assert.assertEquals(1, backgroundLogger.getDroppedCount());
+
+            release.complete(null);
+            backgroundLogger.flush().get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            Assert.fail(e.getMessage());
+        } finally {
+            backgroundLogger.close();
+        }
+
+        Assert.assertEquals(2, written.size());
+        Assert.assertEquals("one", written.get(0).getText());
+        Assert.assertEquals("two", written.get(1).getText());
+    }
+
+    @Test
+    public final void Transcript_BackgroundLoggerHoldsBackWhenFull() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CompletableFuture<Void> release = new CompletableFuture<>();
+        List<Activity> written = new ArrayList<>();
+        TranscriptLogger slowLogger = activity -> {
+            synchronized (written) {
+                written.add(activity);
+            }
+            writing.countDown();
+            return release;
+        };
+
+        BackgroundTranscriptLogger backgroundLogger = new BackgroundTranscriptLogger(
+            slowLogger,
+            1,
+            BackgroundTranscriptLogger.OverflowPolicy.BLOCK
+        );
+        try {
+            backgroundLogger.logActivity(createConversationMessage("one")).join();
+            Assert.assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+            // The writer is busy, so "two" fills the queue and "three" is held
+            // back without holding this thread.
+            backgroundLogger.logActivity(createConversationMessage("two")).join();
+            CompletableFuture<Void> held = backgroundLogger.logActivities(
+                Collections.singletonList(createConversationMessage("three"))
+            );
+            Assert.assertFalse(held.isDone());
+            Assert.assertEquals(2, backgroundLogger.getQueuedCount());
+
+            release.complete(null);
+            held.get(5, TimeUnit.SECONDS);
+            backgroundLogger.flush().get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            Assert.fail(e.getMessage());
+        } finally {
+            backgroundLogger.close();
+        }
+
+        Assert.assertEquals(0, backgroundLogger.getDroppedCount());
+        Assert.assertEquals(3, written.size());
+        Assert.assertEquals("one", written.get(0).getText());
+        Assert.assertEquals("two", written.get(1).getText());
+        Assert.assertEquals("three", written.get(2).getText());
+    }
+
+    @Test
+    public final void Transcript_BackgroundLoggerWritesOnSdkExecutor() {
+        ExecutorProvider original = ExecutorFactory.getExecutorProvider();
+        ExecutorFactory.setExecutorProvider(new BoundedExecutorProvider(1, 2, 10));
+        List<String> threads = new ArrayList<>();
+        List<Activity> written = new ArrayList<>();
+        TranscriptLogger recordingLogger = activity -> {
+            synchronized (written) {
+                threads.add(Thread.currentThread().getName());
+                written.add(activity);
+            }
+            return CompletableFuture.completedFuture(null);
+        };
+
+        BackgroundTranscriptLogger backgroundLogger = new BackgroundTranscriptLogger(recordingLogger);
+        try {
+            backgroundLogger.logActivity(createConversationMessage("one")).join();
+            backgroundLogger.logActivity(createConversationMessage("two")).join();
+        } finally {
+            // Closing writes what is still queued.
+            backgroundLogger.close();
+            ExecutorFactory.setExecutorProvider(original);
+        }
+
+        Assert.assertEquals(2, written.size());
+        Assert.assertEquals("one", written.get(0).getText());
+        Assert.assertEquals("two", written.get(1).getText());
+        for (String thread : threads) {
+            Assert.assertTrue(thread, thread.startsWith("Bot-io-"));
+        }
+        Assert.assertTrue(
+            backgroundLogger.logActivity(createConversationMessage("three")).isCompletedExceptionally()
+        );
+    }
+
+    private static Activity createConversationMessage(String text) {
+        Activity activity = MessageFactory.text(text);
+        activity.setChannelId("test");
+        activity.setConversation(new ConversationAccount("conversation"));
+        return activity;
+    }
+
     @Test
     public void Transcript_LogUpdateActivities() {
         MemoryTranscriptStore transcriptStore = new MemoryTranscriptStore();
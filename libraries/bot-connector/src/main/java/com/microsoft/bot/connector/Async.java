@@ -3,7 +3,14 @@
 
 package com.microsoft.bot.connector;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
 
 /**
  * Asyc and CompletableFuture helpers methods.
@@ -64,4 +71,79 @@ public final class Async {
         result.completeExceptionally(ex);
         return result;
     }
+
+    /**
+     * Constructs a CompletableFuture that completes after a delay without
+     * blocking a thread while waiting.
+     *
+     * <p>
+     * The timer runs on {@link ExecutorFactory#getScheduledExecutor()} and the
+     * returned future is completed on {@link ExecutorFactory#getExecutor()}.
+     * Cancelling the returned future cancels the timer.
+     * </p>
+     *
+     * @param delay The time to wait.
+     * @param unit  The unit of the delay.
+     * @return A CompletableFuture that completes once the delay has elapsed.
+     */
+    public static CompletableFuture<Void> delay(long delay, TimeUnit unit) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        ScheduledFuture<?> timer = ExecutorFactory.getScheduledExecutor().schedule(
+            () -> ExecutorFactory.getExecutor().execute(() -> result.complete(null)),
+            delay,
+            unit
+        );
+        result.whenComplete((value, ex) -> {
+            if (result.isCancelled()) {
+                timer.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Applies an operation that may block to each item on
+     * {@link ExecutorFactory#getExecutor()}, with at most maxConcurrency of them
+     * running at once. The first failure stops any items that haven't started
+     * yet.
+     *
+     * @param items          The items.
+     * @param maxConcurrency The maximum number of operations running at once.
+     * @param operation      The operation.
+     * @param <T>            The type of the items.
+     * @param <R>            The type of the results.
+     * @return A future with the results, in item order.
+     */
+    public static <T, R> CompletableFuture<List<R>> forEachConcurrently(
+        List<T> items,
+        int maxConcurrency,
+        Function<T, R> operation
+    ) {
+        AtomicInteger next = new AtomicInteger();
+        AtomicReferenceArray<R> results = new AtomicReferenceArray<>(items.size());
+
+        int workers = Math.min(items.size(), Math.max(1, maxConcurrency));
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[workers];
+        for (int w = 0; w < workers; w++) {
+            futures[w] = CompletableFuture.runAsync(() -> {
+                int index;
+                while ((index = next.getAndIncrement()) < items.size()) {
+                    try {
+                        results.set(index, operation.apply(items.get(index)));
+                    } catch (RuntimeException e) {
+                        next.set(items.size());
+                        throw e;
+                    }
+                }
+            }, ExecutorFactory.getExecutor());
+        }
+
+        return CompletableFuture.allOf(futures).thenApply(done -> {
+            List<R> list = new ArrayList<>(items.size());
+            for (int i = 0; i < items.size(); i++) {
+                list.add(results.get(i));
+            }
+            return list;
+        });
+    }
 }
@@ -0,0 +1,239 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.connector;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An ExecutorProvider with separate fixed size pools for CPU bound work and
+ * for work that may block.
+ *
+ * <p>
+ * Each pool has a bounded queue. When a queue is full, a task submitted by an
+ * application thread, such as a thread handling an incoming request, runs on
+ * that thread, which slows down the submitter instead of letting the backlog
+ * grow without limit. Tasks submitted by the pool's own threads or by
+ * {@link ExecutorFactory#getScheduledExecutor()} never run on the submitting
+ * thread: they are handed to a single hand-off thread per pool that waits for
+ * room in the queue. Timers therefore keep firing, and a pool task never ends
+ * up running an unrelated task in the middle of its own work. The hand-off
+ * holds as many tasks as the queue; beyond that, submitting throws a
+ * {@link RejectedExecutionException}. {@link ExecutorMetrics#getHandOffTaskCount()}
+ * reports how many tasks are waiting there.
+ * </p>
+ *
+ * <p>
+ * The pools have a fixed number of threads. A task that blocks, for instance by
+ * calling {@code join()} on a future, holds its thread until it is released,
+ * and other tasks wait in the queue meanwhile. If every thread of a pool blocks
+ * on work that is queued behind it, the pool deadlocks, so tasks on these
+ * pools should compose futures instead of waiting for them.
+ * </p>
+ */
+public final class BoundedExecutorProvider implements ExecutorProvider {
+    /**
+     * The default number of tasks that can wait in each pool.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 10000;
+
+    /**
+     * The default number of blocking work threads per processor.
+     */
+    public static final int DEFAULT_IO_THREADS_PER_PROCESSOR = 8;
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private final ThreadPoolExecutor ioExecutor;
+    private final ThreadPoolExecutor cpuExecutor;
+
+    /**
+     * Creates pools with one CPU thread per processor,
+     * {@link #DEFAULT_IO_THREADS_PER_PROCESSOR} blocking work threads per
+     * processor, and queues of {@link #DEFAULT_QUEUE_CAPACITY} tasks.
+     */
+    public BoundedExecutorProvider() {
+        this(
+            Runtime.getRuntime().availableProcessors(),
+            Runtime.getRuntime().availableProcessors() * DEFAULT_IO_THREADS_PER_PROCESSOR,
+            DEFAULT_QUEUE_CAPACITY
+        );
+    }
+
+    /**
+     * Creates pools.
+     *
+     * @param withCpuThreads    The number of threads for CPU bound work.
+     * @param withIoThreads     The number of threads for work that may block.
+     * @param withQueueCapacity The number of tasks that can wait in each pool.
+     */
+    public BoundedExecutorProvider(int withCpuThreads, int withIoThreads, int withQueueCapacity) {
+        if (withCpuThreads < 1 || withIoThreads < 1) {
+            throw new IllegalArgumentException("Thread counts must be at least 1");
+        }
+        if (withQueueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be at least 1");
+        }
+
+        cpuExecutor = createPool("Bot-cpu-", withCpuThreads, withQueueCapacity);
+        ioExecutor = createPool("Bot-io-", withIoThreads, withQueueCapacity);
+    }
+
+    /**
+     * Gets the pool for work that may block.
+     *
+     * @return An ExecutorService.
+     */
+    @Override
+    public ExecutorService getExecutor() {
+        return ioExecutor;
+    }
+
+    /**
+     * Gets the pool for CPU bound work.
+     *
+     * @return An ExecutorService.
+     */
+    @Override
+    public ExecutorService getCpuExecutor() {
+        return cpuExecutor;
+    }
+
+    private static ThreadPoolExecutor createPool(String namePrefix, int threads, int queueCapacity) {
+        Object owner = new Object();
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+            threads,
+            threads,
+            KEEP_ALIVE_SECONDS,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> new PoolThread(runnable, namePrefix + count.getAndIncrement(), owner),
+            new OverflowPolicy(namePrefix + "handoff", owner, queueCapacity)
+        );
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Gets the number of tasks of a pool waiting in its hand-off for room in the
+     * queue.
+     *
+     * @param pool The pool.
+     * @return The number of tasks, or {@link ExecutorMetrics#UNKNOWN} if the
+     *         pool wasn't created by this class.
+     */
+    static int getHandOffTaskCount(ThreadPoolExecutor pool) {
+        RejectedExecutionHandler handler = pool.getRejectedExecutionHandler();
+        return handler instanceof OverflowPolicy
+            ? ((OverflowPolicy) handler).waiting.get()
+            : ExecutorMetrics.UNKNOWN;
+    }
+
+    /**
+     * A thread of one of the pools.
+     */
+    private static final class PoolThread extends Thread {
+        private final Object owner;
+
+        PoolThread(Runnable withRunnable, String withName, Object withOwner) {
+            super(withRunnable, withName);
+            owner = withOwner;
+            setDaemon(true);
+        }
+    }
+
+    /**
+     * Runs a task that doesn't fit in the queue on the submitting thread, unless
+     * that is the scheduler or a thread of the same pool, in which case the task
+     * is queued from a hand-off thread once there is room.
+     */
+    private static final class OverflowPolicy implements RejectedExecutionHandler {
+        private final Object owner;
+        private final ThreadPoolExecutor handOff;
+        private final AtomicInteger waiting = new AtomicInteger();
+
+        OverflowPolicy(String withThreadName, Object withOwner, int withCapacity) {
+            owner = withOwner;
+            handOff = new ThreadPoolExecutor(
+                1,
+                1,
+                KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(withCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, withThreadName);
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, executor) -> {
+                    throw new RejectedExecutionException(
+                        "The pool is full and " + withCapacity + " tasks are already waiting for room in it.");
+                }
+            );
+            handOff.allowCoreThreadTimeOut(true);
+        }
+
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor pool) {
+            if (pool.isShutdown()) {
+                throw new RejectedExecutionException("The pool has been shut down.");
+            }
+
+            Thread current = Thread.currentThread();
+            boolean poolThread = current instanceof PoolThread && ((PoolThread) current).owner == owner;
+            if (poolThread || ExecutorFactory.isSchedulerThread()) {
+                waiting.incrementAndGet();
+                try {
+                    handOff.execute(() -> {
+                        try {
+                            enqueue(task, pool);
+                        } finally {
+                            waiting.decrementAndGet();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    waiting.decrementAndGet();
+                    throw e;
+                }
+            } else {
+                task.run();
+            }
+        }
+
+        private static void enqueue(Runnable task, ThreadPoolExecutor pool) {
+            boolean interrupted = false;
+            try {
+                while (true) {
+                    if (pool.isShutdown()) {
+                        // The task was accepted before the shutdown, so it still
+                        // runs rather than leaving whoever waits on it hanging.
+                        task.run();
+                        return;
+                    }
+
+                    try {
+                        if (pool.getQueue().offer(task, 1, TimeUnit.SECONDS)) {
+                            // The pool may have let an idle thread go while the task waited.
+                            pool.prestartCoreThread();
+                            return;
+                        }
+                    } catch (InterruptedException e) {
+                        // Keep waiting; dropping the task would leave its future pending.
+                        interrupted = true;
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
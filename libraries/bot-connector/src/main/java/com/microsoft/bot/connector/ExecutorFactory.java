@@ -4,38 +4,144 @@
 
 package com.microsoft.bot.connector;
 
+import java.util.Iterator;
+import java.util.ServiceLoader;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
-import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 
 /**
  * Provides a common Executor for Future operations.
+ *
+ * <p>
+ * The executors come from an {@link ExecutorProvider}. An application can
+ * install its own with {@link #setExecutorProvider(ExecutorProvider)} at
+ * startup, or register one as a {@link ServiceLoader} service. Otherwise a
+ * {@link ForkJoinExecutorProvider} is used.
+ * </p>
  */
 public final class ExecutorFactory {
     private ExecutorFactory() {
 
     }
 
-    private static ForkJoinWorkerThreadFactory factory = new ForkJoinWorkerThreadFactory() {
-        @Override
-        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
-            ForkJoinWorkerThread worker =
-                ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
-            worker.setName("Bot-" + worker.getPoolIndex());
-            return worker;
-        }
-    };
+    private static volatile ExecutorProvider provider;
+
+    private static volatile Thread schedulerThread;
 
-    private static ExecutorService executor =
-        new ForkJoinPool(Runtime.getRuntime().availableProcessors() * 2, factory, null, false);
+    private static ScheduledExecutorService scheduledExecutor = createScheduledExecutor();
 
     /**
      * Provides an SDK wide ExecutorService for async calls.
-     * 
+     *
      * @return An ExecutorService.
      */
     public static ExecutorService getExecutor() {
-        return executor;
+        return getExecutorProvider().getExecutor();
+    }
+
+    /**
+     * Provides an SDK wide ExecutorService for CPU bound work that doesn't block,
+     * such as verifying token signatures.
+     *
+     * @return An ExecutorService.
+     */
+    public static ExecutorService getCpuExecutor() {
+        return getExecutorProvider().getCpuExecutor();
+    }
+
+    /**
+     * Gets the provider of the SDK wide executors.
+     *
+     * @return The ExecutorProvider in use.
+     */
+    public static ExecutorProvider getExecutorProvider() {
+        ExecutorProvider current = provider;
+        if (current == null) {
+            synchronized (ExecutorFactory.class) {
+                if (provider == null) {
+                    provider = loadExecutorProvider();
+                }
+                current = provider;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Sets the provider of the SDK wide executors.
+     *
+     * <p>
+     * This should be done at startup, before the SDK is used. Executors handed
+     * out by the previous provider are not shut down, and work already
+     * submitted to them keeps running there.
+     * </p>
+     *
+     * @param withProvider The ExecutorProvider to use, or null to go back to the
+     *                     default.
+     */
+    public static void setExecutorProvider(ExecutorProvider withProvider) {
+        synchronized (ExecutorFactory.class) {
+            provider = withProvider;
+        }
+    }
+
+    /**
+     * Gets the current load on the SDK wide executor.
+     *
+     * @return The queue depth and thread counts of {@link #getExecutor()}.
+     */
+    public static ExecutorMetrics getExecutorMetrics() {
+        return ExecutorMetrics.of(getExecutor());
+    }
+
+    /**
+     * Gets the current load on the SDK wide CPU executor.
+     *
+     * @return The queue depth and thread counts of {@link #getCpuExecutor()}.
+     */
+    public static ExecutorMetrics getCpuExecutorMetrics() {
+        return ExecutorMetrics.of(getCpuExecutor());
+    }
+
+    /**
+     * Provides an SDK wide ScheduledExecutorService for timed operations.
+     *
+     * <p>
+     * The scheduler has a single thread that is only meant to trigger timers.
+     * Work that follows a timer should be handed off to {@link #getExecutor()},
+     * as {@link Async#delay(long, java.util.concurrent.TimeUnit)} does.
+     * </p>
+     *
+     * @return A ScheduledExecutorService.
+     */
+    public static ScheduledExecutorService getScheduledExecutor() {
+        return scheduledExecutor;
+    }
+
+    /**
+     * Gets whether the current thread is the thread of
+     * {@link #getScheduledExecutor()}, which must not run or wait for other work.
+     *
+     * @return true on the scheduler thread.
+     */
+    static boolean isSchedulerThread() {
+        return Thread.currentThread() == schedulerThread;
+    }
+
+    private static ExecutorProvider loadExecutorProvider() {
+        Iterator<ExecutorProvider> providers = ServiceLoader.load(ExecutorProvider.class).iterator();
+        return providers.hasNext() ? providers.next() : new ForkJoinExecutorProvider();
+    }
+
+    private static ScheduledExecutorService createScheduledExecutor() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "Bot-Scheduler");
+            thread.setDaemon(true);
+            schedulerThread = thread;
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
     }
 }
@@ -0,0 +1,109 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.connector;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * A snapshot of the load on an executor.
+ *
+ * <p>
+ * Counts are known for {@link ForkJoinPool} and {@link ThreadPoolExecutor};
+ * for other executors they are {@link #UNKNOWN}. The hand-off count is only
+ * known for the pools of {@link BoundedExecutorProvider}.
+ * </p>
+ */
+public final class ExecutorMetrics {
+    /**
+     * The value of a count the executor doesn't report.
+     */
+    public static final int UNKNOWN = -1;
+
+    private final int queuedTaskCount;
+    private final int activeThreadCount;
+    private final int poolSize;
+    private final int handOffTaskCount;
+
+    private ExecutorMetrics(
+        int withQueuedTaskCount,
+        int withActiveThreadCount,
+        int withPoolSize,
+        int withHandOffTaskCount
+    ) {
+        queuedTaskCount = withQueuedTaskCount;
+        activeThreadCount = withActiveThreadCount;
+        poolSize = withPoolSize;
+        handOffTaskCount = withHandOffTaskCount;
+    }
+
+    /**
+     * Reads the current counts of an executor.
+     *
+     * @param executor The executor.
+     * @return The counts.
+     */
+    public static ExecutorMetrics of(ExecutorService executor) {
+        if (executor instanceof ForkJoinPool) {
+            ForkJoinPool pool = (ForkJoinPool) executor;
+            long queued = pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount();
+            return new ExecutorMetrics(
+                (int) Math.min(queued, Integer.MAX_VALUE),
+                pool.getActiveThreadCount(),
+                pool.getPoolSize(),
+                UNKNOWN
+            );
+        }
+
+        if (executor instanceof ThreadPoolExecutor) {
+            ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+            return new ExecutorMetrics(
+                pool.getQueue().size(),
+                pool.getActiveCount(),
+                pool.getPoolSize(),
+                BoundedExecutorProvider.getHandOffTaskCount(pool)
+            );
+        }
+
+        return new ExecutorMetrics(UNKNOWN, UNKNOWN, UNKNOWN, UNKNOWN);
+    }
+
+    /**
+     * Gets the number of tasks waiting for a thread.
+     *
+     * @return The queue depth.
+     */
+    public int getQueuedTaskCount() {
+        return queuedTaskCount;
+    }
+
+    /**
+     * Gets the number of threads running tasks.
+     *
+     * @return The active thread count.
+     */
+    public int getActiveThreadCount() {
+        return activeThreadCount;
+    }
+
+    /**
+     * Gets the number of threads in the pool, running or idle.
+     *
+     * @return The pool size.
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Gets the number of tasks, submitted by the pool's own threads or the
+     * scheduler while the queue was full, that wait for room in the queue.
+     *
+     * @return The hand-off depth.
+     */
+    public int getHandOffTaskCount() {
+        return handOffTaskCount;
+    }
+}
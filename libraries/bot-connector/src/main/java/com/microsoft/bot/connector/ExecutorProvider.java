@@ -0,0 +1,37 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.connector;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Supplies the executors the SDK runs asynchronous work on.
+ *
+ * <p>
+ * The provider in use is set with
+ * {@link ExecutorFactory#setExecutorProvider(ExecutorProvider)}. If none is set,
+ * the first provider found by {@link java.util.ServiceLoader} is used, and
+ * otherwise a {@link ForkJoinExecutorProvider}.
+ * </p>
+ */
+public interface ExecutorProvider {
+    /**
+     * Gets the executor for general work, including work that waits on I/O or
+     * other futures.
+     *
+     * @return An ExecutorService.
+     */
+    ExecutorService getExecutor();
+
+    /**
+     * Gets the executor for short, CPU bound work that doesn't block, such as
+     * verifying token signatures. By default this is the same as
+     * {@link #getExecutor()}.
+     *
+     * @return An ExecutorService.
+     */
+    default ExecutorService getCpuExecutor() {
+        return getExecutor();
+    }
+}
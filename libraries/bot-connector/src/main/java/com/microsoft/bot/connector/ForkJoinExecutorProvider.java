@@ -0,0 +1,53 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.connector;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * The default ExecutorProvider: a single ForkJoinPool with two threads per
+ * processor, used for all work.
+ */
+public final class ForkJoinExecutorProvider implements ExecutorProvider {
+    private static final ForkJoinWorkerThreadFactory FACTORY = new ForkJoinWorkerThreadFactory() {
+        @Override
+        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+            ForkJoinWorkerThread worker =
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            worker.setName("Bot-" + worker.getPoolIndex());
+            return worker;
+        }
+    };
+
+    private final ExecutorService executor;
+
+    /**
+     * Creates a pool with two threads per processor.
+     */
+    public ForkJoinExecutorProvider() {
+        this(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     * Creates a pool.
+     *
+     * @param withParallelism The number of threads.
+     */
+    public ForkJoinExecutorProvider(int withParallelism) {
+        executor = new ForkJoinPool(withParallelism, FACTORY, null, false);
+    }
+
+    /**
+     * Gets the pool.
+     *
+     * @return An ExecutorService.
+     */
+    @Override
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+}
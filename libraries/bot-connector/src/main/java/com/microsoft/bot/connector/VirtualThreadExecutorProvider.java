@@ -0,0 +1,82 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.connector;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * An ExecutorProvider that runs each task that may block on its own virtual
+ * thread, for JDKs that support them (Java 21 and later).
+ *
+ * <p>
+ * CPU bound work still runs on a pool of one platform thread per processor,
+ * since virtual threads don't add processors. The virtual thread executor is
+ * looked up at run time, so the SDK can keep targeting Java 8; use
+ * {@link #isSupported()} to check for it before creating this provider.
+ * </p>
+ */
+public final class VirtualThreadExecutorProvider implements ExecutorProvider {
+    private static final Method NEW_VIRTUAL_THREAD_EXECUTOR = findFactory();
+
+    private final ExecutorService executor;
+    private final ExecutorService cpuExecutor;
+
+    /**
+     * Creates the provider.
+     *
+     * @throws UnsupportedOperationException The JDK doesn't have virtual threads.
+     */
+    public VirtualThreadExecutorProvider() {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or later");
+        }
+
+        try {
+            executor = (ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invoke(null);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new UnsupportedOperationException("Virtual threads are not available", e);
+        }
+        cpuExecutor = new ForkJoinExecutorProvider(Runtime.getRuntime().availableProcessors()).getExecutor();
+    }
+
+    /**
+     * Gets whether the JDK supports virtual threads.
+     *
+     * @return true if this provider can be created.
+     */
+    public static boolean isSupported() {
+        return NEW_VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    /**
+     * Gets the executor that starts a virtual thread per task.
+     *
+     * @return An ExecutorService.
+     */
+    @Override
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Gets the pool for CPU bound work.
+     *
+     * @return An ExecutorService.
+     */
+    @Override
+    public ExecutorService getCpuExecutor() {
+        return cpuExecutor;
+    }
+
+    private static Method findFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -4,13 +4,18 @@
 package com.microsoft.bot.connector.authentication;
 
 import com.microsoft.aad.msal4j.IAuthenticationResult;
+import com.microsoft.bot.connector.ExecutorFactory;
 import com.microsoft.bot.restclient.credentials.ServiceClientCredentials;
 import okhttp3.OkHttpClient;
 import org.apache.commons.lang3.StringUtils;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.time.Duration;
+import java.util.Date;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Base abstraction for AAD credentials for auth and caching.
@@ -20,12 +25,22 @@ import java.util.concurrent.CompletableFuture;
  * </p>
  */
 public abstract class AppCredentials implements ServiceClientCredentials {
+    /**
+     * The default time before expiry at which a token is refreshed.
+     */
+    public static final Duration DEFAULT_TOKEN_REFRESH_LEAD_TIME = Duration.ofMinutes(5);
 
     private String appId;
     private String authTenant;
     private String authScope;
     private Authenticator authenticator;
 
+    private Duration tokenRefreshLeadTime = DEFAULT_TOKEN_REFRESH_LEAD_TIME;
+    private volatile CachedToken cachedToken;
+    private volatile boolean tokenUsed;
+    private final AtomicReference<CompletableFuture<CachedToken>> pendingRefresh = new AtomicReference<>();
+    private final TokenCacheMetrics tokenCacheMetrics = new TokenCacheMetrics();
+
     /**
      * Initializes a new instance of the AppCredentials class.
      *
@@ -133,24 +148,127 @@ public abstract class AppCredentials implements ServiceClientCredentials {
         authTenant = withAuthTenant;
     }
 
+    /**
+     * Gets how long before a token expires it is refreshed in the background.
+     *
+     * @return The refresh lead time.
+     */
+    public Duration getTokenRefreshLeadTime() {
+        return tokenRefreshLeadTime;
+    }
+
+    /**
+     * Sets how long before a token expires it is refreshed in the background.
+     *
+     * @param withTokenRefreshLeadTime The refresh lead time.
+     */
+    public void setTokenRefreshLeadTime(Duration withTokenRefreshLeadTime) {
+        if (withTokenRefreshLeadTime == null || withTokenRefreshLeadTime.isNegative()) {
+            throw new IllegalArgumentException("tokenRefreshLeadTime must not be null or negative");
+        }
+        tokenRefreshLeadTime = withTokenRefreshLeadTime;
+    }
+
+    /**
+     * Gets the counters for the token cache of this credential.
+     *
+     * @return The token cache metrics.
+     */
+    public TokenCacheMetrics getTokenCacheMetrics() {
+        return tokenCacheMetrics;
+    }
+
     /**
      * Gets an OAuth access token.
      *
+     * <p>
+     * The token is cached until it expires and is refreshed in the background
+     * once it is within {@link #getTokenRefreshLeadTime()} of expiring, so the
+     * returned future is normally already complete. Concurrent requests for a
+     * token that isn't cached share a single call to the authority.
+     * </p>
+     *
      * @return If the task is successful, the result contains the access token
      *         string.
      */
     public CompletableFuture<String> getToken() {
-        CompletableFuture<String> result;
+        tokenUsed = true;
 
+        CachedToken token = cachedToken;
+        long now = System.currentTimeMillis();
+        if (token != null && now < token.expiresOn) {
+            tokenCacheMetrics.recordHit();
+            if (now >= token.expiresOn - tokenRefreshLeadTime.toMillis()) {
+                refreshToken();
+            }
+            return CompletableFuture.completedFuture(token.accessToken);
+        }
+
+        tokenCacheMetrics.recordMiss();
+        return refreshToken().thenApply(refreshed -> refreshed.accessToken);
+    }
+
+    private CompletableFuture<CachedToken> refreshToken() {
+        while (true) {
+            CompletableFuture<CachedToken> inFlight = pendingRefresh.get();
+            if (inFlight != null) {
+                return inFlight;
+            }
+
+            CompletableFuture<CachedToken> refresh = new CompletableFuture<>();
+            if (pendingRefresh.compareAndSet(null, refresh)) {
+                acquireToken(refresh);
+                return refresh;
+            }
+        }
+    }
+
+    private void acquireToken(CompletableFuture<CachedToken> refresh) {
+        long start = System.nanoTime();
+
+        CompletableFuture<IAuthenticationResult> acquire;
         try {
-            result = getAuthenticator().acquireToken()
-                .thenApply(IAuthenticationResult::accessToken);
+            acquire = getAuthenticator().acquireToken();
         } catch (MalformedURLException e) {
-            result = new CompletableFuture<>();
-            result.completeExceptionally(new AuthenticationException(e));
+            acquire = new CompletableFuture<>();
+            acquire.completeExceptionally(new AuthenticationException(e));
+        } catch (RuntimeException e) {
+            acquire = new CompletableFuture<>();
+            acquire.completeExceptionally(e);
         }
 
-        return result;
+        acquire.whenComplete((result, ex) -> {
+            tokenCacheMetrics.recordRefresh(System.nanoTime() - start, ex == null);
+
+            if (ex != null) {
+                pendingRefresh.set(null);
+                refresh.completeExceptionally(ex);
+                return;
+            }
+
+            // Publish the token before clearing the pending refresh, so a caller
+            // arriving in between sees either the refresh or the new token.
+            CachedToken token = new CachedToken(result.accessToken(), result.expiresOnDate());
+            cachedToken = token;
+            scheduleRefresh(token);
+            pendingRefresh.set(null);
+            refresh.complete(token);
+        });
+    }
+
+    private void scheduleRefresh(CachedToken token) {
+        long delay = token.expiresOn - tokenRefreshLeadTime.toMillis() - System.currentTimeMillis();
+        if (delay <= 0) {
+            return;
+        }
+
+        tokenUsed = false;
+        ExecutorFactory.getScheduledExecutor().schedule(() -> {
+            // Only keep refreshing tokens for credentials that are still in use.
+            if (tokenUsed) {
+                ExecutorFactory.getExecutor().execute(this::refreshToken);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
     }
 
     /**
@@ -196,4 +314,17 @@ public abstract class AppCredentials implements ServiceClientCredentials {
     public void applyCredentialsFilter(OkHttpClient.Builder clientBuilder) {
         clientBuilder.interceptors().add(new AppCredentialsInterceptor(this));
     }
+
+    /**
+     * An access token and when it expires.
+     */
+    private static final class CachedToken {
+        private final String accessToken;
+        private final long expiresOn;
+
+        CachedToken(String withAccessToken, Date withExpiresOn) {
+            accessToken = withAccessToken;
+            expiresOn = withExpiresOn != null ? withExpiresOn.getTime() : 0;
+        }
+    }
 }
@@ -39,6 +39,8 @@ public class AppCredentialsInterceptor implements Interceptor {
         if (credentials.shouldSetToken(chain.request().url().url().toString())) {
             String token;
             try {
+                // Tokens are cached and refreshed ahead of expiry by AppCredentials, so this
+                // only waits when no valid token has been acquired yet.
                 token = credentials.getToken().get();
             } catch (Throwable t) {
                 throw new IOException(t);
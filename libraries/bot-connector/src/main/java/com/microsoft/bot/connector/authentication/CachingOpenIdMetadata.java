@@ -5,36 +5,50 @@ package com.microsoft.bot.connector.authentication;
 
 import com.auth0.jwk.Jwk;
 import com.auth0.jwk.JwkException;
-import com.auth0.jwk.SigningKeyNotFoundException;
 import com.auth0.jwk.UrlJwkProvider;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.bot.connector.ExecutorFactory;
 
 import java.io.IOException;
 import java.net.URL;
 import java.security.interfaces.RSAPublicKey;
 import java.time.Duration;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Maintains a cache of OpenID metadata keys.
+ *
+ * <p>
+ * Keys are decoded once per refresh and published as an immutable snapshot,
+ * so lookups never wait on each other. Keys are refreshed in the background
+ * ahead of expiry while the current keys keep being served. Only a lookup
+ * that can't be satisfied by the current keys waits for a refresh, and
+ * concurrent lookups share that single refresh.
+ * </p>
  */
 class CachingOpenIdMetadata implements OpenIdMetadata {
     private static final Logger LOGGER = LoggerFactory.getLogger(CachingOpenIdMetadata.class);
-    private static final int CACHE_DAYS = 1;
-    private static final int CACHE_HOURS = 1;
+    private static final Duration CACHE_DURATION = Duration.ofDays(1);
+    private static final Duration REFRESH_AHEAD = Duration.ofHours(1);
+    private static final Duration KEY_MISS_REFRESH_INTERVAL = Duration.ofHours(1);
+    private static final Duration FAILED_REFRESH_RETRY = Duration.ofMinutes(1);
 
     private String url;
-    private long lastUpdated;
     private ObjectMapper mapper;
-    private Map<String, Jwk> keyCache = new HashMap<>();
-    private final Object sync = new Object();
+    private final KeySource keySource;
+    private final LongSupplier clock;
+    private final AtomicReference<KeyCache> keyCache = new AtomicReference<>(KeyCache.EMPTY);
+    private final AtomicReference<CompletableFuture<KeyCache>> pendingRefresh = new AtomicReference<>();
 
     /**
      * Constructs a OpenIdMetaData cache for a url.
@@ -44,6 +58,19 @@ class CachingOpenIdMetadata implements OpenIdMetadata {
     CachingOpenIdMetadata(String withUrl) {
         url = withUrl;
         mapper = new ObjectMapper().findAndRegisterModules();
+        keySource = this::fetchKeys;
+        clock = System::currentTimeMillis;
+    }
+
+    /**
+     * Constructs a OpenIdMetaData cache that loads its keys from a KeySource.
+     *
+     * @param withKeySource Loads the keys.
+     * @param withClock     Supplies the current time in milliseconds.
+     */
+    CachingOpenIdMetadata(KeySource withKeySource, LongSupplier withClock) {
+        keySource = withKeySource;
+        clock = withClock;
     }
 
     /**
@@ -51,6 +78,8 @@ class CachingOpenIdMetadata implements OpenIdMetadata {
      *
      * <p>
      * Note: This could trigger a cache refresh, which will incur network calls.
+     * The call only waits for the refresh when no keys have been loaded yet or
+     * the key isn't in the current keys.
      * </p>
      *
      * @param keyId The JWT key.
@@ -58,53 +87,118 @@ class CachingOpenIdMetadata implements OpenIdMetadata {
      */
     @Override
     public OpenIdMetadataKey getKey(String keyId) {
-        synchronized (sync) {
-            // If keys are more than CACHE_DAYS days old, refresh them
-            if (lastUpdated < System.currentTimeMillis() - Duration.ofDays(CACHE_DAYS).toMillis()) {
-                refreshCache();
-            }
+        KeyCache cache = keyCache.get();
+        long now = clock.getAsLong();
 
-            // Search the cache even if we failed to refresh
-            OpenIdMetadataKey key = findKey(keyId);
-            if (key == null && lastUpdated < System.currentTimeMillis() - Duration.ofHours(CACHE_HOURS).toMillis()) {
-                // Refresh the cache if a key is not found (max once per CACHE_HOURS)
-                refreshCache();
-                key = findKey(keyId);
+        boolean refreshed = false;
+        if (now >= cache.refreshAfter) {
+            if (cache.keys.isEmpty()) {
+                cache = refresh(false).join();
+                refreshed = true;
+            } else {
+                // Keep serving the current keys while they are refreshed
+                refresh(true);
             }
-            return key;
         }
+
+        OpenIdMetadataKey key = cache.keys.get(keyId);
+        if (key == null && !refreshed && cache.lastUpdated < now - KEY_MISS_REFRESH_INTERVAL.toMillis()) {
+            // Refresh the cache if a key is not found (max once per KEY_MISS_REFRESH_INTERVAL)
+            cache = refresh(false).join();
+            key = cache.keys.get(keyId);
+        }
+
+        if (key == null) {
+            LOGGER.warn("findKey: keyId " + keyId + " doesn't exist.");
+        }
+        return key;
     }
 
-    private void refreshCache() {
-        keyCache.clear();
+    private CompletableFuture<KeyCache> refresh(boolean background) {
+        while (true) {
+            CompletableFuture<KeyCache> inFlight = pendingRefresh.get();
+            if (inFlight != null) {
+                return inFlight;
+            }
+
+            CompletableFuture<KeyCache> refresh = new CompletableFuture<>();
+            if (pendingRefresh.compareAndSet(null, refresh)) {
+                if (background) {
+                    ExecutorFactory.getExecutor().execute(() -> refreshCache(refresh));
+                } else {
+                    refreshCache(refresh);
+                }
+                return refresh;
+            }
+        }
+    }
 
+    private void refreshCache(CompletableFuture<KeyCache> refresh) {
+        KeyCache current = keyCache.get();
+        KeyCache updated = null;
         try {
-            URL openIdUrl = new URL(this.url);
-            HashMap<String, Object> openIdConf =
-                this.mapper.readValue(openIdUrl, new TypeReference<HashMap<String, Object>>() {
-                });
-            URL keysUrl = new URL(openIdConf.get("jwks_uri").toString());
-            lastUpdated = System.currentTimeMillis();
-            UrlJwkProvider provider = new UrlJwkProvider(keysUrl);
-            keyCache = provider.getAll().stream().collect(Collectors.toMap(Jwk::getId, jwk -> jwk));
+            updated = loadKeys();
         } catch (IOException e) {
             LOGGER.error(String.format("Failed to load openID config: %s", e.getMessage()));
-            lastUpdated = 0;
-        } catch (SigningKeyNotFoundException keyexception) {
-            LOGGER.error("refreshCache", keyexception);
-            lastUpdated = 0;
+        } catch (JwkException | RuntimeException e) {
+            LOGGER.error("refreshCache", e);
         }
+
+        if (updated == null) {
+            // Keep the keys we have and try again shortly
+            updated = new KeyCache(
+                current.keys,
+                current.lastUpdated,
+                clock.getAsLong() + FAILED_REFRESH_RETRY.toMillis()
+            );
+        }
+
+        keyCache.set(updated);
+        pendingRefresh.set(null);
+        refresh.complete(updated);
     }
 
-    @SuppressWarnings("unchecked")
-    private OpenIdMetadataKey findKey(String keyId) {
-        if (!keyCache.containsKey(keyId)) {
-            LOGGER.warn("findKey: keyId " + keyId + " doesn't exist.");
-            return null;
+    /**
+     * Gets whether a refresh of the keys is in flight.
+     *
+     * @return true while the keys are being refreshed.
+     */
+    boolean isRefreshing() {
+        return pendingRefresh.get() != null;
+    }
+
+    private KeyCache loadKeys() throws IOException, JwkException {
+        Map<String, OpenIdMetadataKey> keys = keySource.load();
+
+        long now = clock.getAsLong();
+        return new KeyCache(
+            Collections.unmodifiableMap(new HashMap<>(keys)),
+            now,
+            now + CACHE_DURATION.minus(REFRESH_AHEAD).toMillis()
+        );
+    }
+
+    private Map<String, OpenIdMetadataKey> fetchKeys() throws IOException, JwkException {
+        URL openIdUrl = new URL(this.url);
+        HashMap<String, Object> openIdConf =
+            this.mapper.readValue(openIdUrl, new TypeReference<HashMap<String, Object>>() {
+            });
+        URL keysUrl = new URL(openIdConf.get("jwks_uri").toString());
+        UrlJwkProvider provider = new UrlJwkProvider(keysUrl);
+
+        Map<String, OpenIdMetadataKey> keys = new HashMap<>();
+        for (Jwk jwk : provider.getAll()) {
+            OpenIdMetadataKey key = decodeKey(jwk);
+            if (key != null) {
+                keys.put(jwk.getId(), key);
+            }
         }
+        return keys;
+    }
 
+    @SuppressWarnings("unchecked")
+    private OpenIdMetadataKey decodeKey(Jwk jwk) {
         try {
-            Jwk jwk = keyCache.get(keyId);
             OpenIdMetadataKey key = new OpenIdMetadataKey();
             key.key = (RSAPublicKey) jwk.getPublicKey();
             key.endorsements = (List<String>) jwk.getAdditionalAttributes().get("endorsements");
@@ -116,4 +210,36 @@ class CachingOpenIdMetadata implements OpenIdMetadata {
         }
         return null;
     }
+
+    /**
+     * Loads the decoded keys.
+     */
+    @FunctionalInterface
+    interface KeySource {
+        /**
+         * Loads the keys.
+         *
+         * @return The keys by key id.
+         * @throws IOException  The keys couldn't be read.
+         * @throws JwkException The keys couldn't be decoded.
+         */
+        Map<String, OpenIdMetadataKey> load() throws IOException, JwkException;
+    }
+
+    /**
+     * An immutable snapshot of the decoded keys.
+     */
+    private static final class KeyCache {
+        private static final KeyCache EMPTY = new KeyCache(Collections.emptyMap(), 0, 0);
+
+        private final Map<String, OpenIdMetadataKey> keys;
+        private final long lastUpdated;
+        private final long refreshAfter;
+
+        KeyCache(Map<String, OpenIdMetadataKey> withKeys, long withLastUpdated, long withRefreshAfter) {
+            keys = withKeys;
+            lastUpdated = withLastUpdated;
+            refreshAfter = withRefreshAfter;
+        }
+    }
 }
@@ -9,6 +9,7 @@ import com.microsoft.aad.msal4j.ClientCredentialParameters;
 import com.microsoft.aad.msal4j.ConfidentialClientApplication;
 import com.microsoft.aad.msal4j.IAuthenticationResult;
 import java.io.IOException;
+import java.net.URL;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.NoSuchProviderException;
@@ -23,6 +24,7 @@ import java.util.concurrent.CompletableFuture;
 public class CertificateAuthenticator implements Authenticator {
     private final ConfidentialClientApplication app;
     private final ClientCredentialParameters parameters;
+    private final String authorityHost;
 
     /**
      * Constructs an Authenticator using appId and pkcs certificate.
@@ -53,6 +55,7 @@ public class CertificateAuthenticator implements Authenticator {
             .authority(withConfiguration.getAuthority()).sendX5c(withOptions.getSendX5c()).build();
 
         parameters = ClientCredentialParameters.builder(Collections.singleton(withConfiguration.getScope())).build();
+        authorityHost = new URL(withConfiguration.getAuthority()).getHost();
     }
 
     /**
@@ -62,12 +65,9 @@ public class CertificateAuthenticator implements Authenticator {
      */
     @Override
     public CompletableFuture<IAuthenticationResult> acquireToken() {
-        return app.acquireToken(parameters)
-            .exceptionally(
-                exception -> {
-                    // wrapping whatever msal throws into our own exception
-                    throw new AuthenticationException(exception);
-                }
-            );
+        return Retry.run(authorityHost, () -> app.acquireToken(parameters).exceptionally(exception -> {
+            // wrapping whatever msal throws into our own exception
+            throw new AuthenticationException(exception);
+        }), RetryAfterHelper::processMsalRetry);
     }
 }
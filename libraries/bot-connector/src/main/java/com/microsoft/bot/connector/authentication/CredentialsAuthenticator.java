@@ -7,9 +7,9 @@ import com.microsoft.aad.msal4j.ClientCredentialFactory;
 import com.microsoft.aad.msal4j.ClientCredentialParameters;
 import com.microsoft.aad.msal4j.ConfidentialClientApplication;
 import com.microsoft.aad.msal4j.IAuthenticationResult;
-import com.microsoft.aad.msal4j.MsalServiceException;
 
 import java.net.MalformedURLException;
+import java.net.URL;
 import java.util.Collections;
 import java.util.concurrent.CompletableFuture;
 
@@ -19,6 +19,7 @@ import java.util.concurrent.CompletableFuture;
 public class CredentialsAuthenticator implements Authenticator {
     private final ConfidentialClientApplication app;
     private final ClientCredentialParameters parameters;
+    private final String authorityHost;
 
     /**
      * Constructs an Authenticator using appId and appPassword.
@@ -35,6 +36,7 @@ public class CredentialsAuthenticator implements Authenticator {
                 .authority(configuration.getAuthority()).build();
 
         parameters = ClientCredentialParameters.builder(Collections.singleton(configuration.getScope())).build();
+        authorityHost = new URL(configuration.getAuthority()).getHost();
     }
 
     /**
@@ -44,19 +46,9 @@ public class CredentialsAuthenticator implements Authenticator {
      */
     @Override
     public CompletableFuture<IAuthenticationResult> acquireToken() {
-        return Retry.run(() -> app.acquireToken(parameters).exceptionally(exception -> {
+        return Retry.run(authorityHost, () -> app.acquireToken(parameters).exceptionally(exception -> {
             // wrapping whatever msal throws into our own exception
             throw new AuthenticationException(exception);
-        }), (exception, count) -> {
-            if (exception instanceof RetryException && exception.getCause() instanceof MsalServiceException) {
-                MsalServiceException serviceException = (MsalServiceException) exception.getCause();
-                if (serviceException.headers().containsKey("Retry-After")) {
-                    return RetryAfterHelper.processRetry(serviceException.headers().get("Retry-After"), count);
-                } else {
-                    return RetryParams.defaultBackOff(++count);
-                }
-            }
-            return RetryParams.stopRetrying();
-        });
+        }), RetryAfterHelper::processMsalRetry);
     }
 }
@@ -20,7 +20,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -28,11 +31,27 @@ import java.util.concurrent.CompletableFuture;
  */
 public class JwtTokenExtractor {
     private static final Logger LOGGER = LoggerFactory.getLogger(CachingOpenIdMetadata.class);
+    private static final int MAX_CACHED_CERTIFICATES = 100;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final VerifiedTokenCache VERIFIED_TOKENS = new VerifiedTokenCache();
+
+    // Least recently used certificates are evicted first, so the signing keys in
+    // use stay cached.
+    private static final Map<String, SigningCertificate> CERTIFICATES = Collections.synchronizedMap(
+        new LinkedHashMap<String, SigningCertificate>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SigningCertificate> eldest) {
+                return size() > MAX_CACHED_CERTIFICATES;
+            }
+        }
+    );
 
     private TokenValidationParameters tokenValidationParameters;
     private List<String> allowedSigningAlgorithms;
     private OpenIdMetadataResolver openIdMetadataResolver;
     private OpenIdMetadata openIdMetadata;
+    private Object[] validationSettings;
 
     /**
      * Initializes a new instance of the JwtTokenExtractor class.
@@ -58,6 +77,16 @@ public class JwtTokenExtractor {
         }
 
         this.openIdMetadata = this.openIdMetadataResolver.get(withMetadataUrl);
+
+        // A verified token is only reused by extractors that would validate it the same way.
+        this.validationSettings = new Object[] {
+            openIdMetadata,
+            allowedSigningAlgorithms != null ? new ArrayList<>(allowedSigningAlgorithms) : null,
+            tokenValidationParameters.validIssuers != null
+                ? new ArrayList<>(tokenValidationParameters.validIssuers)
+                : null,
+            tokenValidationParameters.validateIssuerSigningKey
+        };
     }
 
     /**
@@ -102,6 +131,11 @@ public class JwtTokenExtractor {
     /**
      * Get a ClaimsIdentity from a schema, token and channel id.
      *
+     * <p>
+     * Identities built from verified tokens are cached until the token expires,
+     * so repeated requests with the same token aren't verified again.
+     * </p>
+     *
      * @param schema               The schema.
      * @param token                The token.
      * @param channelId            The channel id.
@@ -119,12 +153,20 @@ public class JwtTokenExtractor {
             return CompletableFuture.completedFuture(null);
         }
 
+        VerifiedTokenCache.Key cacheKey = new VerifiedTokenCache.Key(
+            VerifiedTokenCache.digest(token), channelId, requiredEndorsements, validationSettings
+        );
+        ClaimsIdentity cached = VERIFIED_TOKENS.get(cacheKey);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
         // Issuer isn't allowed? No need to check signature
         if (!hasAllowedIssuer(token)) {
             return CompletableFuture.completedFuture(null);
         }
 
-        return validateToken(token, channelId, requiredEndorsements);
+        return validateToken(token, channelId, requiredEndorsements, cacheKey);
     }
 
     private boolean hasAllowedIssuer(String token) {
@@ -137,7 +179,8 @@ public class JwtTokenExtractor {
     private CompletableFuture<ClaimsIdentity> validateToken(
         String token,
         String channelId,
-        List<String> requiredEndorsements
+        List<String> requiredEndorsements,
+        VerifiedTokenCache.Key cacheKey
     ) {
         return CompletableFuture.supplyAsync(() -> {
             DecodedJWT decodedJWT = JWT.decode(token);
@@ -151,16 +194,22 @@ public class JwtTokenExtractor {
             try {
                 verification.build().verify(token);
 
+                // Don't reuse the identity for longer than the token is valid.
+                long expiresOn = decodedJWT.getExpiresAt() != null
+                    ? decodedJWT.getExpiresAt().getTime()
+                    : 0;
+
                 // If specified, validate the signing certificate.
                 if (
                     tokenValidationParameters.validateIssuerSigningKey
                     && key.certificateChain != null
                     && key.certificateChain.size() > 0
                 ) {
-                    X509Certificate cert = decodeCertificate(key.certificateChain.get(0));
+                    X509Certificate cert = getCertificate(decodedJWT.getKeyId(), key.certificateChain.get(0));
                     if (!isCertValid(cert)) {
                         throw new JWTVerificationException("Signing certificate is not valid");
                     }
+                    expiresOn = Math.min(expiresOn, cert.getNotAfter().getTime());
                 }
 
                 // Note: On the Emulator Code Path, the endorsements collection is null so the
@@ -205,12 +254,26 @@ public class JwtTokenExtractor {
                     );
                 }
 
-                return new ClaimsIdentity(decodedJWT);
+                ClaimsIdentity identity = new ClaimsIdentity(decodedJWT);
+                VERIFIED_TOKENS.put(cacheKey, identity, expiresOn);
+                return identity;
             } catch (JWTVerificationException | CertificateException ex) {
                 LOGGER.warn(ex.getMessage());
                 throw new AuthenticationException(ex);
             }
-        }, ExecutorFactory.getExecutor());
+        }, ExecutorFactory.getCpuExecutor());
+    }
+
+    private X509Certificate getCertificate(String keyId, String certStr) throws CertificateException {
+        String cacheId = keyId != null ? keyId : "";
+        SigningCertificate cached = CERTIFICATES.get(cacheId);
+        if (cached != null && cached.encoded.equals(certStr)) {
+            return cached.certificate;
+        }
+
+        X509Certificate cert = decodeCertificate(certStr);
+        CERTIFICATES.put(cacheId, new SigningCertificate(certStr, cert));
+        return cert;
     }
 
     private X509Certificate decodeCertificate(String certStr) throws CertificateException {
@@ -230,4 +293,17 @@ public class JwtTokenExtractor {
         long endValid = cert.getNotAfter().getTime() + clockskew;
         return now >= startValid && now <= endValid;
     }
+
+    /**
+     * A decoded signing certificate and the encoded form it was decoded from.
+     */
+    private static final class SigningCertificate {
+        private final String encoded;
+        private final X509Certificate certificate;
+
+        SigningCertificate(String withEncoded, X509Certificate withCertificate) {
+            encoded = withEncoded;
+            certificate = withCertificate;
+        }
+    }
 }
@@ -4,23 +4,74 @@
 
 package com.microsoft.bot.connector.authentication;
 
+import com.microsoft.bot.connector.Async;
+import com.microsoft.bot.connector.ExecutorFactory;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
+import org.apache.commons.lang3.StringUtils;
 
 /**
  * Will retry a call for a configurable number of times with backoff.
  *
+ * <p>
+ * Backoff delays are scheduled on {@link ExecutorFactory#getScheduledExecutor()}
+ * so no thread is held while waiting for the next attempt. A random jitter is
+ * added to each delay so that callers failing together don't retry together.
+ * The jitter only ever lengthens the delay, so a delay taken from a Retry-After
+ * header (see {@link RetryAfterHelper}) is always honored.
+ * </p>
+ *
  * @see RetryParams
  */
 public final class Retry {
+    /**
+     * The default maximum number of concurrent attempts against a single host.
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_PER_HOST = 16;
+
+    private static final double BACKOFF_MULTIPLIER = 1.1;
+    private static final double MAX_JITTER = 0.2;
+
+    private static volatile int maxConcurrentPerHost = DEFAULT_MAX_CONCURRENT_PER_HOST;
+    private static final Map<String, HostLimiter> HOST_LIMITERS = new ConcurrentHashMap<>();
+
     private Retry() {
 
     }
 
+    /**
+     * Gets the maximum number of concurrent attempts against a single host.
+     *
+     * @return The maximum number of concurrent attempts per host.
+     */
+    public static int getMaxConcurrentPerHost() {
+        return maxConcurrentPerHost;
+    }
+
+    /**
+     * Sets the maximum number of concurrent attempts against a single host when
+     * using {@link #run(String, Supplier, BiFunction)}.
+     *
+     * @param withMaxConcurrentPerHost The maximum number of concurrent attempts
+     *                                 per host.
+     */
+    public static void setMaxConcurrentPerHost(int withMaxConcurrentPerHost) {
+        if (withMaxConcurrentPerHost < 1) {
+            throw new IllegalArgumentException("maxConcurrentPerHost must be at least 1");
+        }
+        maxConcurrentPerHost = withMaxConcurrentPerHost;
+    }
+
     /**
      * Runs a task with retry.
      *
@@ -38,6 +89,39 @@ public final class Retry {
         return runInternal(task, retryExceptionHandler, 1, new ArrayList<>());
     }
 
+    /**
+     * Runs a task with retry, limiting the number of attempts in flight against
+     * the same host to {@link #getMaxConcurrentPerHost()}. Attempts over the
+     * limit wait without holding a thread, and a permit is not held while
+     * backing off.
+     *
+     * @param host                  The host the task calls, or null for no
+     *                              limit.
+     * @param task                  The task to run.
+     * @param retryExceptionHandler Called when an exception happens.
+     * @param <TResult>             The type of the result.
+     * @return A CompletableFuture that is complete when 'task' returns
+     *         successfully.
+     * @throws RetryException If the task doesn't complete successfully.
+     */
+    public static <TResult> CompletableFuture<TResult> run(
+        String host,
+        Supplier<CompletableFuture<TResult>> task,
+        BiFunction<RuntimeException, Integer, RetryParams> retryExceptionHandler
+    ) {
+        if (StringUtils.isEmpty(host)) {
+            return run(task, retryExceptionHandler);
+        }
+
+        HostLimiter limiter = HOST_LIMITERS.computeIfAbsent(host, key -> new HostLimiter());
+        return run(
+            () -> limiter.acquire()
+                .thenCompose(permit -> Async.tryCompletable(task::get))
+                .whenComplete((result, ex) -> limiter.release()),
+            retryExceptionHandler
+        );
+    }
+
     private static <TResult> CompletableFuture<TResult> runInternal(
         Supplier<CompletableFuture<TResult>> task,
         BiFunction<RuntimeException, Integer, RetryParams> retryExceptionHandler,
@@ -61,13 +145,8 @@ public final class Retry {
                 }
 
                 if (retry.get().getShouldRetry()) {
-                    try {
-                        Thread.sleep(withBackOff(retry.get().getRetryAfter(), retryCount));
-                    } catch (InterruptedException e) {
-                        throw new RetryException(e);
-                    }
-
-                    return runInternal(task, retryExceptionHandler, retryCount + 1, exceptions);
+                    return Async.delay(withBackOff(retry.get().getRetryAfter(), retryCount), TimeUnit.MILLISECONDS)
+                        .thenCompose(delayed -> runInternal(task, retryExceptionHandler, retryCount + 1, exceptions));
                 }
 
                 result.completeExceptionally(new RetryException("Exceeded retry count", exceptions));
@@ -76,10 +155,43 @@ public final class Retry {
             });
     }
 
-    private static final double BACKOFF_MULTIPLIER = 1.1;
-
     private static long withBackOff(long delay, int retryCount) {
         double result = delay * Math.pow(BACKOFF_MULTIPLIER, retryCount - 1);
+        result += result * ThreadLocalRandom.current().nextDouble(MAX_JITTER);
         return (long) Math.min(result, Long.MAX_VALUE);
     }
+
+    /**
+     * Hands out a limited number of permits per host, queueing callers over the
+     * limit as futures instead of blocking them.
+     */
+    private static final class HostLimiter {
+        private final Queue<CompletableFuture<Void>> waiting = new ArrayDeque<>();
+        private int active;
+
+        synchronized CompletableFuture<Void> acquire() {
+            if (active < maxConcurrentPerHost) {
+                active++;
+                return CompletableFuture.completedFuture(null);
+            }
+
+            CompletableFuture<Void> waiter = new CompletableFuture<>();
+            waiting.add(waiter);
+            return waiter;
+        }
+
+        void release() {
+            CompletableFuture<Void> next;
+            synchronized (this) {
+                next = waiting.poll();
+                if (next == null) {
+                    active--;
+                    return;
+                }
+            }
+
+            // The permit passes straight to the next waiter; run it off the releasing thread.
+            ExecutorFactory.getExecutor().execute(() -> next.complete(null));
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package com.microsoft.bot.connector.authentication;
 
+import com.microsoft.aad.msal4j.MsalServiceException;
 import java.time.Duration;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
@@ -65,4 +66,24 @@ public final class RetryAfterHelper {
         return RetryParams.defaultBackOff(++count);
     }
 
+    /**
+     * Decides whether a failed MSAL token request should be retried, honoring
+     * the Retry-After header of a throttled request.
+     *
+     * @param exception The exception raised by the token request.
+     * @param count     The count of how many times we have retried.
+     * @return A RetryParams with instructions of when or how many more times to
+     *         retry.
+     */
+    public static RetryParams processMsalRetry(RuntimeException exception, Integer count) {
+        if (exception instanceof RetryException && exception.getCause() instanceof MsalServiceException) {
+            MsalServiceException serviceException = (MsalServiceException) exception.getCause();
+            if (serviceException.headers().containsKey("Retry-After")) {
+                return processRetry(serviceException.headers().get("Retry-After"), count);
+            } else {
+                return RetryParams.defaultBackOff(++count);
+            }
+        }
+        return RetryParams.stopRetrying();
+    }
 }
@@ -0,0 +1,92 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.connector.authentication;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters for the token cache of an {@link AppCredentials} instance.
+ */
+public final class TokenCacheMetrics {
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+    private final AtomicLong totalRefreshNanos = new AtomicLong();
+    private final AtomicLong lastRefreshNanos = new AtomicLong();
+
+    /**
+     * Gets the number of token requests served from the cache.
+     *
+     * @return The number of cache hits.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of token requests that had to wait for a token to be
+     * acquired.
+     *
+     * @return The number of cache misses.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Gets the number of token acquisitions that succeeded.
+     *
+     * @return The number of successful refreshes.
+     */
+    public long getRefreshes() {
+        return refreshes.get();
+    }
+
+    /**
+     * Gets the number of token acquisitions that failed.
+     *
+     * @return The number of failed refreshes.
+     */
+    public long getRefreshFailures() {
+        return refreshFailures.get();
+    }
+
+    /**
+     * Gets the time spent acquiring tokens, successful or not.
+     *
+     * @return The total refresh latency in milliseconds.
+     */
+    public long getTotalRefreshLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalRefreshNanos.get());
+    }
+
+    /**
+     * Gets the time the most recent token acquisition took.
+     *
+     * @return The latest refresh latency in milliseconds.
+     */
+    public long getLastRefreshLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lastRefreshNanos.get());
+    }
+
+    void recordHit() {
+        hits.incrementAndGet();
+    }
+
+    void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    void recordRefresh(long elapsedNanos, boolean succeeded) {
+        if (succeeded) {
+            refreshes.incrementAndGet();
+        } else {
+            refreshFailures.incrementAndGet();
+        }
+        totalRefreshNanos.addAndGet(elapsedNanos);
+        lastRefreshNanos.set(elapsedNanos);
+    }
+}
@@ -0,0 +1,182 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.connector.authentication;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A bounded cache of the identities built from tokens that passed validation.
+ *
+ * <p>
+ * Channels send the same bearer token with many requests, so once a token has
+ * been verified the resulting claims are reused until the token expires instead
+ * of verifying the signature again. Only successful validations are cached.
+ * </p>
+ */
+final class VerifiedTokenCache {
+    /**
+     * The longest an identity is reused, regardless of when the token expires.
+     */
+    static final Duration MAX_TIME_TO_LIVE = Duration.ofHours(1);
+
+    /**
+     * The maximum number of cached identities.
+     */
+    static final int MAX_ENTRIES = 10000;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the cached identity for a key.
+     *
+     * @param key The cache key.
+     * @return A copy of the cached identity, or null if there is no unexpired
+     *         entry.
+     */
+    ClaimsIdentity get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        if (System.currentTimeMillis() >= entry.expiresOn) {
+            entries.remove(key, entry);
+            return null;
+        }
+
+        // Callers own the identity they are handed, so they can't change the cached claims.
+        return copy(entry.identity);
+    }
+
+    /**
+     * Caches an identity until the token expires.
+     *
+     * @param key       The cache key.
+     * @param identity  The identity built from the verified token.
+     * @param expiresOn When the token expires, in milliseconds since the epoch.
+     */
+    void put(Key key, ClaimsIdentity identity, long expiresOn) {
+        long now = System.currentTimeMillis();
+        long until = Math.min(expiresOn, now + MAX_TIME_TO_LIVE.toMillis());
+        if (until <= now) {
+            return;
+        }
+
+        if (entries.size() >= MAX_ENTRIES) {
+            evict(now);
+        }
+        entries.put(key, new Entry(copy(identity), until));
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(entry -> now >= entry.expiresOn);
+
+        // Still full of live tokens, make room by dropping arbitrary entries.
+        Iterator<Key> keys = entries.keySet().iterator();
+        while (entries.size() >= MAX_ENTRIES && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static ClaimsIdentity copy(ClaimsIdentity identity) {
+        Map<String, String> claims = identity.claims() != null ? new HashMap<>(identity.claims()) : null;
+        return new ClaimsIdentity(identity.getIssuer(), identity.getType(), claims);
+    }
+
+    /**
+     * Computes the digest a token is cached under, so the token itself isn't
+     * retained.
+     *
+     * @param token The bearer token.
+     * @return The SHA-256 digest of the token.
+     */
+    static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Identifies a token together with everything its validation depended on.
+     */
+    static final class Key {
+        private final String tokenDigest;
+        private final String channelId;
+        private final List<String> requiredEndorsements;
+        private final Object[] validationSettings;
+        private final int hash;
+
+        /**
+         * Creates a cache key.
+         *
+         * @param withTokenDigest         The digest of the token.
+         * @param withChannelId           The channel the token was validated for.
+         * @param withRequiredEndorsements The additional endorsements that were required.
+         * @param withValidationSettings  The extractor settings the token was validated with.
+         */
+        Key(
+            String withTokenDigest,
+            String withChannelId,
+            List<String> withRequiredEndorsements,
+            Object... withValidationSettings
+        ) {
+            tokenDigest = withTokenDigest;
+            channelId = withChannelId;
+            requiredEndorsements = withRequiredEndorsements != null
+                ? new ArrayList<>(withRequiredEndorsements)
+                : null;
+            validationSettings = withValidationSettings;
+            hash = Objects.hash(tokenDigest, channelId, requiredEndorsements, Arrays.hashCode(validationSettings));
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) obj;
+            return hash == other.hash
+                && tokenDigest.equals(other.tokenDigest)
+                && Objects.equals(channelId, other.channelId)
+                && Objects.equals(requiredEndorsements, other.requiredEndorsements)
+                && Arrays.equals(validationSettings, other.validationSettings);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+        private final ClaimsIdentity identity;
+        private final long expiresOn;
+
+        Entry(ClaimsIdentity withIdentity, long withExpiresOn) {
+            identity = withIdentity;
+            expiresOn = withExpiresOn;
+        }
+    }
+}
@@ -13,9 +13,9 @@ import com.microsoft.bot.connector.UserAgent;
 import com.microsoft.bot.restclient.ServiceClient;
 import com.microsoft.bot.restclient.ServiceResponseBuilder;
 import com.microsoft.bot.restclient.credentials.ServiceClientCredentials;
+import com.microsoft.bot.restclient.HttpTransport;
 import com.microsoft.bot.restclient.RestClient;
 import com.microsoft.bot.restclient.retry.RetryStrategy;
-import com.microsoft.bot.restclient.serializer.JacksonAdapter;
 import okhttp3.OkHttpClient;
 import retrofit2.Retrofit;
 
@@ -54,8 +54,7 @@ public class RestConnectorClient extends ServiceClient implements ConnectorClien
      * @param credentials the management credentials for Azure
      */
     public RestConnectorClient(String baseUrl, ServiceClientCredentials credentials) {
-        super(baseUrl, credentials);
-        initialize();
+        this(getDefaultRestClientBuilder(baseUrl, credentials).build());
     }
 
     /**
@@ -270,6 +269,9 @@ public class RestConnectorClient extends ServiceClient implements ConnectorClien
      * One use case of this is for supplying a Proxy to the RestClient. Though it is
      * recommended to set proxy information via the Java system properties.
      *
+     * The builder uses the shared {@link HttpTransport#getDefault()} connection
+     * pool, dispatcher and serializer, so clients don't each open their own.
+     *
      * @param baseUrl     Service endpoint
      * @param credentials auth credentials.
      * @return A RestClient.Builder.
@@ -281,7 +283,7 @@ public class RestConnectorClient extends ServiceClient implements ConnectorClien
         return new RestClient.Builder(new OkHttpClient.Builder(), new Retrofit.Builder())
             .withBaseUrl(baseUrl)
             .withCredentials(credentials)
-            .withSerializerAdapter(new JacksonAdapter())
+            .withTransport(HttpTransport.getDefault())
             .withResponseBuilderFactory(new ServiceResponseBuilder.Factory());
     }
 
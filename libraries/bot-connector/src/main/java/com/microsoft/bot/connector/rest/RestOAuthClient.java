@@ -41,8 +41,7 @@ public class RestOAuthClient extends ServiceClient implements OAuthClient {
      * @param credentials the management credentials for Azure
      */
     public RestOAuthClient(String baseUrl, ServiceClientCredentials credentials) {
-        super(baseUrl, credentials);
-        initialize();
+        this(RestConnectorClient.getDefaultRestClientBuilder(baseUrl, credentials).build());
     }
 
     /**
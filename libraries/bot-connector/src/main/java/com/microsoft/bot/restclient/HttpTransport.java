@@ -0,0 +1,141 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.restclient;
+
+import com.microsoft.bot.restclient.protocol.SerializerAdapter;
+import com.microsoft.bot.restclient.serializer.JacksonAdapter;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The HTTP resources that REST clients can share: a connection pool, a
+ * dispatcher and its threads, and a serializer adapter.
+ *
+ * <p>
+ * A client built with {@link RestClient.Builder#withTransport(HttpTransport)}
+ * reuses these instead of creating its own, so connections to a host are
+ * pooled across every client that talks to it, and the thread and socket count
+ * doesn't grow with the number of clients. Closing such a client leaves the
+ * transport open for the other clients.
+ * </p>
+ */
+public final class HttpTransport {
+    /** The default maximum number of idle connections kept in the pool. */
+    public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 32;
+    /** The default time an idle connection is kept in the pool, in minutes. */
+    public static final long DEFAULT_KEEP_ALIVE_MINUTES = 5;
+    /** The default maximum number of requests executed at once. */
+    public static final int DEFAULT_MAX_REQUESTS = 256;
+    /** The default maximum number of requests executed at once per host. */
+    public static final int DEFAULT_MAX_REQUESTS_PER_HOST = 32;
+
+    /** The connection pool. */
+    private final ConnectionPool connectionPool;
+    /** The dispatcher for asynchronous requests. */
+    private final Dispatcher dispatcher;
+    /** The adapter for serializations and deserializations. */
+    private final SerializerAdapter<?> serializerAdapter;
+
+    /**
+     * Creates a transport with the default pool and dispatcher limits, and a
+     * {@link JacksonAdapter}.
+     */
+    public HttpTransport() {
+        this(new ConnectionPool(DEFAULT_MAX_IDLE_CONNECTIONS, DEFAULT_KEEP_ALIVE_MINUTES, TimeUnit.MINUTES),
+            defaultDispatcher(),
+            new JacksonAdapter());
+    }
+
+    /**
+     * Creates a transport.
+     *
+     * @param connectionPool the connection pool to share.
+     * @param dispatcher the dispatcher to share.
+     * @param serializerAdapter the serializer adapter to share.
+     */
+    public HttpTransport(ConnectionPool connectionPool, Dispatcher dispatcher, SerializerAdapter<?> serializerAdapter) {
+        if (connectionPool == null) {
+            throw new IllegalArgumentException("connectionPool == null");
+        }
+        if (dispatcher == null) {
+            throw new IllegalArgumentException("dispatcher == null");
+        }
+        if (serializerAdapter == null) {
+            throw new IllegalArgumentException("serializerAdapter == null");
+        }
+        this.connectionPool = connectionPool;
+        this.dispatcher = dispatcher;
+        this.serializerAdapter = serializerAdapter;
+    }
+
+    /**
+     * @return the transport shared by the connector, OAuth and Teams clients.
+     */
+    public static HttpTransport getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * @return the connection pool.
+     */
+    public ConnectionPool connectionPool() {
+        return connectionPool;
+    }
+
+    /**
+     * @return the dispatcher.
+     */
+    public Dispatcher dispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * @return the serializer adapter.
+     */
+    public SerializerAdapter<?> serializerAdapter() {
+        return serializerAdapter;
+    }
+
+    /**
+     * @return the number of open connections, idle or in use.
+     */
+    public int connectionCount() {
+        return connectionPool.connectionCount();
+    }
+
+    /**
+     * @return the number of idle connections.
+     */
+    public int idleConnectionCount() {
+        return connectionPool.idleConnectionCount();
+    }
+
+    /**
+     * @return the number of requests being executed.
+     */
+    public int runningCallsCount() {
+        return dispatcher.runningCallsCount();
+    }
+
+    /**
+     * @return the number of requests waiting for a free slot in the dispatcher.
+     */
+    public int queuedCallsCount() {
+        return dispatcher.queuedCallsCount();
+    }
+
+    private static Dispatcher defaultDispatcher() {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(DEFAULT_MAX_REQUESTS);
+        dispatcher.setMaxRequestsPerHost(DEFAULT_MAX_REQUESTS_PER_HOST);
+        return dispatcher;
+    }
+
+    /** Creates the default transport the first time it is used. */
+    private static final class DefaultHolder {
+        private static final HttpTransport INSTANCE = new HttpTransport();
+    }
+}
@@ -119,10 +119,15 @@ public final class RestClient {
 
     /**
      * Closes the HTTP client and recycles the resources associated. The threads will
-     * be recycled after 60 seconds of inactivity.
+     * be recycled after 60 seconds of inactivity. Nothing is closed if the client
+     * was built with a shared {@link HttpTransport}.
      */
     @Beta(SinceVersion.V1_1_0)
     public void close() {
+        if (builder.transport != null) {
+            // The pool and dispatcher belong to the transport and are still used by other clients.
+            return;
+        }
         httpClient.dispatcher().executorService().shutdown();
         httpClient.connectionPool().evictAll();
         synchronized (httpClient.connectionPool()) {
@@ -177,6 +182,8 @@ public final class RestClient {
         private boolean useHttpClientThreadPool;
         /** The connection pool in use for OkHttp. */
         private ConnectionPool connectionPool;
+        /** The shared transport the client was built with, if any. */
+        private HttpTransport transport;
 
         /**
          * Creates an instance of the builder with a base URL to the service.
@@ -195,6 +202,7 @@ public final class RestClient {
             this.responseBuilderFactory = restClient.builder.responseBuilderFactory;
             this.serializerAdapter = restClient.builder.serializerAdapter;
             this.useHttpClientThreadPool = restClient.builder.useHttpClientThreadPool;
+            this.transport = restClient.builder.transport;
             if (restClient.builder.credentials != null) {
                 this.credentials = restClient.builder.credentials;
             }
@@ -410,6 +418,24 @@ public final class RestClient {
             return this;
         }
 
+        /**
+         * Sets the connection pool, dispatcher and serializer adapter to those of a
+         * shared transport.
+         *
+         * @param transport the transport to share
+         * @return the builder itself for chaining
+         */
+        public Builder withTransport(HttpTransport transport) {
+            if (transport == null) {
+                throw new NullPointerException("transport == null");
+            }
+            this.transport = transport;
+            this.connectionPool = transport.connectionPool();
+            this.dispatcher = transport.dispatcher();
+            this.serializerAdapter = transport.serializerAdapter();
+            return this;
+        }
+
         /**
          * Sets whether to use the thread pool in OkHttp client or RxJava schedulers.
          * If set to true, the thread pool in OkHttp client will be used. Default is false.
@@ -5,15 +5,31 @@ package com.microsoft.bot.connector;
 
 import java.io.IOException;
 import java.net.MalformedURLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.microsoft.aad.msal4j.IAuthenticationResult;
 
 import com.microsoft.bot.connector.authentication.AppCredentials;
 import com.microsoft.bot.connector.authentication.AppCredentialsInterceptor;
 import com.microsoft.bot.connector.authentication.AuthenticationConstants;
+import com.microsoft.bot.connector.authentication.AuthenticationException;
 import com.microsoft.bot.connector.authentication.Authenticator;
 import com.microsoft.bot.restclient.ServiceClient;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.Mockito;
 
 import okhttp3.Interceptor;
 import okhttp3.MediaType;
@@ -62,6 +78,147 @@ public class AppCredentialsTests {
         Assert.assertEquals(200, response.code());
     }
 
+    @Test
+    public void getTokenSharesSingleAcquisition() throws Exception {
+        CompletableFuture<IAuthenticationResult> pending = new CompletableFuture<>();
+        CountingAppCredentials credentials = new CountingAppCredentials(() -> pending);
+
+        CompletableFuture<String> first = credentials.getToken();
+        CompletableFuture<String> second = credentials.getToken();
+        Assert.assertFalse(first.isDone());
+        Assert.assertEquals(1, credentials.acquisitions.get());
+
+        pending.complete(authenticationResult("token", Duration.ofHours(1)));
+        Assert.assertEquals("token", first.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals("token", second.get(5, TimeUnit.SECONDS));
+
+        CompletableFuture<String> cached = credentials.getToken();
+        Assert.assertTrue(cached.isDone());
+        Assert.assertEquals("token", cached.get());
+        Assert.assertEquals(1, credentials.acquisitions.get());
+        Assert.assertEquals(1, credentials.getTokenCacheMetrics().getHits());
+        Assert.assertEquals(2, credentials.getTokenCacheMetrics().getMisses());
+        Assert.assertEquals(1, credentials.getTokenCacheMetrics().getRefreshes());
+    }
+
+    @Test
+    public void getTokenSharesAcquisitionAcrossThreads() throws Exception {
+        CompletableFuture<IAuthenticationResult> pending = new CompletableFuture<>();
+        AtomicReference<CountingAppCredentials> credentialsRef = new AtomicReference<>();
+
+        // A caller also arrives while the acquired token is being published.
+        IAuthenticationResult result = Mockito.mock(IAuthenticationResult.class);
+        Mockito.when(result.accessToken()).thenAnswer(invocation -> {
+            credentialsRef.get().getToken();
+            return "token";
+        });
+        Mockito.when(result.expiresOnDate()).thenReturn(new Date(System.currentTimeMillis() + 3600000));
+
+        CountingAppCredentials credentials = new CountingAppCredentials(() -> pending);
+        credentialsRef.set(credentials);
+
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<List<CompletableFuture<String>>>> calls = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                calls.add(executor.submit(() -> {
+                    start.await();
+                    List<CompletableFuture<String>> tokens = new ArrayList<>();
+                    for (int j = 0; j < 100; j++) {
+                        tokens.add(credentials.getToken());
+                    }
+                    return tokens;
+                }));
+            }
+
+            start.countDown();
+            pending.complete(result);
+
+            for (Future<List<CompletableFuture<String>>> call : calls) {
+                for (CompletableFuture<String> token : call.get(5, TimeUnit.SECONDS)) {
+                    Assert.assertEquals("token", token.get(5, TimeUnit.SECONDS));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assert.assertEquals(1, credentials.acquisitions.get());
+    }
+
+    @Test
+    public void getTokenRefreshesAheadOfExpiry() throws Exception {
+        AtomicInteger issued = new AtomicInteger();
+        CountingAppCredentials credentials = new CountingAppCredentials(
+            () -> CompletableFuture.completedFuture(
+                authenticationResult("token" + issued.incrementAndGet(), Duration.ofMinutes(2))));
+
+        Assert.assertEquals("token1", credentials.getToken().get(5, TimeUnit.SECONDS));
+
+        // The cached token is still valid but within the default lead time, so it is
+        // returned immediately while a new one is acquired.
+        Assert.assertEquals("token1", credentials.getToken().get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(2, credentials.acquisitions.get());
+        Assert.assertEquals("token2", credentials.getToken().get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void getTokenRetriesAfterFailedAcquisition() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountingAppCredentials credentials = new CountingAppCredentials(() -> {
+            CompletableFuture<IAuthenticationResult> result = new CompletableFuture<>();
+            if (calls.incrementAndGet() == 1) {
+                result.completeExceptionally(new AuthenticationException("failed"));
+            } else {
+                result.complete(authenticationResult("token", Duration.ofHours(1)));
+            }
+            return result;
+        });
+
+        try {
+            credentials.getToken().join();
+            Assert.fail("Expected the first acquisition to fail");
+        } catch (Exception e) {
+            Assert.assertTrue(e.getCause() instanceof AuthenticationException);
+        }
+
+        Assert.assertEquals("token", credentials.getToken().get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1, credentials.getTokenCacheMetrics().getRefreshFailures());
+        Assert.assertEquals(1, credentials.getTokenCacheMetrics().getRefreshes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tokenRefreshLeadTimeMustNotBeNegative() {
+        new TestAppCredentials("irrelevant").setTokenRefreshLeadTime(Duration.ofSeconds(-1));
+    }
+
+    private static IAuthenticationResult authenticationResult(String token, Duration validFor) {
+        IAuthenticationResult result = Mockito.mock(IAuthenticationResult.class);
+        Mockito.when(result.accessToken()).thenReturn(token);
+        Mockito.when(result.expiresOnDate()).thenReturn(new Date(System.currentTimeMillis() + validFor.toMillis()));
+        return result;
+    }
+
+    private static class CountingAppCredentials extends AppCredentials {
+        private final AtomicInteger acquisitions = new AtomicInteger();
+        private final Authenticator authenticator;
+
+        CountingAppCredentials(Authenticator withAuthenticator) {
+            super("irrelevant");
+            authenticator = () -> {
+                acquisitions.incrementAndGet();
+                return withAuthenticator.acquireToken();
+            };
+        }
+
+        @Override
+        protected Authenticator buildAuthenticator() {
+            return authenticator;
+        }
+    }
+
     private class TestAppCredentials extends AppCredentials {
         TestAppCredentials(String channelAuthTenant) {
             super(channelAuthTenant);
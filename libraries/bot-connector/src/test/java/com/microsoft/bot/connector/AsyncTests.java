@@ -2,6 +2,7 @@ package com.microsoft.bot.connector;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -35,4 +36,21 @@ public class AsyncTests {
         CompletableFuture<Boolean> result = Async.wrapBlock(() -> true);
         Assert.assertTrue(result.join());
     }
+
+    @Test
+    public void AsyncDelayShouldCompleteAfterDelay() {
+        long start = System.nanoTime();
+        CompletableFuture<Void> result = Async.delay(50, TimeUnit.MILLISECONDS);
+        Assert.assertFalse(result.isDone());
+
+        result.join();
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 50);
+    }
+
+    @Test
+    public void AsyncDelayShouldCancel() {
+        CompletableFuture<Void> result = Async.delay(1, TimeUnit.MINUTES);
+        Assert.assertTrue(result.cancel(false));
+        Assert.assertTrue(result.isCancelled());
+    }
 }
@@ -0,0 +1,265 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.connector;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test helper that reports SDK pool threads which block while running a task.
+ *
+ * <p>
+ * While installed, the executors from {@link ExecutorFactory} are wrapped so
+ * the detector knows which pool threads are running work. Those threads are
+ * sampled on {@link ExecutorFactory#getScheduledExecutor()}, and any thread
+ * found waiting in a blocking call such as {@code CompletableFuture.join()} or
+ * {@code Thread.sleep()} is recorded with its stack. A test typically does:
+ * </p>
+ *
+ * <pre>
+ * try (BlockingDetector detector = BlockingDetector.install()) {
+ *     // run turns
+ *     detector.verify();
+ * }
+ * </pre>
+ *
+ * <p>
+ * Sampling only sees blocking that lasts longer than the sample interval, so
+ * it finds regressions without slowing down every task. Other modules use it
+ * through the bot-connector test-jar.
+ * </p>
+ */
+public final class BlockingDetector implements ExecutorProvider, AutoCloseable {
+    /**
+     * The default time between samples.
+     */
+    public static final Duration DEFAULT_SAMPLE_INTERVAL = Duration.ofMillis(10);
+
+    private static final String[][] BLOCKING_CALLS = {
+        {"java.util.concurrent.CompletableFuture", "join"},
+        {"java.util.concurrent.CompletableFuture", "get"},
+        {"java.util.concurrent.FutureTask", "get"},
+        {"java.util.concurrent.CountDownLatch", "await"},
+        {"java.lang.Thread", "sleep"}
+    };
+
+    private final ExecutorProvider previous;
+    private final ExecutorService executor;
+    private final ExecutorService cpuExecutor;
+    private final Map<Thread, Object> runningTasks = new ConcurrentHashMap<>();
+    private final Map<Object, Boolean> reportedTasks = Collections.synchronizedMap(new WeakHashMap<>());
+    private final List<String> violations = new CopyOnWriteArrayList<>();
+    private final ScheduledFuture<?> sampler;
+
+    private BlockingDetector(ExecutorProvider withPrevious, Duration withSampleInterval) {
+        previous = withPrevious;
+        executor = new TrackingExecutor(previous.getExecutor());
+        cpuExecutor = previous.getCpuExecutor() == previous.getExecutor()
+            ? executor
+            : new TrackingExecutor(previous.getCpuExecutor());
+
+        long interval = withSampleInterval.toNanos();
+        sampler = ExecutorFactory.getScheduledExecutor()
+            .scheduleWithFixedDelay(this::sample, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Starts detecting blocking on the SDK executors, sampling every
+     * {@link #DEFAULT_SAMPLE_INTERVAL}.
+     *
+     * @return The detector, which must be closed to stop detection.
+     */
+    public static BlockingDetector install() {
+        return install(DEFAULT_SAMPLE_INTERVAL);
+    }
+
+    /**
+     * Starts detecting blocking on the SDK executors.
+     *
+     * @param sampleInterval The time between samples.
+     * @return The detector, which must be closed to stop detection.
+     */
+    public static BlockingDetector install(Duration sampleInterval) {
+        if (sampleInterval == null || sampleInterval.isNegative() || sampleInterval.isZero()) {
+            throw new IllegalArgumentException("sampleInterval must be positive");
+        }
+
+        synchronized (ExecutorFactory.class) {
+            BlockingDetector detector = new BlockingDetector(ExecutorFactory.getExecutorProvider(), sampleInterval);
+            ExecutorFactory.setExecutorProvider(detector);
+            return detector;
+        }
+    }
+
+    /**
+     * Gets the wrapped executor for general work.
+     *
+     * @return An ExecutorService.
+     */
+    @Override
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Gets the wrapped executor for CPU bound work.
+     *
+     * @return An ExecutorService.
+     */
+    @Override
+    public ExecutorService getCpuExecutor() {
+        return cpuExecutor;
+    }
+
+    /**
+     * Gets the blocking calls seen so far, one entry per blocked task with the
+     * thread name and stack.
+     *
+     * @return The recorded violations.
+     */
+    public List<String> getViolations() {
+        return Collections.unmodifiableList(new ArrayList<>(violations));
+    }
+
+    /**
+     * Forgets the violations seen so far.
+     */
+    public void reset() {
+        violations.clear();
+    }
+
+    /**
+     * Checks that no pool thread has blocked.
+     *
+     * @throws IllegalStateException A pool thread blocked while running a task.
+     */
+    public void verify() {
+        List<String> seen = getViolations();
+        if (!seen.isEmpty()) {
+            throw new IllegalStateException(String.format(
+                "%d task(s) blocked an SDK pool thread:%n%s",
+                seen.size(),
+                String.join(System.lineSeparator(), seen)
+            ));
+        }
+    }
+
+    /**
+     * Stops sampling and restores the executor provider that was in use when
+     * the detector was installed.
+     */
+    @Override
+    public void close() {
+        sampler.cancel(false);
+        synchronized (ExecutorFactory.class) {
+            if (ExecutorFactory.getExecutorProvider() == this) {
+                ExecutorFactory.setExecutorProvider(previous);
+            }
+        }
+    }
+
+    private void sample() {
+        for (Map.Entry<Thread, Object> running : runningTasks.entrySet()) {
+            Thread thread = running.getKey();
+            Thread.State state = thread.getState();
+            if (state != Thread.State.WAITING && state != Thread.State.TIMED_WAITING) {
+                continue;
+            }
+
+            StackTraceElement[] stack = thread.getStackTrace();
+            if (isBlockingCall(stack)
+                && runningTasks.get(thread) == running.getValue()
+                && reportedTasks.put(running.getValue(), Boolean.TRUE) == null
+            ) {
+                violations.add(describe(thread, stack));
+            }
+        }
+    }
+
+    private static boolean isBlockingCall(StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            for (String[] call : BLOCKING_CALLS) {
+                if (call[0].equals(frame.getClassName()) && call[1].equals(frame.getMethodName())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String describe(Thread thread, StackTraceElement[] stack) {
+        StringBuilder description = new StringBuilder(String.format("Thread %s blocked", thread.getName()));
+        for (StackTraceElement frame : stack) {
+            description.append(System.lineSeparator()).append("\tat ").append(frame);
+        }
+        return description.toString();
+    }
+
+    /**
+     * Executor that records which thread is running which task.
+     */
+    private final class TrackingExecutor extends AbstractExecutorService {
+        private final ExecutorService delegate;
+
+        TrackingExecutor(ExecutorService withDelegate) {
+            delegate = withDelegate;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(() -> {
+                Thread thread = Thread.currentThread();
+                Object task = new Object();
+
+                // A pool thread that waits may run other tasks while it waits, so
+                // the outer task is put back once the inner one is done.
+                Object outer = runningTasks.put(thread, task);
+                try {
+                    command.run();
+                } finally {
+                    if (outer != null) {
+                        runningTasks.put(thread, outer);
+                    } else {
+                        runningTasks.remove(thread);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
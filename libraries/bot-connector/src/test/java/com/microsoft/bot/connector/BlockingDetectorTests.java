@@ -0,0 +1,47 @@
+package com.microsoft.bot.connector;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BlockingDetectorTests {
+    @Test
+    public void DetectsJoinOnPoolThread() {
+        ExecutorProvider original = ExecutorFactory.getExecutorProvider();
+        try (BlockingDetector detector = BlockingDetector.install()) {
+            Assert.assertSame(detector, ExecutorFactory.getExecutorProvider());
+
+            CompletableFuture.runAsync(
+                () -> Async.delay(200, TimeUnit.MILLISECONDS).join(),
+                ExecutorFactory.getExecutor()
+            ).join();
+
+            Assert.assertEquals(1, detector.getViolations().size());
+            Assert.assertTrue(detector.getViolations().get(0).contains("CompletableFuture.join"));
+            try {
+                detector.verify();
+                Assert.fail("Expected IllegalStateException");
+            } catch (IllegalStateException e) {
+                Assert.assertTrue(e.getMessage().contains("blocked an SDK pool thread"));
+            }
+
+            detector.reset();
+            detector.verify();
+        }
+        Assert.assertSame(original, ExecutorFactory.getExecutorProvider());
+    }
+
+    @Test
+    public void ComposedFuturesDoNotBlock() {
+        try (BlockingDetector detector = BlockingDetector.install()) {
+            String result = CompletableFuture.supplyAsync(() -> "turn", ExecutorFactory.getExecutor())
+                .thenCompose(value -> Async.delay(200, TimeUnit.MILLISECONDS).thenApply(done -> value))
+                .thenApplyAsync(String::toUpperCase, ExecutorFactory.getExecutor())
+                .join();
+
+            Assert.assertEquals("TURN", result);
+            detector.verify();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.microsoft.bot.connector;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ExecutorFactoryTests {
+    @Test
+    public void DefaultProviderIsForkJoin() {
+        Assert.assertNotNull(ExecutorFactory.getExecutorProvider());
+        Assert.assertSame(ExecutorFactory.getExecutor(), ExecutorFactory.getCpuExecutor());
+        Assert.assertTrue(ExecutorFactory.getExecutorMetrics().getPoolSize() >= 0);
+    }
+
+    @Test
+    public void ProviderCanBeReplaced() throws InterruptedException {
+        ExecutorProvider original = ExecutorFactory.getExecutorProvider();
+        BoundedExecutorProvider bounded = new BoundedExecutorProvider(1, 2, 10);
+        ExecutorFactory.setExecutorProvider(bounded);
+        try {
+            Assert.assertSame(bounded.getExecutor(), ExecutorFactory.getExecutor());
+            Assert.assertSame(bounded.getCpuExecutor(), ExecutorFactory.getCpuExecutor());
+            Assert.assertNotSame(ExecutorFactory.getExecutor(), ExecutorFactory.getCpuExecutor());
+
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch started = new CountDownLatch(2);
+            ExecutorService io = ExecutorFactory.getExecutor();
+            for (int i = 0; i < 3; i++) {
+                io.execute(() -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            ExecutorMetrics metrics = ExecutorFactory.getExecutorMetrics();
+            Assert.assertEquals(2, metrics.getActiveThreadCount());
+            Assert.assertEquals(1, metrics.getQueuedTaskCount());
+            release.countDown();
+
+            String thread = CompletableFuture.supplyAsync(
+                () -> Thread.currentThread().getName(), ExecutorFactory.getCpuExecutor()
+            ).join();
+            Assert.assertTrue(thread.startsWith("Bot-cpu-"));
+        } finally {
+            ExecutorFactory.setExecutorProvider(original);
+        }
+    }
+
+    @Test
+    public void BoundedProviderQueuesWorkBehindBlockedTasks() throws Exception {
+        ExecutorProvider original = ExecutorFactory.getExecutorProvider();
+        BoundedExecutorProvider bounded = new BoundedExecutorProvider(1, 1, 1);
+        ExecutorFactory.setExecutorProvider(bounded);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            ExecutorService io = ExecutorFactory.getExecutor();
+            CountDownLatch blocked = new CountDownLatch(1);
+            io.execute(() -> {
+                blocked.countDown();
+                await(release);
+            });
+            Assert.assertTrue(blocked.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> queued = CompletableFuture.supplyAsync(
+                () -> Thread.currentThread().getName(), io
+            );
+
+            // The queue is full. Work handed off by the scheduler waits for room
+            // instead of running on the scheduler thread, so timers keep firing.
+            CompletableFuture<String> delayed = Async.delay(10, TimeUnit.MILLISECONDS)
+                .thenApply(done -> Thread.currentThread().getName());
+            CountDownLatch timer = new CountDownLatch(1);
+            ExecutorFactory.getScheduledExecutor().schedule(timer::countDown, 50, TimeUnit.MILLISECONDS);
+            Assert.assertTrue(timer.await(5, TimeUnit.SECONDS));
+            Assert.assertFalse(delayed.isDone());
+            Assert.assertFalse(queued.isDone());
+
+            // A task submitted by another thread still runs on that thread.
+            String caller = CompletableFuture.supplyAsync(() -> Thread.currentThread().getName(), io).join();
+            Assert.assertEquals(Thread.currentThread().getName(), caller);
+
+            release.countDown();
+            Assert.assertTrue(queued.get(5, TimeUnit.SECONDS).startsWith("Bot-io-"));
+            Assert.assertTrue(delayed.get(5, TimeUnit.SECONDS).startsWith("Bot-io-"));
+        } finally {
+            release.countDown();
+            ExecutorFactory.setExecutorProvider(original);
+        }
+    }
+
+    @Test
+    public void BoundedProviderDoesNotRunOverflowOnPoolThreads() throws Exception {
+        ExecutorProvider original = ExecutorFactory.getExecutorProvider();
+        BoundedExecutorProvider bounded = new BoundedExecutorProvider(1, 1, 1);
+        ExecutorFactory.setExecutorProvider(bounded);
+        try {
+            ExecutorService io = ExecutorFactory.getExecutor();
+            List<String> threads = new CopyOnWriteArrayList<>();
+            CompletableFuture<Void> submitted = CompletableFuture.runAsync(() -> {
+                // Only one task fits in the queue while this one runs.
+                for (int i = 0; i < 3; i++) {
+                    io.execute(() -> threads.add(Thread.currentThread().getName()));
+                }
+                threads.add("submitted");
+            }, io);
+
+            submitted.get(5, TimeUnit.SECONDS);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (threads.size() < 4) {
+                Assert.assertTrue("Handed off tasks did not run", System.nanoTime() < deadline);
+                Thread.sleep(10);
+            }
+
+            Assert.assertEquals("submitted", threads.get(0));
+            for (String thread : threads.subList(1, 4)) {
+                Assert.assertTrue(thread, thread.startsWith("Bot-io-"));
+            }
+        } finally {
+            ExecutorFactory.setExecutorProvider(original);
+        }
+    }
+
+    @Test
+    public void BoundedProviderRejectsWhenHandOffIsFull() throws Exception {
+        ExecutorProvider original = ExecutorFactory.getExecutorProvider();
+        BoundedExecutorProvider bounded = new BoundedExecutorProvider(1, 1, 1);
+        ExecutorFactory.setExecutorProvider(bounded);
+        try {
+            ExecutorService io = ExecutorFactory.getExecutor();
+            AtomicInteger ran = new AtomicInteger();
+            CompletableFuture<ExecutorMetrics> submitted = CompletableFuture.supplyAsync(() -> {
+                // One task fits in the queue, one is being handed off and one
+                // waits in the hand-off, so the next one is rejected.
+                for (int i = 0; i < 3; i++) {
+                    io.execute(ran::incrementAndGet);
+                }
+                try {
+                    io.execute(ran::incrementAndGet);
+                    Assert.fail("The task should have been rejected");
+                } catch (RejectedExecutionException e) {
+                    // expected
+                }
+                return ExecutorFactory.getExecutorMetrics();
+            }, io);
+
+            ExecutorMetrics metrics = submitted.get(5, TimeUnit.SECONDS);
+            Assert.assertEquals(1, metrics.getQueuedTaskCount());
+            Assert.assertEquals(2, metrics.getHandOffTaskCount());
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (ran.get() < 3 || ExecutorFactory.getExecutorMetrics().getHandOffTaskCount() > 0) {
+                Assert.assertTrue("Handed off tasks did not run", System.nanoTime() < deadline);
+                Thread.sleep(10);
+            }
+            Assert.assertEquals(3, ran.get());
+        } finally {
+            ExecutorFactory.setExecutorProvider(original);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void VirtualThreadsMatchJdkSupport() {
+        if (VirtualThreadExecutorProvider.isSupported()) {
+            VirtualThreadExecutorProvider provider = new VirtualThreadExecutorProvider();
+            Assert.assertNotSame(provider.getExecutor(), provider.getCpuExecutor());
+        } else {
+            try {
+                new VirtualThreadExecutorProvider();
+                Assert.fail("Expected UnsupportedOperationException");
+            } catch (UnsupportedOperationException e) {
+                // expected
+            }
+        }
+    }
+}
@@ -34,6 +34,8 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -89,6 +91,56 @@ public class JwtTokenExtractorTests {
         ).join();
     }
 
+    @Test
+    public void JwtTokenExtractor_WithVerifiedToken_ShouldReuseIdentity() {
+        AtomicInteger keyLookups = new AtomicInteger();
+        TokenValidationParameters tokenValidationParameters = createTokenValidationParameters(valid.cert);
+        OpenIdMetadata metadata = keyId -> {
+            keyLookups.incrementAndGet();
+            OpenIdMetadataKey key = new OpenIdMetadataKey();
+            key.key = (RSAPublicKey) valid.cert.getPublicKey();
+            key.certificateChain = Collections.singletonList(encodeCertificate(valid.cert));
+            return key;
+        };
+        tokenValidationParameters.issuerSigningKeyResolver = url -> metadata;
+
+        String token = createTokenForCertificate(valid.cert, valid.keypair.getPrivate());
+        ClaimsIdentity first = new JwtTokenExtractor(
+            tokenValidationParameters,
+            "https://login.botframework.com/v1/.well-known/openidconfiguration",
+            AuthenticationConstants.ALLOWED_SIGNING_ALGORITHMS
+        ).getIdentity("Bearer " + token, "test").join();
+
+        // A new extractor with the same settings reuses the verified identity.
+        ClaimsIdentity second = new JwtTokenExtractor(
+            tokenValidationParameters,
+            "https://login.botframework.com/v1/.well-known/openidconfiguration",
+            AuthenticationConstants.ALLOWED_SIGNING_ALGORITHMS
+        ).getIdentity("Bearer " + token, "test").join();
+
+        Assert.assertEquals(1, keyLookups.get());
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(first.getIssuer(), second.getIssuer());
+        Assert.assertEquals(first.claims(), second.claims());
+
+        // Changes to the returned identity don't leak into the cache.
+        second.claims().put("aud", "changed");
+        ClaimsIdentity third = new JwtTokenExtractor(
+            tokenValidationParameters,
+            "https://login.botframework.com/v1/.well-known/openidconfiguration",
+            AuthenticationConstants.ALLOWED_SIGNING_ALGORITHMS
+        ).getIdentity("Bearer " + token, "test").join();
+        Assert.assertEquals(first.claims(), third.claims());
+
+        // A different channel is validated again.
+        new JwtTokenExtractor(
+            tokenValidationParameters,
+            "https://login.botframework.com/v1/.well-known/openidconfiguration",
+            AuthenticationConstants.ALLOWED_SIGNING_ALGORITHMS
+        ).getIdentity("Bearer " + token, "other").join();
+        Assert.assertEquals(2, keyLookups.get());
+    }
+
     private CompletableFuture<ClaimsIdentity> buildExtractorAndValidateToken(
         X509Certificate cert,
         PrivateKey privateKey
@@ -9,8 +9,14 @@ import com.microsoft.bot.connector.authentication.RetryParams;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class RetryTests {
     @Test
@@ -61,6 +67,40 @@ public class RetryTests {
         }
     }
 
+    @Test
+    public void Retry_LimitsConcurrencyPerHost() throws InterruptedException {
+        int previous = Retry.getMaxConcurrentPerHost();
+        Retry.setMaxConcurrentPerHost(2);
+        try {
+            AtomicInteger started = new AtomicInteger();
+            BlockingQueue<CompletableFuture<String>> pending = new LinkedBlockingQueue<>();
+            List<CompletableFuture<String>> results = new ArrayList<>();
+
+            for (int i = 0; i < 5; i++) {
+                results.add(Retry.run("limited.example.com", () -> {
+                    started.incrementAndGet();
+                    CompletableFuture<String> task = new CompletableFuture<>();
+                    pending.add(task);
+                    return task;
+                }, (e, count) -> RetryParams.stopRetrying()));
+            }
+
+            Assert.assertEquals(2, started.get());
+
+            for (int i = 0; i < 5; i++) {
+                CompletableFuture<String> task = pending.poll(5, TimeUnit.SECONDS);
+                Assert.assertNotNull(task);
+                Assert.assertTrue(started.get() - i <= 2);
+                task.complete("done");
+            }
+
+            CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).join();
+            Assert.assertEquals(5, started.get());
+        } finally {
+            Retry.setMaxConcurrentPerHost(previous);
+        }
+    }
+
     private static class FaultyClass {
         RuntimeException exceptionToThrow;
         RuntimeException exceptionReceived;
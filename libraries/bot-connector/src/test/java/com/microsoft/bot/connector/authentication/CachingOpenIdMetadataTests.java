@@ -0,0 +1,128 @@
+package com.microsoft.bot.connector.authentication;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CachingOpenIdMetadataTests {
+    private static final long START = 1_000_000L;
+
+    @Test
+    public void ConcurrentLookupsShareOneRefresh() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CachingOpenIdMetadata metadata = new CachingOpenIdMetadata(() -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return Collections.singletonMap("key1", new OpenIdMetadataKey());
+        }, () -> START);
+
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<OpenIdMetadataKey>> lookups = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                lookups.add(executor.submit(() -> metadata.getKey("key1")));
+            }
+
+            Assert.assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<OpenIdMetadataKey> lookup : lookups) {
+                Assert.assertNotNull(lookup.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assert.assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void StaleKeysAreServedWhileRefreshing() throws Exception {
+        AtomicLong now = new AtomicLong(START);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CachingOpenIdMetadata metadata = new CachingOpenIdMetadata(() -> {
+            if (loads.incrementAndGet() == 1) {
+                return Collections.singletonMap("key1", new OpenIdMetadataKey());
+            }
+            await(release);
+            return Collections.singletonMap("key2", new OpenIdMetadataKey());
+        }, now::get);
+
+        OpenIdMetadataKey original = metadata.getKey("key1");
+        Assert.assertNotNull(original);
+
+        now.addAndGet(Duration.ofDays(1).toMillis());
+        Assert.assertSame(original, metadata.getKey("key1"));
+        Assert.assertTrue(metadata.isRefreshing());
+        Assert.assertSame(original, metadata.getKey("key1"));
+
+        release.countDown();
+        awaitRefresh(metadata);
+        Assert.assertNotNull(metadata.getKey("key2"));
+        Assert.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void FailedRefreshKeepsKeysAndRetriesLater() throws Exception {
+        AtomicLong now = new AtomicLong(START);
+        AtomicInteger loads = new AtomicInteger();
+        CachingOpenIdMetadata metadata = new CachingOpenIdMetadata(() -> {
+            if (loads.incrementAndGet() == 2) {
+                throw new IOException("unavailable");
+            }
+            return Collections.singletonMap("key1", new OpenIdMetadataKey());
+        }, now::get);
+
+        OpenIdMetadataKey original = metadata.getKey("key1");
+        Assert.assertNotNull(original);
+
+        now.addAndGet(Duration.ofDays(1).toMillis());
+        Assert.assertSame(original, metadata.getKey("key1"));
+        awaitRefresh(metadata);
+        Assert.assertEquals(2, loads.get());
+
+        // The failed refresh keeps the keys and isn't retried right away.
+        Assert.assertSame(original, metadata.getKey("key1"));
+        Assert.assertFalse(metadata.isRefreshing());
+        Assert.assertEquals(2, loads.get());
+
+        now.addAndGet(Duration.ofMinutes(2).toMillis());
+        Assert.assertSame(original, metadata.getKey("key1"));
+        awaitRefresh(metadata);
+        Assert.assertEquals(3, loads.get());
+        Assert.assertNotSame(original, metadata.getKey("key1"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitRefresh(CachingOpenIdMetadata metadata) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (metadata.isRefreshing()) {
+            Assert.assertTrue("Refresh did not finish", System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -39,6 +39,32 @@ public class RestClientTests {
         Assert.assertNull(restClient.credentials());
     }
 
+    @Test
+    public void clientsShareTransport() {
+        HttpTransport transport = new HttpTransport();
+        RestClient first = new RestClient.Builder()
+            .withBaseUrl("https://smba.trafficmanager.net/amer/")
+            .withTransport(transport)
+            .withResponseBuilderFactory(new ServiceResponseBuilder.Factory())
+            .build();
+        RestClient second = new RestClient.Builder()
+            .withBaseUrl("https://smba.trafficmanager.net/emea/")
+            .withTransport(transport)
+            .withResponseBuilderFactory(new ServiceResponseBuilder.Factory())
+            .build();
+        RestClient copy = first.newBuilder().build();
+
+        for (RestClient client : new RestClient[] { first, second, copy }) {
+            Assert.assertSame(transport.connectionPool(), client.httpClient().connectionPool());
+            Assert.assertSame(transport.dispatcher(), client.httpClient().dispatcher());
+            Assert.assertSame(transport.serializerAdapter(), client.serializerAdapter());
+        }
+
+        // Closing one client leaves the shared dispatcher running for the others.
+        first.close();
+        Assert.assertFalse(transport.dispatcher().executorService().isShutdown());
+    }
+
     @Test
     public void newBuilderKeepsConfigs() {
         RestClient restClient = new RestClient.Builder()
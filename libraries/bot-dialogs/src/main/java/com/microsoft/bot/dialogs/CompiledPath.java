@@ -0,0 +1,182 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.dialogs;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * A property path parsed into its segments.
+ *
+ * <p>
+ * Property names, indexes and bracket expressions that are quoted strings or
+ * integers are constant, so they are resolved once when the path is compiled.
+ * Only bracket expressions that refer to other values, such as
+ * {@code conversation[user.name]}, are left to be resolved against the object
+ * the path is applied to. Compiled paths are cached by path string.
+ * </p>
+ */
+final class CompiledPath {
+    /**
+     * The maximum number of cached paths. The cache is emptied when it fills up,
+     * since paths normally come from a small set of constants.
+     */
+    private static final int MAX_CACHED_PATHS = 10000;
+
+    private static final Map<String, CompiledPath> CACHE = new ConcurrentHashMap<>();
+
+    private static final CompiledPath INVALID = new CompiledPath(false, false, Collections.emptyList());
+
+    private final boolean valid;
+    private final boolean literal;
+    private final List<Object> parts;
+
+    private CompiledPath(boolean withValid, boolean withLiteral, List<Object> withParts) {
+        valid = withValid;
+        literal = withLiteral;
+        parts = withParts;
+    }
+
+    /**
+     * Gets the compiled form of a path.
+     *
+     * @param path The property path.
+     * @return The compiled path.
+     */
+    static CompiledPath compile(String path) {
+        CompiledPath compiled = CACHE.get(path);
+        if (compiled == null) {
+            compiled = parse(path);
+            if (CACHE.size() >= MAX_CACHED_PATHS) {
+                CACHE.clear();
+            }
+            CACHE.put(path, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * Gets whether the path can be resolved, which it can't if it has unbalanced
+     * brackets or quotes.
+     *
+     * @return true if the path is well formed.
+     */
+    boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Gets whether the whole path is a quoted string or an integer, which
+     * resolves to itself rather than to a value.
+     *
+     * @return true if the path is a literal.
+     */
+    boolean isLiteral() {
+        return literal;
+    }
+
+    /**
+     * Gets the segments of the path. Each is a String property name, an Integer
+     * index, or a CompiledPath for a bracket expression that has to be
+     * evaluated.
+     *
+     * @return The path segments.
+     */
+    List<Object> getParts() {
+        return parts;
+    }
+
+    private static CompiledPath parse(String path) {
+        char first = path.length() > 0 ? path.charAt(0) : ' ';
+        if (first == '\'' || first == '"') {
+            if (!path.endsWith(String.valueOf(first))) {
+                return INVALID;
+            }
+
+            return new CompiledPath(true, true, Collections.singletonList(path.substring(1, path.length() - 1)));
+        }
+
+        if (isInt(path)) {
+            return new CompiledPath(true, true, Collections.singletonList(Integer.parseInt(path)));
+        }
+
+        List<Object> parts = new ArrayList<>();
+        int start = 0;
+        int i;
+
+        for (i = 0; i < path.length(); ++i) {
+            char ch = path.charAt(i);
+            if (ch == '.' || ch == '[') {
+                String segment = path.substring(start, i);
+                if (!StringUtils.isEmpty(segment)) {
+                    parts.add(segment);
+                }
+                start = i + 1;
+            }
+
+            if (ch == '[') {
+                // Bracket expression
+                int nesting = 1;
+                while (++i < path.length()) {
+                    ch = path.charAt(i);
+                    if (ch == '[') {
+                        ++nesting;
+                    } else if (ch == ']') {
+                        --nesting;
+                        if (nesting == 0) {
+                            break;
+                        }
+                    }
+                }
+
+                if (nesting > 0) {
+                    // Unbalanced brackets
+                    return INVALID;
+                }
+
+                CompiledPath indexer = parse(path.substring(start, i));
+                start = i + 1;
+                if (!indexer.valid) {
+                    return INVALID;
+                }
+
+                if (indexer.literal) {
+                    parts.add(toSegment(indexer.parts.get(0).toString()));
+                } else {
+                    parts.add(indexer);
+                }
+            }
+        }
+
+        String segment = path.substring(start, i);
+        if (!StringUtils.isEmpty(segment)) {
+            parts.add(segment);
+        }
+
+        return new CompiledPath(true, false, Collections.unmodifiableList(parts));
+    }
+
+    /**
+     * Converts the value of a bracket expression to a segment.
+     *
+     * @param value The value as a string.
+     * @return An Integer index if the value is an integer, otherwise the value.
+     */
+    static Object toSegment(String value) {
+        return isInt(value) ? (Object) Integer.parseInt(value) : value;
+    }
+
+    private static boolean isInt(String value) {
+        try {
+            Integer.parseInt(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
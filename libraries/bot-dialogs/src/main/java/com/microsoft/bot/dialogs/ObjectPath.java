@@ -15,20 +15,31 @@ import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
-import java.util.stream.Collectors;
-import org.apache.commons.lang3.StringUtils;
 
 /**
  * Helper methods for working with dynamic json objects.
  */
 public final class ObjectPath {
+    /**
+     * Maps whose keys can be looked up directly. Other maps, such as
+     * DialogStateManager, compute their entries, so they are only searched
+     * through their entry set.
+     */
+    private static final Set<Class<?>> PLAIN_MAPS = new HashSet<>(Arrays.asList(
+        HashMap.class, LinkedHashMap.class, TreeMap.class, ConcurrentHashMap.class
+    ));
+
     private ObjectPath() { }
 
     /**
@@ -227,7 +238,7 @@ public final class ObjectPath {
 
             while (fields.hasNext()) {
                 String field = fields.next();
-                action.accept(field, node.findValue(field));
+                action.accept(field, node.get(field));
             }
         }
     }
@@ -272,15 +283,10 @@ public final class ObjectPath {
         }
 
         if (obj instanceof JsonNode) {
-            return ((JsonNode) obj).findValue(name) != null;
+            return ((JsonNode) obj).has(name);
         }
 
-        for (Field field : obj.getClass().getDeclaredFields()) {
-            if (StringUtils.equalsIgnoreCase(field.getName(), name)) {
-                return true;
-            }
-        }
-        return false;
+        return PropertyAccessors.forClass(obj.getClass()).contains(name);
     }
 
     /**
@@ -379,8 +385,8 @@ public final class ObjectPath {
         Set<String> keySet = mergeKeys(startObject, overlayObject);
 
         for (String key : keySet) {
-            JsonNode targetValue = startObject.findValue(key);
-            JsonNode sourceValue = overlayObject.findValue(key);
+            JsonNode targetValue = startObject.get(key);
+            JsonNode sourceValue = overlayObject.get(key);
 
             // skip empty overlay items
             if (!isNull(sourceValue)) {
@@ -509,85 +515,37 @@ public final class ObjectPath {
      * @return True if it was able to resolve all nested references.
      */
     public static <T> Segments tryResolvePath(Object obj, String propertyPath, boolean eval) {
-        Segments soFar = new Segments();
-        char first = propertyPath.length() > 0 ? propertyPath.charAt(0) : ' ';
-        if (first == '\'' || first == '"') {
-            if (!propertyPath.endsWith(String.valueOf(first))) {
-                return null;
-            }
-
-            soFar.add(propertyPath.substring(1, propertyPath.length() - 1));
-        } else if (isInt(propertyPath)) {
-            soFar.add(Integer.parseInt(propertyPath));
-        } else {
-            int start = 0;
-            int i;
-
-            // Scan path evaluating as we go
-            for (i = 0; i < propertyPath.length(); ++i) {
-                char ch = propertyPath.charAt(i);
-                if (ch == '.' || ch == '[') {
-                    // emit
-                    String segment = propertyPath.substring(start, i);
-                    if (!StringUtils.isEmpty(segment)) {
-                        soFar.add(segment);
-                    }
-                    start = i + 1;
-                }
-
-                if (ch == '[') {
-                    // Bracket expression
-                    int nesting = 1;
-                    while (++i < propertyPath.length()) {
-                        ch = propertyPath.charAt(i);
-                        if (ch == '[') {
-                            ++nesting;
-                        } else if (ch == ']') {
-                            --nesting;
-                            if (nesting == 0) {
-                                break;
-                            }
-                        }
-                    }
-
-                    if (nesting > 0) {
-                        // Unbalanced brackets
-                        return null;
-                    }
+        return resolvePath(obj, CompiledPath.compile(propertyPath), eval);
+    }
 
-                    String expr = propertyPath.substring(start, i);
-                    start = i + 1;
-                    Segments indexer = tryResolvePath(obj, expr, true);
-                    if (indexer == null  || indexer.size() != 1) {
-                        // Could not resolve bracket expression
-                        return null;
-                    }
+    private static Segments resolvePath(Object obj, CompiledPath path, boolean eval) {
+        if (!path.isValid()) {
+            return null;
+        }
 
-                    String result = mapValueTo(indexer.first(), String.class);
-                    if (isInt(result)) {
-                        soFar.add(Integer.parseInt(result));
-                    } else {
-                        soFar.add(result);
-                    }
+        Segments soFar = new Segments();
+        for (Object part : path.getParts()) {
+            if (part instanceof CompiledPath) {
+                Segments indexer = resolvePath(obj, (CompiledPath) part, true);
+                if (indexer == null || indexer.size() != 1) {
+                    // Could not resolve bracket expression
+                    return null;
                 }
-            }
 
-            // emit
-            String segment = propertyPath.substring(start, i);
-            if (!StringUtils.isEmpty(segment)) {
-                soFar.add(segment);
+                soFar.add(CompiledPath.toSegment(mapValueTo(indexer.first(), String.class)));
+            } else {
+                soFar.add(part);
             }
-            start = i + 1;
-
-            if (eval) {
-                Object result = resolveSegments(obj, soFar);
-                if (result == null) {
-                    return null;
-                }
+        }
 
-                soFar.clear();
-                soFar.add(mapValueTo(result, Object.class));
+        if (eval && !path.isLiteral()) {
+            Object result = resolveSegments(obj, soFar);
+            if (result == null) {
+                return null;
             }
+
+            soFar.clear();
+            soFar.add(mapValueTo(result, Object.class));
         }
 
         return soFar;
@@ -640,38 +598,25 @@ public final class ObjectPath {
         // set obj to the Map<String, Object> which holds the state values which is retrieved from calling
         // getTurnStateServices()
         if (obj instanceof TurnContextStateCollection) {
-            Map<String, Object> dict = ((TurnContextStateCollection) obj).getTurnStateServices();
-            List<Entry<String, Object>> matches = dict.entrySet().stream()
-                .filter(key -> key.getKey().equalsIgnoreCase(property))
-                .collect(Collectors.toList());
-
-            if (matches.size() > 0) {
-                return matches.get(0).getValue();
-            }
-
-            return null;
+            return getMapProperty(((TurnContextStateCollection) obj).getTurnStateServices(), property);
         }
 
         if (obj instanceof Map) {
-            Map<String, Object> dict = (Map<String, Object>) obj;
-            List<Entry<String, Object>> matches = dict.entrySet().stream()
-                .filter(key -> key.getKey().equalsIgnoreCase(property))
-                .collect(Collectors.toList());
-
-            if (matches.size() > 0) {
-                return matches.get(0).getValue();
-            }
-
-            return null;
+            return getMapProperty((Map<String, Object>) obj, property);
         }
 
         if (obj instanceof JsonNode) {
             JsonNode node = (JsonNode) obj;
+            JsonNode value = node.get(property);
+            if (value != null) {
+                return value;
+            }
+
             Iterator<String> fields = node.fieldNames();
             while (fields.hasNext()) {
                 String field = fields.next();
                 if (field.equalsIgnoreCase(property)) {
-                    return node.findValue(field);
+                    return node.get(field);
                 }
             }
             return null;
@@ -687,19 +632,22 @@ public final class ObjectPath {
         */
 
         // reflection on Object
-        List<Object> matches = Arrays.stream(obj.getClass().getDeclaredFields())
-            .filter(field -> field.getName().equalsIgnoreCase(property))
-            .map(field -> {
-                try {
-                    return field.get(obj);
-                } catch (IllegalAccessException e) {
-                    return null;
-                }
-            })
-            .collect(Collectors.toList());
+        return PropertyAccessors.forClass(obj.getClass()).get(obj, property);
+    }
+
+    private static Object getMapProperty(Map<String, Object> dict, String property) {
+        // Most lookups use the key's own case, so try that before comparing every key.
+        if (PLAIN_MAPS.contains(dict.getClass())) {
+            Object value = dict.get(property);
+            if (value != null || dict.containsKey(property)) {
+                return value;
+            }
+        }
 
-        if (matches.size() > 0) {
-            return matches.get(0);
+        for (Entry<String, Object> entry : dict.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(property)) {
+                return entry.getValue();
+            }
         }
         return null;
     }
@@ -716,7 +664,6 @@ public final class ObjectPath {
         setObjectSegment(obj, segment, value, true);
     }
 
-    @SuppressWarnings("PMD.EmptyCatchBlock")
     private static void setObjectSegment(Object obj, Object segment, Object value, boolean json) {
         Object normalizedValue = getNormalizedValue(value, json);
 
@@ -736,8 +683,13 @@ public final class ObjectPath {
         // Map
         String property = (String) segment;
         if (obj instanceof Map) {
-            Boolean wasSet = false;
             Map<String, Object> dict = (Map<String, Object>) obj;
+            if (PLAIN_MAPS.contains(dict.getClass()) && dict.containsKey(property)) {
+                dict.put(property, normalizedValue);
+                return;
+            }
+
+            Boolean wasSet = false;
             for (String key : dict.keySet()) {
                 if (key.equalsIgnoreCase(property)) {
                     wasSet = true;
@@ -774,14 +726,7 @@ public final class ObjectPath {
 
         // reflection
         if (obj != null) {
-            for (Field f : obj.getClass().getDeclaredFields()) {
-                if (f.getName().equalsIgnoreCase(property)) {
-                    try {
-                        f.set(obj, normalizedValue);
-                    } catch (IllegalAccessException ignore) {
-                    }
-                }
-            }
+            PropertyAccessors.forClass(obj.getClass()).set(obj, property, normalizedValue);
         }
     }
 
@@ -809,13 +754,4 @@ public final class ObjectPath {
 
         return val;
     }
-
-    private static boolean isInt(String value) {
-        try {
-            Integer.parseInt(value);
-            return true;
-        } catch (NumberFormatException e) {
-            return false;
-        }
-    }
 }
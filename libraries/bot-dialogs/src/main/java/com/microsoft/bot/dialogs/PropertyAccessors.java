@@ -0,0 +1,176 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.dialogs;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The fields of a class that {@link ObjectPath} can read and write, looked up by
+ * case-insensitive name.
+ *
+ * <p>
+ * A field is accessed directly when it is accessible, otherwise through its
+ * public getter or setter if there is one. The accessors of a class are built
+ * once and reused.
+ * </p>
+ */
+final class PropertyAccessors {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<PropertyAccessors> ACCESSORS = new ClassValue<PropertyAccessors>() {
+        @Override
+        protected PropertyAccessors computeValue(Class<?> type) {
+            return new PropertyAccessors(type);
+        }
+    };
+
+    private final Map<String, Property> properties = new HashMap<>();
+
+    private PropertyAccessors(Class<?> type) {
+        for (Field field : type.getDeclaredFields()) {
+            properties.putIfAbsent(normalize(field.getName()), new Property(findGetter(type, field),
+                findSetter(type, field)));
+        }
+    }
+
+    /**
+     * Gets the accessors of a class.
+     *
+     * @param type The class.
+     * @return The accessors for the fields declared by the class.
+     */
+    static PropertyAccessors forClass(Class<?> type) {
+        return ACCESSORS.get(type);
+    }
+
+    /**
+     * Gets whether the class declares a field.
+     *
+     * @param name The field name, in any case.
+     * @return true if the field is declared, whether or not it can be accessed.
+     */
+    boolean contains(String name) {
+        return properties.containsKey(normalize(name));
+    }
+
+    /**
+     * Reads a field.
+     *
+     * @param obj  The object to read from.
+     * @param name The field name, in any case.
+     * @return The value, or null if there is no such field or it can't be read.
+     */
+    Object get(Object obj, String name) {
+        Property property = properties.get(normalize(name));
+        if (property == null || property.getter == null) {
+            return null;
+        }
+
+        try {
+            return (Object) property.getter.invokeExact(obj);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /**
+     * Writes a field. Nothing happens if there is no such field or it can't be
+     * written.
+     *
+     * @param obj   The object to change.
+     * @param name  The field name, in any case.
+     * @param value The value to store.
+     */
+    void set(Object obj, String name, Object value) {
+        Property property = properties.get(normalize(name));
+        if (property == null || property.setter == null) {
+            return;
+        }
+
+        try {
+            property.setter.invokeExact(obj, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static MethodHandle findGetter(Class<?> type, Field field) {
+        try {
+            return adapt(LOOKUP.unreflectGetter(field), field, GETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            String name = capitalize(field.getName());
+            Method getter = findMethod(type, "get" + name);
+            if (getter == null && (field.getType() == boolean.class || field.getType() == Boolean.class)) {
+                getter = findMethod(type, "is" + name);
+            }
+            return getter != null ? unreflect(getter, GETTER_TYPE) : null;
+        }
+    }
+
+    private static MethodHandle findSetter(Class<?> type, Field field) {
+        try {
+            return adapt(LOOKUP.unreflectSetter(field), field, SETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            Method setter = findMethod(type, "set" + capitalize(field.getName()), field.getType());
+            return setter != null ? unreflect(setter, SETTER_TYPE) : null;
+        }
+    }
+
+    private static MethodHandle adapt(MethodHandle handle, Field field, MethodType type) {
+        if (Modifier.isStatic(field.getModifiers())) {
+            // Static fields ignore the object they are read from.
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        return handle.asType(type);
+    }
+
+    private static Method findMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            Method method = type.getMethod(name, parameterTypes);
+            return Modifier.isStatic(method.getModifiers()) ? null : method;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static MethodHandle unreflect(Method method, MethodType type) {
+        try {
+            return LOOKUP.unreflect(method).asType(type);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static final class Property {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        Property(MethodHandle withGetter, MethodHandle withSetter) {
+            getter = withGetter;
+            setter = withSetter;
+        }
+    }
+}
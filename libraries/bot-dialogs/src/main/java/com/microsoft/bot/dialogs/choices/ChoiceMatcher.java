@@ -0,0 +1,169 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.dialogs.choices;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * A list of choices prepared for matching against user input.
+ *
+ * <p>
+ * Building a matcher tokenizes the value, action title and synonyms of every
+ * choice, so a matcher should be reused for as long as the choices don't
+ * change. {@link #forChoices(List, FindChoicesOptions)} keeps recently used
+ * matchers so that prompts which show the same choices every turn don't
+ * rebuild them. Matching gives the same results as
+ * {@link Find#findChoices(String, List, FindChoicesOptions)}.
+ * </p>
+ *
+ * <p>
+ * A matcher is a snapshot of the choices and options it was built from, and
+ * can be used by several threads at once.
+ * </p>
+ */
+public final class ChoiceMatcher {
+    /**
+     * The maximum number of matchers kept by
+     * {@link #forChoices(List, FindChoicesOptions)}.
+     */
+    public static final int MAX_CACHED_MATCHERS = 100;
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private static final Map<List<Object>, ChoiceMatcher> CACHE =
+        new LinkedHashMap<List<Object>, ChoiceMatcher>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, ChoiceMatcher> eldest) {
+                return size() > MAX_CACHED_MATCHERS;
+            }
+        };
+
+    private final List<String> choiceValues;
+    private final ValueMatcher matcher;
+
+    /**
+     * Prepares choices for matching.
+     *
+     * @param withChoices The list of choices.
+     * @param withOptions Optional, options to control the recognition strategy.
+     */
+    public ChoiceMatcher(List<Choice> withChoices, FindChoicesOptions withOptions) {
+        if (withChoices == null) {
+            throw new IllegalArgumentException("choices argument is missing");
+        }
+
+        FindChoicesOptions opt = withOptions != null ? withOptions : new FindChoicesOptions();
+
+        // Build up full list of synonyms to search over.
+        // - Each entry in the list contains the index of the choice it belongs to which will later be
+        //   used to map the search results back to their choice.
+        List<SortedValue> synonyms = new ArrayList<>();
+
+        for (int index = 0; index < withChoices.size(); index++) {
+            Choice choice = withChoices.get(index);
+
+            if (!opt.isNoValue()) {
+                synonyms.add(new SortedValue(choice.getValue(), index));
+            }
+
+            if (choice.getAction() != null && choice.getAction().getTitle() != null && !opt.isNoAction()) {
+                synonyms.add(new SortedValue(choice.getAction().getTitle(), index));
+            }
+
+            if (choice.getSynonyms() != null) {
+                for (String synonym : choice.getSynonyms()) {
+                    synonyms.add(new SortedValue(synonym, index));
+                }
+            }
+        }
+
+        choiceValues = withChoices.stream().map(Choice::getValue).collect(Collectors.toList());
+        matcher = new ValueMatcher(synonyms, withOptions);
+    }
+
+    /**
+     * Gets a matcher for a list of choices, reusing one built earlier for equal
+     * choices and options.
+     *
+     * @param choices The list of choices.
+     * @param options Optional, options to control the recognition strategy.
+     * @return The matcher.
+     */
+    public static ChoiceMatcher forChoices(List<Choice> choices, FindChoicesOptions options) {
+        if (choices == null) {
+            throw new IllegalArgumentException("choices argument is missing");
+        }
+
+        List<Object> key = cacheKey(choices, options);
+        synchronized (CACHE) {
+            ChoiceMatcher cached = CACHE.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        ChoiceMatcher matcher = new ChoiceMatcher(choices, options);
+        synchronized (CACHE) {
+            CACHE.put(key, matcher);
+        }
+        return matcher;
+    }
+
+    /**
+     * Matches user input against the choices.
+     *
+     * @param utterance The input.
+     * @return A list of found choices, sorted by most relevant first.
+     */
+    public List<ModelResult<FoundChoice>> find(String utterance) {
+        // Find synonyms in utterance and map back to their choices
+        return matcher.find(utterance).stream().map(v -> {
+            FoundChoice resolution = new FoundChoice();
+            resolution.setValue(choiceValues.get(v.getResolution().getIndex()));
+            resolution.setIndex(v.getResolution().getIndex());
+            resolution.setScore(v.getResolution().getScore());
+            resolution.setSynonym(v.getResolution().getValue());
+            ModelResult<FoundChoice> modelResult = new ModelResult<FoundChoice>();
+            modelResult.setStart(v.getStart());
+            modelResult.setEnd(v.getEnd());
+            modelResult.setTypeName("choice");
+            modelResult.setText(v.getText());
+            modelResult.setResolution(resolution);
+            return modelResult;
+        }).collect(Collectors.toList());
+    }
+
+    /**
+     * Everything a matcher depends on. Choices and options can be changed after
+     * they are used, so the key holds their content rather than the objects.
+     */
+    private static List<Object> cacheKey(List<Choice> choices, FindChoicesOptions options) {
+        List<Object> key = new ArrayList<>();
+        if (options != null) {
+            key.add(Arrays.asList(
+                options.isNoValue(),
+                options.isNoAction(),
+                options.getAllowPartialMatches(),
+                options.getLocale(),
+                options.getMaxTokenDistance(),
+                options.getTokenizer()
+            ));
+        } else {
+            key.add(null);
+        }
+
+        for (Choice choice : choices) {
+            key.add(choice.getValue());
+            key.add(choice.getAction() != null ? choice.getAction().getTitle() : null);
+            key.add(choice.getSynonyms() != null ? new ArrayList<>(choice.getSynonyms()) : null);
+        }
+        return key;
+    }
+}
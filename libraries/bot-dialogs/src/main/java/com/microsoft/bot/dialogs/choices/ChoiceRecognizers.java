@@ -70,7 +70,7 @@ public final class ChoiceRecognizers {
         //   like the "the third one" or "the red one" or "the first division book" would miss-recognize as
         //   a numerical index or ordinal as well.
         String locale = options != null ? options.getLocale() : Locale.ENGLISH.getDisplayName();
-        List<ModelResult<FoundChoice>> matched = Find.findChoices(utterance, choices, options);
+        List<ModelResult<FoundChoice>> matched = ChoiceMatcher.forChoices(choices, options).find(utterance);
         if (matched.size() == 0) {
             List<ModelResult<FoundChoice>> matches = new ArrayList<>();
             if (options == null || options.isRecognizeOrdinals()) {
@@ -0,0 +1,257 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.dialogs.choices;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A list of values prepared for matching against user input.
+ *
+ * <p>
+ * The values are sorted and tokenized once. Each distinct token maps to the
+ * values that contain it, so a search only looks at values that share a token
+ * with the utterance, and each token of a value is found in the utterance with
+ * a binary search rather than a scan. The results are the same as
+ * {@link Find#findValues(String, List, FindValuesOptions)}.
+ * </p>
+ *
+ * <p>
+ * Values aren't matched with a trie or an automaton because a value doesn't
+ * have to appear contiguously: its tokens are matched in order with up to
+ * {@link FindValuesOptions#getMaxTokenDistance()} tokens between them, and
+ * partial matches may be allowed.
+ * </p>
+ */
+final class ValueMatcher {
+    private static final int[] NO_POSITIONS = new int[0];
+
+    private final boolean allowPartialMatches;
+    private final String locale;
+    private final int maxDistance;
+    private final TokenizerFunction tokenizer;
+
+    private final SortedValue[] values;
+    private final String[][] valueTokens;
+    private final Map<String, int[]> valuesByToken;
+
+    /**
+     * Prepares values for matching.
+     *
+     * @param withValues  The values.
+     * @param withOptions Optional, the options for the search.
+     */
+    ValueMatcher(List<SortedValue> withValues, FindValuesOptions withOptions) {
+        FindValuesOptions opt = withOptions != null ? withOptions : new FindValuesOptions();
+        allowPartialMatches = opt.getAllowPartialMatches();
+        locale = opt.getLocale();
+        maxDistance = opt.getMaxTokenDistance();
+        tokenizer = opt.getTokenizer() != null ? opt.getTokenizer() : new Tokenizer();
+
+        // Sort values in descending order by length so that the longest value is searched over first.
+        List<SortedValue> list = new ArrayList<>(withValues);
+        list.sort((a, b) -> b.getValue().length() - a.getValue().length());
+
+        values = new SortedValue[list.size()];
+        valueTokens = new String[list.size()][];
+        Map<String, BitSet> index = new HashMap<>();
+        for (int id = 0; id < list.size(); id++) {
+            SortedValue value = list.get(id);
+            values[id] = new SortedValue(value.getValue(), value.getIndex());
+
+            List<Token> tokens = tokenizer.tokenize(value.getValue().trim(), locale);
+            valueTokens[id] = new String[tokens.size()];
+            for (int i = 0; i < tokens.size(); i++) {
+                String key = fold(tokens.get(i).getNormalized());
+                valueTokens[id][i] = key;
+                index.computeIfAbsent(key, k -> new BitSet()).set(id);
+            }
+        }
+
+        valuesByToken = new HashMap<>();
+        index.forEach((key, ids) -> valuesByToken.put(key, ids.stream().toArray()));
+    }
+
+    /**
+     * Searches an utterance for the values.
+     *
+     * @param utterance The input.
+     * @return The values found, sorted by position in the utterance.
+     */
+    List<ModelResult<FoundValue>> find(String utterance) {
+        List<Token> tokens = tokenizer.tokenize(utterance, locale);
+
+        // Where each token occurs in the utterance, and which values could match.
+        Map<String, List<Integer>> occurrences = new HashMap<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            occurrences.computeIfAbsent(fold(tokens.get(i).getNormalized()), k -> new ArrayList<>()).add(i);
+        }
+
+        Map<String, int[]> positions = new HashMap<>();
+        BitSet candidates = new BitSet(values.length);
+        occurrences.forEach((key, list) -> {
+            positions.put(key, list.stream().mapToInt(Integer::intValue).toArray());
+            int[] ids = valuesByToken.get(key);
+            if (ids != null) {
+                for (int id : ids) {
+                    candidates.set(id);
+                }
+            }
+        });
+
+        // Search for each value within the utterance, in the same order as the values are sorted.
+        List<ModelResult<FoundValue>> matches = new ArrayList<>();
+        for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+            // Find all matches for a value
+            // - To match "last one" in "the last time I chose the last one" we need
+            //   to re-search the String starting from the end of the previous match.
+            // - The start & end position returned for the match are token positions.
+            int startPos = 0;
+            while (startPos < tokens.size()) {
+                ModelResult<FoundValue> match = matchValue(positions, id, startPos);
+                if (match != null) {
+                    startPos = match.getEnd() + 1;
+                    matches.add(match);
+                } else {
+                    break;
+                }
+            }
+        }
+
+        // Sort matches by score descending
+        matches.sort((a, b) -> Float.compare(b.getResolution().getScore(), a.getResolution().getScore()));
+
+        // Filter out duplicate matching indexes and overlapping characters.
+        // - The start & end positions are token positions and need to be translated to
+        //   character positions before returning. We also need to populate the "text"
+        //   field as well.
+        List<ModelResult<FoundValue>> results = new ArrayList<>();
+        Set<Integer> foundIndexes = new HashSet<>();
+        BitSet usedTokens = new BitSet(tokens.size());
+
+        for (ModelResult<FoundValue> match : matches) {
+            // Apply filters
+            int used = usedTokens.nextSetBit(match.getStart());
+            boolean add = !foundIndexes.contains(match.getResolution().getIndex())
+                && (used < 0 || used > match.getEnd());
+
+            // Add to results
+            if (add) {
+                // Update filter info
+                foundIndexes.add(match.getResolution().getIndex());
+                usedTokens.set(match.getStart(), match.getEnd() + 1);
+
+                // Translate start & end and populate text field
+                match.setStart(tokens.get(match.getStart()).getStart());
+                match.setEnd(tokens.get(match.getEnd()).getEnd());
+                match.setText(utterance.substring(match.getStart(), match.getEnd() + 1));
+                results.add(match);
+            }
+        }
+
+        // Return the results sorted by position in the utterance
+        results.sort((a, b) -> a.getStart() - b.getStart());
+        return results;
+    }
+
+    private ModelResult<FoundValue> matchValue(Map<String, int[]> positions, int id, int startPos) {
+        // Match value to utterance and calculate total deviation.
+        // - The tokens are matched in order so "second last" will match in
+        //   "the second from last one" but not in "the last from the second one".
+        // - The total deviation is a count of the number of tokens skipped in the
+        //   match so for the example above the number of tokens matched would be
+        //   2 and the total deviation would be 1.
+        String[] searchedTokens = valueTokens[id];
+        int matched = 0;
+        int totalDeviation = 0;
+        int start = -1;
+        int end = -1;
+        for (String token : searchedTokens) {
+            // Find the position of the token in the utterance.
+            int pos = indexOfToken(positions.getOrDefault(token, NO_POSITIONS), startPos);
+            if (pos >= 0) {
+                // Calculate the distance between the current tokens position and the
+                // previous tokens distance.
+                int distance = matched > 0 ? pos - startPos : 0;
+                if (distance <= maxDistance) {
+                    // Update count of tokens matched and move start pointer to search
+                    // for next token after the current token.
+                    matched++;
+                    totalDeviation += distance;
+                    startPos = pos + 1;
+
+                    // Update start & end position that will track the span of the utterance
+                    // that's matched.
+                    if (start < 0) {
+                        start = pos;
+                    }
+
+                    end = pos;
+                }
+            }
+        }
+
+        // Calculate score and format result
+        // - The start & end positions and the results text field will be corrected by the caller.
+        if (matched == 0 || matched != searchedTokens.length && !allowPartialMatches) {
+            return null;
+        }
+
+        // Percentage of tokens matched. If matching "second last" in
+        // "the second from last one" the completeness would be 1.0 since
+        // all tokens were found.
+        int completeness = matched / searchedTokens.length;
+
+        // Accuracy of the match. The accuracy is reduced by additional tokens
+        // occurring in the value that weren't in the utterance. So an utterance
+        // of "second last" matched against a value of "second from last" would
+        // result in an accuracy of 0.5.
+        float accuracy = (float) matched / (matched + totalDeviation);
+
+        // The final score is simply the completeness multiplied by the accuracy.
+        float score = completeness * accuracy;
+
+        // Format result
+        FoundValue resolution = new FoundValue();
+        resolution.setValue(values[id].getValue());
+        resolution.setIndex(values[id].getIndex());
+        resolution.setScore(score);
+        ModelResult<FoundValue> result = new ModelResult<>();
+        result.setStart(start);
+        result.setEnd(end);
+        result.setTypeName("value");
+        result.setResolution(resolution);
+        return result;
+    }
+
+    private static int indexOfToken(int[] positions, int startPos) {
+        int i = Arrays.binarySearch(positions, startPos);
+        if (i < 0) {
+            i = -i - 1;
+        }
+        return i < positions.length ? positions[i] : -1;
+    }
+
+    /**
+     * Folds the case of a token so that tokens which are equal ignoring case
+     * have the same key.
+     */
+    private static String fold(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+}
@@ -18,6 +18,7 @@ import java.util.Set;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -26,11 +27,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.microsoft.bot.builder.BotState;
 import com.microsoft.bot.builder.ComponentRegistration;
 import com.microsoft.bot.dialogs.DialogContext;
 import com.microsoft.bot.dialogs.DialogPath;
 import com.microsoft.bot.dialogs.DialogsComponentRegistration;
 import com.microsoft.bot.dialogs.ObjectPath;
+import com.microsoft.bot.dialogs.memory.scopes.BotStateMemoryScope;
 import com.microsoft.bot.dialogs.memory.scopes.MemoryScope;
 import com.microsoft.bot.schema.ResultPair;
 
@@ -481,10 +484,10 @@ public class DialogStateManager implements Map<String, Object> {
      * @return A Completed Future.
      */
     public CompletableFuture<Void> loadAllScopes() {
-        configuration.getMemoryScopes().forEach((scope) -> {
-            scope.load(dialogContext, false).join();
-        });
-        return CompletableFuture.completedFuture(null);
+        return forEachScope(
+            botStates -> BotState.loadAll(dialogContext.getContext(), botStates, false),
+            scope -> scope.load(dialogContext, false)
+        );
     }
 
     /**
@@ -493,10 +496,41 @@ public class DialogStateManager implements Map<String, Object> {
      * @return Completed Future
      */
     public CompletableFuture<Void> saveAllChanges() {
-        configuration.getMemoryScopes().forEach((memoryScope) -> {
-            memoryScope.saveChanges(dialogContext, false).join();
-        });
-        return CompletableFuture.completedFuture(null);
+        return forEachScope(
+            botStates -> BotState.saveAllChanges(dialogContext.getContext(), botStates, false),
+            scope -> scope.saveChanges(dialogContext, false)
+        );
+    }
+
+    /**
+     * Runs an operation on all scopes concurrently. The BotState objects behind
+     * BotState scopes are handled together, so that states sharing a storage
+     * layer use a single storage call and a state shared by several scopes is
+     * only visited once. Scopes that override load or saveChanges are run
+     * through the scope operation instead, so their overrides are called.
+     */
+    private CompletableFuture<Void> forEachScope(
+        Function<List<BotState>, CompletableFuture<Void>> botStateOperation,
+        Function<MemoryScope, CompletableFuture<Void>> scopeOperation
+    ) {
+        List<BotState> botStates = new ArrayList<>();
+        List<CompletableFuture<Void>> operations = new ArrayList<>();
+        for (MemoryScope scope : configuration.getMemoryScopes()) {
+            BotState botState = scope instanceof BotStateMemoryScope
+                && ((BotStateMemoryScope<?>) scope).hasDefaultPersistence()
+                ? ((BotStateMemoryScope<?>) scope).getBotState(dialogContext)
+                : null;
+            if (botState != null) {
+                botStates.add(botState);
+            } else {
+                operations.add(scopeOperation.apply(scope));
+            }
+        }
+
+        if (!botStates.isEmpty()) {
+            operations.add(botStateOperation.apply(botStates));
+        }
+        return CompletableFuture.allOf(operations.toArray(new CompletableFuture[0]));
     }
 
     /**
@@ -15,6 +15,23 @@ import com.microsoft.bot.dialogs.DialogContext;
  * @param <T> The BotState type.
  */
 public class BotStateMemoryScope<T extends BotState> extends MemoryScope {
+    /**
+     * Whether a scope class loads and saves its BotState the way this class
+     * does, so its BotState can be handled together with those of other scopes.
+     */
+    private static final ClassValue<Boolean> DEFAULT_PERSISTENCE = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> scopeType) {
+            try {
+                return scopeType.getMethod("load", DialogContext.class, Boolean.class).getDeclaringClass()
+                    == BotStateMemoryScope.class
+                    && scopeType.getMethod("saveChanges", DialogContext.class, Boolean.class).getDeclaringClass()
+                    == BotStateMemoryScope.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
 
     private Class<T> type;
 
@@ -41,6 +58,8 @@ public class BotStateMemoryScope<T extends BotState> extends MemoryScope {
         T botState = getBotState(dialogContext);
         if (botState != null) {
             CachedBotState cachedState = botState.getCachedState(dialogContext.getContext());
+            // Memory paths modify the raw state directly.
+            cachedState.stopTrackingChanges();
             return cachedState.getState();
         } else {
             return null;
@@ -56,7 +75,17 @@ public class BotStateMemoryScope<T extends BotState> extends MemoryScope {
     }
 
     /**
+     * Loads the BotState that backs this scope.
+     *
+     * <p>
+     * {@link com.microsoft.bot.dialogs.memory.DialogStateManager#loadAllScopes()}
+     * loads the BotStates of scopes that don't override this method or
+     * {@link #saveChanges(DialogContext, Boolean)} together, without calling it.
+     * </p>
      *
+     * @param dialogContext The dialog context for the turn.
+     * @param force         True to load even if the state is already cached.
+     * @return A future that represents the work queued to execute.
      */
     @Override
     public CompletableFuture<Void> load(DialogContext dialogContext, Boolean force) {
@@ -70,9 +99,17 @@ public class BotStateMemoryScope<T extends BotState> extends MemoryScope {
     }
 
     /**
-     * @param dialogContext
-     * @param force
-     * @return A future that represents the
+     * Saves the changes to the BotState that backs this scope.
+     *
+     * <p>
+     * {@link com.microsoft.bot.dialogs.memory.DialogStateManager#saveAllChanges()}
+     * saves the BotStates of scopes that don't override this method or
+     * {@link #load(DialogContext, Boolean)} together, without calling it.
+     * </p>
+     *
+     * @param dialogContext The dialog context for the turn.
+     * @param force         True to save even if the state hasn't changed.
+     * @return A future that represents the work queued to execute.
      */
     @Override
     public CompletableFuture<Void> saveChanges(DialogContext dialogContext, Boolean force) {
@@ -85,7 +122,25 @@ public class BotStateMemoryScope<T extends BotState> extends MemoryScope {
         }
     }
 
-    private T getBotState(DialogContext dialogContext) {
+    /**
+     * Gets the BotState that backs this scope for the current turn.
+     *
+     * @param dialogContext The dialog context for the turn.
+     * @return The BotState, or null if it isn't in the turn state.
+     */
+    public final T getBotState(DialogContext dialogContext) {
         return dialogContext.getContext().getTurnState().get(type);
     }
+
+    /**
+     * Gets whether this scope loads and saves its BotState without overriding
+     * {@link #load(DialogContext, Boolean)} or
+     * {@link #saveChanges(DialogContext, Boolean)}, so its BotState can be
+     * loaded and saved together with those of other scopes.
+     *
+     * @return True if neither method is overridden.
+     */
+    public final boolean hasDefaultPersistence() {
+        return DEFAULT_PERSISTENCE.get(getClass());
+    }
 }
@@ -2,12 +2,13 @@ package com.microsoft.recognizers.text.utilities;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Stack;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.WeakHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Matcher;
@@ -24,6 +25,7 @@ public abstract class RegExpUtility {
     private static final String groupNameIndexSep = "iii";
     private static final String groupNameIndexSepRegex = Pattern.quote(groupNameIndexSep);
     private static final Pattern lookBehindCheckRegex = Pattern.compile("(\\\\?<[!=])");
+    private static final Map<Pattern, LookbehindPlan> lookbehindPlans = Collections.synchronizedMap(new WeakHashMap<>());
     private static final Map<Character, String> bindings = new HashMap<Character, String>() {
         {
             put('+', "{1,10}");
@@ -75,82 +77,95 @@ public abstract class RegExpUtility {
             return new Match[0];
         }
 
-        String rawRegex = regex.pattern();
-        if (!rawRegex.contains("(?<nlbii")) {
+        LookbehindPlan plan = getLookbehindPlan(regex);
+        if (plan == null) {
             return getMatchesSimple(regex, source);
         }
 
-        List<Match> realMatches = new ArrayList<>();
-        List<Pair<Pattern, Pattern>> negativeLookbehindRegexes = new ArrayList<>();
-        int flags = regex.flags();
+        Match[] tempMatches = getMatchesSimple(plan.mainRegex, source);
+        if (tempMatches.length == 0) {
+            return tempMatches;
+        }
 
-        int closePos = 0;
-        int startPos = rawRegex.indexOf("(?<nlbii", 0);
+        // Lookbehind matches only depend on the input, so they are computed once per call
+        // instead of once per candidate match.
+        List<Match[]> negativeLookbehindMatches = new ArrayList<>(plan.negativeLookbehinds.size());
+        List<Map<Match, Match>> nextMatches = new ArrayList<>(plan.negativeLookbehinds.size());
+        for (Pair<Pattern, Pattern> pair : plan.negativeLookbehinds) {
+            negativeLookbehindMatches.add(getMatchesSimple(pair.getValue0(), source));
+            nextMatches.add(new HashMap<>());
+        }
 
-        while (startPos >= 0) {
-            closePos = getClosePos(rawRegex, startPos);
-            Pattern nlbRegex = Pattern.compile(rawRegex.substring(startPos, closePos + 1), flags);
-            String nextRegex = getNextRegex(rawRegex, startPos);
+        List<Match> realMatches = new ArrayList<>();
+        for (Match match : tempMatches) {
+            if (isCleanMatch(regex, source, match, plan, negativeLookbehindMatches, nextMatches)) {
+                realMatches.add(match);
+            }
+        }
 
-            negativeLookbehindRegexes.add(Pair.with(nlbRegex, nextRegex != null ? Pattern.compile(nextRegex, flags) : null));
+        return realMatches.toArray(new Match[realMatches.size()]);
+    }
 
-            rawRegex = rawRegex.substring(0, startPos) + rawRegex.substring(closePos + 1);
-            startPos = rawRegex.indexOf("(?<nlbii");
-        }
+    private static boolean isCleanMatch(Pattern regex, String source, Match match, LookbehindPlan plan,
+                                        List<Match[]> negativeLookbehindMatches, List<Map<Match, Match>> nextMatches) {
 
-        Pattern tempRegex = Pattern.compile(rawRegex, flags);
-        Match[] tempMatches = getMatchesSimple(tempRegex, source);
+        Match[] preMatches = null;
 
-        Arrays.stream(tempMatches).forEach(match -> {
+        for (int i = 0; i < plan.negativeLookbehinds.size(); i++) {
 
-            AtomicBoolean isClean = new AtomicBoolean(true);
-            negativeLookbehindRegexes.forEach((pair) -> {
+            Pattern nextRegex = plan.negativeLookbehinds.get(i).getValue1();
+            Map<Match, Match> nextMatchCache = nextMatches.get(i);
 
-                Pattern currRegex = pair.getValue0();
-                Match[] negativeLookbehindMatches = getMatchesSimple(currRegex, source);
-                Arrays.stream(negativeLookbehindMatches).forEach(negativeLookbehindMatch -> {
+            for (Match negativeLookbehindMatch : negativeLookbehindMatches.get(i)) {
 
-                    int negativeLookbehindEnd = negativeLookbehindMatch.index + negativeLookbehindMatch.length;
-                    Pattern nextRegex = pair.getValue1();
+                int negativeLookbehindEnd = negativeLookbehindMatch.index + negativeLookbehindMatch.length;
 
-                    if (match.index == negativeLookbehindEnd) {
+                if (match.index == negativeLookbehindEnd) {
 
-                        if (nextRegex == null) {
-                            isClean.set(false);
-                            return;
-                        } else {
-                            Match nextMatch = getFirstMatchIndex(nextRegex, source.substring(negativeLookbehindMatch.index));
-                            if (nextMatch != null && ((nextMatch.index == negativeLookbehindMatch.length) || (source.contains(nextMatch.value + match.value)))) {
-                                isClean.set(false);
-                                return;
-                            }
+                    if (nextRegex == null) {
+                        return false;
+                    }
 
-                        }
+                    Match nextMatch;
+                    if (nextMatchCache.containsKey(negativeLookbehindMatch)) {
+                        nextMatch = nextMatchCache.get(negativeLookbehindMatch);
+                    } else {
+                        nextMatch = getFirstMatchIndex(nextRegex, source.substring(negativeLookbehindMatch.index));
+                        nextMatchCache.put(negativeLookbehindMatch, nextMatch);
+                    }
+
+                    if (nextMatch != null && ((nextMatch.index == negativeLookbehindMatch.length) || (source.contains(nextMatch.value + match.value)))) {
+                        return false;
                     }
+                }
 
-                    if (negativeLookbehindMatch.value.contains(match.value)) {
+                if (negativeLookbehindMatch.value.contains(match.value)) {
 
-                        Match[] preMatches = getMatchesSimple(regex, source.substring(0, match.index));
-                        Arrays.stream(preMatches).forEach(preMatch -> {
-                            if (source.contains(preMatch.value + match.value)) {
-                                isClean.set(false);
-                                return;
-                            }
-                        });
+                    if (preMatches == null) {
+                        preMatches = getMatchesSimple(regex, source.substring(0, match.index));
                     }
-                });
 
-                if (!isClean.get()) {
-                    return;
+                    for (Match preMatch : preMatches) {
+                        if (source.contains(preMatch.value + match.value)) {
+                            return false;
+                        }
+                    }
                 }
-            });
-
-            if (isClean.get()) {
-                realMatches.add(match);
             }
-        });
+        }
 
-        return realMatches.toArray(new Match[realMatches.size()]);
+        return true;
+    }
+
+    private static LookbehindPlan getLookbehindPlan(Pattern regex) {
+
+        LookbehindPlan plan = lookbehindPlans.get(regex);
+        if (plan == null) {
+            plan = LookbehindPlan.compile(regex);
+            lookbehindPlans.put(regex, plan);
+        }
+
+        return plan == LookbehindPlan.NONE ? null : plan;
     }
 
     private static String sanitizeGroups(String source) {
@@ -378,4 +393,49 @@ public abstract class RegExpUtility {
 
         return resultString.toString();
     }
-}
\ No newline at end of file
+
+    /**
+     * Negative lookbehinds are not fully supported by java.util.regex, so they are emulated by
+     * stripping the (?<nlbii...) groups from the pattern and checking the stripped groups
+     * separately. The plan holds the compiled patterns so they are built once per source pattern.
+     */
+    private static final class LookbehindPlan {
+
+        private static final LookbehindPlan NONE = new LookbehindPlan(null, Collections.emptyList());
+
+        private final Pattern mainRegex;
+        private final List<Pair<Pattern, Pattern>> negativeLookbehinds;
+
+        private LookbehindPlan(Pattern mainRegex, List<Pair<Pattern, Pattern>> negativeLookbehinds) {
+            this.mainRegex = mainRegex;
+            this.negativeLookbehinds = negativeLookbehinds;
+        }
+
+        private static LookbehindPlan compile(Pattern regex) {
+
+            String rawRegex = regex.pattern();
+            if (!rawRegex.contains("(?<nlbii")) {
+                return NONE;
+            }
+
+            List<Pair<Pattern, Pattern>> negativeLookbehindRegexes = new ArrayList<>();
+            int flags = regex.flags();
+
+            int closePos = 0;
+            int startPos = rawRegex.indexOf("(?<nlbii", 0);
+
+            while (startPos >= 0) {
+                closePos = getClosePos(rawRegex, startPos);
+                Pattern nlbRegex = Pattern.compile(rawRegex.substring(startPos, closePos + 1), flags);
+                String nextRegex = getNextRegex(rawRegex, startPos);
+
+                negativeLookbehindRegexes.add(Pair.with(nlbRegex, nextRegex != null ? Pattern.compile(nextRegex, flags) : null));
+
+                rawRegex = rawRegex.substring(0, startPos) + rawRegex.substring(closePos + 1);
+                startPos = rawRegex.indexOf("(?<nlbii");
+            }
+
+            return new LookbehindPlan(Pattern.compile(rawRegex, flags), negativeLookbehindRegexes);
+        }
+    }
+}
@@ -11,6 +11,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -19,6 +20,9 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.microsoft.bot.builder.ConversationState;
 import com.microsoft.bot.builder.MemoryStorage;
+import com.microsoft.bot.builder.MessageFactory;
+import com.microsoft.bot.builder.TurnContext;
+import com.microsoft.bot.builder.TurnContextImpl;
 import com.microsoft.bot.builder.TraceTranscriptLogger;
 import com.microsoft.bot.builder.TranscriptLoggerMiddleware;
 import com.microsoft.bot.builder.UserState;
@@ -33,7 +37,11 @@ import com.microsoft.bot.dialogs.memory.pathresolvers.AtPathResolver;
 import com.microsoft.bot.dialogs.memory.pathresolvers.DollarPathResolver;
 import com.microsoft.bot.dialogs.memory.pathresolvers.HashPathResolver;
 import com.microsoft.bot.dialogs.memory.pathresolvers.PercentPathResolver;
+import com.microsoft.bot.dialogs.memory.scopes.BotStateMemoryScope;
+import com.microsoft.bot.dialogs.memory.scopes.ConversationMemoryScope;
 import com.microsoft.bot.dialogs.memory.scopes.MemoryScope;
+import com.microsoft.bot.schema.Activity;
+import com.microsoft.bot.schema.ConversationAccount;
 import com.microsoft.bot.schema.ResultPair;
 
 import org.junit.Rule;
@@ -49,6 +57,76 @@ public class DialogStateManagerTests {
     @Rule
     public TestName name = new TestName();
 
+    @Test
+    public void testLoadAllScopesReadsSharedStateOnce() {
+        CompletableFuture<Void> storageReady = new CompletableFuture<>();
+        AtomicInteger reads = new AtomicInteger();
+        MemoryStorage storage = new MemoryStorage() {
+            @Override
+            public CompletableFuture<Map<String, Object>> read(String[] keys) {
+                reads.incrementAndGet();
+                return storageReady.thenCompose(result -> super.read(keys));
+            }
+        };
+
+        Activity activity = MessageFactory.text("hi");
+        activity.setChannelId("test");
+        activity.setConversation(new ConversationAccount("convo1"));
+        TurnContext turnContext = new TurnContextImpl(new TestAdapter(), activity);
+        turnContext.getTurnState().add(new ConversationState(storage));
+
+        DialogStateManagerConfiguration configuration = new DialogStateManagerConfiguration();
+        configuration.setMemoryScopes(Arrays.asList(
+            new ConversationMemoryScope(),
+            new BotStateMemoryScope<>(ConversationState.class, "sameConversation")
+        ));
+        DialogContext dc = new DialogContext(new DialogSet(), turnContext, new DialogState());
+        DialogStateManager stateManager = new DialogStateManager(dc, configuration);
+
+        // Loading doesn't wait on storage, and both scopes share one read.
+        CompletableFuture<Void> loaded = stateManager.loadAllScopes();
+        Assert.assertFalse(loaded.isDone());
+        storageReady.complete(null);
+        loaded.join();
+        Assert.assertEquals(1, reads.get());
+    }
+
+    @Test
+    public void testOverriddenBotStateScopeIsCalled() {
+        Activity activity = MessageFactory.text("hi");
+        activity.setChannelId("test");
+        activity.setConversation(new ConversationAccount("convo1"));
+        TurnContext turnContext = new TurnContextImpl(new TestAdapter(), activity);
+        turnContext.getTurnState().add(new ConversationState(new MemoryStorage()));
+
+        List<String> calls = new ArrayList<>();
+        BotStateMemoryScope<ConversationState> overridden =
+            new BotStateMemoryScope<ConversationState>(ConversationState.class, "overridden") {
+                @Override
+                public CompletableFuture<Void> load(DialogContext dialogContext, Boolean force) {
+                    calls.add("load");
+                    return super.load(dialogContext, force);
+                }
+
+                @Override
+                public CompletableFuture<Void> saveChanges(DialogContext dialogContext, Boolean force) {
+                    calls.add("saveChanges");
+                    return super.saveChanges(dialogContext, force);
+                }
+            };
+        Assert.assertFalse(overridden.hasDefaultPersistence());
+        Assert.assertTrue(new ConversationMemoryScope().hasDefaultPersistence());
+
+        DialogStateManagerConfiguration configuration = new DialogStateManagerConfiguration();
+        configuration.setMemoryScopes(Arrays.asList(new ConversationMemoryScope(), overridden));
+        DialogContext dc = new DialogContext(new DialogSet(), turnContext, new DialogState());
+        DialogStateManager stateManager = new DialogStateManager(dc, configuration);
+
+        stateManager.loadAllScopes().join();
+        stateManager.saveAllChanges().join();
+        Assert.assertEquals(Arrays.asList("load", "saveChanges"), calls);
+    }
+
     @Test
     public void testMemoryScopeNullChecks() {
         DialogTestFunction testFunction = dialogContext -> {
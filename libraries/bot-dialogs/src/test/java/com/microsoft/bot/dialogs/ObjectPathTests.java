@@ -6,6 +6,8 @@ package com.microsoft.bot.dialogs;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.microsoft.bot.schema.Serialization;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -470,6 +472,52 @@ public class ObjectPathTests {
         }
     }
 
+    @Test
+    public void compiledPathResolvesBracketsPerObject() {
+        Map<String, Object> values = new HashMap<>();
+        values.put("a", 1);
+        values.put("b", 2);
+
+        Map<String, Object> first = new HashMap<>();
+        first.put("key", "a");
+        first.put("values", values);
+
+        Map<String, Object> second = new HashMap<>();
+        second.put("key", "b");
+        second.put("values", values);
+
+        // The same path is compiled once, the bracket expression is still resolved for each object.
+        Assert.assertEquals(Integer.valueOf(1), ObjectPath.getPathValue(first, "values[key]", Integer.class));
+        Assert.assertEquals(Integer.valueOf(2), ObjectPath.getPathValue(second, "values[key]", Integer.class));
+        Assert.assertEquals(Integer.valueOf(2), ObjectPath.getPathValue(first, "VALUES['b']", Integer.class));
+    }
+
+    @Test
+    public void propertiesUseAccessors() {
+        Account account = new Account();
+        ObjectPath.setPathValue(account, "Name", "joe", false);
+
+        Assert.assertEquals("joe", account.getName());
+        Assert.assertEquals("joe", ObjectPath.getPathValue(account, "name", String.class));
+        Assert.assertTrue(ObjectPath.containsProperty(account, "NAME"));
+    }
+
+    @Test
+    public void jsonPropertiesAreMatchedOnTheObjectOnly() throws IOException {
+        JsonNode node = Serialization.jsonToTree("{\"options\": {\"name\": \"nested\"}, \"name\": \"top\"}");
+
+        Assert.assertTrue(ObjectPath.containsProperty(node, "name"));
+        Assert.assertFalse(ObjectPath.containsProperty(node, "age"));
+        Assert.assertFalse(ObjectPath.containsProperty(node.get("options"), "options"));
+
+        JsonNode nested = Serialization.jsonToTree("{\"options\": {\"age\": 1}}");
+        Assert.assertFalse(ObjectPath.containsProperty(nested, "age"));
+
+        Map<String, Object> properties = new HashMap<>();
+        ObjectPath.forEachProperty(node, properties::put);
+        Assert.assertEquals("top", ((JsonNode) properties.get("name")).asText());
+    }
+
     // Test classes
     //
     // Note: This is different from the support dotnet provides due to Java
@@ -503,4 +551,16 @@ public class ObjectPathTests {
         public Options options;
         public int[] numbers;
     }
+
+    public static class Account {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String withName) {
+            name = withName;
+        }
+    }
 }
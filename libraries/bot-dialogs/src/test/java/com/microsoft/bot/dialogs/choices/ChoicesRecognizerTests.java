@@ -3,8 +3,10 @@
 
 package com.microsoft.bot.dialogs.choices;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -111,6 +113,46 @@ public class ChoicesRecognizerTests {
         Assert.assertEquals(0, found.size());
     }
 
+    @Test
+    public void shouldFindChoicesWithACompiledMatcher() {
+        List<Choice> choices = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            choices.add(new Choice("item " + i));
+        }
+        Choice last = new Choice("Bread Pudding");
+        last.setSynonyms(Arrays.asList("dessert"));
+        choices.add(last);
+
+        ChoiceMatcher matcher = new ChoiceMatcher(choices, null);
+        for (int i = 0; i < 2; i++) {
+            List<ModelResult<FoundChoice>> found = matcher.find("the BREAD pudding and item 42 please.");
+            Assert.assertEquals(2, found.size());
+            assertResult(found.get(0), 4, 16, "BREAD pudding");
+            assertChoice(found.get(0), "Bread Pudding", 200, 1.0f, "Bread Pudding");
+            assertResult(found.get(1), 22, 28, "item 42");
+            assertChoice(found.get(1), "item 42", 42, 1.0f, "item 42");
+        }
+
+        List<ModelResult<FoundChoice>> found = matcher.find("just dessert");
+        Assert.assertEquals(1, found.size());
+        assertChoice(found.get(0), "Bread Pudding", 200, 1.0f, "dessert");
+    }
+
+    @Test
+    public void shouldReuseMatchersForEqualChoices() {
+        List<Choice> choices = colorChoices.stream().map(Choice::new).collect(Collectors.toList());
+        ChoiceMatcher matcher = ChoiceMatcher.forChoices(choices, null);
+
+        List<Choice> sameChoices = colorChoices.stream().map(Choice::new).collect(Collectors.toList());
+        Assert.assertSame(matcher, ChoiceMatcher.forChoices(sameChoices, null));
+
+        sameChoices.get(0).setSynonyms(Arrays.asList("crimson"));
+        ChoiceMatcher changed = ChoiceMatcher.forChoices(sameChoices, null);
+        Assert.assertNotSame(matcher, changed);
+        Assert.assertEquals(0, matcher.find("crimson").size());
+        assertChoice(changed.find("crimson").get(0), "red", 0, 1.0f, "crimson");
+    }
+
     //
     // RecognizeChoices
     //
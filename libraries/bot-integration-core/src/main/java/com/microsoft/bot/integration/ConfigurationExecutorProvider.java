@@ -0,0 +1,110 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.microsoft.bot.integration;
+
+import com.microsoft.bot.connector.BoundedExecutorProvider;
+import com.microsoft.bot.connector.ExecutorFactory;
+import com.microsoft.bot.connector.ExecutorProvider;
+import com.microsoft.bot.connector.ForkJoinExecutorProvider;
+import com.microsoft.bot.connector.VirtualThreadExecutorProvider;
+import java.util.concurrent.ExecutorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executor provider which uses Configuration to choose the executors.
+ *
+ * <p>
+ * The "ExecutorType" entry selects the provider:
+ * </p>
+ * <ul>
+ * <li>"ForkJoin": a {@link ForkJoinExecutorProvider}, with "ExecutorIoThreads"
+ * threads if set.</li>
+ * <li>"Bounded": a {@link BoundedExecutorProvider}, sized by
+ * "ExecutorCpuThreads", "ExecutorIoThreads" and "ExecutorQueueCapacity" where
+ * set.</li>
+ * <li>"Virtual": a {@link VirtualThreadExecutorProvider}, or the current
+ * provider if the JDK doesn't support virtual threads.</li>
+ * </ul>
+ * <p>
+ * Without an "ExecutorType" entry, the provider already in use by
+ * {@link ExecutorFactory} is kept.
+ * </p>
+ */
+public class ConfigurationExecutorProvider implements ExecutorProvider {
+    private final Logger logger = LoggerFactory.getLogger(ConfigurationExecutorProvider.class);
+
+    private final ExecutorProvider provider;
+
+    /**
+     * Initializes a new instance using {@link Configuration}.
+     *
+     * @param configuration The configuration to use.
+     */
+    public ConfigurationExecutorProvider(Configuration configuration) {
+        String type = configuration.getProperty("ExecutorType");
+        int cpuThreads = getInt(configuration, "ExecutorCpuThreads", Runtime.getRuntime().availableProcessors());
+        int ioThreads = getInt(
+            configuration,
+            "ExecutorIoThreads",
+            Runtime.getRuntime().availableProcessors() * BoundedExecutorProvider.DEFAULT_IO_THREADS_PER_PROCESSOR
+        );
+
+        if (type == null || type.isEmpty()) {
+            provider = ExecutorFactory.getExecutorProvider();
+        } else if ("ForkJoin".equalsIgnoreCase(type)) {
+            provider = configuration.getProperty("ExecutorIoThreads") != null
+                ? new ForkJoinExecutorProvider(ioThreads)
+                : new ForkJoinExecutorProvider();
+        } else if ("Bounded".equalsIgnoreCase(type)) {
+            provider = new BoundedExecutorProvider(
+                cpuThreads,
+                ioThreads,
+                getInt(configuration, "ExecutorQueueCapacity", BoundedExecutorProvider.DEFAULT_QUEUE_CAPACITY)
+            );
+        } else if ("Virtual".equalsIgnoreCase(type)) {
+            if (VirtualThreadExecutorProvider.isSupported()) {
+                provider = new VirtualThreadExecutorProvider();
+            } else {
+                logger.warn("Virtual threads are not supported by this JDK, using the default executors");
+                provider = ExecutorFactory.getExecutorProvider();
+            }
+        } else {
+            throw new IllegalArgumentException(String.format("Unknown ExecutorType: %s", type));
+        }
+    }
+
+    /**
+     * Gets the executor for general work.
+     *
+     * @return An ExecutorService.
+     */
+    @Override
+    public ExecutorService getExecutor() {
+        return provider.getExecutor();
+    }
+
+    /**
+     * Gets the executor for CPU bound work.
+     *
+     * @return An ExecutorService.
+     */
+    @Override
+    public ExecutorService getCpuExecutor() {
+        return provider.getCpuExecutor();
+    }
+
+    private static int getInt(Configuration configuration, String key, int defaultValue) {
+        String value = configuration.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("%s must be a number: %s", key, value), e);
+        }
+    }
+}
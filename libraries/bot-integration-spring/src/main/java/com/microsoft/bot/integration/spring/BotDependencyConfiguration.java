@@ -9,6 +9,7 @@ import com.microsoft.bot.builder.Storage;
 import com.microsoft.bot.builder.UserState;
 import com.microsoft.bot.builder.inspection.InspectionState;
 import com.microsoft.bot.connector.ExecutorFactory;
+import com.microsoft.bot.connector.ExecutorProvider;
 import com.microsoft.bot.connector.authentication.AuthenticationConfiguration;
 import com.microsoft.bot.connector.authentication.ChannelProvider;
 import com.microsoft.bot.connector.authentication.CredentialProvider;
@@ -17,7 +18,9 @@ import com.microsoft.bot.integration.ClasspathPropertiesConfiguration;
 import com.microsoft.bot.integration.Configuration;
 import com.microsoft.bot.integration.ConfigurationChannelProvider;
 import com.microsoft.bot.integration.ConfigurationCredentialProvider;
+import com.microsoft.bot.integration.ConfigurationExecutorProvider;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.DependsOn;
 
 import java.util.concurrent.ExecutorService;
 
@@ -36,18 +39,36 @@ import java.util.concurrent.ExecutorService;
  * </p>
  */
 public abstract class BotDependencyConfiguration {
+    /**
+     * Returns the ExecutorProvider for the application, and installs it as the
+     * SDK wide provider in {@link ExecutorFactory}.
+     *
+     * By default, it uses the {@link ConfigurationExecutorProvider} class.
+     * Default scope of Singleton.
+     *
+     * @param configuration The Configuration object to read from.
+     * @return An ExecutorProvider object.
+     */
+    @Bean
+    public ExecutorProvider getExecutorProvider(Configuration configuration) {
+        ExecutorProvider provider = new ConfigurationExecutorProvider(configuration);
+        ExecutorFactory.setExecutorProvider(provider);
+        return provider;
+    }
+
     /**
      * Returns an ExecutorService.
      *
      * <p>
-     * For now, return the bot-connector ExecutorService. This is an area of
-     * consideration. The goal here is to have a common ExecutorService to avoid
-     * multiple thread pools.
+     * This is the bot-connector ExecutorService, so the application and the SDK
+     * share a common ExecutorService rather than multiple thread pools. It comes
+     * from the ExecutorProvider bean.
      * </p>
      *
      * @return An ExecutorService.
      */
     @Bean
+    @DependsOn("getExecutorProvider")
     public ExecutorService getExecutorService() {
         return ExecutorFactory.getExecutor();
     }
@@ -23,11 +23,13 @@ import java.time.Clock;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -150,6 +152,13 @@ public class Activity {
     @JsonInclude(JsonInclude.Include.NON_EMPTY)
     private Object channelData;
 
+    // Typed views of the channel data and entities, reused until those change.
+    @JsonIgnore
+    private volatile ChannelDataViews channelDataViews;
+
+    @JsonIgnore
+    private volatile MentionsView mentionsView;
+
     @JsonProperty(value = "action")
     @JsonInclude(JsonInclude.Include.NON_EMPTY)
     private String action;
@@ -350,54 +359,18 @@ public class Activity {
      * @return new cloned activity
      */
     public static Activity clone(Activity activity) {
-        Activity cloned = new Activity(activity.getType());
-        cloned.setId(activity.getId());
-        cloned.setTimestamp(activity.getTimestamp());
-        cloned.setLocalTimestamp(activity.getLocalTimestamp());
-        cloned.setLocalTimeZone(activity.getLocalTimezone());
-        cloned.setChannelData(activity.getChannelData());
+        Activity cloned = snapshot(activity);
         cloned.setFrom(ChannelAccount.clone(activity.getFrom()));
         cloned.setRecipient(ChannelAccount.clone(activity.getRecipient()));
         cloned.setConversation(ConversationAccount.clone(activity.getConversation()));
-        cloned.setChannelId(activity.getChannelId());
-        cloned.setServiceUrl(activity.getServiceUrl());
-        cloned.setChannelId(activity.getChannelId());
         cloned.setEntities(Entity.cloneList(activity.getEntities()));
-        cloned.setReplyToId(activity.getReplyToId());
-        cloned.setSpeak(activity.getSpeak());
-        cloned.setText(activity.getText());
-        cloned.setInputHint(activity.getInputHint());
-        cloned.setSummary(activity.getSummary());
         cloned.setSuggestedActions(SuggestedActions.clone(activity.getSuggestedActions()));
         cloned.setAttachments(Attachment.cloneList(activity.getAttachments()));
-        cloned.setAction(activity.getAction());
-        cloned.setLabel(activity.getLabel());
-        cloned.setValueType(activity.getValueType());
-        cloned.setValue(activity.getValue());
-        cloned.setName(activity.getName());
         cloned.setRelatesTo(ConversationReference.clone(activity.getRelatesTo()));
-        cloned.setCode(activity.getCode());
-        cloned.setExpiration(activity.getExpiration());
-        cloned.setImportance(activity.getImportance());
-        cloned.setDeliveryMode(activity.getDeliveryMode());
-        cloned.setTextHighlights(activity.getTextHighlights());
-        cloned.setCallerId(activity.getCallerId());
-        cloned.setHistoryDisclosed(activity.getHistoryDisclosed());
-        cloned.setLocale(activity.getLocale());
         cloned.setReactionsAdded(MessageReaction.cloneList(activity.getReactionsAdded()));
         cloned.setReactionsRemoved(MessageReaction.cloneList(activity.getReactionsRemoved()));
-        cloned.setExpiration(activity.getExpiration());
         cloned.setMembersAdded(ChannelAccount.cloneList(activity.getMembersAdded()));
         cloned.setMembersRemoved(ChannelAccount.cloneList(activity.getMembersRemoved()));
-        cloned.setTextFormat(activity.getTextFormat());
-        cloned.setAttachmentLayout(activity.getAttachmentLayout());
-        cloned.setTopicName(activity.getTopicName());
-        if (activity.getListenFor() != null) {
-            cloned.setListenFor(new ArrayList<>(activity.getListenFor()));
-        }
-        for (Map.Entry<String, JsonNode> entry : activity.getProperties().entrySet()) {
-            cloned.setProperties(entry.getKey(), entry.getValue());
-        }
 
         if (cloned.getId() == null) {
             cloned.setId(String.format("g_%s", UUID.randomUUID().toString()));
@@ -406,6 +379,73 @@ public class Activity {
         return cloned;
     }
 
+    /**
+     * Creates a shallow copy of an activity, for callers that only read it.
+     *
+     * Unlike {@link #clone(Activity)}, the accounts, entities, attachments and
+     * other nested objects are shared with the original rather than copied. The
+     * lists are copied, so adding or removing items on either activity does not
+     * affect the other, but changes made to a nested object are visible through
+     * both. To change a nested object of the copy, replace it instead.
+     *
+     * @param activity The activity to copy.
+     * @return A new activity with the same values.
+     */
+    public static Activity snapshot(Activity activity) {
+        Activity copy = new Activity(activity.getType());
+        copy.setId(activity.getId());
+        copy.setTimestamp(activity.getTimestamp());
+        copy.setLocalTimestamp(activity.getLocalTimestamp());
+        copy.setLocalTimeZone(activity.getLocalTimezone());
+        copy.setChannelData(activity.getChannelData());
+        copy.setFrom(activity.getFrom());
+        copy.setRecipient(activity.getRecipient());
+        copy.setConversation(activity.getConversation());
+        copy.setChannelId(activity.getChannelId());
+        copy.setServiceUrl(activity.getServiceUrl());
+        copy.setEntities(copyList(activity.getEntities()));
+        copy.setReplyToId(activity.getReplyToId());
+        copy.setSpeak(activity.getSpeak());
+        copy.setText(activity.getText());
+        copy.setInputHint(activity.getInputHint());
+        copy.setSummary(activity.getSummary());
+        copy.setSuggestedActions(activity.getSuggestedActions());
+        copy.setAttachments(copyList(activity.getAttachments()));
+        copy.setAction(activity.getAction());
+        copy.setLabel(activity.getLabel());
+        copy.setValueType(activity.getValueType());
+        copy.setValue(activity.getValue());
+        copy.setName(activity.getName());
+        copy.setRelatesTo(activity.getRelatesTo());
+        copy.setCode(activity.getCode());
+        copy.setExpiration(activity.getExpiration());
+        copy.setImportance(activity.getImportance());
+        copy.setDeliveryMode(activity.getDeliveryMode());
+        copy.setTextHighlights(copyList(activity.getTextHighlights()));
+        copy.setCallerId(activity.getCallerId());
+        copy.setHistoryDisclosed(activity.getHistoryDisclosed());
+        copy.setLocale(activity.getLocale());
+        copy.setReactionsAdded(copyList(activity.getReactionsAdded()));
+        copy.setReactionsRemoved(copyList(activity.getReactionsRemoved()));
+        copy.setMembersAdded(copyList(activity.getMembersAdded()));
+        copy.setMembersRemoved(copyList(activity.getMembersRemoved()));
+        copy.setTextFormat(activity.getTextFormat());
+        copy.setAttachmentLayout(activity.getAttachmentLayout());
+        copy.setTopicName(activity.getTopicName());
+        copy.setListenFor(copyList(activity.getListenFor()));
+        for (Map.Entry<String, JsonNode> entry : activity.getProperties().entrySet()) {
+            copy.setProperties(entry.getKey(), entry.getValue());
+        }
+
+        // The converted channel data isn't shared, since callers may change it
+        // and set it back on either activity.
+        return copy;
+    }
+
+    private static <T> List<T> copyList(List<T> list) {
+        return list != null ? new ArrayList<>(list) : null;
+    }
+
     /**
      * Gets the {@link ActivityTypes} of the activity.
      *
@@ -882,6 +922,7 @@ public class Activity {
      */
     public void setEntities(List<Entity> withEntities) {
         this.entities = withEntities;
+        this.mentionsView = null;
     }
 
     /**
@@ -914,6 +955,7 @@ public class Activity {
      */
     public void setChannelData(Object withChannelData) {
         this.channelData = withChannelData;
+        this.channelDataViews = null;
     }
 
     /**
@@ -1437,24 +1479,36 @@ public class Activity {
      * intended for use with a message activity, where the activity
      * {@link Activity#type} is set to {@link ActivityTypes#MESSAGE}.
      *
+     * The mentions are converted once and reused until the entities change,
+     * including changes made in place to the list or to an entity, so the
+     * returned {@link Mention} objects are shared by later calls.
+     *
      * @return The array of mentions; or an empty array, if none are found.
      */
     @JsonIgnore
     public List<Mention> getMentions() {
-        if (this.getEntities() == null) {
+        List<Entity> currentEntities = this.getEntities();
+        if (currentEntities == null) {
             return Collections.emptyList();
         }
 
-        return this.getEntities()
-            .stream()
-            .filter(entity -> entity.getType().equalsIgnoreCase("mention"))
-            .map(entity -> entity.getAs(Mention.class))
-            .collect(Collectors.toCollection(ArrayList::new));
+        MentionsView view = this.mentionsView;
+        if (view == null || !view.isCurrent(currentEntities)) {
+            view = new MentionsView(currentEntities);
+            this.mentionsView = view;
+        }
+
+        return new ArrayList<>(view.mentions);
     }
 
     /**
      * Get channelData as typed structure.
      *
+     * The converted value is reused by later calls until the channel data is
+     * set. A {@link JsonNode} is also picked up when it is changed in place, but
+     * other channel data, such as a Map, must be set again after such a change.
+     * Changes made to the converted value only take effect once it is set.
+     *
      * @param classType Class of TypeT to use
      * @param <TypeT>   The type of the returned object.
      * @return typed Object or default(TypeT)
@@ -1462,15 +1516,32 @@ public class Activity {
      *                                 TypeT.
      */
     public <TypeT> TypeT getChannelData(Class<TypeT> classType) throws JsonProcessingException {
-        if (this.getChannelData() == null) {
+        Object source = this.getChannelData();
+        if (source == null) {
             return null;
         }
 
-        if (classType.isInstance(this.getChannelData())) {
-            return (TypeT) this.getChannelData();
+        if (classType.isInstance(source)) {
+            return (TypeT) source;
+        }
+
+        // Other channel data is converted to a tree once. A JsonNode is compared
+        // with a copy instead, as that is cheap and catches changes made to it.
+        ChannelDataViews views = this.channelDataViews;
+        if (views == null || views.source != source || source instanceof JsonNode && !views.tree.equals(source)) {
+            JsonNode tree = source instanceof JsonNode ? ((JsonNode) source).deepCopy() : MAPPER.valueToTree(source);
+            views = new ChannelDataViews(source, tree);
+            this.channelDataViews = views;
         }
-        JsonNode node = MAPPER.valueToTree(this.getChannelData());
-        return MAPPER.treeToValue(node, classType);
+
+        Object view = views.converted.get(classType);
+        if (view == null) {
+            view = MAPPER.treeToValue(views.tree, classType);
+            if (view != null) {
+                views.converted.put(classType, view);
+            }
+        }
+        return (TypeT) view;
     }
 
     /**
@@ -1860,4 +1931,68 @@ public class Activity {
 
         return teamsChannelData != null ? teamsChannelData.getMeeting() : null;
     }
+
+    /**
+     * The channel data converted to other types, along with the tree they were
+     * converted from.
+     */
+    private static final class ChannelDataViews {
+        private final Object source;
+        private final JsonNode tree;
+        private final Map<Class<?>, Object> converted = new ConcurrentHashMap<>();
+
+        ChannelDataViews(Object withSource, JsonNode withTree) {
+            source = withSource;
+            tree = withTree;
+        }
+    }
+
+    /**
+     * The mentions converted from a list of entities, along with what the list
+     * held at the time so that changes made to it can be detected.
+     */
+    private static final class MentionsView {
+        private final List<Entity> source;
+        private final Entity[] elements;
+        private final List<String> types = new ArrayList<>();
+        private final List<Map<String, JsonNode>> properties = new ArrayList<>();
+        private final List<Mention> mentions;
+
+        MentionsView(List<Entity> withSource) {
+            source = withSource;
+            elements = withSource.toArray(new Entity[0]);
+            for (Entity entity : elements) {
+                types.add(entity != null ? entity.getType() : null);
+                properties.add(entity != null ? copyProperties(entity) : null);
+            }
+
+            mentions = Arrays.stream(elements)
+                .filter(entity -> entity.getType().equalsIgnoreCase("mention"))
+                .map(entity -> entity.getAs(Mention.class))
+                .collect(Collectors.toList());
+        }
+
+        boolean isCurrent(List<Entity> withEntities) {
+            if (withEntities != source || withEntities.size() != elements.length) {
+                return false;
+            }
+
+            for (int i = 0; i < elements.length; i++) {
+                Entity entity = withEntities.get(i);
+                if (entity != elements[i] || entity != null && (!StringUtils.equals(entity.getType(), types.get(i))
+                    || !entity.getProperties().equals(properties.get(i)))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static Map<String, JsonNode> copyProperties(Entity entity) {
+            Map<String, JsonNode> copy = new HashMap<>();
+            for (Map.Entry<String, JsonNode> property : entity.getProperties().entrySet()) {
+                copy.put(property.getKey(), property.getValue() != null ? property.getValue().deepCopy() : null);
+            }
+            return copy;
+        }
+    }
 }
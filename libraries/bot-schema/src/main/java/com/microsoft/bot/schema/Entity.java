@@ -12,7 +12,6 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -135,25 +134,13 @@ public class Entity implements EntitySerialization {
         EntitySerialization entity,
         Class<T> classType
     ) {
-        // Serialize
-        String tempJson;
+        // Convert through a tree rather than a JSON string
         try {
-            tempJson = objectMapper.writeValueAsString(entity);
-        } catch (JsonProcessingException e) {
+            return objectMapper.treeToValue(objectMapper.valueToTree(entity), classType);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
             e.printStackTrace();
             return null;
         }
-
-        // Deserialize
-        T newObj = null;
-        try {
-            newObj = objectMapper.readValue(tempJson, classType);
-        } catch (IOException e) {
-            e.printStackTrace();
-            return null;
-        }
-
-        return newObj;
     }
 
     /**
@@ -172,18 +159,10 @@ public class Entity implements EntitySerialization {
      */
     @JsonIgnore
     public <T extends EntitySerialization> Entity setAs(T obj) throws IllegalArgumentException {
-        // Serialize
-        String tempJson;
-        try {
-            tempJson = objectMapper.writeValueAsString(obj);
-        } catch (JsonProcessingException e) {
-            throw new IllegalArgumentException(e);
-        }
-
         Entity tempEntity;
         try {
-            tempEntity = objectMapper.readValue(tempJson, Entity.class);
-        } catch (IOException e) {
+            tempEntity = objectMapper.treeToValue(objectMapper.valueToTree(obj), Entity.class);
+        } catch (JsonProcessingException e) {
             throw new IllegalArgumentException(e);
         }
 
@@ -7,6 +7,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.microsoft.bot.schema.teams.TeamInfo;
 import com.microsoft.bot.schema.teams.TeamsChannelData;
 import com.microsoft.bot.schema.teams.TeamsMeetingInfo;
@@ -19,7 +20,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ActivityTest {
     @Test
@@ -694,6 +697,121 @@ public class ActivityTest {
         Assert.assertEquals(mentionsResult.get(0).getType(), "mention");
     }
 
+    @Test
+    public void GetMentionsReflectsEntityChanges() {
+        ArrayList<Entity> entities = new ArrayList<Entity>();
+        Entity mentionEntity = new Entity();
+        mentionEntity.setType("mention");
+        entities.add(mentionEntity);
+
+        Activity activity = createActivity();
+        activity.setEntities(entities);
+
+        List<Mention> first = activity.getMentions();
+        List<Mention> second = activity.getMentions();
+        Assert.assertEquals(1, second.size());
+        Assert.assertSame(first.get(0), second.get(0));
+
+        // Changes made through the list or the entity setters are picked up
+        Entity added = new Entity();
+        added.setType("mention");
+        activity.getEntities().add(added);
+        Assert.assertEquals(2, activity.getMentions().size());
+
+        added.setType("reaction");
+        Assert.assertEquals(1, activity.getMentions().size());
+
+        activity.setEntities(new ArrayList<Entity>());
+        Assert.assertTrue(activity.getMentions().isEmpty());
+    }
+
+    @Test
+    public void GetChannelDataReusesConversion() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.findAndRegisterModules();
+        Activity activity = objectMapper.readValue(ActivityTest.serializedActivityFromTeams, Activity.class);
+
+        TeamsChannelData teamsChannelData = activity.getChannelData(TeamsChannelData.class);
+        Assert.assertSame(teamsChannelData, activity.getChannelData(TeamsChannelData.class));
+        Assert.assertEquals("19:123cb42aa5a0a7e56f83@thread.skype", activity.teamsGetChannelId());
+
+        // Setting the channel data discards the conversion
+        TeamsChannelData replacement = new TeamsChannelData();
+        replacement.setTeamsChannelId("replacement");
+        activity.setChannelData(objectMapper.valueToTree(replacement));
+        Assert.assertNotSame(teamsChannelData, activity.getChannelData(TeamsChannelData.class));
+        Assert.assertEquals("replacement", activity.teamsGetChannelId());
+    }
+
+    @Test
+    public void GetMentionsReflectsInPlaceChanges() {
+        Entity mentionEntity = new Entity();
+        mentionEntity.setType("mention");
+        mentionEntity.setProperties("text", JsonNodeFactory.instance.textNode("<at>before</at>"));
+        ArrayList<Entity> entities = new ArrayList<Entity>();
+        entities.add(mentionEntity);
+
+        Activity activity = createActivity();
+        activity.setEntities(entities);
+        Assert.assertEquals("<at>before</at>", activity.getMentions().get(0).getText());
+
+        // Changes made to an entity's properties map are picked up
+        mentionEntity.getProperties().put("text", JsonNodeFactory.instance.textNode("<at>after</at>"));
+        Assert.assertEquals("<at>after</at>", activity.getMentions().get(0).getText());
+
+        // And so are changes made inside a property value
+        ObjectNode mentioned = JsonNodeFactory.instance.objectNode().put("id", "first");
+        mentionEntity.setProperties("mentioned", mentioned);
+        Assert.assertEquals("first", activity.getMentions().get(0).getMentioned().getId());
+        mentioned.put("id", "second");
+        Assert.assertEquals("second", activity.getMentions().get(0).getMentioned().getId());
+    }
+
+    @Test
+    public void GetChannelDataReflectsInPlaceChanges() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.findAndRegisterModules();
+        Activity activity = objectMapper.readValue(ActivityTest.serializedActivityFromTeams, Activity.class);
+        ObjectNode jsonChannelData = objectMapper.valueToTree(activity.getChannelData());
+        activity.setChannelData(jsonChannelData);
+        Assert.assertEquals("19:123cb42aa5a0a7e56f83@thread.skype", activity.teamsGetChannelId());
+
+        // The channel data is changed without being set again
+        jsonChannelData.put("teamsChannelId", "changed");
+        Assert.assertEquals("changed", activity.teamsGetChannelId());
+
+        Map<String, Object> channel = new HashMap<>();
+        channel.put("id", "first");
+        Map<String, Object> channelData = new HashMap<>();
+        channelData.put("channel", channel);
+        activity.setChannelData(channelData);
+        Assert.assertEquals("first", activity.teamsGetChannelId());
+
+        // Other channel data is only converted again once it is set
+        channel.put("id", "second");
+        Assert.assertEquals("first", activity.teamsGetChannelId());
+        activity.setChannelData(channelData);
+        Assert.assertEquals("second", activity.teamsGetChannelId());
+    }
+
+    @Test
+    public void TeamsNotifyUserOnCloneLeavesOriginal() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.findAndRegisterModules();
+        Activity activity = objectMapper.readValue(ActivityTest.serializedActivityFromTeams, Activity.class);
+        activity.setChannelData(objectMapper.readTree("{\"teamsChannelId\": \"channel_id\"}"));
+        Assert.assertNull(activity.teamsGetChannelData().getNotification());
+
+        Activity cloned = Activity.clone(activity);
+        cloned.teamsNotifyUser();
+        Assert.assertTrue(cloned.teamsGetChannelData().getNotification().getAlert());
+        Assert.assertNull(activity.teamsGetChannelData().getNotification());
+
+        Activity snapshot = Activity.snapshot(activity);
+        snapshot.teamsNotifyUser();
+        Assert.assertNull(activity.teamsGetChannelData().getNotification());
+    }
+
     @Test
     public void GetMentionsNull() {
         Activity activity = createActivity();
@@ -961,6 +1079,28 @@ public class ActivityTest {
         Assert.assertTrue(clonedActivity.getId() != null);
     }
 
+    @Test
+    public void SnapshotSharesNestedObjects() {
+        Activity activity = createActivity();
+        ArrayList<Attachment> attachments = new ArrayList<Attachment>();
+        attachments.add(new Attachment());
+        activity.setAttachments(attachments);
+
+        Activity snapshot = Activity.snapshot(activity);
+
+        Assert.assertEquals(activity.getId(), snapshot.getId());
+        Assert.assertEquals(activity.getText(), snapshot.getText());
+        Assert.assertSame(activity.getFrom(), snapshot.getFrom());
+        Assert.assertSame(activity.getAttachments().get(0), snapshot.getAttachments().get(0));
+
+        // The lists are copies
+        activity.getAttachments().add(new Attachment());
+        Assert.assertEquals(1, snapshot.getAttachments().size());
+
+        snapshot.setText("changed");
+        Assert.assertNotEquals("changed", activity.getText());
+    }
+
     @Test
     public void TryGetChannelData() {
         Activity activity = createActivity();